@@ -4,7 +4,6 @@
 import org.infinispan.commons.marshall.Ids;
 import org.infinispan.commons.util.Util;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
@@ -100,7 +99,7 @@ public int hashCode() {
     * @return an input stream for the bytes in the buffer
     */
    public InputStream getStream() {
-      return new ByteArrayInputStream(getBuf(), getOffset(), getLength());
+      return new UnsynchronizedByteArrayInputStream(getBuf(), getOffset(), getLength());
    }
 
    public java.nio.ByteBuffer toJDKByteBuffer() {
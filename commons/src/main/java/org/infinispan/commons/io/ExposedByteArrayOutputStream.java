@@ -36,6 +36,14 @@ public ExposedByteArrayOutputStream(int size) {
       super(size);
    }
 
+   /**
+    * Creates a new byte array output stream, which writes to {@code buf} until it needs more capacity.
+    */
+   ExposedByteArrayOutputStream(byte[] buf) {
+      super(0);
+      this.buf = buf;
+   }
+
    /**
     * Creates a new byte array output stream, with a buffer capacity of the specified size, in bytes.
     *
@@ -0,0 +1,67 @@
+package org.infinispan.commons.io;
+
+/**
+ * A per-thread pool of the byte arrays the marshallers write the bytes to, when the bytes don't outlive the
+ * marshalling, e.g. the parameters of a command, which are marshalled with the cache marshaller and then copied into
+ * the stream of the global marshaller. Marshalling them doesn't allocate, and grow, a new buffer every time.
+ * <p/>
+ * Each thread keeps a few buffers, because the marshalling is re-entrant. The buffers larger than {@link
+ * #MAX_RETAINED_SIZE} are not kept, so a single large object doesn't hold on to the memory forever. Only the byte
+ * arrays are kept by the threads, so the pool doesn't leak the classes loaded by the application.
+ * <p/>
+ * The pooled buffers must not escape: the bytes that outlive the marshalling must be written to a buffer that is not
+ * pooled, which can be handed to the caller without copying it.
+ *
+ * @since 8.0
+ */
+public final class MarshallingBufferPool {
+
+   public static final int MAX_RETAINED_SIZE = 64 * 1024;
+   private static final int MAX_POOLED = 4;
+
+   private static final ThreadLocal<byte[][]> pools = ThreadLocal.withInitial(() -> new byte[MAX_POOLED][]);
+
+   private MarshallingBufferPool() {
+   }
+
+   /**
+    * @return an empty buffer, with a capacity of at least {@code estimatedSize} bytes.
+    */
+   public static ExposedByteArrayOutputStream acquire(int estimatedSize) {
+      byte[][] pool = pools.get();
+      for (int i = MAX_POOLED - 1; i >= 0; i--) {
+         byte[] buf = pool[i];
+         // a smaller buffer would have to grow, and copy the bytes, while marshalling. it is kept for the smaller objects
+         if (buf != null && buf.length >= estimatedSize) {
+            pool[i] = null;
+            return new ExposedByteArrayOutputStream(buf);
+         }
+      }
+      return new ExposedByteArrayOutputStream(Math.max(estimatedSize, 1));
+   }
+
+   /**
+    * Returns the buffer of {@code buffer} to the pool. The caller must not use it afterwards.
+    */
+   public static void release(ExposedByteArrayOutputStream buffer) {
+      byte[] buf = buffer.getRawBuffer();
+      if (buf.length > MAX_RETAINED_SIZE) {
+         return;
+      }
+      byte[][] pool = pools.get();
+      int smallest = -1;
+      for (int i = 0; i < MAX_POOLED; i++) {
+         if (pool[i] == null) {
+            pool[i] = buf;
+            return;
+         }
+         if (smallest < 0 || pool[i].length < pool[smallest].length) {
+            smallest = i;
+         }
+      }
+      // the pool is full, keep the larger buffers
+      if (pool[smallest].length < buf.length) {
+         pool[smallest] = buf;
+      }
+   }
+}
@@ -0,0 +1,92 @@
+package org.infinispan.commons.io;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.io.InputStream;
+
+import org.jboss.marshalling.ByteInput;
+
+/**
+ * An input stream reading directly from a region of a byte array, without copying it. <p> Unlike {@link
+ * java.io.ByteArrayInputStream}, the reads are not synchronized. It also implements {@link ByteInput}, so the JBoss
+ * Marshalling unmarshallers read from the array directly instead of through an {@link InputStream} adapter. This is
+ * the counterpart of {@link ExposedByteArrayOutputStream} and it is meant to unmarshall the buffers received from the
+ * network. </p> This class is not threadsafe.
+ *
+ * @since 8.0
+ */
+@NotThreadSafe
+public final class UnsynchronizedByteArrayInputStream extends InputStream implements ByteInput {
+
+   private final byte[] buf;
+   private final int count;
+   private int pos;
+   private int mark;
+
+   public UnsynchronizedByteArrayInputStream(byte[] buf) {
+      this(buf, 0, buf.length);
+   }
+
+   /**
+    * @param buf    the array to read from. It is not copied, so it must not be modified while it is read.
+    * @param offset the position of the first byte to read.
+    * @param length the maximum number of bytes to read.
+    */
+   public UnsynchronizedByteArrayInputStream(byte[] buf, int offset, int length) {
+      this.buf = buf;
+      this.pos = offset;
+      this.mark = offset;
+      this.count = Math.min(offset + length, buf.length);
+   }
+
+   @Override
+   public int read() {
+      return pos < count ? buf[pos++] & 0xff : -1;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (pos >= count) {
+         return -1;
+      }
+      int read = Math.min(len, count - pos);
+      System.arraycopy(buf, pos, b, off, read);
+      pos += read;
+      return read;
+   }
+
+   @Override
+   public long skip(long n) {
+      long skipped = Math.max(0, Math.min(n, count - pos));
+      pos += skipped;
+      return skipped;
+   }
+
+   @Override
+   public int available() {
+      return count - pos;
+   }
+
+   @Override
+   public boolean markSupported() {
+      return true;
+   }
+
+   @Override
+   public void mark(int readLimit) {
+      mark = pos;
+   }
+
+   @Override
+   public void reset() {
+      pos = mark;
+   }
+
+   @Override
+   public void close() {
+      //nothing to release
+   }
+}
@@ -3,6 +3,7 @@
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferImpl;
 import org.infinispan.commons.io.ExposedByteArrayOutputStream;
+import org.infinispan.commons.io.UnsynchronizedByteArrayInputStream;
 import org.infinispan.commons.logging.Log;
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.commons.marshall.AbstractMarshaller;
@@ -14,7 +15,6 @@
 import org.jboss.marshalling.TraceInformation;
 import org.jboss.marshalling.Unmarshaller;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
@@ -105,7 +105,7 @@ final public void finishObjectOutput(final ObjectOutput oo) {
    @Override
    final public Object objectFromByteBuffer(final byte[] buf, final int offset, final int length) throws IOException,
            ClassNotFoundException {
-      ByteArrayInputStream is = new ByteArrayInputStream(buf, offset, length);
+      UnsynchronizedByteArrayInputStream is = new UnsynchronizedByteArrayInputStream(buf, offset, length);
       ObjectInput unmarshaller = startObjectInput(is, false);
       Object o = null;
       try {
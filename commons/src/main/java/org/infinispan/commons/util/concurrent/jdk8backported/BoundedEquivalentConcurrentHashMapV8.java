@@ -510,6 +510,9 @@ public void resize(long newSize) {
       private final Node<K, V> attachedNode;
       DequeNode<Node<K, V>> queueNode;
       boolean removed;
+      // The size this entry contributed when it was last written, so that removal and eviction
+      // don't have to recalculate it (the value may no longer be the same)
+      long size;
 
       public LRUNode(Node<K, V> item) {
          this.attachedNode = item;
@@ -591,19 +594,36 @@ public void onEntryHitRead(Node<K, V> e, V value) {
 
       @Override
       public void onEntryHitWrite(BoundedEquivalentConcurrentHashMapV8.Node<K,V> e, V value) {
+         if (countingMemory) {
+            LRUNode<K, V> eviction = (LRUNode<K, V>) e.eviction;
+            // The value can be an arbitrary object graph, so it is sized before taking the lock
+            long newSize = sizeCalculator.calculateSize(e.key, value);
+            synchronized (eviction) {
+               // The value was replaced so the stored size has to be adjusted by the difference
+               if (!eviction.removed && eviction.queueNode != null) {
+                  long difference = newSize - eviction.size;
+                  eviction.size = newSize;
+                  if (difference != 0) {
+                     incrementSizeEviction(currentSize, difference, 0);
+                  }
+               }
+            }
+         }
          onEntryHitRead(e, value);
       }
 
       @Override
       public void onEntryMiss(Node<K, V> e, V value) {
          LRUNode<K, V> eviction = (LRUNode<K, V>) e.eviction;
+         long size = sizeCalculator.calculateSize(e.key, value);
          synchronized (eviction) {
             if (!eviction.removed) {
                // increment size here
                DequeNode<Node<K, V>> queueNode = new DequeNode<>(e);
                eviction.queueNode = queueNode;
                deque.linkLast(queueNode);
-               incrementSizeEviction(currentSize, sizeCalculator.calculateSize(e.key, value), 0);
+               eviction.size = size;
+               incrementSizeEviction(currentSize, size, 0);
             }
          }
       }
@@ -622,7 +642,7 @@ public void onEntryRemove(Node<K, V> e) {
             // This is just in case if there are concurrent removes for the same key
             if (!eviction.removed) {
                eviction.removed = true;
-               incrementSizeEviction(currentSize, -sizeCalculator.calculateSize(e.key, e.val), 0);
+               incrementSizeEviction(currentSize, -eviction.size, 0);
             }
          }
       }
@@ -678,12 +698,14 @@ public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
             while (decCreate < extra) {
                Node<K, V> node = deque.pollFirst();
                boolean removed = false;
+               long nodeSize = 0;
                if (node != null) {
                   LRUNode<K, V> lruNode = (LRUNode<K, V>) node.eviction;
                   synchronized (lruNode) {
                      if (!lruNode.removed) {
                         lruNode.removed = true;
                         removed = true;
+                        nodeSize = lruNode.size;
                      }
                   }
                }
@@ -692,7 +714,7 @@ public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
                   V value = map.replaceNode(node.key, null, null, true);
                   if (value != null) {
                      evictedEntries.add(node);
-                     decCreate += sizeCalculator.calculateSize(node.key, value);
+                     decCreate += nodeSize;
                   }
                } else {
                   // This basically means there was a concurrent remove, in which case
@@ -0,0 +1,84 @@
+package org.infinispan.commons.io;
+
+import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @since 8.0
+ */
+@Test(groups = "unit", testName = "commons.io.MarshallingBufferPoolTest")
+public class MarshallingBufferPoolTest {
+
+   public void testBufferReused() {
+      ExposedByteArrayOutputStream buffer = MarshallingBufferPool.acquire(16);
+      buffer.write(1);
+      MarshallingBufferPool.release(buffer);
+
+      ExposedByteArrayOutputStream reused = MarshallingBufferPool.acquire(16);
+      assertSame(reused.getRawBuffer(), buffer.getRawBuffer());
+      assertEquals(reused.size(), 0);
+      MarshallingBufferPool.release(reused);
+   }
+
+   public void testNestedAcquire() {
+      ExposedByteArrayOutputStream outer = MarshallingBufferPool.acquire(16);
+      ExposedByteArrayOutputStream inner = MarshallingBufferPool.acquire(16);
+      assertNotSame(inner.getRawBuffer(), outer.getRawBuffer());
+      MarshallingBufferPool.release(inner);
+      MarshallingBufferPool.release(outer);
+   }
+
+   public void testSmallAndLargeBuffersNotReused() {
+      ExposedByteArrayOutputStream small = MarshallingBufferPool.acquire(16);
+      MarshallingBufferPool.release(small);
+      ExposedByteArrayOutputStream larger = MarshallingBufferPool.acquire(1024);
+      assertNotSame(larger.getRawBuffer(), small.getRawBuffer());
+      assertTrue(larger.getRawBuffer().length >= 1024);
+      //the small buffer is still pooled
+      ExposedByteArrayOutputStream reused = MarshallingBufferPool.acquire(16);
+      assertSame(reused.getRawBuffer(), small.getRawBuffer());
+      MarshallingBufferPool.release(reused);
+      MarshallingBufferPool.release(larger);
+
+      ExposedByteArrayOutputStream large = MarshallingBufferPool.acquire(MarshallingBufferPool.MAX_RETAINED_SIZE + 1);
+      MarshallingBufferPool.release(large);
+      ExposedByteArrayOutputStream next = MarshallingBufferPool.acquire(16);
+      assertNotSame(next.getRawBuffer(), large.getRawBuffer());
+      MarshallingBufferPool.release(next);
+   }
+
+   public void testSmallerBuffersReplacedWhenFull() {
+      ExposedByteArrayOutputStream[] buffers = new ExposedByteArrayOutputStream[5];
+      for (int i = 0; i < buffers.length; i++) {
+         buffers[i] = MarshallingBufferPool.acquire(1);
+      }
+      ExposedByteArrayOutputStream large = MarshallingBufferPool.acquire(4096);
+      for (ExposedByteArrayOutputStream buffer : buffers) {
+         MarshallingBufferPool.release(buffer);
+      }
+      MarshallingBufferPool.release(large);
+
+      ExposedByteArrayOutputStream reused = MarshallingBufferPool.acquire(4096);
+      assertSame(reused.getRawBuffer(), large.getRawBuffer());
+      MarshallingBufferPool.release(reused);
+   }
+
+   public void testMarshallerBuffersNotPooled() throws Exception {
+      GenericJBossMarshaller marshaller = new GenericJBossMarshaller();
+      String value = "value";
+      byte[] bytes = marshaller.objectToByteBuffer(value);
+      ByteBuffer buffer = marshaller.objectToBuffer(value);
+      assertEquals(buffer.getLength(), bytes.length);
+      //the bytes outlive the marshalling, so they are not written to a pooled buffer
+      ExposedByteArrayOutputStream pooled = MarshallingBufferPool.acquire(1);
+      assertNotSame(pooled.getRawBuffer(), buffer.getBuf());
+      MarshallingBufferPool.release(pooled);
+      assertEquals(marshaller.objectFromByteBuffer(bytes), value);
+      assertEquals(marshaller.objectFromByteBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength()), value);
+   }
+}
@@ -0,0 +1,46 @@
+package org.infinispan.commons.io;
+
+import org.jboss.marshalling.Marshalling;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @since 8.0
+ */
+@Test(groups = "unit", testName = "commons.io.UnsynchronizedByteArrayInputStreamTest")
+public class UnsynchronizedByteArrayInputStreamTest {
+
+   public void testReadRegion() {
+      byte[] bytes = {0, 1, 2, (byte) 0xff, 4, 5};
+      UnsynchronizedByteArrayInputStream is = new UnsynchronizedByteArrayInputStream(bytes, 1, 4);
+      assertEquals(is.available(), 4);
+      assertEquals(is.read(), 1);
+      byte[] read = new byte[8];
+      assertEquals(is.read(read, 2, 8 - 2), 3);
+      assertEquals(read[2], 2);
+      assertEquals(read[3], (byte) 0xff);
+      assertEquals(read[4], 4);
+      assertEquals(is.available(), 0);
+      assertEquals(is.read(), -1);
+      assertEquals(is.read(read, 0, 1), -1);
+   }
+
+   public void testSkipMarkAndReset() {
+      byte[] bytes = {0, 1, 2, 3, 4, 5};
+      UnsynchronizedByteArrayInputStream is = new UnsynchronizedByteArrayInputStream(bytes);
+      assertEquals(is.skip(2), 2);
+      is.mark(0);
+      assertEquals(is.read(), 2);
+      assertEquals(is.skip(10), 3);
+      is.reset();
+      assertEquals(is.read(), 2);
+      assertEquals(is.skip(-1), 0);
+   }
+
+   public void testUsedDirectlyAsByteInput() {
+      UnsynchronizedByteArrayInputStream is = new UnsynchronizedByteArrayInputStream(new byte[1]);
+      assertSame(Marshalling.createByteInput(is), is);
+   }
+}
@@ -82,6 +82,7 @@
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.TransactionXaAdapter;
 import org.infinispan.transaction.xa.recovery.RecoveryManager;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -102,10 +103,13 @@
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.infinispan.context.Flag.FAIL_SILENTLY;
@@ -353,10 +357,14 @@ final boolean remove(Object key, Object value, EnumSet<Flag> explicitFlags, Clas
    }
 
    private boolean removeInternal(Object key, Object value, EnumSet<Flag> explicitFlags, InvocationContext ctx) {
+      return (Boolean) executeCommandAndCommitIfNeeded(ctx, buildRemoveCommand(key, value, explicitFlags, ctx));
+   }
+
+   private RemoveCommand buildRemoveCommand(Object key, Object value, EnumSet<Flag> explicitFlags, InvocationContext ctx) {
       assertKeyValueNotNull(key, value);
       RemoveCommand command = commandsFactory.buildRemoveCommand(key, value, explicitFlags);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (Boolean) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    @Override
@@ -551,10 +559,14 @@ final V remove(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClas
 
    @SuppressWarnings("unchecked")
    private V removeInternal(Object key, EnumSet<Flag> explicitFlags, InvocationContext ctx) {
+      return (V) executeCommandAndCommitIfNeeded(ctx, buildRemoveCommand(key, explicitFlags, ctx));
+   }
+
+   private RemoveCommand buildRemoveCommand(Object key, EnumSet<Flag> explicitFlags, InvocationContext ctx) {
       assertKeyNotNull(key);
       RemoveCommand command = commandsFactory.buildRemoveCommand(key, null, explicitFlags);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    @Override
@@ -1083,11 +1095,16 @@ final V put(K key, V value, Metadata metadata,
    @SuppressWarnings("unchecked")
    private V putInternal(K key, V value, Metadata metadata,
          EnumSet<Flag> explicitFlags, InvocationContext ctx) {
+      return (V) executeCommandAndCommitIfNeeded(ctx, buildPutCommand(key, value, metadata, explicitFlags, ctx));
+   }
+
+   private PutKeyValueCommand buildPutCommand(K key, V value, Metadata metadata, EnumSet<Flag> explicitFlags,
+                                              InvocationContext ctx) {
       assertKeyValueNotNull(key, value);
       Metadata merged = applyDefaultMetadata(metadata);
       PutKeyValueCommand command = commandsFactory.buildPutKeyValueCommand(key, value, merged, explicitFlags);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    @Override
@@ -1108,12 +1125,17 @@ final V putIfAbsent(K key, V value, Metadata metadata,
    @SuppressWarnings("unchecked")
    private V putIfAbsentInternal(K key, V value, Metadata metadata,
          EnumSet<Flag> explicitFlags, InvocationContext ctx) {
+      return (V) executeCommandAndCommitIfNeeded(ctx, buildPutIfAbsentCommand(key, value, metadata, explicitFlags, ctx));
+   }
+
+   private PutKeyValueCommand buildPutIfAbsentCommand(K key, V value, Metadata metadata, EnumSet<Flag> explicitFlags,
+                                                      InvocationContext ctx) {
       assertKeyValueNotNull(key, value);
       PutKeyValueCommand command = commandsFactory.buildPutKeyValueCommand(key, value, metadata, explicitFlags);
       command.setPutIfAbsent(true);
       command.setValueMatcher(ValueMatcher.MATCH_EXPECTED);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    @Override
@@ -1152,10 +1174,15 @@ final V replace(K key, V value, Metadata metadata, EnumSet<Flag> explicitFlags,
 
    @SuppressWarnings("unchecked")
    private V replaceInternal(K key, V value, Metadata metadata, EnumSet<Flag> explicitFlags, InvocationContext ctx) {
+      return (V) executeCommandAndCommitIfNeeded(ctx, buildReplaceCommand(key, value, metadata, explicitFlags, ctx));
+   }
+
+   private ReplaceCommand buildReplaceCommand(K key, V value, Metadata metadata, EnumSet<Flag> explicitFlags,
+                                              InvocationContext ctx) {
       assertKeyValueNotNull(key, value);
       ReplaceCommand command = commandsFactory.buildReplaceCommand(key, null, value, metadata, explicitFlags);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    @Override
@@ -1174,11 +1201,17 @@ final boolean replace(K key, V oldValue, V value, Metadata metadata,
 
    private boolean replaceInternal(K key, V oldValue, V value, Metadata metadata,
          EnumSet<Flag> explicitFlags, InvocationContext ctx) {
+      return (Boolean) executeCommandAndCommitIfNeeded(ctx, buildReplaceCommand(key, oldValue, value, metadata,
+                                                                                explicitFlags, ctx));
+   }
+
+   private ReplaceCommand buildReplaceCommand(K key, V oldValue, V value, Metadata metadata,
+                                              EnumSet<Flag> explicitFlags, InvocationContext ctx) {
       assertKeyValueNotNull(key, value);
       assertValueNotNull(oldValue);
       ReplaceCommand command = commandsFactory.buildReplaceCommand(key, oldValue, value, metadata, explicitFlags);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (Boolean) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    /**
@@ -1208,6 +1241,44 @@ public X get() throws InterruptedException, ExecutionException {
       }
    }
 
+   /**
+    * Invokes a non-transactional command in the async executor. The async executor thread is released as soon as the
+    * invocation defers its result, e.g. while the command waits for the primary owner or for the backup owners, and the
+    * returned future is completed by another async executor thread once the deferred result is completed.
+    *
+    * @param ctx     the non-transactional invocation context.
+    * @param command builds the command in the async executor thread.
+    * @return a future completed with the return value of the command.
+    */
+   @SuppressWarnings("unchecked")
+   private <X> NotifyingFuture<X> invokeAsync(InvocationContext ctx, Supplier<? extends VisitableCommand> command) {
+      NotifyingFutureImpl<X> result = new NotifyingFutureImpl<X>();
+      CompletableFuture<X> invocation = new CompletableFuture<>();
+      CompletableFutures.connect(result, invocation);
+      asyncExecutor.execute(() -> {
+         try {
+            CompletableFuture<Object> stage = invoker.invokeAsync(ctx, command.get());
+            BiConsumer<Object, Throwable> complete = (returnValue, throwable) -> {
+               if (throwable == null) {
+                  invocation.complete((X) returnValue);
+               } else {
+                  invocation.completeExceptionally(CompletableFutures.extractException(throwable));
+               }
+            };
+            if (stage.isDone()) {
+               stage.whenComplete(complete);
+            } else {
+               //the listeners of the returned future must not run in the thread that completes the deferred result,
+               //which can be the thread delivering the responses
+               stage.whenCompleteAsync(complete, asyncExecutor);
+            }
+         } catch (Throwable t) {
+            invocation.completeExceptionally(t);
+         }
+      });
+      return result;
+   }
+
    @Override
    public final NotifyingFuture<V> putAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
       Metadata metadata = new EmbeddedMetadata.Builder()
@@ -1217,8 +1288,11 @@ public final NotifyingFuture<V> putAsync(K key, V value, long lifespan, TimeUnit
    }
 
    final NotifyingFuture<V> putAsync(final K key, final V value, final Metadata metadata, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
+      if (!ctx.isInTxScope()) {
+         return invokeAsync(ctx, () -> buildPutCommand(key, value, metadata, explicitFlags, ctx));
+      }
+      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> returnValue = asyncExecutor.submit(new Callable<V>() {
          @Override
          public V call() throws Exception {
@@ -1326,8 +1400,11 @@ public final NotifyingFuture<V> putIfAbsentAsync(K key, V value, long lifespan,
 
    final NotifyingFuture<V> putIfAbsentAsync(final K key, final V value, final Metadata metadata,
          final EnumSet<Flag> explicitFlags,final ClassLoader explicitClassLoader) {
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
+      if (!ctx.isInTxScope()) {
+         return invokeAsync(ctx, () -> buildPutIfAbsentCommand(key, value, metadata, explicitFlags, ctx));
+      }
+      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> returnValue = asyncExecutor.submit(new Callable<V>() {
          @Override
          public V call() throws Exception {
@@ -1360,8 +1437,11 @@ public final NotifyingFuture<V> removeAsync(Object key) {
    }
 
    final NotifyingFuture<V> removeAsync(final Object key, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
+      if (!ctx.isInTxScope()) {
+         return invokeAsync(ctx, () -> buildRemoveCommand(key, explicitFlags, ctx));
+      }
+      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> returnValue = asyncExecutor.submit(new Callable<V>() {
          @Override
          public V call() throws Exception {
@@ -1394,8 +1474,11 @@ public final NotifyingFuture<Boolean> removeAsync(Object key, Object value) {
    }
 
    final NotifyingFuture<Boolean> removeAsync(final Object key, final Object value, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
+      if (!ctx.isInTxScope()) {
+         return invokeAsync(ctx, () -> buildRemoveCommand(key, value, explicitFlags, ctx));
+      }
+      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
       Future<Boolean> returnValue = asyncExecutor.submit(new Callable<Boolean>() {
          @Override
          public Boolean call() throws Exception {
@@ -1432,8 +1515,11 @@ public final NotifyingFuture<V> replaceAsync(K key, V value, long lifespan, Time
 
    final NotifyingFuture<V> replaceAsync(final K key, final V value, final Metadata metadata,
          final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
+      if (!ctx.isInTxScope()) {
+         return invokeAsync(ctx, () -> buildReplaceCommand(key, value, metadata, explicitFlags, ctx));
+      }
+      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> returnValue = asyncExecutor.submit(new Callable<V>() {
          @Override
          public V call() throws Exception {
@@ -1470,8 +1556,11 @@ public final NotifyingFuture<Boolean> replaceAsync(K key, V oldValue, V newValue
 
    final NotifyingFuture<Boolean> replaceAsync(final K key, final V oldValue, final V newValue,
          final Metadata metadata, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
+      if (!ctx.isInTxScope()) {
+         return invokeAsync(ctx, () -> buildReplaceCommand(key, oldValue, newValue, metadata, explicitFlags, ctx));
+      }
+      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
       Future<Boolean> returnValue = asyncExecutor.submit(new Callable<Boolean>() {
          @Override
          public Boolean call() throws Exception {
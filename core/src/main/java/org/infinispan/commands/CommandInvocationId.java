@@ -39,6 +39,21 @@ public static CommandInvocationId generateIdFrom(CommandInvocationId commandInvo
       return new CommandInvocationId(commandInvocationId.address, nextId.getAndIncrement());
    }
 
+   /**
+    * Recreates the identifier generated by {@code address}, e.g. when unmarshalling a command.
+    */
+   public static CommandInvocationId create(Address address, long id) {
+      return new CommandInvocationId(address, id);
+   }
+
+   public Address getAddress() {
+      return address;
+   }
+
+   public long getId() {
+      return id;
+   }
+
 
    @Override
    public boolean equals(Object o) {
@@ -42,6 +42,7 @@
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.tx.VersionedCommitCommand;
 import org.infinispan.commands.tx.VersionedPrepareCommand;
+import org.infinispan.commands.tx.totalorder.TotalOrderBatchPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderNonVersionedPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderRollbackCommand;
@@ -395,6 +396,13 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
                transaction.setLocksHeldAtOrigin(pc.getAffectedKeys());
             }
             break;
+         case TotalOrderBatchPrepareCommand.COMMAND_ID:
+            TotalOrderBatchPrepareCommand batch = (TotalOrderBatchPrepareCommand) c;
+            if (batch.getPrepares() != null)
+               for (ReplicableCommand nested : batch.getPrepares()) {
+                  initializeReplicableCommand(nested, isRemote);
+               }
+            break;
          case CommitCommand.COMMAND_ID:
          case VersionedCommitCommand.COMMAND_ID:
          case TotalOrderCommitCommand.COMMAND_ID:
@@ -32,6 +32,7 @@
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.tx.VersionedCommitCommand;
 import org.infinispan.commands.tx.VersionedPrepareCommand;
+import org.infinispan.commands.tx.totalorder.TotalOrderBatchPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderNonVersionedPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderRollbackCommand;
@@ -237,6 +238,9 @@ public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, Strin
             case TotalOrderRollbackCommand.COMMAND_ID:
                command = new TotalOrderRollbackCommand(cacheName);
                break;
+            case TotalOrderBatchPrepareCommand.COMMAND_ID:
+               command = new TotalOrderBatchPrepareCommand(cacheName);
+               break;
             case MultipleRpcCommand.COMMAND_ID:
                command = new MultipleRpcCommand(cacheName);
                break;
@@ -82,7 +82,8 @@ public CloseableSpliterator<CacheEntry<K, V>> spliterator() {
 
       @Override
       public int size() {
-         return cache.getAdvancedCache().getDataContainer().size();
+         // the set must not count the expired entries, so the approximate size() is not enough
+         return cache.getAdvancedCache().getDataContainer().sizeExact();
       }
 
       @Override
@@ -79,7 +79,8 @@ public CloseableSpliterator<K> spliterator() {
 
       @Override
       public int size() {
-         return cache.getAdvancedCache().getDataContainer().size();
+         // the set must not count the expired entries, so the approximate size() is not enough
+         return cache.getAdvancedCache().getDataContainer().sizeExact();
       }
 
       @Override
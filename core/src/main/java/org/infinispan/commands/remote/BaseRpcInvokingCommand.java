@@ -5,10 +5,13 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.locks.RemoteLockCommand;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Base class for RPC commands.
  *
@@ -32,6 +35,16 @@ public void init(InterceptorChain interceptorChain, InvocationContextFactory icf
    }
 
    protected final Object processVisitableCommand(ReplicableCommand cacheCommand) throws Throwable {
+      return CompletableFutures.await(processVisitableCommandAsync(cacheCommand));
+   }
+
+   /**
+    * Invokes the command, without waiting for the result the invocation deferred with {@link
+    * InvocationContext#deferResult(CompletableFuture)}.
+    *
+    * @return a {@link CompletableFuture} completed with the return value of the command.
+    */
+   protected final CompletableFuture<Object> processVisitableCommandAsync(ReplicableCommand cacheCommand) throws Throwable {
       if (cacheCommand instanceof VisitableCommand) {
          VisitableCommand vc = (VisitableCommand) cacheCommand;
          final InvocationContext ctx = icf.createRemoteInvocationContextForCommand(vc, getOrigin());
@@ -40,10 +53,10 @@ protected final Object processVisitableCommand(ReplicableCommand cacheCommand) t
          }
          if (vc.shouldInvoke(ctx)) {
             if (trace) log.tracef("Invoking command %s, with originLocal flag set to %b", cacheCommand, ctx.isOriginLocal());
-            return interceptorChain.invoke(ctx, vc);
+            return interceptorChain.invokeAsync(ctx, vc);
          } else {
             if (trace) log.tracef("Not invoking command %s since shouldInvoke() returned false with context %s", cacheCommand, ctx);
-            return null;
+            return CompletableFuture.completedFuture(null);
          }
          // we only need to return values for a set of remote calls; not every call.
       } else {
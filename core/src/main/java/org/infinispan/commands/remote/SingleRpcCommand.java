@@ -3,6 +3,8 @@
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.context.InvocationContext;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Similar to {@link org.infinispan.commands.remote.MultipleRpcCommand}, but it only aggregates a single command for
  * replication.
@@ -48,6 +50,16 @@ public Object perform(InvocationContext ctx) throws Throwable {
       return processVisitableCommand(command);
    }
 
+   /**
+    * Same as {@link #perform(InvocationContext)}, but it does not block waiting for the work the invocation deferred,
+    * e.g. the replication to the backup owners.
+    *
+    * @return a {@link CompletableFuture} completed with the return value of the command.
+    */
+   public CompletableFuture<Object> performAsync() throws Throwable {
+      return processVisitableCommandAsync(command);
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -0,0 +1,105 @@
+package org.infinispan.commands.tx.totalorder;
+
+import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.remoting.responses.ExceptionResponse;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.transport.Address;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Envelope for the prepares of several transactions sent in a single total order multicast.
+ * <p/>
+ * The prepares are ordered, on each member, in the same order as they appear in this command, as if they were
+ * delivered one after the other. The response is a {@link org.infinispan.remoting.responses.SuccessfulResponse}
+ * wrapping an array with the response of each prepare, in the same order.
+ * <p/>
+ * It is usually handled by {@link org.infinispan.remoting.inboundhandler.TotalOrderTxPerCacheInboundInvocationHandler},
+ * which orders all the prepares before executing them concurrently.
+ *
+ * @since 8.0
+ */
+public class TotalOrderBatchPrepareCommand extends BaseRpcCommand {
+
+   public static final byte COMMAND_ID = 59;
+
+   private PrepareCommand[] prepares;
+
+   private TotalOrderBatchPrepareCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public TotalOrderBatchPrepareCommand(String cacheName, List<PrepareCommand> prepares) {
+      super(cacheName);
+      this.prepares = prepares.toArray(new PrepareCommand[prepares.size()]);
+   }
+
+   public TotalOrderBatchPrepareCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   /**
+    * @return the prepares, each of them also implementing {@link TotalOrderPrepareCommand}
+    */
+   public PrepareCommand[] getPrepares() {
+      return prepares;
+   }
+
+   @Override
+   public void setOrigin(Address origin) {
+      super.setOrigin(origin);
+      if (prepares != null) {
+         for (PrepareCommand prepare : prepares) {
+            prepare.setOrigin(origin);
+         }
+      }
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      //the prepares are executed one after the other, so each of them sees the outcome of the previous ones
+      Object[] responses = new Object[prepares.length];
+      for (int i = 0; i < prepares.length; i++) {
+         try {
+            responses[i] = SuccessfulResponse.create(prepares[i].perform(ctx));
+         } catch (Exception e) {
+            responses[i] = new ExceptionResponse(e);
+         }
+      }
+      return responses;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      Object[] retval = new Object[prepares.length];
+      System.arraycopy(prepares, 0, retval, 0, prepares.length);
+      return retval;
+   }
+
+   @Override
+   public void setParameters(int commandId, Object[] parameters) {
+      prepares = new PrepareCommand[parameters.length];
+      System.arraycopy(parameters, 0, prepares, 0, parameters.length);
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "TotalOrderBatchPrepareCommand{" +
+            "prepares=" + (prepares == null ? null : Arrays.asList(prepares)) +
+            ", cacheName='" + cacheName + '\'' +
+            '}';
+   }
+}
@@ -170,12 +170,17 @@ public int hashCode() {
 
    @Override
    public Set<Flag> getFlags() {
-      return EnumSet.of(Flag.SKIP_CACHE_LOAD);
+      if (flags == null || flags.isEmpty()) {
+         return EnumSet.of(Flag.SKIP_CACHE_LOAD);
+      }
+      EnumSet<Flag> allFlags = EnumSet.copyOf(flags);
+      allFlags.add(Flag.SKIP_CACHE_LOAD);
+      return allFlags;
    }
 
    @Override
    public boolean hasFlag(Flag flag) {
       // We skip cache load, since if the entry is not in memory then it wasn't updated since it last expired
-      return flag == Flag.SKIP_CACHE_LOAD;
+      return flag == Flag.SKIP_CACHE_LOAD || super.hasFlag(flag);
    }
 }
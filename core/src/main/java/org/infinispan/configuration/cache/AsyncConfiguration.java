@@ -17,15 +17,17 @@ public class AsyncConfiguration {
    public static final AttributeDefinition<Long> REPLICATION_QUEUE_INTERVAL = AttributeDefinition.builder("replicationQueueInterval", 10l).build();
    public static final AttributeDefinition<Integer> REPLICATION_QUEUE_MAX_ELEMENTS  = AttributeDefinition.builder("replicationQueueMaxElements", 1000).build();
    public static final AttributeDefinition<Boolean> USE_REPLICATION_QUEUE = AttributeDefinition.builder("useReplicationQueue", false).immutable().build();
+   public static final AttributeDefinition<Integer> BUNDLE_SIZE = AttributeDefinition.builder("bundleSize", 1).immutable().build();
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncConfiguration.class, REPLICATION_QUEUE, REPLICATION_QUEUE_INTERVAL, REPLICATION_QUEUE_MAX_ELEMENTS, USE_REPLICATION_QUEUE);
+      return new AttributeSet(AsyncConfiguration.class, REPLICATION_QUEUE, REPLICATION_QUEUE_INTERVAL, REPLICATION_QUEUE_MAX_ELEMENTS, USE_REPLICATION_QUEUE, BUNDLE_SIZE);
    }
 
    private final Attribute<ReplicationQueue> replicationQueue;
    private final Attribute<Long> replicationQueueInterval;
    private final Attribute<Integer> replicationQueueMaxElements;
    private final Attribute<Boolean> useReplicationQueue;
+   private final Attribute<Integer> bundleSize;
 
    private AttributeSet attributes;
 
@@ -36,6 +38,7 @@ static final AttributeSet attributeDefinitionSet() {
       replicationQueueInterval = attributes.attribute(REPLICATION_QUEUE_INTERVAL);
       replicationQueueMaxElements = attributes.attribute(REPLICATION_QUEUE_MAX_ELEMENTS);
       useReplicationQueue = attributes.attribute(USE_REPLICATION_QUEUE);
+      bundleSize = attributes.attribute(BUNDLE_SIZE);
    }
 
 
@@ -78,6 +81,14 @@ public boolean useReplQueue() {
       return useReplicationQueue.get();
    }
 
+   /**
+    * The maximum number of consecutive asynchronous commands, for the same recipients, that can be sent together in a
+    * single message. 1 means no bundling.
+    */
+   public int bundleSize() {
+      return bundleSize.get();
+   }
+
    @Override
    public boolean equals(Object obj) {
       if (this == obj)
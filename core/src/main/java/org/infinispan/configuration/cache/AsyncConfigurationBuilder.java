@@ -103,6 +103,17 @@ public AsyncConfigurationBuilder useReplQueue(boolean use) {
       return this;
    }
 
+   /**
+    * The maximum number of consecutive asynchronous commands, for the same recipients, that can be sent together in a
+    * single message. Commands are only bundled while another thread is sending, so bundling does not add any delay
+    * and a lightly loaded cache keeps sending a message per command. Ignored if the replication queue is used.
+    * Defaults to 1, i.e. no bundling.
+    */
+   public AsyncConfigurationBuilder bundleSize(int bundleSize) {
+      attributes.attribute(BUNDLE_SIZE).set(bundleSize);
+      return this;
+   }
+
    @Override
    public
    void validate() {
@@ -111,6 +122,9 @@ void validate() {
 
       if (attributes.attribute(USE_REPLICATION_QUEUE).get() && getClusteringBuilder().cacheMode().isSynchronous())
          throw log.replicationQueueOnlyForAsyncCaches();
+
+      if (attributes.attribute(BUNDLE_SIZE).get() < 1)
+         throw log.invalidAsyncBundleSize(attributes.attribute(BUNDLE_SIZE).get());
    }
 
    @Override
@@ -12,12 +12,21 @@
  */
 public class ClusteringConfiguration {
    public static final AttributeDefinition<CacheMode> CACHE_MODE = AttributeDefinition.builder("cacheMode",  CacheMode.LOCAL).immutable().build();
+   public static final AttributeDefinition<Long> REMOTE_GET_STAGGER_DELAY = AttributeDefinition.builder("remoteGetStaggerDelay", 0L).immutable().build();
+   public static final AttributeDefinition<RemoteGetRouting> REMOTE_GET_ROUTING = AttributeDefinition.builder("remoteGetRouting", RemoteGetRouting.ALL_OWNERS).immutable().build();
+   public static final AttributeDefinition<Integer> REMOTE_GET_BATCH_SIZE = AttributeDefinition.builder("remoteGetBatchSize", 0).immutable().build();
+   public static final AttributeDefinition<Long> REMOTE_GET_BATCH_DELAY = AttributeDefinition.builder("remoteGetBatchDelay", 50L).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ClusteringConfiguration.class, CACHE_MODE);
+      return new AttributeSet(ClusteringConfiguration.class, CACHE_MODE, REMOTE_GET_STAGGER_DELAY, REMOTE_GET_ROUTING,
+            REMOTE_GET_BATCH_SIZE, REMOTE_GET_BATCH_DELAY);
    }
 
    private final Attribute<CacheMode> cacheMode;
+   private final Attribute<Long> remoteGetStaggerDelay;
+   private final Attribute<RemoteGetRouting> remoteGetRouting;
+   private final Attribute<Integer> remoteGetBatchSize;
+   private final Attribute<Long> remoteGetBatchDelay;
    private final AsyncConfiguration asyncConfiguration;
    private final HashConfiguration hashConfiguration;
    private final L1Configuration l1Configuration;
@@ -31,6 +40,10 @@ static AttributeSet attributeDefinitionSet() {
          PartitionHandlingConfiguration partitionHandlingStrategy) {
       this.attributes = attributes.checkProtection();
       this.cacheMode = attributes.attribute(CACHE_MODE);
+      this.remoteGetStaggerDelay = attributes.attribute(REMOTE_GET_STAGGER_DELAY);
+      this.remoteGetRouting = attributes.attribute(REMOTE_GET_ROUTING);
+      this.remoteGetBatchSize = attributes.attribute(REMOTE_GET_BATCH_SIZE);
+      this.remoteGetBatchDelay = attributes.attribute(REMOTE_GET_BATCH_DELAY);
       this.asyncConfiguration = asyncConfiguration;
       this.hashConfiguration = hashConfiguration;
       this.l1Configuration = l1Configuration;
@@ -46,6 +59,42 @@ public CacheMode cacheMode() {
       return cacheMode.get();
    }
 
+   /**
+    * The delay, in milliseconds, before a remote get is sent to the next owner of the key. If 0, the remote gets are
+    * sent to all the owners at once. If negative, the delay adapts to the recent response times of the remote gets.
+    *
+    * @see ClusteringConfigurationBuilder#remoteGetStaggerDelay(long)
+    */
+   public long remoteGetStaggerDelay() {
+      return remoteGetStaggerDelay.get();
+   }
+
+   /**
+    * Which owners of a key are asked first by the remote gets. See {@link RemoteGetRouting}.
+    */
+   public RemoteGetRouting remoteGetRouting() {
+      return remoteGetRouting.get();
+   }
+
+   /**
+    * The maximum number of concurrent remote gets sent to the same owner in a single batch. If 0, the remote gets are
+    * not batched.
+    *
+    * @see ClusteringConfigurationBuilder#remoteGetBatchSize(int)
+    */
+   public int remoteGetBatchSize() {
+      return remoteGetBatchSize.get();
+   }
+
+   /**
+    * The time, in microseconds, a batch of remote gets waits for more remote gets before it is sent.
+    *
+    * @see ClusteringConfigurationBuilder#remoteGetBatchDelay(long)
+    */
+   public long remoteGetBatchDelay() {
+      return remoteGetBatchDelay.get();
+   }
+
    /**
     * Configures cluster's behaviour in the presence of partitions or node failures.
     */
@@ -1,9 +1,15 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.ClusteringConfiguration.CACHE_MODE;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.REMOTE_GET_BATCH_DELAY;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.REMOTE_GET_BATCH_SIZE;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.REMOTE_GET_ROUTING;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.REMOTE_GET_STAGGER_DELAY;
 
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
@@ -50,6 +56,70 @@ public CacheMode cacheMode() {
       return attributes.attribute(CACHE_MODE).get();
    }
 
+   /**
+    * Staggers the remote gets of distributed caches. Instead of asking all the owners of a key at the same time, the
+    * primary owner, or the owner chosen by the {@link #remoteGetRouting(RemoteGetRouting)}, is asked first and the
+    * next owner is only asked if no valid response arrived within the delay. A remote get usually costs a single
+    * request while a slow owner can delay it by at most the delay.
+    * <p/>
+    * Once a valid response arrives, the responses to the requests still outstanding are ignored. The requests are not
+    * cancelled on the owners, which still execute them and send their response.
+    *
+    * @param delay the delay in milliseconds. If 0, the default, all the owners are asked at the same time. If
+    *              negative, the delay is the 99th percentile of the response times of the remote gets of the last
+    *              minute or so.
+    */
+   public ClusteringConfigurationBuilder remoteGetStaggerDelay(long delay) {
+      attributes.attribute(REMOTE_GET_STAGGER_DELAY).set(delay);
+      return this;
+   }
+
+   /**
+    * @see #remoteGetStaggerDelay(long)
+    */
+   public ClusteringConfigurationBuilder remoteGetStaggerDelay(long delay, TimeUnit unit) {
+      return remoteGetStaggerDelay(unit.toMillis(delay));
+   }
+
+   /**
+    * Which owners of a key are asked first by the remote gets of distributed caches. Unless it is {@link
+    * RemoteGetRouting#ALL_OWNERS}, the default, the remote gets ask a single owner at a time and may read from a
+    * backup owner.
+    */
+   public ClusteringConfigurationBuilder remoteGetRouting(RemoteGetRouting routing) {
+      attributes.attribute(REMOTE_GET_ROUTING).set(routing);
+      return this;
+   }
+
+   /**
+    * Batches the concurrent remote gets of distributed caches. When a remote get is sent to an owner that is already
+    * processing another remote get from this node, it waits up to the {@link #remoteGetBatchDelay(long)} for other
+    * remote gets to the same owner, and they are all sent in a single command. A remote get sent while no other
+    * remote get is in flight is not delayed.
+    *
+    * @param maxSize the maximum number of keys in a batch. If 0, the default, the remote gets are not batched.
+    */
+   public ClusteringConfigurationBuilder remoteGetBatchSize(int maxSize) {
+      attributes.attribute(REMOTE_GET_BATCH_SIZE).set(maxSize);
+      return this;
+   }
+
+   /**
+    * @param delay the time, in microseconds, a batch of remote gets waits for more remote gets. The batch is sent
+    *              earlier if it reaches the {@link #remoteGetBatchSize(int)}.
+    */
+   public ClusteringConfigurationBuilder remoteGetBatchDelay(long delay) {
+      attributes.attribute(REMOTE_GET_BATCH_DELAY).set(delay);
+      return this;
+   }
+
+   /**
+    * @see #remoteGetBatchDelay(long)
+    */
+   public ClusteringConfigurationBuilder remoteGetBatchDelay(long delay, TimeUnit unit) {
+      return remoteGetBatchDelay(unit.toMicros(delay));
+   }
+
    /**
     * Configure async sub element. Once this method is invoked users cannot subsequently invoke
     * <code>configureSync()</code> as two are mutually exclusive
@@ -102,6 +172,12 @@ public PartitionHandlingConfigurationBuilder partitionHandling() {
    @Override
    public
    void validate() {
+      if (attributes.attribute(REMOTE_GET_BATCH_SIZE).get() < 0) {
+         throw new CacheConfigurationException("The remote get batch size cannot be negative");
+      }
+      if (attributes.attribute(REMOTE_GET_BATCH_DELAY).get() < 0) {
+         throw new CacheConfigurationException("The remote get batch delay cannot be negative");
+      }
       for (Builder<?> validatable:
             Arrays.asList(asyncConfigurationBuilder, hashConfigurationBuilder, l1ConfigurationBuilder,
                           syncConfigurationBuilder, stateTransferConfigurationBuilder, partitionHandlingConfigurationBuilder)) {
@@ -29,7 +29,8 @@ static AttributeSet attributeDefinitionSet() {
 
    /**
     * Time period that determines how often is lock acquisition attempted within maximum time
-    * allowed to acquire a particular lock
+    * allowed to acquire a particular lock. Ignored, deadlocks are detected as soon as a transaction
+    * has to wait for a lock.
     */
    public long spinDuration() {
       return attributes.attribute(SPIN_DURATION).get();
@@ -22,7 +22,8 @@ public class DeadlockDetectionConfigurationBuilder extends AbstractConfiguration
 
    /**
     * Time period that determines how often is lock acquisition attempted within maximum time
-    * allowed to acquire a particular lock
+    * allowed to acquire a particular lock. Ignored, deadlocks are detected as soon as a transaction
+    * has to wait for a lock.
     */
    public DeadlockDetectionConfigurationBuilder spinDuration(long l) {
       attributes.attribute(SPIN_DURATION).set(l);
@@ -31,7 +32,8 @@ public DeadlockDetectionConfigurationBuilder spinDuration(long l) {
 
    /**
     * Time period that determines how often is lock acquisition attempted within maximum time
-    * allowed to acquire a particular lock
+    * allowed to acquire a particular lock. Ignored, deadlocks are detected as soon as a transaction
+    * has to wait for a lock.
     */
    public DeadlockDetectionConfigurationBuilder spinDuration(long l, TimeUnit unit) {
       return spinDuration(unit.toMillis(l));
@@ -3,6 +3,8 @@
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.configuration.attributes.IdentityAttributeCopier;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.eviction.EvictionType;
@@ -15,15 +17,20 @@ public class EvictionConfiguration {
    public static final AttributeDefinition<EvictionType> TYPE  = AttributeDefinition.builder("type", EvictionType.COUNT).build();
    public static final AttributeDefinition<EvictionStrategy> STRATEGY = AttributeDefinition.builder("strategy", EvictionStrategy.NONE).immutable().build();
    public static final AttributeDefinition<EvictionThreadPolicy> THREAD_POLICY = AttributeDefinition.builder("threadPolicy", EvictionThreadPolicy.DEFAULT).immutable().build();
+   @SuppressWarnings("unchecked")
+   public static final AttributeDefinition<EntrySizeCalculator<?, ?>> SIZE_CALCULATOR = AttributeDefinition
+         .builder("sizeCalculator", null, (Class<EntrySizeCalculator<?, ?>>) (Class<?>) EntrySizeCalculator.class)
+         .copier(IdentityAttributeCopier.INSTANCE).immutable().build();
    static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(EvictionConfiguration.class, SIZE,
-            TYPE, STRATEGY, THREAD_POLICY);
+            TYPE, STRATEGY, THREAD_POLICY, SIZE_CALCULATOR);
    }
 
    private final Attribute<Long> size;
    private final Attribute<EvictionType> type;
    private final Attribute<EvictionStrategy> strategy;
    private final Attribute<EvictionThreadPolicy> threadPolicy;
+   private final Attribute<EntrySizeCalculator<?, ?>> sizeCalculator;
    private final AttributeSet attributes;
 
    EvictionConfiguration(AttributeSet attributes) {
@@ -32,6 +39,7 @@ static AttributeSet attributeDefinitionSet() {
       type = attributes.attribute(TYPE);
       strategy = attributes.attribute(STRATEGY);
       threadPolicy = attributes.attribute(THREAD_POLICY);
+      sizeCalculator = attributes.attribute(SIZE_CALCULATOR);
    }
 
    /**
@@ -70,6 +78,15 @@ public EvictionType type() {
       return type.get();
    }
 
+   /**
+    * The calculator used to approximate the size of keys and values when using the MEMORY type, or null if the
+    * default calculator should be used.
+    */
+   @SuppressWarnings("unchecked")
+   public <K, V> EntrySizeCalculator<K, V> sizeCalculator() {
+      return (EntrySizeCalculator<K, V>) sizeCalculator.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -2,12 +2,14 @@
 
 import static org.infinispan.configuration.cache.EvictionConfiguration.TYPE;
 import static org.infinispan.configuration.cache.EvictionConfiguration.SIZE;
+import static org.infinispan.configuration.cache.EvictionConfiguration.SIZE_CALCULATOR;
 import static org.infinispan.configuration.cache.EvictionConfiguration.STRATEGY;
 import static org.infinispan.configuration.cache.EvictionConfiguration.THREAD_POLICY;
 
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
@@ -97,6 +99,19 @@ public EvictionConfigurationBuilder type(EvictionType type) {
       return this;
    }
 
+   /**
+    * Sets the calculator used to approximate how much memory a key and its value occupy when using the MEMORY
+    * {@link #type(EvictionType)}.  The overhead of the entry wrapping them, including metadata and versions, is
+    * always taken into account by the cache itself.  When not specified a calculator able to size any object graph
+    * is used.
+    *
+    * @param sizeCalculator
+    */
+   public EvictionConfigurationBuilder sizeCalculator(EntrySizeCalculator<?, ?> sizeCalculator) {
+      attributes.attribute(SIZE_CALCULATOR).set(sizeCalculator);
+      return this;
+   }
+
    @Override
    public void validate() {
       EvictionStrategy strategy = attributes.attribute(STRATEGY).get();
@@ -114,6 +129,9 @@ public void validate() {
       if (strategy == EvictionStrategy.LIRS && attributes.attribute(TYPE).get() == EvictionType.MEMORY) {
          throw new CacheConfigurationException("Eviction cannot use memory based approximation with LIRS");
       }
+      if (attributes.attribute(SIZE_CALCULATOR).get() != null && attributes.attribute(TYPE).get() != EvictionType.MEMORY) {
+         throw new CacheConfigurationException("Eviction size calculator can only be used with the MEMORY eviction type");
+      }
       if (maxEntries > EVICTION_MAX_SIZE) {
          throw log.evictionSizeTooLarge(maxEntries);
       }
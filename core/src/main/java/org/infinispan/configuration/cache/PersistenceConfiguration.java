@@ -12,17 +12,20 @@
  */
 public class PersistenceConfiguration {
    public static final AttributeDefinition<Boolean> PASSIVATION = AttributeDefinition.builder("passivation", false).immutable().build();
+   public static final AttributeDefinition<Long> COLD_TIER_SIZE = AttributeDefinition.builder("coldTierSize", 0L).immutable().build();
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION);
+      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, COLD_TIER_SIZE);
    }
 
    private final Attribute<Boolean> passivation;
+   private final Attribute<Long> coldTierSize;
    private final AttributeSet attributes;
    private final List<StoreConfiguration> stores;
 
    PersistenceConfiguration(AttributeSet attributes, List<StoreConfiguration> stores) {
       this.attributes = attributes.checkProtection();
       passivation = attributes.attribute(PASSIVATION);
+      coldTierSize = attributes.attribute(COLD_TIER_SIZE);
       this.stores = stores;
    }
 
@@ -39,6 +42,15 @@ public boolean passivation() {
       return passivation.get();
    }
 
+   /**
+    * The maximum amount of memory, in bytes, used to hold passivated entries in memory, in compressed form, before
+    * they are written to the stores. Only used with passivation, 0 (the default) passivates entries straight to the
+    * stores.
+    */
+   public long coldTierSize() {
+      return coldTierSize.get();
+   }
+
    public List<StoreConfiguration> stores() {
       return stores;
    }
@@ -13,6 +13,7 @@
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.infinispan.configuration.cache.PersistenceConfiguration.COLD_TIER_SIZE;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.PASSIVATION;
 
 /**
@@ -48,6 +49,16 @@ boolean passivation() {
       return attributes.attribute(PASSIVATION).get();
    }
 
+   /**
+    * Keeps up to the given amount of memory, in bytes, of passivated entries in memory, in compressed form.  Entries
+    * are only written to the stores once this tier is full, and are activated from it without reading from the
+    * stores. Requires passivation to be enabled and the stores not to be shared.
+    */
+   public PersistenceConfigurationBuilder coldTierSize(long bytes) {
+      attributes.attribute(COLD_TIER_SIZE).set(bytes);
+      return this;
+   }
+
    /**
     * Adds a cache loader which uses the specified builder class to build its configuration
     */
@@ -115,6 +126,18 @@ public void validate() {
       if (numFetchPersistentState > 1)
          throw new CacheConfigurationException("Maximum one store can be set to 'fetchPersistentState'!");
 
+      long coldTierSize = attributes.attribute(COLD_TIER_SIZE).get();
+      if (coldTierSize < 0)
+         throw new CacheConfigurationException("The cold tier size cannot be negative!");
+      if (coldTierSize > 0) {
+         if (!passivation())
+            throw new CacheConfigurationException("A cold tier can only be used when passivation is enabled!");
+         for (StoreConfigurationBuilder<?, ?> b : stores) {
+            if (b.create().shared())
+               throw new CacheConfigurationException("A cold tier cannot be used with shared stores!");
+         }
+      }
+
       // If we have a store we have to guarantee the reaper expiration thread is enabled
       if (!stores.isEmpty()) {
          boolean reaperEnabled = builder.expiration().reaperEnabled();
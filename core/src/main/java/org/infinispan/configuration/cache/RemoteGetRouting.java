@@ -0,0 +1,43 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Decides which owners of a key are asked first by the remote gets of distributed caches.
+ * <p/>
+ * Except with {@link #ALL_OWNERS}, a single owner is asked at a time: the next owner is only asked if the previous
+ * ones sent an invalid response, e.g. because they left the cluster, or if they did not respond within the {@link
+ * ClusteringConfiguration#remoteGetStaggerDelay()}. Reading from a backup owner may return a value older than the one
+ * in the primary owner while a write is in progress.
+ *
+ * @since 8.0
+ */
+public enum RemoteGetRouting {
+   /**
+    * All the owners are asked at the same time, unless {@link ClusteringConfiguration#remoteGetStaggerDelay()} is set.
+    * This is the default.
+    */
+   ALL_OWNERS,
+   /**
+    * The primary owner is asked first.
+    */
+   PRIMARY_OWNER,
+   /**
+    * A random owner is asked first, spreading the reads of a key over all its owners.
+    */
+   RANDOM_OWNER,
+   /**
+    * The owners with the lowest observed response time are asked first.
+    */
+   LEAST_LATENCY,
+   /**
+    * The owners closest to this node are asked first: on the same machine, then on the same rack, then on the same
+    * site. It requires the topology information to be configured in the transport.
+    */
+   NEAREST_OWNER;
+
+   /**
+    * @return {@code true} if a single owner is asked at a time.
+    */
+   public boolean isSingleOwner() {
+      return this != ALL_OWNERS;
+   }
+}
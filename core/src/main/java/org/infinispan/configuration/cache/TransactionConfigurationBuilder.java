@@ -269,6 +269,17 @@ public TransactionConfigurationBuilder notifications(boolean enabled) {
       return this;
    }
 
+   /**
+    * The maximum number of prepares, from different transactions, that can be sent together in a single total order
+    * multicast.  Prepares are only batched while a previous batch for the same members is still in flight, so a
+    * lightly loaded cache keeps sending a message per transaction.  Only used with the total order protocol and
+    * synchronous caches.  Defaults to 1, i.e. no batching.
+    */
+   public TransactionConfigurationBuilder totalOrderBatchSize(int batchSize) {
+      attributes.attribute(TOTAL_ORDER_BATCH_SIZE).set(batchSize);
+      return this;
+   }
+
    @Override
    public void validate() {
       Attribute<Long> reaperWakeUpInterval = attributes.attribute(REAPER_WAKE_UP_INTERVAL);
@@ -277,6 +288,8 @@ public void validate() {
          throw log.invalidReaperWakeUpInterval(reaperWakeUpInterval.get());
       if (completedTxTimeout.get() < 0)
          throw log.invalidCompletedTxTimeout(completedTxTimeout.get());
+      if (attributes.attribute(TOTAL_ORDER_BATCH_SIZE).get() < 1)
+         throw log.invalidTotalOrderBatchSize(attributes.attribute(TOTAL_ORDER_BATCH_SIZE).get());
       if(attributes.attribute(TRANSACTION_PROTOCOL).get() == TransactionProtocol.TOTAL_ORDER) {
          //total order only supports transactional caches
          if(transactionMode() != TransactionMode.TRANSACTIONAL) {
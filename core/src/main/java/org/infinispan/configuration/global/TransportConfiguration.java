@@ -23,6 +23,8 @@ public class TransportConfiguration {
          .immutable().build();
    static final AttributeDefinition<Long> DISTRIBUTED_SYNC_TIMEOUT = AttributeDefinition.builder(
          "distributedSyncTimeout", TimeUnit.MINUTES.toMillis(4)).build();
+   static final AttributeDefinition<Integer> COMPRESSION_THRESHOLD = AttributeDefinition.builder(
+         "compressionThreshold", 0).immutable().build();
    static final AttributeDefinition<Transport> TRANSPORT = AttributeDefinition
          .builder("transport", null, Transport.class).copier(IdentityAttributeCopier.INSTANCE).immutable().build();
    static final AttributeDefinition<TypedProperties> PROPERTIES = AttributeDefinition
@@ -35,7 +37,7 @@ public TypedProperties initialize() {
 
    static AttributeSet attributeSet() {
       return new AttributeSet(TransportConfiguration.class, CLUSTER_NAME, MACHINE_ID, RACK_ID, SITE_ID, NODE_NAME,
-            DISTRIBUTED_SYNC_TIMEOUT, TRANSPORT, PROPERTIES);
+            DISTRIBUTED_SYNC_TIMEOUT, COMPRESSION_THRESHOLD, TRANSPORT, PROPERTIES);
    }
 
    private final Attribute<String> clusterName;
@@ -44,6 +46,7 @@ static AttributeSet attributeSet() {
    private final Attribute<String> siteId;
    private final Attribute<String> nodeName;
    private final Attribute<Long> distributedSyncTimeout;
+   private final Attribute<Integer> compressionThreshold;
    private final Attribute<Transport> transport;
    private final Attribute<TypedProperties> properties;
    private final AttributeSet attributes;
@@ -62,6 +65,7 @@ static AttributeSet attributeSet() {
       rackId = attributes.attribute(RACK_ID);
       siteId = attributes.attribute(SITE_ID);
       distributedSyncTimeout = attributes.attribute(DISTRIBUTED_SYNC_TIMEOUT);
+      compressionThreshold = attributes.attribute(COMPRESSION_THRESHOLD);
       transport = attributes.attribute(TRANSPORT);
       nodeName = attributes.attribute(NODE_NAME);
       properties = attributes.attribute(PROPERTIES);
@@ -87,6 +91,14 @@ public long distributedSyncTimeout() {
       return distributedSyncTimeout.get();
    }
 
+   /**
+    * @return the minimum size, in bytes, of the marshalled commands and responses that are compressed before being
+    * sent, or {@code 0} if they are never compressed.
+    */
+   public int compressionThreshold() {
+      return compressionThreshold.get();
+   }
+
    public Transport transport() {
       return transport.get();
    }
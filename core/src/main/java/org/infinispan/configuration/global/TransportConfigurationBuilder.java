@@ -97,6 +97,19 @@ public TransportConfigurationBuilder distributedSyncTimeout(long distributedSync
       return distributedSyncTimeout(unit.toMillis(distributedSyncTimeout));
    }
 
+   /**
+    * Compresses the marshalled commands and responses of at least this size, in bytes, before sending them. The
+    * payloads that don't compress well are sent uncompressed, and their type is only sampled again from time to time.
+    * All the nodes can read compressed payloads, regardless of their own threshold. Defaults to {@code 0}, i.e. no
+    * compression.
+    *
+    * @param compressionThreshold the minimum payload size, in bytes, or {@code 0} to disable the compression.
+    */
+   public TransportConfigurationBuilder compressionThreshold(int compressionThreshold) {
+      attributes.attribute(COMPRESSION_THRESHOLD).set(compressionThreshold);
+      return this;
+   }
+
    /**
     * Class that represents a network transport. Must implement
     * org.infinispan.remoting.transport.Transport
@@ -195,6 +208,9 @@ void validate() {
       if(attributes.attribute(CLUSTER_NAME).get() == null){
           throw new CacheConfigurationException("Transport clusterName cannot be null");
       }
+      if (attributes.attribute(COMPRESSION_THRESHOLD).get() < 0) {
+         throw new CacheConfigurationException("Transport compressionThreshold cannot be negative");
+      }
    }
 
    @Override
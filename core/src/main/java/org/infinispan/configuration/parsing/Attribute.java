@@ -26,10 +26,13 @@ public enum Attribute {
     AWAIT_INITIAL_TRANSFER("await-initial-transfer"),
     BACKUP_FAILURE_POLICY("failure-policy"),
     BEFORE("before"),
+    BUNDLE_SIZE("bundle-size"),
     CAPACITY_FACTOR("capacity"),
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
     CLUSTER("cluster"),
+    COLD_TIER_SIZE("cold-tier-size"),
+    COMPRESSION_THRESHOLD("compression-threshold"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CONFIGURATION("configuration"),
@@ -98,6 +101,10 @@ public enum Attribute {
     RELATIVE_TO("relative-to"),
     REMOTE_CACHE("remote-cache"),
     REMOTE_COMMAND_EXECUTOR("remote-command-executor"),
+    REMOTE_GET_BATCH_DELAY("remote-get-batch-delay"),
+    REMOTE_GET_BATCH_SIZE("remote-get-batch-size"),
+    REMOTE_GET_ROUTING("remote-get-routing"),
+    REMOTE_GET_STAGGER_DELAY("remote-get-stagger-delay"),
     REMOTE_SITE("remote-site"),
     REMOTE_TIMEOUT("remote-timeout"),
     REPLICATION_QUEUE_EXECUTOR("replication-queue-executor"),
@@ -128,6 +135,7 @@ public enum Attribute {
     THREAD_POLICY("thread-policy"),
     THREAD_POOL_SIZE("thread-pool-size"),
     TIMEOUT("timeout"),
+    TOTAL_ORDER_BATCH_SIZE("total-order-batch-size"),
     TOTAL_ORDER_EXECUTOR("total-order-executor"),
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
     TRANSACTION_PROTOCOL("protocol"),
@@ -771,6 +771,10 @@ private void parseTransport(XMLExtendedStreamReader reader, ConfigurationBuilder
                globalBuilder.transport().distributedSyncTimeout(Long.valueOf(value));
                break;
             }
+            case COMPRESSION_THRESHOLD: {
+               globalBuilder.transport().compressionThreshold(Integer.parseInt(value));
+               break;
+            }
             case NODE_NAME: {
                globalBuilder.transport().nodeName(value);
                for (DefaultThreadFactory threadFactory : threadFactories.values())
@@ -1381,6 +1385,10 @@ protected void parseTransaction(XMLExtendedStreamReader reader, ConfigurationBui
                builder.transaction().notifications(Boolean.parseBoolean(value));
                break;
             }
+            case TOTAL_ORDER_BATCH_SIZE: {
+               builder.transaction().totalOrderBatchSize(Integer.parseInt(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1488,6 +1496,10 @@ private void parseClusteredCacheAttribute(XMLExtendedStreamReader reader,
             builder.clustering().async().replQueueInterval(Long.parseLong(value));
             break;
          }
+         case BUNDLE_SIZE: {
+            builder.clustering().async().bundleSize(Integer.parseInt(value));
+            break;
+         }
          case REMOTE_TIMEOUT: {
             builder.clustering().sync().replTimeout(Long.parseLong(value));
             break;
@@ -1588,6 +1600,22 @@ private void parseDistributedCache(XMLExtendedStreamReader reader, Configuration
                      Util.<ConsistentHashFactory>getInstance(value, holder.getClassLoader()));
                break;
             }
+            case REMOTE_GET_STAGGER_DELAY: {
+               builder.clustering().remoteGetStaggerDelay(Long.parseLong(value));
+               break;
+            }
+            case REMOTE_GET_ROUTING: {
+               builder.clustering().remoteGetRouting(RemoteGetRouting.valueOf(value));
+               break;
+            }
+            case REMOTE_GET_BATCH_SIZE: {
+               builder.clustering().remoteGetBatchSize(Integer.parseInt(value));
+               break;
+            }
+            case REMOTE_GET_BATCH_DELAY: {
+               builder.clustering().remoteGetBatchDelay(Long.parseLong(value));
+               break;
+            }
             default: {
                this.parseClusteredCacheAttribute(reader, i, attribute, value, builder, baseCacheMode);
             }
@@ -1670,6 +1698,9 @@ private void parsePersistence(final XMLExtendedStreamReader reader, final Config
             case PASSIVATION:
                builder.persistence().passivation(Boolean.parseBoolean(value));
                break;
+            case COLD_TIER_SIZE:
+               builder.persistence().coldTierSize(Long.parseLong(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -79,11 +79,32 @@
    InternalCacheEntry<K, V> remove(Object k);
 
    /**
+    * Returns the number of entries in the container excluding expired entries, without checking each entry.
+    * <p>
+    * Note that since 8.0 the entries that expired because of their max idle, and the entries whose lifespan expired
+    * less than a second ago, are still counted until they are removed.  Use {@link #sizeExact()} for the previous
+    * behaviour, which checks whether each entry has expired.
     *
     * @return count of the number of entries in the container excluding expired entries
     */
    int size();
 
+   /**
+    * Returns the number of entries in the container excluding expired entries.  Unlike {@link #size()} this checks
+    * whether each entry has expired, so it takes time proportional to the number of entries in the container.
+    *
+    * @return count of the number of entries in the container excluding expired entries
+    * @since 8.0
+    */
+   default int sizeExact() {
+      int size = 0;
+      for (Iterator<InternalCacheEntry<K, V>> it = iterator(); it.hasNext(); ) {
+         it.next();
+         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      }
+      return size;
+   }
+
    /**
     *
     * @return count of the number of entries in the container including expired entries
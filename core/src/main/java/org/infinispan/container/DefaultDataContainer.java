@@ -14,8 +14,8 @@
 import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.EvictionListener;
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.container.entries.CacheEntrySizeCalculator;
+import org.infinispan.container.entries.ClassLayoutEntrySizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
-import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
 import org.infinispan.eviction.ActivationManager;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.EvictionStrategy;
@@ -23,7 +23,9 @@
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.eviction.PassivationManager;
 import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.filter.KeyValueFilter;
@@ -35,9 +37,16 @@
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
+import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 
 /**
@@ -56,8 +65,11 @@
 
    private static final Log log = LogFactory.getLog(DefaultDataContainer.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int ASYNC_EVICTION_BATCH_SIZE = 128;
+   private static final int ASYNC_EVICTION_QUEUE_SIZE = 8192;
 
    private final ConcurrentMap<K, InternalCacheEntry<K, V>> entries;
+   private final ExpirationIndex expirationIndex = new ExpirationIndex();
    protected InternalEntryFactory entryFactory;
    private EvictionManager evictionManager;
    private PassivationManager passivator;
@@ -66,6 +78,9 @@
    private TimeService timeService;
    private CacheNotifier cacheNotifier;
    private ExpirationManager<K, V> expirationManager;
+   private ExecutorService persistenceExecutor;
+   // Only set when using EvictionThreadPolicy.ASYNC
+   private AsyncEvictionListener asyncEvictionListener;
 
    public DefaultDataContainer(int concurrencyLevel) {
       // If no comparing implementations passed, could fallback on JDK CHM
@@ -81,16 +96,7 @@ public DefaultDataContainer(int concurrencyLevel,
    protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
          EvictionStrategy strategy, EvictionThreadPolicy policy,
          Equivalence<? super K> keyEquivalence, EvictionType thresholdPolicy) {
-      DefaultEvictionListener evictionListener;
-      // translate eviction policy and strategy
-      switch (policy) {
-         case PIGGYBACK:
-         case DEFAULT:
-            evictionListener = new DefaultEvictionListener();
-            break;
-         default:
-            throw new IllegalArgumentException("No such eviction thread policy " + strategy);
-      }
+      DefaultEvictionListener evictionListener = createEvictionListener(policy);
 
       Eviction eviction;
       switch (strategy) {
@@ -110,7 +116,7 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
       }
       EntrySizeCalculator<K, InternalCacheEntry<K, V>> sizeCalculator =
             thresholdPolicy == EvictionType.MEMORY ? new CacheEntrySizeCalculator<>(
-                    new MarshalledValueEntrySizeCalculator()) : null;
+                    new ClassLayoutEntrySizeCalculator()) : null;
 
       entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, eviction, evictionListener, keyEquivalence,
               AnyEquivalence.getInstance(), sizeCalculator);
@@ -120,21 +126,42 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
                                   EvictionStrategy strategy, EvictionThreadPolicy policy,
                                   Equivalence<? super K> keyEquivalence,
                                   EntrySizeCalculator<? super K, ? super V> sizeCalculator) {
-      DefaultEvictionListener evictionListener;
-      // translate eviction policy and strategy
+      DefaultEvictionListener evictionListener = createEvictionListener(policy);
+
+      EntrySizeCalculator<K, InternalCacheEntry<K, V>> calc = new CacheEntrySizeCalculator<>(sizeCalculator);
+
+      entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, Eviction.LRU, evictionListener, keyEquivalence,
+              AnyEquivalence.getInstance(), calc);
+   }
+
+   private DefaultEvictionListener createEvictionListener(EvictionThreadPolicy policy) {
+      // translate eviction policy
       switch (policy) {
          case PIGGYBACK:
          case DEFAULT:
-            evictionListener = new DefaultEvictionListener();
-            break;
+            return new DefaultEvictionListener();
+         case ASYNC:
+            asyncEvictionListener = new AsyncEvictionListener();
+            return asyncEvictionListener;
          default:
-            throw new IllegalArgumentException("No such eviction thread policy " + strategy);
+            throw new IllegalArgumentException("No such eviction thread policy " + policy);
       }
+   }
 
-      EntrySizeCalculator<K, InternalCacheEntry<K, V>> calc = new CacheEntrySizeCalculator<>(sizeCalculator);
+   @Inject
+   public void injectPersistenceExecutor(@ComponentName(PERSISTENCE_EXECUTOR) ExecutorService persistenceExecutor) {
+      this.persistenceExecutor = persistenceExecutor;
+   }
 
-      entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, Eviction.LRU, evictionListener, keyEquivalence,
-              AnyEquivalence.getInstance(), calc);
+   /**
+    * Passivates and notifies any entries still waiting to be processed by the asynchronous eviction, before the
+    * passivation manager and the stores are stopped.
+    */
+   @Stop(priority = 8)
+   public void flushPendingEvictions() {
+      if (asyncEvictionListener != null) {
+         asyncEvictionListener.drain();
+      }
    }
 
    @Inject
@@ -177,15 +204,24 @@ public static <K, V> DefaultDataContainer<K, V> unBoundedDataContainer(int concu
 
    @Override
    public InternalCacheEntry<K, V> peek(Object key) {
+      InternalCacheEntry<K, V> e;
       if (entries instanceof PeekableMap) {
-         return ((PeekableMap<K, InternalCacheEntry<K, V>>)entries).peek(key);
+         e = ((PeekableMap<K, InternalCacheEntry<K, V>>)entries).peek(key);
+      } else {
+         e = entries.get(key);
+      }
+      if (e == null && asyncEvictionListener != null) {
+         e = asyncEvictionListener.getPending(key);
       }
-      return entries.get(key);
+      return e;
    }
 
    @Override
    public InternalCacheEntry<K, V> get(Object k) {
       InternalCacheEntry<K, V> e = entries.get(k);
+      if (e == null && asyncEvictionListener != null) {
+         e = asyncEvictionListener.getPending(k);
+      }
       if (e != null && e.canExpire()) {
          long currentTimeMillis = timeService.wallClockTime();
          if (e.isExpired(currentTimeMillis)) {
@@ -206,6 +242,8 @@ public void put(K k, V v, Metadata metadata) {
          l1Entry = true;
       }
       InternalCacheEntry<K, V> e = entries.get(k);
+      // The entry factory may update the existing entry in place
+      long previousBucket = ExpirationIndex.bucketOf(e);
 
       if (trace) {
          log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, v);
@@ -223,8 +261,11 @@ public void put(K k, V v, Metadata metadata) {
       if (trace)
          log.tracef("Store %s in container", e);
 
+      awaitPendingPassivation(copy.getKey(), true);
       entries.compute(copy.getKey(), (key, entry) -> {
+         cancelPendingPassivation(key);
          activator.onUpdate(key, entry == null);
+         expirationIndex.replace(entry == e ? previousBucket : ExpirationIndex.bucketOf(entry), copy);
          return copy;
       });
    }
@@ -233,7 +274,15 @@ public void put(K k, V v, Metadata metadata) {
    public boolean containsKey(Object k) {
       InternalCacheEntry<K, V> ice = peek(k);
       if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
-         entries.remove(k);
+         InternalCacheEntry<K, V> expired = ice;
+         // Only remove the expired entry, and keep the expiration index in sync
+         entries.compute((K) k, (key, entry) -> {
+            if (entry != expired) {
+               return entry;
+            }
+            expirationIndex.remove(entry);
+            return null;
+         });
          ice = null;
       }
       return ice != null;
@@ -242,40 +291,57 @@ public boolean containsKey(Object k) {
    @Override
    public InternalCacheEntry<K, V> remove(Object k) {
       final InternalCacheEntry<K,V>[] reference = new InternalCacheEntry[1];
+      // An entry waiting to be passivated is still returned by get(), so it is returned here as well
+      InternalCacheEntry<K, V> pendingEntry = asyncEvictionListener != null ? asyncEvictionListener.getPending(k) : null;
+      awaitPendingPassivation(k, true);
       entries.compute((K) k, (key, entry) -> {
+         cancelPendingPassivation(key);
          activator.onRemove(key, entry == null);
+         if (entry != null) {
+            expirationIndex.remove(entry);
+         }
          reference[0] = entry;
          return null;
       });
-      InternalCacheEntry<K, V> e = reference[0];
+      InternalCacheEntry<K, V> e = reference[0] != null ? reference[0] : pendingEntry;
       return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
    }
 
    @Override
    public int size() {
-      int size = 0;
-      // We have to loop through to make sure to remove expired entries
-      for (Iterator<InternalCacheEntry<K, V>> iter = iterator(); iter.hasNext(); ) {
-         iter.next();
-         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      int size = sizeIncludingExpired();
+      if (size > 0) {
+         size -= Math.min(size, expirationIndex.expiredCount(timeService.wallClockTime()));
       }
       return size;
    }
 
    @Override
    public int sizeIncludingExpired() {
-      return entries.size();
+      int size = entries.size();
+      if (asyncEvictionListener != null) {
+         size += asyncEvictionListener.pending.size();
+      }
+      return size;
    }
 
    @Override
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      expirationIndex.clear();
+      if (asyncEvictionListener != null) {
+         // The stores are cleared as well, the evicted entries must not be passivated into them afterwards
+         asyncEvictionListener.cancelAll();
+      }
    }
 
    @Override
    public Set<K> keySet() {
-      return Collections.unmodifiableSet(entries.keySet());
+      if (asyncEvictionListener == null) {
+         return Collections.unmodifiableSet(entries.keySet());
+      }
+      return new KeySet();
    }
 
    @Override
@@ -298,20 +364,28 @@ public void purgeExpired() {
    public void evict(K key) {
       entries.computeIfPresent(key, (o, entry) -> {
          passivator.passivate(entry);
+         expirationIndex.remove(entry);
          return null;
       });
    }
 
    @Override
    public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      // The action may leave the entry as it is, so its passivation can't be cancelled
+      awaitPendingPassivation(key, false);
       return entries.compute(key, (k, oldEntry) -> {
+         // The action may update the entry in place
+         long previousBucket = ExpirationIndex.bucketOf(oldEntry);
          InternalCacheEntry<K, V> newEntry = action.compute(k, oldEntry, entryFactory);
+         expirationIndex.replace(previousBucket, newEntry);
          if (newEntry == oldEntry) {
             return oldEntry;
          } else if (newEntry == null) {
+            cancelPendingPassivation(k);
             activator.onRemove(k, false);
             return null;
          }
+         cancelPendingPassivation(k);
          activator.onUpdate(k, oldEntry == null);
          if (trace)
             log.tracef("Store %s in container", newEntry);
@@ -321,15 +395,48 @@ public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
 
    @Override
    public Iterator<InternalCacheEntry<K, V>> iterator() {
-      return new EntryIterator(entries.values().iterator(), false);
+      return new EntryIterator(valuesIterator(), false);
    }
 
    @Override
    public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
-      return new EntryIterator(entries.values().iterator(), true);
+      return new EntryIterator(valuesIterator(), true);
    }
 
-   private final class DefaultEvictionListener implements EvictionListener<K, InternalCacheEntry<K, V>> {
+   /**
+    * @return an iterator over the entries in memory and the evicted entries that are still waiting to be passivated,
+    *         as the latter are still returned by {@link #get(Object)} and {@link #peek(Object)}
+    */
+   private Iterator<InternalCacheEntry<K, V>> valuesIterator() {
+      if (asyncEvictionListener == null || asyncEvictionListener.pending.isEmpty()) {
+         return entries.values().iterator();
+      }
+      return Stream.concat(entries.values().stream(), asyncEvictionListener.pendingEntries()).iterator();
+   }
+
+   private void cancelPendingPassivation(Object key) {
+      if (asyncEvictionListener != null) {
+         asyncEvictionListener.cancel(key);
+      }
+   }
+
+   /**
+    * Must be invoked before writing a key, and outside of any {@link ConcurrentMap#compute} on the entries, so the
+    * store write of an older value can't overwrite anything the caller writes to the stores afterwards.  The write
+    * itself still cancels the passivation in case the key was evicted again in the meantime, which leaves only a
+    * window where the old value is written to the stores after the new value is written in memory; that store entry
+    * is overwritten or removed when the new value is passivated or removed.
+    *
+    * @param cancel {@code true} if the caller overwrites or removes the entry, {@code false} if the pending entry has
+    *               to be passivated before proceeding
+    */
+   private void awaitPendingPassivation(Object key, boolean cancel) {
+      if (asyncEvictionListener != null) {
+         asyncEvictionListener.awaitPassivation(key, cancel);
+      }
+   }
+
+   private class DefaultEvictionListener implements EvictionListener<K, InternalCacheEntry<K, V>> {
 
       @Override
       public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
@@ -337,7 +444,13 @@ public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
       }
 
       @Override
-      public void onEntryChosenForEviction(Entry<K, InternalCacheEntry<K, V>> entry) {
+      public final void onEntryChosenForEviction(Entry<K, InternalCacheEntry<K, V>> entry) {
+         // Only invoked for the entries evicted by the map itself, the other removals are handled by the container
+         expirationIndex.remove(entry.getValue());
+         passivateEvicted(entry);
+      }
+
+      void passivateEvicted(Entry<K, InternalCacheEntry<K, V>> entry) {
          passivator.passivate(entry.getValue());
       }
 
@@ -349,13 +462,229 @@ public void onEntryActivated(Object key) {
       @Override
       public void onEntryRemoved(Entry<K, InternalCacheEntry<K, V>> entry) {
          if (entry.getValue().isEvicted()) {
-            onEntryChosenForEviction(entry);
+            passivateEvicted(entry);
          } else if (pm != null) {
             pm.deleteFromAllStores(entry.getKey(), BOTH);
          }
       }
    }
 
+   /**
+    * Eviction listener that hands evicted entries off to a background task, instead of passivating them and firing
+    * the notifications on the writer thread.  The background task passivates and notifies the entries in batches.
+    * <p>
+    * While an entry is waiting to be passivated it is still returned by {@link #get(Object)}, {@link #peek(Object)}
+    * and the iterators, so it never appears to be missing from both the container and the stores.  A write to such a
+    * key cancels the passivation, or waits for it to complete if it is already in progress.  The store write is never
+    * done while holding a lock of the entries or the pending maps, so writers to other keys are never blocked by it.
+    * <p>
+    * Writers are only slowed down when the queue overflows, in which case the evicted entry is processed on the
+    * writer thread like with the other thread policies.
+    */
+   private final class AsyncEvictionListener extends DefaultEvictionListener implements Runnable {
+      private final ConcurrentMap<K, PendingPassivation> pending = CollectionFactory.makeConcurrentMap();
+      private final BlockingQueue<PendingPassivation> queue = new ArrayBlockingQueue<>(ASYNC_EVICTION_QUEUE_SIZE);
+      private final AtomicBoolean scheduled = new AtomicBoolean();
+
+      @Override
+      public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
+         // Notifications are fired in batches by the background task
+      }
+
+      @Override
+      void passivateEvicted(Entry<K, InternalCacheEntry<K, V>> entry) {
+         K key = entry.getKey();
+         PendingPassivation passivation = new PendingPassivation(entry.getValue());
+         if (passivator.isEnabled()) {
+            pending.put(key, passivation);
+         }
+         if (queue.offer(passivation)) {
+            scheduleDrain();
+         } else {
+            // The background task can't keep up, so the writer has to do the work itself
+            if (trace) log.tracef("Eviction queue is full, processing eviction of %s on the writer thread", key);
+            passivate(passivation);
+            evictionManager.onEntryEviction(Collections.singletonMap(key, passivation.ice));
+         }
+      }
+
+      InternalCacheEntry<K, V> getPending(Object key) {
+         if (pending.isEmpty()) {
+            return null;
+         }
+         PendingPassivation passivation = pending.get(key);
+         return passivation == null ? null : passivation.ice;
+      }
+
+      Stream<InternalCacheEntry<K, V>> pendingEntries() {
+         // Skip the keys written after the iteration of the entries started
+         return pending.values().stream().map(p -> p.ice).filter(ice -> !entries.containsKey(ice.getKey()));
+      }
+
+      /**
+       * Cancels the passivation of {@code key} if it hasn't started yet.  Doesn't block, so it can be invoked while
+       * holding the lock of the entry.
+       */
+      void cancel(Object key) {
+         if (!pending.isEmpty()) {
+            PendingPassivation passivation = pending.get(key);
+            if (passivation != null && passivation.cancel()) {
+               pending.remove(key, passivation);
+            }
+         }
+      }
+
+      /**
+       * Cancels the passivation of all the pending entries, and waits for the store writes that already started.
+       * The eviction notifications of the queued entries are still fired, like for any cancelled passivation.
+       */
+      void cancelAll() {
+         List<PendingPassivation> cancelled = new ArrayList<>(queue.size());
+         queue.drainTo(cancelled);
+         Map<K, InternalCacheEntry<K, V>> evicted = new HashMap<>((int) (cancelled.size() / 0.75f) + 1);
+         for (PendingPassivation passivation : cancelled) {
+            passivation.cancel();
+            evicted.put(passivation.ice.getKey(), passivation.ice);
+         }
+         for (PendingPassivation passivation : pending.values()) {
+            if (passivation.cancel()) {
+               pending.remove(passivation.ice.getKey(), passivation);
+            } else {
+               passivation.awaitCompletion();
+            }
+         }
+         if (!evicted.isEmpty()) {
+            evictionManager.onEntryEviction(evicted);
+         }
+      }
+
+      /**
+       * Cancels, or passivates on the caller thread, the pending passivation of {@code key}, or waits for its store
+       * write to complete if it already started.
+       */
+      void awaitPassivation(Object key, boolean cancel) {
+         if (!pending.isEmpty()) {
+            PendingPassivation passivation = pending.get(key);
+            if (passivation == null) {
+               return;
+            }
+            if (!cancel) {
+               passivate(passivation);
+            } else if (passivation.cancel()) {
+               pending.remove(key, passivation);
+            }
+            passivation.awaitCompletion();
+         }
+      }
+
+      private void scheduleDrain() {
+         if (scheduled.compareAndSet(false, true)) {
+            persistenceExecutor.execute(this);
+         }
+      }
+
+      @Override
+      public void run() {
+         try {
+            drain();
+         } finally {
+            scheduled.set(false);
+         }
+         // Entries may have been queued after the last poll but before the flag was cleared
+         if (!queue.isEmpty()) {
+            scheduleDrain();
+         }
+      }
+
+      void drain() {
+         List<PendingPassivation> batch = new ArrayList<>(ASYNC_EVICTION_BATCH_SIZE);
+         while (queue.drainTo(batch, ASYNC_EVICTION_BATCH_SIZE) > 0) {
+            Map<K, InternalCacheEntry<K, V>> evicted = new HashMap<>((int) (batch.size() / 0.75f) + 1);
+            for (PendingPassivation passivation : batch) {
+               passivate(passivation);
+               evicted.put(passivation.ice.getKey(), passivation.ice);
+            }
+            if (trace) log.tracef("Processed asynchronous eviction of %d entries", evicted.size());
+            evictionManager.onEntryEviction(evicted);
+            batch.clear();
+         }
+      }
+
+      private void passivate(PendingPassivation passivation) {
+         // Skip the entries that were overwritten or removed in the meantime
+         if (!passivation.start()) {
+            return;
+         }
+         try {
+            passivator.passivate(passivation.ice);
+         } finally {
+            // The entry is only removed from the pending map after it has been written, and only if it wasn't
+            // evicted again in the meantime
+            pending.remove(passivation.ice.getKey(), passivation);
+            passivation.complete();
+         }
+      }
+   }
+
+   /**
+    * The passivation of an entry evicted with {@link EvictionThreadPolicy#ASYNC}: it is either cancelled by a write
+    * to the key before it starts, or completes after the entry is written to the stores.
+    */
+   private final class PendingPassivation {
+      final InternalCacheEntry<K, V> ice;
+      private final CountDownLatch completed = new CountDownLatch(1);
+      private boolean cancelled;
+      private Thread passivatingThread;
+
+      PendingPassivation(InternalCacheEntry<K, V> ice) {
+         this.ice = ice;
+      }
+
+      /**
+       * @return {@code true} if the caller has to passivate the entry, {@code false} if it was cancelled or another
+       *         thread is passivating it
+       */
+      synchronized boolean start() {
+         if (cancelled || passivatingThread != null) {
+            return false;
+         }
+         passivatingThread = Thread.currentThread();
+         return true;
+      }
+
+      /**
+       * @return {@code true} if the passivation was cancelled, {@code false} if it already started
+       */
+      synchronized boolean cancel() {
+         if (passivatingThread != null) {
+            return false;
+         }
+         if (!cancelled) {
+            cancelled = true;
+            completed.countDown();
+         }
+         return true;
+      }
+
+      void complete() {
+         completed.countDown();
+      }
+
+      void awaitCompletion() {
+         synchronized (this) {
+            // A listener of the passivation writing the same key must not wait for itself
+            if (passivatingThread == Thread.currentThread()) {
+               return;
+            }
+         }
+         try {
+            completed.await();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+   }
+
    private class ImmutableEntryIterator extends EntryIterator {
       ImmutableEntryIterator(Iterator<InternalCacheEntry<K, V>> it){
          super(it, false);
@@ -440,7 +769,7 @@ public boolean contains(Object o) {
 
          @SuppressWarnings("rawtypes")
          Map.Entry e = (Map.Entry) o;
-         InternalCacheEntry ice = entries.get(e.getKey());
+         InternalCacheEntry ice = peek(e.getKey());
          if (ice == null) {
             return false;
          }
@@ -449,12 +778,12 @@ public boolean contains(Object o) {
 
       @Override
       public Iterator<InternalCacheEntry<K, V>> iterator() {
-         return new ImmutableEntryIterator(entries.values().iterator());
+         return new ImmutableEntryIterator(valuesIterator());
       }
 
       @Override
       public int size() {
-         return entries.size();
+         return sizeIncludingExpired();
       }
 
       @Override
@@ -470,12 +799,43 @@ public String toString() {
    private class Values extends AbstractCollection<V> {
       @Override
       public Iterator<V> iterator() {
-         return new ValueIterator(entries.values().iterator());
+         return new ValueIterator(valuesIterator());
       }
 
       @Override
       public int size() {
-         return entries.size();
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Unmodifiable view of the keys in memory, including the evicted keys that are still waiting to be passivated
+    */
+   private class KeySet extends AbstractSet<K> {
+      @Override
+      public Iterator<K> iterator() {
+         Iterator<InternalCacheEntry<K, V>> it = valuesIterator();
+         return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public K next() {
+               return it.next().getKey();
+            }
+         };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
       }
    }
 
@@ -516,6 +876,10 @@ public void executeTask(final KeyFilter<? super K> filter, final BiConsumer<? su
             action.accept(key, value);
          }
       });
+      if (asyncEvictionListener != null) {
+         asyncEvictionListener.pendingEntries().filter(ice -> filter.accept(ice.getKey()))
+               .forEach(ice -> action.accept(ice.getKey(), ice));
+      }
       //TODO figure out the way how to do interruption better (during iteration)
       if(Thread.currentThread().isInterrupted()){
          throw new InterruptedException();
@@ -536,6 +900,10 @@ public void executeTask(final KeyValueFilter<? super K, ? super V> filter, final
             action.accept(key, value);
          }
       });
+      if (asyncEvictionListener != null) {
+         asyncEvictionListener.pendingEntries().filter(ice -> filter.accept(ice.getKey(), ice.getValue(), ice.getMetadata()))
+               .forEach(ice -> action.accept(ice.getKey(), ice));
+      }
       //TODO figure out the way how to do interruption better (during iteration)
       if(Thread.currentThread().isInterrupted()){
          throw new InterruptedException();
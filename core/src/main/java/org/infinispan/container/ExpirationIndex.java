@@ -0,0 +1,85 @@
+package org.infinispan.container;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Counts the entries of a data container that expire because of their lifespan, grouped by the second in which they
+ * expire, so that the number of entries that expired but haven't been removed yet can be computed without iterating
+ * over the data container.
+ * <p>
+ * The data container must {@link #add(InternalCacheEntry)} every entry it stores and {@link
+ * #remove(InternalCacheEntry)} every entry that is replaced, removed or evicted, whatever the reason.  Entries with a
+ * max idle are not counted, as their expiration time moves every time they are accessed.  An entry is only counted as
+ * expired once the whole second in which it expires has passed.
+ *
+ * @since 8.0
+ */
+final class ExpirationIndex {
+   private static final long GRANULARITY = 1000;
+
+   private final ConcurrentNavigableMap<Long, Integer> counts = new ConcurrentSkipListMap<>();
+
+   /**
+    * The bucket of an entry that is not counted.
+    */
+   static final long NONE = -1;
+
+   void add(InternalCacheEntry<?, ?> entry) {
+      replace(NONE, entry);
+   }
+
+   void remove(InternalCacheEntry<?, ?> entry) {
+      replace(bucketOf(entry), null);
+   }
+
+   /**
+    * Counts {@code newEntry} instead of an entry that was in {@code previousBucket}.  The previous bucket has to be
+    * computed before the entry is updated, as {@link org.infinispan.container.InternalEntryFactory} may update the
+    * expiration time of an entry in place.
+    *
+    * @param previousBucket the {@link #bucketOf(InternalCacheEntry)} of the replaced entry, or {@link #NONE}
+    * @param newEntry the entry replacing it, or {@code null} if it was removed
+    */
+   void replace(long previousBucket, InternalCacheEntry<?, ?> newEntry) {
+      long bucket = newEntry == null ? NONE : bucketOf(newEntry);
+      if (bucket == previousBucket) {
+         return;
+      }
+      if (previousBucket != NONE) {
+         counts.computeIfPresent(previousBucket, (b, count) -> count == 1 ? null : count - 1);
+      }
+      if (bucket != NONE) {
+         counts.merge(bucket, 1, Integer::sum);
+      }
+   }
+
+   void clear() {
+      counts.clear();
+   }
+
+   /**
+    * @param currentTime the current time in milliseconds
+    * @return the number of counted entries that expired before the current second
+    */
+   int expiredCount(long currentTime) {
+      if (counts.isEmpty()) {
+         return 0;
+      }
+      // Only the seconds the reaper didn't process yet have entries left, so there are few of them
+      int expired = 0;
+      for (Integer count : counts.headMap(currentTime / GRANULARITY).values()) {
+         expired += count;
+      }
+      return expired;
+   }
+
+   static long bucketOf(InternalCacheEntry<?, ?> entry) {
+      if (entry == null || !entry.canExpire() || entry.getMaxIdle() >= 0 || entry.getLifespan() < 0) {
+         return NONE;
+      }
+      return entry.getExpiryTime() / GRANULARITY;
+   }
+}
@@ -0,0 +1,219 @@
+package org.infinispan.container.entries;
+
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.marshall.core.MarshalledValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Entry size calculator that is able to approximate the size of any object graph.  Types known to
+ * {@link MarshalledValueEntrySizeCalculator} are sized as before, any other object is sized by walking its reference
+ * graph.  The shallow size and the reference fields of each class are determined only once, from the fields it
+ * declares, and then cached for the lifetime of this calculator.  The shallow size adds up the sizes of the fields,
+ * so the padding the JVM may insert between them is not taken into account.
+ * <p>
+ * Objects reachable multiple times from the same root are only counted once. Classes, class loaders, threads and
+ * enum constants are considered shared and are not counted. Any other object shared by several entries is counted
+ * once for each of them, so the walk stops {@link #MAX_DEPTH} references away from the root.
+ * @since 8.0
+ */
+public class ClassLayoutEntrySizeCalculator extends MarshalledValueEntrySizeCalculator {
+   private static final Field[] NO_REFERENCES = new Field[0];
+   // Every array has a header, a reference to its class and its length
+   private static final long ARRAY_BASE_SIZE = OBJECT_SIZE + POINTER_SIZE + 4;
+   // How many references are followed from the root, so that a value linked to a large shared structure
+   // (e.g. a parent or a cache) doesn't make every write walk all of it
+   static final int MAX_DEPTH = 8;
+
+   // Types the parent calculator sizes exactly without having to follow any further references
+   private static final Set<Class<?>> LEAF_TYPES = new HashSet<>(Arrays.asList(String.class, Long.class,
+         Integer.class, Short.class, Double.class, Float.class, Boolean.class, Character.class, Byte.class,
+         MarshalledValue.class));
+
+   private final ConcurrentMap<Class<?>, ClassLayout> layouts = CollectionFactory.makeConcurrentMap();
+
+   @Override
+   public long calculateSize(Object key, Object value) {
+      return calculateObjectSize(key) + calculateObjectSize(value);
+   }
+
+   /**
+    * Approximates how much memory the given object and all the objects reachable from it occupy.
+    * @param object the root of the object graph, may be null
+    * @return the approximate size in bytes
+    */
+   public long calculateObjectSize(Object object) {
+      return walk(object, null, null);
+   }
+
+   /**
+    * Approximates how much memory the given object graph occupies, without taking into account the given key and
+    * value (or anything only reachable through them).  This is useful to size a wrapper, such as an
+    * {@link InternalCacheEntry}, when the key and value are sized separately.
+    * @param object the root of the object graph, may be null
+    * @param excludedKey an object that shouldn't be counted, may be null
+    * @param excludedValue another object that shouldn't be counted, may be null
+    * @return the approximate size in bytes
+    */
+   public long calculateObjectSizeExcluding(Object object, Object excludedKey, Object excludedValue) {
+      return walk(object, excludedKey, excludedValue);
+   }
+
+   @Override
+   protected long handleUnknownObject(Object object) {
+      return calculateObjectSize(object);
+   }
+
+   private long walk(Object root, Object excludedKey, Object excludedValue) {
+      if (root == null || root == excludedKey || root == excludedValue) {
+         return 0;
+      }
+      // Most keys and values are leaves, which can be sized without allocating anything to track the walk
+      Class<?> rootClass = root.getClass();
+      if (LEAF_TYPES.contains(rootClass)) {
+         return super.handleObject(root);
+      } else if (rootClass.isArray() && rootClass.getComponentType().isPrimitive()) {
+         return arraySize(rootClass, root);
+      }
+      Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      if (excludedKey != null) {
+         visited.add(excludedKey);
+      }
+      if (excludedValue != null) {
+         visited.add(excludedValue);
+      }
+      Deque<Object> pending = new ArrayDeque<>();
+      pending.add(root);
+      long size = 0;
+      // The graph is walked breadth first, one level at a time, so anything deeper than MAX_DEPTH is not counted
+      for (int depth = 0; depth < MAX_DEPTH && !pending.isEmpty(); depth++) {
+         for (int i = pending.size(); i > 0; i--) {
+            Object object = pending.poll();
+            if (!visited.add(object)) {
+               continue;
+            }
+            Class<?> objClass = object.getClass();
+            if (LEAF_TYPES.contains(objClass)) {
+               size += super.handleObject(object);
+            } else if (objClass.isArray()) {
+               size += arraySize(objClass, object);
+               if (!objClass.getComponentType().isPrimitive()) {
+                  Object[] array = (Object[]) object;
+                  for (Object element : array) {
+                     if (element != null) {
+                        pending.add(element);
+                     }
+                  }
+               }
+            } else if (!isShared(objClass)) {
+               ClassLayout layout = layoutOf(objClass);
+               size += layout.shallowSize;
+               for (Field field : layout.references) {
+                  Object reference = readReference(field, object);
+                  if (reference != null) {
+                     pending.add(reference);
+                  }
+               }
+            }
+         }
+      }
+      return size;
+   }
+
+   private long arraySize(Class<?> arrayClass, Object array) {
+      int length = java.lang.reflect.Array.getLength(array);
+      return roundUpToNearest8(ARRAY_BASE_SIZE + fieldSize(arrayClass.getComponentType()) * length);
+   }
+
+   private static Object readReference(Field field, Object object) {
+      try {
+         return field.get(object);
+      } catch (IllegalAccessException e) {
+         // Not possible, only the fields made accessible are part of the layout
+         return null;
+      }
+   }
+
+   private boolean isShared(Class<?> objClass) {
+      return objClass == Class.class || Enum.class.isAssignableFrom(objClass) ||
+            ClassLoader.class.isAssignableFrom(objClass) || Thread.class.isAssignableFrom(objClass);
+   }
+
+   private ClassLayout layoutOf(Class<?> objClass) {
+      ClassLayout layout = layouts.get(objClass);
+      if (layout == null) {
+         layout = computeLayout(objClass);
+         ClassLayout existing = layouts.putIfAbsent(objClass, layout);
+         if (existing != null) {
+            layout = existing;
+         }
+      }
+      return layout;
+   }
+
+   private ClassLayout computeLayout(Class<?> objClass) {
+      // Every object has the header and a reference to its class
+      long size = OBJECT_SIZE + POINTER_SIZE;
+      Field[] referenceFields = NO_REFERENCES;
+      int references = 0;
+      for (Class<?> c = objClass; c != null && c != Object.class; c = c.getSuperclass()) {
+         for (Field field : c.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+               continue;
+            }
+            Class<?> fieldType = field.getType();
+            size += fieldSize(fieldType);
+            if (!fieldType.isPrimitive() && makeAccessible(field)) {
+               if (references == referenceFields.length) {
+                  referenceFields = Arrays.copyOf(referenceFields, Math.max(4, references * 2));
+               }
+               referenceFields[references++] = field;
+            }
+         }
+      }
+      return new ClassLayout(roundUpToNearest8(size), Arrays.copyOf(referenceFields, references));
+   }
+
+   private static boolean makeAccessible(Field field) {
+      try {
+         field.setAccessible(true);
+         return true;
+      } catch (SecurityException e) {
+         // The objects referenced by the field are not counted
+         return false;
+      }
+   }
+
+   private static long fieldSize(Class<?> fieldType) {
+      if (!fieldType.isPrimitive()) {
+         return POINTER_SIZE;
+      } else if (fieldType == long.class || fieldType == double.class) {
+         return 8;
+      } else if (fieldType == int.class || fieldType == float.class) {
+         return 4;
+      } else if (fieldType == short.class || fieldType == char.class) {
+         return 2;
+      } else {
+         return 1;
+      }
+   }
+
+   private static final class ClassLayout {
+      final long shallowSize;
+      final Field[] references;
+
+      ClassLayout(long shallowSize, Field[] references) {
+         this.shallowSize = shallowSize;
+         this.references = references;
+      }
+   }
+}
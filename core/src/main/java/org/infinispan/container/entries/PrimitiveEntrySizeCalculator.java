@@ -17,6 +17,10 @@ public long calculateSize(Object key, Object value) {
    }
 
    protected long handleObject(Object object) {
+      if (object == null) {
+         // Null array elements and fields don't occupy anything besides the reference already accounted for
+         return 0;
+      }
       Class<?> objClass = object.getClass();
       if (objClass == String.class) {
          String realString = (String) object;
@@ -87,11 +91,21 @@ protected long handleObject(Object object) {
          }
          return arraySize;
       } else {
-         throw new IllegalArgumentException("Size of Class " + objClass +
-                 " cannot be determined using given entry size calculator :" + getClass());
+         return handleUnknownObject(object);
       }
    }
 
+   /**
+    * Invoked for an object whose type is not one of the primitives, wrappers, Strings or arrays handled by this
+    * calculator.  By default the size cannot be determined and an exception is thrown.
+    * @param object the object to size
+    * @return the approximate size in memory of the object
+    */
+   protected long handleUnknownObject(Object object) {
+      throw new IllegalArgumentException("Size of Class " + object.getClass() +
+              " cannot be determined using given entry size calculator :" + getClass());
+   }
+
    static class CharacterCacheConstraints {
       static final short MAX_CACHE_VALUE = 127;
       static final short MIN_CACHE_VALUE = 0;
@@ -1,6 +1,7 @@
 package org.infinispan.context;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.remoting.transport.Address;
@@ -90,4 +91,45 @@ public interface InvocationContext extends EntryLookup, Cloneable {
    boolean replaceValue(Object key, InternalCacheEntry cacheEntry);
 
    boolean isEntryRemovedInContext(Object key);
+
+   /**
+    * @return {@code true} if the interceptors may defer the result of this invocation with {@link
+    * #deferResult(CompletableFuture)} instead of waiting for other nodes.
+    * @see org.infinispan.interceptors.InterceptorChain#invokeAsync(InvocationContext,
+    * org.infinispan.commands.VisitableCommand)
+    */
+   default boolean isResultDeferrable() {
+      return false;
+   }
+
+   /**
+    * Allows the interceptors to defer the result of this invocation. It is a no-op if this context does not support
+    * it.
+    */
+   default void setResultDeferrable(boolean resultDeferrable) {
+      //no-op by default
+   }
+
+   /**
+    * Defers the result of this invocation to {@code result}, e.g. until the command is replicated to the backup owners.
+    * The interceptors that already returned work with the {@link #getDeferredResult()} instead of the return value of
+    * the next interceptor, and they replace it with a new stage if they have to do something after the invocation.
+    * <p/>
+    * It must only be invoked if {@link #isResultDeferrable()}.
+    *
+    * @param result the stage completed with the return value of the invocation, or {@code null} to stop deferring the
+    *               result.
+    * @throws IllegalStateException if the result of this invocation cannot be deferred.
+    */
+   default void deferResult(CompletableFuture<Object> result) {
+      throw new IllegalStateException("The result of this invocation cannot be deferred");
+   }
+
+   /**
+    * @return the stage completed with the return value of this invocation, or {@code null} if it was not deferred.
+    * @see #deferResult(CompletableFuture)
+    */
+   default CompletableFuture<Object> getDeferredResult() {
+      return null;
+   }
 }
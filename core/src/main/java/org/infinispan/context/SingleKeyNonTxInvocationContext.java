@@ -9,6 +9,7 @@
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Mircea Markus
@@ -36,6 +37,10 @@ public final class SingleKeyNonTxInvocationContext implements InvocationContext
 
    private Object lockOwner;
 
+   private boolean resultDeferrable;
+
+   private CompletableFuture<Object> deferredResult;
+
    public SingleKeyNonTxInvocationContext(final Address origin, final Equivalence<Object> keyEquivalence) {
       this.origin = origin;
       this.keyEquivalence = keyEquivalence;
@@ -170,6 +175,29 @@ public boolean isEntryRemovedInContext(final Object key) {
       return ce != null && ce.isRemoved() && ce.isChanged();
    }
 
+   @Override
+   public boolean isResultDeferrable() {
+      return resultDeferrable;
+   }
+
+   @Override
+   public void setResultDeferrable(boolean resultDeferrable) {
+      this.resultDeferrable = resultDeferrable;
+   }
+
+   @Override
+   public void deferResult(CompletableFuture<Object> result) {
+      if (!resultDeferrable) {
+         throw new IllegalStateException("The result of this invocation cannot be deferred");
+      }
+      deferredResult = result;
+   }
+
+   @Override
+   public CompletableFuture<Object> getDeferredResult() {
+      return deferredResult;
+   }
+
    @Override
    public SingleKeyNonTxInvocationContext clone() {
       try {
@@ -183,6 +211,8 @@ public void resetState() {
       this.key = null;
       this.cacheEntry = null;
       this.isLocked = false;
+      this.resultDeferrable = false;
+      this.deferredResult = null;
    }
 
 }
@@ -8,5 +8,12 @@
  */
 public enum EvictionThreadPolicy {
    PIGGYBACK,
-   DEFAULT
+   DEFAULT,
+   /**
+    * Evicted entries are passivated and their eviction notifications fired in batches by a background thread.
+    * Writers only process evictions themselves when the background thread falls behind. Until they are passivated, the
+    * evicted entries are still returned and counted by the data container, so it can briefly hold more entries than
+    * the configured maximum.
+    */
+   ASYNC
 }
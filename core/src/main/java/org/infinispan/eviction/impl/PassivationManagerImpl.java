@@ -83,7 +83,7 @@ public void passivate(InternalCacheEntry entry) {
          try {
             MarshalledEntry marshalledEntry = marshalledEntryFactory.newMarshalledEntry(entry.getKey(), entry.getValue(),
                                                                                         internalMetadata(entry));
-            persistenceManager.writeToAllStores(marshalledEntry, BOTH);
+            persistenceManager.passivate(marshalledEntry);
             if (statsEnabled) passivations.getAndIncrement();
          } catch (CacheException e) {
             log.unableToPassivateEntry(key, e);
@@ -3,25 +3,38 @@
 import net.jcip.annotations.ThreadSafe;
 import org.infinispan.AdvancedCache;
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.write.RemoveExpiredCommand;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextContainer;
+import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Allows for cluster based expirations to occur.  This provides guarantees that when an entry is expired that it will
@@ -34,6 +47,12 @@
  * Cache stores however do not supply the value or metadata information which means if an entry is purged from the cache
  * store that it will forcibly remove the value even if a concurrent write updated it just before.  This will be
  * addressed by future SPI changes to the cache store.
+ * <p>
+ * Entries expired because of their lifespan are not removed one at a time.  They are queued and a background task
+ * removes them in batches: the entries this node is the primary owner of are removed locally, and a single command is
+ * then sent to each backup owner to remove all of them there.  The entries owned by other nodes are sent in a single
+ * command to each primary owner, which removes them and updates its backups.  Transactional caches still remove each
+ * entry with its own {@link AdvancedCache#removeExpired(Object, Object, Long)} invocation.
  * @param <K>
  * @param <V>
  */
@@ -42,14 +61,31 @@
    protected static final Log log = LogFactory.getLog(ClusterExpirationManager.class);
    protected static final boolean trace = log.isTraceEnabled();
 
+   private static final int EXPIRATION_BATCH_SIZE = 256;
+
+   private final Queue<InternalCacheEntry<K, V>> pendingExpirations = new ConcurrentLinkedQueue<>();
+   private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
    private ExecutorService asyncExecutor;
    private AdvancedCache<K, V> cache;
+   private CommandsFactory commandsFactory;
+   private InvocationContextFactory invocationContextFactory;
+   private InterceptorChain invoker;
+   private RpcManager rpcManager;
+   private ClusteringDependentLogic cdl;
 
    @Inject
    public void inject(AdvancedCache<K, V> cache,
-           @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor) {
+           @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor,
+           CommandsFactory commandsFactory, InvocationContextFactory invocationContextFactory,
+           InterceptorChain invoker, RpcManager rpcManager, ClusteringDependentLogic cdl) {
       this.cache = cache;
       this.asyncExecutor = asyncExecutor;
+      this.commandsFactory = commandsFactory;
+      this.invocationContextFactory = invocationContextFactory;
+      this.invoker = invoker;
+      this.rpcManager = rpcManager;
+      this.cdl = cdl;
    }
 
    @Override
@@ -67,12 +103,14 @@ public void processExpiration() {
                InternalCacheEntry<K, V> e = purgeCandidates.next();
                if (e.canExpire()) {
                   if (ExpiryHelper.isExpiredMortal(e.getLifespan(), e.getCreated(), currentTimeMillis)) {
-                     handleLifespanExpireEntry(e);
+                     queueLifespanExpiration(e);
                   } else if (ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis)) {
                      super.handleInMemoryExpiration(e, currentTimeMillis);
                   }
                }
             }
+            // The expired entries are only removed after the whole container has been checked, so they can be batched
+            scheduleExpirationRemovals();
             if (trace) {
                log.tracef("Purging data container completed in %s",
                        Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
@@ -88,20 +126,112 @@ public void processExpiration() {
    }
 
    void handleLifespanExpireEntry(InternalCacheEntry<K, V> entry) {
+      if (queueLifespanExpiration(entry)) {
+         scheduleExpirationRemovals();
+      }
+   }
+
+   private boolean queueLifespanExpiration(InternalCacheEntry<K, V> entry) {
       K key = entry.getKey();
       // The most used case will be a miss so no extra read before
       if (expiring.putIfAbsent(key, key) == null) {
-         long lifespan = entry.getLifespan();
          if (trace) {
-            log.tracef("Submitting expiration removal for key %s which had lifespan of %s", key, lifespan);
+            log.tracef("Queueing expiration removal for key %s which had lifespan of %s", key, entry.getLifespan());
+         }
+         pendingExpirations.add(entry);
+         return true;
+      }
+      return false;
+   }
+
+   private void scheduleExpirationRemovals() {
+      if (!pendingExpirations.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+         asyncExecutor.submit(this::drainExpirations);
+      }
+   }
+
+   private void drainExpirations() {
+      List<InternalCacheEntry<K, V>> batch = new ArrayList<>(EXPIRATION_BATCH_SIZE);
+      try {
+         InternalCacheEntry<K, V> entry;
+         while ((entry = pendingExpirations.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() == EXPIRATION_BATCH_SIZE || pendingExpirations.isEmpty()) {
+               try {
+                  removeExpiredBatch(batch);
+               } finally {
+                  for (InternalCacheEntry<K, V> removed : batch) {
+                     expiring.remove(removed.getKey());
+                  }
+                  batch.clear();
+               }
+            }
          }
-         asyncExecutor.submit(() -> {
+      } finally {
+         drainScheduled.set(false);
+      }
+      // Entries may have been queued after the last poll but before the flag was cleared
+      scheduleExpirationRemovals();
+   }
+
+   private void removeExpiredBatch(List<InternalCacheEntry<K, V>> batch) {
+      if (configuration.transaction().transactionMode().isTransactional()) {
+         // Transactional caches need the removals to go through a transaction, so they can't be batched
+         for (InternalCacheEntry<K, V> entry : batch) {
             try {
-               removeExpired(key, entry.getValue(), lifespan);
-            } finally {
-               expiring.remove(key);
+               removeExpired(entry.getKey(), entry.getValue(), entry.getLifespan());
+            } catch (Throwable t) {
+               log.debugf(t, "Failed to remove expired entry %s", entry.getKey());
             }
-         });
+         }
+         return;
+      }
+      Address localAddress = rpcManager.getAddress();
+      // The commands inside a MultipleRpcCommand don't get the topology id from the RPC manager
+      int topologyId = rpcManager.getTopologyId();
+      Map<Address, List<ReplicableCommand>> commandsByOwner = new HashMap<>();
+      for (InternalCacheEntry<K, V> entry : batch) {
+         K key = entry.getKey();
+         RemoveExpiredCommand command = commandsFactory.buildRemoveExpiredCommand(key, entry.getValue(),
+               entry.getLifespan());
+         command.setTopologyId(topologyId);
+         Address primaryOwner = cdl.getPrimaryOwner(key);
+         if (!localAddress.equals(primaryOwner)) {
+            commandsByOwner.computeIfAbsent(primaryOwner, a -> new ArrayList<>()).add(command);
+         } else if (removeExpiredLocally(command)) {
+            List<Address> owners = cdl.getOwners(key);
+            for (Address owner : owners != null ? owners : rpcManager.getMembers()) {
+               if (!localAddress.equals(owner)) {
+                  commandsByOwner.computeIfAbsent(owner, a -> new ArrayList<>()).add(command);
+               }
+            }
+         }
+      }
+      for (Map.Entry<Address, List<ReplicableCommand>> commands : commandsByOwner.entrySet()) {
+         Address owner = commands.getKey();
+         if (trace) {
+            log.tracef("Sending %d expiration removals to %s", commands.getValue().size(), owner);
+         }
+         try {
+            rpcManager.invokeRemotely(Collections.singletonList(owner),
+                  commandsFactory.buildReplicateCommand(commands.getValue()), rpcManager.getDefaultRpcOptions(true));
+         } catch (Throwable t) {
+            log.debugf(t, "Failed to send %d expiration removals to %s", commands.getValue().size(), owner);
+         }
+      }
+   }
+
+   private boolean removeExpiredLocally(RemoveExpiredCommand command) {
+      // The backups are updated together with the rest of the batch
+      command.setFlags(Flag.CACHE_MODE_LOCAL);
+      InvocationContext ctx = invocationContextFactory.createSingleKeyNonTxInvocationContext();
+      ctx.setLockOwner(command.getKeyLockOwner());
+      try {
+         invoker.invoke(ctx, command);
+         return command.isSuccessful();
+      } catch (Throwable t) {
+         log.debugf(t, "Failed to remove expired entry %s", command.getKey());
+         return false;
       }
    }
 
@@ -120,7 +250,10 @@ public void handleInMemoryExpiration(InternalCacheEntry<K, V> entry, long curren
 
    @Override
    public void handleInStoreExpiration(K key) {
-      expiring.put(key, key);
+      if (expiring.putIfAbsent(key, key) != null) {
+         // The entry expired in memory as well and it is already being removed
+         return;
+      }
       // Unfortunately stores don't pull the entry so we can't tell exactly why it expired and thus we have to remove
       // the entire value.  Unfortunately this could cause a concurrent write to be undone
       try {
@@ -11,6 +11,7 @@
 import org.infinispan.interceptors.base.CommandInterceptor;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interceptor used to ensure that when a writie occurs we don't expire the entry at the same time.  This can be both
@@ -53,14 +54,24 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       }
    }
 
+   @Override
+   protected boolean isDeferredResultAware() {
+      return true;
+   }
+
    private Object handleWriteCommand(InvocationContext ctx, DataWriteCommand command) throws Throwable {
       K key = (K) command.getKey();
       expirationManager.registerWriteIncoming(key);
       try {
          return handleDefault(ctx, command);
       } finally {
-         // TODO: what about for transactions?
-         expirationManager.unregisterWrite(key);
+         CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+         if (deferredResult == null) {
+            // TODO: what about for transactions?
+            expirationManager.unregisterWrite(key);
+         } else {
+            ctx.deferResult(deferredResult.whenComplete((ignored, throwable) -> expirationManager.unregisterWrite(key)));
+         }
       }
    }
 }
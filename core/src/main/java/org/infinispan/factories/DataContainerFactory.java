@@ -5,8 +5,7 @@
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
-import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
-import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.container.entries.ClassLayoutEntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.eviction.EvictionType;
@@ -49,12 +48,10 @@ public <T> T construct(Class<T> componentType) {
             case LRU:
 
                if (configuration.eviction().type() == EvictionType.MEMORY) {
-                  EntrySizeCalculator esc;
-                  if (configuration.storeAsBinary().storeKeysAsBinary() &&
-                          configuration.storeAsBinary().storeValuesAsBinary()) {
-                     esc = new MarshalledValueEntrySizeCalculator();
-                  } else {
-                     esc = new PrimitiveEntrySizeCalculator();
+                  EntrySizeCalculator esc = configuration.eviction().sizeCalculator();
+                  if (esc == null) {
+                     // Handles marshalled values as well as any other key or value type
+                     esc = new ClassLayoutEntrySizeCalculator();
                   }
 
                   return (T) DefaultDataContainer.boundedDataContainer(
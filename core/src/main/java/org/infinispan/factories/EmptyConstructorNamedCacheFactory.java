@@ -32,6 +32,7 @@
 import org.infinispan.notifications.cachelistener.cluster.ClusterCacheNotifier;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.manager.PersistenceManagerImpl;
+import org.infinispan.remoting.AsyncCommandBundler;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.notifications.cachelistener.CacheNotifierImpl;
 import org.infinispan.statetransfer.CommitManager;
@@ -39,6 +40,7 @@
 import org.infinispan.statetransfer.StateTransferLockImpl;
 import org.infinispan.transaction.impl.TransactionCoordinator;
 import org.infinispan.transaction.totalorder.TotalOrderManager;
+import org.infinispan.transaction.totalorder.TotalOrderPrepareBatcher;
 import org.infinispan.transaction.xa.TransactionFactory;
 import org.infinispan.transaction.xa.recovery.RecoveryAdminOperations;
 import org.infinispan.xsite.BackupSender;
@@ -65,7 +67,7 @@
                               BatchContainer.class, EvictionManager.class,
                               TransactionCoordinator.class, RecoveryAdminOperations.class, StateTransferLock.class,
                               ClusteringDependentLogic.class, L1Manager.class, TransactionFactory.class, BackupSender.class,
-                              TotalOrderManager.class, ByteBufferFactory.class, MarshalledEntryFactory.class,
+                              TotalOrderManager.class, TotalOrderPrepareBatcher.class, AsyncCommandBundler.class, ByteBufferFactory.class, MarshalledEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
                               XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
                               FunctionalNotifier.class})
@@ -123,6 +125,15 @@ public <T> T construct(Class<T> componentType) {
          } else if (componentType.equals(TotalOrderManager.class)) {
             return isTransactional && configuration.transaction().transactionProtocol().isTotalOrder() ?
                   (T) new TotalOrderManager() : null;
+         } else if (componentType.equals(TotalOrderPrepareBatcher.class)) {
+            return isTransactional && configuration.transaction().transactionProtocol().isTotalOrder() &&
+                  configuration.clustering().cacheMode().isSynchronous() &&
+                  configuration.transaction().totalOrderBatchSize() > 1 ? (T) new TotalOrderPrepareBatcher() : null;
+         } else if (componentType.equals(AsyncCommandBundler.class)) {
+            boolean async = configuration.clustering().cacheMode().isClustered() &&
+                  !configuration.clustering().cacheMode().isSynchronous();
+            return async && !configuration.clustering().async().useReplQueue() &&
+                  configuration.clustering().async().bundleSize() > 1 ? (T) new AsyncCommandBundler() : null;
          } else if (componentType.equals(ByteBufferFactory.class)) {
             return (T) new ByteBufferFactoryImpl();
          } else if (componentType.equals(MarshalledEntryFactory.class)) {
@@ -21,6 +21,7 @@
 public class CompositeKeyFilter<K> implements KeyFilter<K> {
    private final KeyFilter<? super K>[] filters;
 
+   @SafeVarargs
    public CompositeKeyFilter(KeyFilter<? super K>... filters) {
       this.filters = filters;
    }
@@ -284,10 +284,11 @@ public CloseableIterator<K> iterator() {
             Set<K> seenKeys = new EquivalentHashSet<K>(cache.getAdvancedCache().getDataContainer().size(),
                     new AnyServerEquivalence());
             // TODO: how to handle concurrent activation....
+            // only the keys are needed, so the stores don't have to read and unmarshall the values and metadata
             return new DistinctKeyDoubleEntryCloseableIterator<>(iterator, new CloseableSuppliedIterator<>(
                     new SupplierFunction<>(new PersistenceManagerCloseableSupplier<>(executorService, persistenceManager,
                             // TODO: how to pass in key filter...
-                            iceFactory, new CollectionKeyFilter<>(seenKeys), 10, TimeUnit.SECONDS, 2048))),
+                            iceFactory, new CollectionKeyFilter<>(seenKeys), 10, TimeUnit.SECONDS, 2048, false, false))),
                     Function.identity(), seenKeys);
          }
 
@@ -64,6 +64,11 @@ protected Log getLog() {
       return log;
    }
 
+   @Override
+   protected boolean isDeferredResultAware() {
+      return true;
+   }
+
    @Inject
    @SuppressWarnings("unused")
    public void setDependencies(DataContainer dataContainer, TimeService timeService) {
@@ -190,10 +195,15 @@ private Object updateStoreStatistics(InvocationContext ctx, WriteCommand command
 
       Object retval = invokeNextInterceptor(ctx, command);
 
-      if (statisticsEnabled && ctx.isOriginLocal() && command.isSuccessful()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         storeTimes.add(intervalMilliseconds);
-         stores.increment();
+      if (statisticsEnabled && ctx.isOriginLocal()) {
+         final long startTime = start;
+         return afterInvocation(ctx, retval, ignored -> {
+            if (command.isSuccessful()) {
+               long intervalMilliseconds = timeService.timeDuration(startTime, TimeUnit.MILLISECONDS);
+               storeTimes.add(intervalMilliseconds);
+               stores.increment();
+            }
+         });
       }
 
       return retval;
@@ -209,17 +219,20 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
       Object retval = invokeNextInterceptor(ctx, command);
 
       if (statisticsEnabled && ctx.isOriginLocal()) {
-         if (command.isConditional()) {
-            if (command.isSuccessful())
-               increaseRemoveHits(start);
-            else
-               increaseRemoveMisses();
-         } else {
-            if (retval == null)
-               increaseRemoveMisses();
-            else
-               increaseRemoveHits(start);
-         }
+         final long startTime = start;
+         return afterInvocation(ctx, retval, result -> {
+            if (command.isConditional()) {
+               if (command.isSuccessful())
+                  increaseRemoveHits(startTime);
+               else
+                  increaseRemoveMisses();
+            } else {
+               if (result == null)
+                  increaseRemoveMisses();
+               else
+                  increaseRemoveHits(startTime);
+            }
+         });
       }
 
       return retval;
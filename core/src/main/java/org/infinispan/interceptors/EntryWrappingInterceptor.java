@@ -1,11 +1,14 @@
 package org.infinispan.interceptors;
 
 import static org.infinispan.commons.util.Util.toStr;
+import static org.infinispan.factories.KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
 
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.infinispan.commands.AbstractVisitor;
 import org.infinispan.commands.CommandsFactory;
@@ -30,6 +33,7 @@
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.group.GroupFilter;
 import org.infinispan.distribution.group.GroupManager;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.filter.CollectionKeyFilter;
@@ -65,10 +69,17 @@ public class EntryWrappingInterceptor extends CommandInterceptor {
    private StateTransferLock stateTransferLock;
    private XSiteStateConsumer xSiteStateConsumer;
    private GroupManager groupManager;
+   private ExecutorService asyncExecutor;
+   private ExecutorService remoteExecutor;
 
    private static final Log log = LogFactory.getLog(EntryWrappingInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
 
+   @Override
+   protected boolean isDeferredResultAware() {
+      return true;
+   }
+
    @Override
    protected Log getLog() {
       return log;
@@ -77,7 +88,9 @@ protected Log getLog() {
    @Inject
    public void init(EntryFactory entryFactory, DataContainer<Object, Object> dataContainer, ClusteringDependentLogic cdl,
                     CommandsFactory commandFactory, StateConsumer stateConsumer, StateTransferLock stateTransferLock,
-                    XSiteStateConsumer xSiteStateConsumer, GroupManager groupManager) {
+                    XSiteStateConsumer xSiteStateConsumer, GroupManager groupManager,
+                    @ComponentName(ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor,
+                    @ComponentName(REMOTE_COMMAND_EXECUTOR) ExecutorService remoteExecutor) {
       this.entryFactory = entryFactory;
       this.dataContainer = dataContainer;
       this.cdl = cdl;
@@ -86,6 +99,8 @@ public void init(EntryFactory entryFactory, DataContainer<Object, Object> dataCo
       this.stateTransferLock = stateTransferLock;
       this.xSiteStateConsumer = xSiteStateConsumer;
       this.groupManager = groupManager;
+      this.asyncExecutor = asyncExecutor;
+      this.remoteExecutor = remoteExecutor;
    }
 
    @Start
@@ -496,45 +511,51 @@ private Object invokeNextAndApplyChanges(InvocationContext ctx, FlagAffectedComm
       final Object result = invokeNextInterceptor(ctx, command);
 
       if (!ctx.isInTxScope()) {
-         stateTransferLock.acquireSharedTopologyLock();
-         try {
-            // We only retry non-tx write commands
-            if (command instanceof WriteCommand) {
-               WriteCommand writeCommand = (WriteCommand) command;
-               // Can't perform the check during preload or if the cache isn't clustered
-               boolean isSync = (cacheConfiguration.clustering().cacheMode().isSynchronous() &&
-                     !command.hasFlag(Flag.FORCE_ASYNCHRONOUS)) || command.hasFlag(Flag.FORCE_SYNCHRONOUS);
-               if (writeCommand.isSuccessful() && stateConsumer != null &&
-                     stateConsumer.getCacheTopology() != null) {
-                  int commandTopologyId = command.getTopologyId();
-                  int currentTopologyId = stateConsumer.getCacheTopology().getTopologyId();
-                  // TotalOrderStateTransferInterceptor doesn't set the topology id for PFERs.
-                  if (isSync && currentTopologyId != commandTopologyId && commandTopologyId != -1) {
-                     // If we were the originator of a data command which we didn't own the key at the time means it
-                     // was already committed, so there is no need to throw the OutdatedTopologyException
-                     // This will happen if we submit a command to the primary owner and it responds and then a topology
-                     // change happens before we get here
-                     if (!ctx.isOriginLocal() || !(command instanceof DataCommand) ||
-                               ctx.hasLockedKey(((DataCommand)command).getKey())) {
-                        if (trace) log.tracef("Cache topology changed while the command was executing: expected %d, got %d",
-                              commandTopologyId, currentTopologyId);
-                        // This shouldn't be necessary, as we'll have a fresh command instance when retrying
-                        writeCommand.setValueMatcher(writeCommand.getValueMatcher().matcherForRetry());
-                        throw new OutdatedTopologyException("Cache topology changed while the command was executing: expected " +
-                              commandTopologyId + ", got " + currentTopologyId);
-                     }
+         // With a deferred result, commit only after the other owners applied the command, as if we had waited for them
+         afterInvocation(ctx, result, ignored -> applyChanges(ctx, command, metadata),
+                         ctx.isOriginLocal() ? asyncExecutor : remoteExecutor);
+      }
+
+      if (trace) log.tracef("The return value is %s", result);
+      return result;
+   }
+
+   private void applyChanges(InvocationContext ctx, FlagAffectedCommand command, Metadata metadata) {
+      stateTransferLock.acquireSharedTopologyLock();
+      try {
+         // We only retry non-tx write commands
+         if (command instanceof WriteCommand) {
+            WriteCommand writeCommand = (WriteCommand) command;
+            // Can't perform the check during preload or if the cache isn't clustered
+            boolean isSync = (cacheConfiguration.clustering().cacheMode().isSynchronous() &&
+                  !command.hasFlag(Flag.FORCE_ASYNCHRONOUS)) || command.hasFlag(Flag.FORCE_SYNCHRONOUS);
+            if (writeCommand.isSuccessful() && stateConsumer != null &&
+                  stateConsumer.getCacheTopology() != null) {
+               int commandTopologyId = command.getTopologyId();
+               int currentTopologyId = stateConsumer.getCacheTopology().getTopologyId();
+               // TotalOrderStateTransferInterceptor doesn't set the topology id for PFERs.
+               if (isSync && currentTopologyId != commandTopologyId && commandTopologyId != -1) {
+                  // If we were the originator of a data command which we didn't own the key at the time means it
+                  // was already committed, so there is no need to throw the OutdatedTopologyException
+                  // This will happen if we submit a command to the primary owner and it responds and then a topology
+                  // change happens before we get here
+                  if (!ctx.isOriginLocal() || !(command instanceof DataCommand) ||
+                            ctx.hasLockedKey(((DataCommand)command).getKey())) {
+                     if (trace) log.tracef("Cache topology changed while the command was executing: expected %d, got %d",
+                           commandTopologyId, currentTopologyId);
+                     // This shouldn't be necessary, as we'll have a fresh command instance when retrying
+                     writeCommand.setValueMatcher(writeCommand.getValueMatcher().matcherForRetry());
+                     throw new OutdatedTopologyException("Cache topology changed while the command was executing: expected " +
+                           commandTopologyId + ", got " + currentTopologyId);
                   }
                }
             }
-
-            commitContextEntries(ctx, command, metadata);
-         } finally {
-            stateTransferLock.releaseSharedTopologyLock();
          }
-      }
 
-      if (trace) log.tracef("The return value is %s", result);
-      return result;
+         commitContextEntries(ctx, command, metadata);
+      } finally {
+         stateTransferLock.releaseSharedTopologyLock();
+      }
    }
 
    /**
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors;
 
 import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.Visitor;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.commons.util.ReflectionUtil;
@@ -13,17 +14,30 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.interceptors.base.JmxStatsCommandInterceptor;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Knows how to build and manage an chain of interceptors. Also in charge with invoking methods on the chain.
+ * <p/>
+ * The commands skip the interceptors that don't override their visit method, or {@link
+ * CommandInterceptor#handleDefault(InvocationContext, VisitableCommand)}, as those would only pass them up the chain.
+ * The interceptors exposing statistics are never skipped.
  *
  * @author Mircea.Markus@jboss.com
  * @author Galder Zamarreño
@@ -34,11 +48,25 @@ public class InterceptorChain {
 
    private static final Log log = LogFactory.getLog(InterceptorChain.class);
 
+   private static final Map<Class<?>, List<Method>> VISIT_METHODS = findVisitMethods();
+
+   private static final ClassValue<Set<Class<?>>> INTERCEPTED_COMMANDS = new ClassValue<Set<Class<?>>>() {
+      @Override
+      protected Set<Class<?>> computeValue(Class<?> interceptorClass) {
+         return findInterceptedCommands(interceptorClass);
+      }
+   };
+
    /**
     * reference to the first interceptor in the chain
     */
    private volatile CommandInterceptor firstInChain;
 
+   /**
+    * The first interceptor in the chain for the command classes, see {@link #buildCommandChains()}.
+    */
+   private volatile Map<Class<?>, CommandInterceptor> firstByCommand = Collections.emptyMap();
+
    final ReentrantLock lock = new ReentrantLock();
    final ComponentMetadataRepo componentMetadataRepo;
 
@@ -107,6 +135,7 @@ public void addInterceptor(CommandInterceptor interceptor, int position) {
          }
          throw new IllegalArgumentException("Invalid index: " + index + " !");
       } finally {
+         buildCommandChains();
          lock.unlock();
       }
    }
@@ -138,6 +167,7 @@ public void removeInterceptor(int position) {
          }
          throw new IllegalArgumentException("Invalid position: " + position + " !");
       } finally {
+         buildCommandChains();
          lock.unlock();
       }
    }
@@ -194,6 +224,7 @@ public void removeInterceptor(Class<? extends CommandInterceptor> clazz) {
             it = it.getNext();
          }
       } finally {
+         buildCommandChains();
          lock.unlock();
       }
    }
@@ -225,6 +256,7 @@ public boolean addInterceptorAfter(CommandInterceptor toAdd, Class<? extends Com
          }
          return false;
       } finally {
+         buildCommandChains();
          lock.unlock();
       }
    }
@@ -267,6 +299,7 @@ public boolean addInterceptorBefore(CommandInterceptor toAdd, Class<? extends Co
          }
          return false;
       } finally {
+         buildCommandChains();
          lock.unlock();
       }
    }
@@ -305,6 +338,7 @@ public boolean replaceInterceptor(CommandInterceptor replacingInterceptor, Class
          }
          return false;
       } finally {
+         buildCommandChains();
          lock.unlock();
       }
    }
@@ -326,25 +360,172 @@ public void appendInterceptor(CommandInterceptor ci, boolean isCustom) {
       }
       // make sure we nullify the "next" pointer in the last interceptors.
       ci.setNext(null);
+      buildCommandChains();
    }
 
    /**
     * Walks the command through the interceptor chain. The received ctx is being passed in.
     */
    public Object invoke(InvocationContext ctx, VisitableCommand command) {
+      Object result = invokeChain(ctx, command);
+      CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+      if (deferredResult == null) {
+         return result;
+      }
       try {
-         return command.acceptVisitor(ctx, firstInChain);
-      } catch (CacheException e) {
-         if (e.getCause() instanceof InterruptedException)
-            Thread.currentThread().interrupt();
-         throw e;
-      } catch (RuntimeException e) {
-         throw e;
+         return CompletableFutures.await(deferredResult);
       } catch (Throwable t) {
-         throw new CacheException(t);
+         throw rethrow(t);
       }
    }
 
+   /**
+    * Walks the command through the interceptor chain, allowing the interceptors to defer the result of the invocation
+    * with {@link InvocationContext#deferResult(CompletableFuture)} instead of blocking the current thread, e.g. while
+    * the command is sent to the primary owner or to the backup owners.
+    * <p/>
+    * The interceptors that do not support deferred results wait for it, so the invocation can still block.
+    *
+    * @return a {@link CompletableFuture} completed with the return value of the invocation.
+    * @see CommandInterceptor#isDeferredResultAware()
+    */
+   public CompletableFuture<Object> invokeAsync(InvocationContext ctx, VisitableCommand command) {
+      ctx.setResultDeferrable(true);
+      Object result;
+      try {
+         result = invokeChain(ctx, command);
+      } catch (Throwable t) {
+         return CompletableFutures.completedExceptionFuture(t);
+      }
+      CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+      return deferredResult == null ? CompletableFuture.completedFuture(result) : deferredResult;
+   }
+
+   private Object invokeChain(InvocationContext ctx, VisitableCommand command) {
+      try {
+         return command.acceptVisitor(ctx, getFirstInChain(command.getClass()));
+      } catch (Throwable t) {
+         throw rethrow(t);
+      }
+   }
+
+   private static RuntimeException rethrow(Throwable t) {
+      if (t instanceof CacheException) {
+         if (t.getCause() instanceof InterruptedException)
+            Thread.currentThread().interrupt();
+         throw (CacheException) t;
+      } else if (t instanceof RuntimeException) {
+         throw (RuntimeException) t;
+      }
+      throw new CacheException(t);
+   }
+
+   /**
+    * Builds the chain of each command class, with only the interceptors that intercept its commands, so the commands
+    * skip the interceptors that would only pass them up the chain. The chains are rebuilt every time the chain changes.
+    * <p/>
+    * A command class is specialized if it is the parameter of a {@link Visitor} method. The commands of its subclasses
+    * go through the whole chain.
+    */
+   private void buildCommandChains() {
+      List<CommandInterceptor> interceptors = new ArrayList<>();
+      for (CommandInterceptor it = firstInChain; it != null; it = it.getNext()) {
+         interceptors.add(it);
+      }
+      List<Map<Class<?>, CommandInterceptor>> nextByCommand = new ArrayList<>(interceptors.size());
+      for (int i = 0; i < interceptors.size(); i++) {
+         nextByCommand.add(new HashMap<>());
+      }
+      Map<Class<?>, CommandInterceptor> first = new HashMap<>();
+      for (Class<?> commandClass : VISIT_METHODS.keySet()) {
+         // walk the chain backwards, remembering the last interceptor that intercepts the command
+         CommandInterceptor nextInterceptor = null;
+         for (int i = interceptors.size() - 1; i >= 0; i--) {
+            CommandInterceptor interceptor = interceptors.get(i);
+            if (nextInterceptor != null && nextInterceptor != interceptor.getNext()) {
+               nextByCommand.get(i).put(commandClass, nextInterceptor);
+            }
+            if (INTERCEPTED_COMMANDS.get(interceptor.getClass()).contains(commandClass)) {
+               nextInterceptor = interceptor;
+            }
+         }
+         if (nextInterceptor != null && nextInterceptor != firstInChain) {
+            first.put(commandClass, nextInterceptor);
+         }
+      }
+      for (int i = 0; i < interceptors.size(); i++) {
+         Map<Class<?>, CommandInterceptor> next = nextByCommand.get(i);
+         interceptors.get(i).setNextByCommand(next.isEmpty() ? null : next);
+      }
+      firstByCommand = first;
+   }
+
+   /**
+    * @return the {@link Visitor} methods by command class, including the methods for its superclasses.
+    */
+   private static Map<Class<?>, List<Method>> findVisitMethods() {
+      List<Method> visitMethods = new ArrayList<>();
+      for (Method method : Visitor.class.getMethods()) {
+         Class<?>[] parameterTypes = method.getParameterTypes();
+         if (parameterTypes.length == 2 && VisitableCommand.class.isAssignableFrom(parameterTypes[1]) &&
+               !parameterTypes[1].isInterface() && !Modifier.isAbstract(parameterTypes[1].getModifiers())) {
+            visitMethods.add(method);
+         }
+      }
+      Map<Class<?>, List<Method>> methodsByCommand = new HashMap<>();
+      for (Method method : visitMethods) {
+         Class<?> commandClass = method.getParameterTypes()[1];
+         List<Method> methods = new ArrayList<>(1);
+         // e.g. AbstractVisitor.visitInvalidateL1Command() invokes visitInvalidateCommand(), so the interceptors
+         // overriding the visit method of a superclass are kept, even if the default visit method doesn't invoke it
+         for (Method superMethod : visitMethods) {
+            if (superMethod.getParameterTypes()[1].isAssignableFrom(commandClass)) {
+               methods.add(superMethod);
+            }
+         }
+         methodsByCommand.put(commandClass, methods);
+      }
+      return Collections.unmodifiableMap(methodsByCommand);
+   }
+
+   /**
+    * @return the command classes intercepted by the interceptors of the given class, i.e. the classes whose visit
+    * method is overridden. The interceptors exposing statistics intercept every command.
+    */
+   private static Set<Class<?>> findInterceptedCommands(Class<?> interceptorClass) {
+      try {
+         if (JmxStatsCommandInterceptor.class.isAssignableFrom(interceptorClass) ||
+               isOverridden(interceptorClass, "handleDefault", InvocationContext.class, VisitableCommand.class)) {
+            return VISIT_METHODS.keySet();
+         }
+         Set<Class<?>> interceptedCommands = new HashSet<>();
+         for (Map.Entry<Class<?>, List<Method>> entry : VISIT_METHODS.entrySet()) {
+            for (Method method : entry.getValue()) {
+               if (isOverridden(interceptorClass, method.getName(), method.getParameterTypes())) {
+                  interceptedCommands.add(entry.getKey());
+                  break;
+               }
+            }
+         }
+         return interceptedCommands;
+      } catch (LinkageError | SecurityException e) {
+         log.debugf(e, "Cannot find the commands intercepted by %s, it will intercept every command", interceptorClass);
+         return VISIT_METHODS.keySet();
+      }
+   }
+
+   private static boolean isOverridden(Class<?> interceptorClass, String name, Class<?>... parameterTypes) {
+      for (Class<?> c = interceptorClass; c != CommandInterceptor.class && c != null; c = c.getSuperclass()) {
+         try {
+            c.getDeclaredMethod(name, parameterTypes);
+            return true;
+         } catch (NoSuchMethodException e) {
+            // check the superclass
+         }
+      }
+      return false;
+   }
+
    /**
     * @return the first interceptor in the chain.
     */
@@ -353,6 +534,15 @@ public CommandInterceptor getFirstInChain() {
       return firstInChain;
    }
 
+   /**
+    * @return the first interceptor in the chain that intercepts the commands of the given class.
+    * @see CommandInterceptor#getNext(Class)
+    */
+   public CommandInterceptor getFirstInChain(Class<? extends VisitableCommand> commandClass) {
+      CommandInterceptor first = firstByCommand.get(commandClass);
+      return first == null ? firstInChain : first;
+   }
+
    /**
     * Mainly used by unit tests to replace the interceptor chain with the starting point passed in.
     *
@@ -360,6 +550,7 @@ public CommandInterceptor getFirstInChain() {
     */
    public void setFirstInChain(CommandInterceptor interceptor) {
       this.firstInChain = interceptor;
+      buildCommandChains();
    }
 
    /**
@@ -17,6 +17,7 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.statetransfer.StateConsumer;
 import org.infinispan.transaction.impl.LocalTransaction;
+import org.infinispan.transaction.totalorder.TotalOrderPrepareBatcher;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -36,11 +37,18 @@ public abstract class BaseRpcInterceptor extends CommandInterceptor {
 
    protected boolean defaultSynchronous;
 
+   private TotalOrderPrepareBatcher totalOrderPrepareBatcher;
+
    @Inject
    public void inject(RpcManager rpcManager, StateConsumer stateConsumer) {
       this.rpcManager = rpcManager;
    }
 
+   @Inject
+   public void injectTotalOrderPrepareBatcher(TotalOrderPrepareBatcher totalOrderPrepareBatcher) {
+      this.totalOrderPrepareBatcher = totalOrderPrepareBatcher;
+   }
+
    @Start
    public void init() {
       defaultSynchronous = cacheConfiguration.clustering().cacheMode().isSynchronous();
@@ -124,6 +132,9 @@ protected final Map<Address, Response> totalOrderPrepare(Collection<Address> rec
    private Map<Address, Response> internalTotalOrderPrepare(Collection<Address> recipients, PrepareCommand prepareCommand,
                                                             TimeoutValidationResponseFilter responseFilter) {
       if (defaultSynchronous) {
+         if (totalOrderPrepareBatcher != null) {
+            return totalOrderPrepareBatcher.prepare(recipients, prepareCommand, responseFilter);
+         }
          RpcOptionsBuilder builder = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.TOTAL);
          if (responseFilter != null) {
             builder.responseFilter(responseFilter);
@@ -14,10 +14,15 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * This is the base class for all interceptors to extend, and implements the {@link Visitor} interface allowing it to
@@ -36,6 +41,9 @@
  * {@link #handleDefault(InvocationContext, VisitableCommand)} and then write a series of if statements or a switch
  * block, if command-specific behaviour is needed.
  * <p/>
+ * Asynchronous invocations can defer their result instead of blocking, e.g. while waiting for other nodes. Interceptors
+ * see them as synchronous invocations, unless they override {@link #isDeferredResultAware()}.
+ * <p/>
  *
  * @author Mircea.Markus@jboss.com
  * @see VisitableCommand
@@ -48,6 +56,11 @@ public abstract class CommandInterceptor extends AbstractVisitor {
 
    private CommandInterceptor next;
 
+   /**
+    * The next interceptor for the command classes that skip {@link #next}, see {@link #setNextByCommand(Map)}.
+    */
+   private Map<Class<?>, CommandInterceptor> nextByCommand;
+
    protected Configuration cacheConfiguration;
 
    private static final Log log = LogFactory.getLog(CommandInterceptor.class);
@@ -84,6 +97,31 @@ public final boolean hasNext() {
     */
    public final void setNext(CommandInterceptor next) {
       this.next = next;
+      this.nextByCommand = null;
+   }
+
+   /**
+    * Retrieves the next interceptor in the chain for the commands of the given class.
+    *
+    * @param commandClass the class of the command.
+    * @return the next interceptor in the chain that intercepts commands of the given class.
+    */
+   public final CommandInterceptor getNext(Class<? extends VisitableCommand> commandClass) {
+      Map<Class<?>, CommandInterceptor> nextByCommand = this.nextByCommand;
+      CommandInterceptor nextInterceptor = nextByCommand == null ? null : nextByCommand.get(commandClass);
+      return nextInterceptor == null ? next : nextInterceptor;
+   }
+
+   /**
+    * Sets the next interceptor in the chain for the commands of some classes, skipping the interceptors that would only
+    * pass them up the chain. The other commands go to {@link #getNext()}. It is reset by {@link
+    * #setNext(CommandInterceptor)}.
+    *
+    * @param nextByCommand the next interceptor by command class.
+    * @see org.infinispan.interceptors.InterceptorChain
+    */
+   public final void setNextByCommand(Map<Class<?>, CommandInterceptor> nextByCommand) {
+      this.nextByCommand = nextByCommand;
    }
 
    /**
@@ -96,7 +134,77 @@ public final void setNext(CommandInterceptor next) {
     * @throws Throwable in the event of problems
     */
    public final Object invokeNextInterceptor(InvocationContext ctx, VisitableCommand command) throws Throwable {
-      return command.acceptVisitor(ctx, next);
+      Object returnValue = command.acceptVisitor(ctx, getNext(command.getClass()));
+      CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+      if (deferredResult != null && !isDeferredResultAware()) {
+         // This interceptor expects the invocation to be completed when the next interceptor returns
+         ctx.deferResult(null);
+         return CompletableFutures.await(deferredResult);
+      }
+      return returnValue;
+   }
+
+   /**
+    * Whether this interceptor supports the deferred results of asynchronous invocations. If it does, then after
+    * invoking the next interceptor it must check the {@link InvocationContext#getDeferredResult()}: if it is not
+    * {@code null}, the invocation is not completed yet and the return value of the next interceptor must be ignored. Any
+    * work that must happen after the invocation, e.g. releasing the locks, must be chained to the deferred result, see
+    * {@link #afterInvocation(InvocationContext, Object, Consumer)}.
+    * <p/>
+    * It returns {@code false} by default, so {@link #invokeNextInterceptor(InvocationContext, VisitableCommand)} waits
+    * for the deferred result and the invocation appears synchronous to this interceptor.
+    *
+    * @see org.infinispan.interceptors.InterceptorChain#invokeAsync(InvocationContext, VisitableCommand)
+    */
+   protected boolean isDeferredResultAware() {
+      return false;
+   }
+
+   /**
+    * Runs {@code action} with the return value of the invocation once it is completed successfully: immediately if the
+    * result of the invocation was not deferred, or when the deferred result completes.
+    *
+    * @param ctx         the invocation context.
+    * @param returnValue the return value of the next interceptor.
+    * @param action      the work to do after the invocation.
+    * @return {@code returnValue}
+    */
+   protected final Object afterInvocation(InvocationContext ctx, Object returnValue, Consumer<Object> action) {
+      CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+      if (deferredResult == null) {
+         action.accept(returnValue);
+      } else {
+         ctx.deferResult(deferredResult.thenApply(result -> {
+            action.accept(result);
+            return result;
+         }));
+      }
+      return returnValue;
+   }
+
+   /**
+    * Same as {@link #afterInvocation(InvocationContext, Object, Consumer)}, but a deferred {@code action} runs in
+    * {@code executor}. The deferred results are usually completed by the thread receiving the responses from the other
+    * nodes, which must not run expensive or blocking work.
+    *
+    * @param ctx         the invocation context.
+    * @param returnValue the return value of the next interceptor.
+    * @param action      the work to do after the invocation.
+    * @param executor    the executor running {@code action} if the result of the invocation was deferred.
+    * @return {@code returnValue}
+    */
+   protected final Object afterInvocation(InvocationContext ctx, Object returnValue, Consumer<Object> action,
+                                          Executor executor) {
+      CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+      if (deferredResult == null) {
+         action.accept(returnValue);
+      } else {
+         ctx.deferResult(deferredResult.thenApplyAsync(result -> {
+            action.accept(result);
+            return result;
+         }, executor));
+      }
+      return returnValue;
    }
 
    /**
@@ -7,6 +7,11 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.ReplicableCommand;
@@ -31,6 +36,7 @@
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.group.GroupManager;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.ClusteringInterceptor;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.remoting.RemoteException;
@@ -48,8 +54,12 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.stats.impl.LatencyHistogram;
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
+import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -71,9 +81,44 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
    protected ClusteringDependentLogic cdl;
    protected RemoteValueRetrievedListener rvrl;
    private GroupManager groupManager;
+   private TimeService timeService;
+   /**
+    * the configured {@link org.infinispan.configuration.cache.ClusteringConfiguration#remoteGetStaggerDelay()}.
+    */
+   private long staggerDelay;
+   private RemoteGetRouter router;
+   /**
+    * the topology id of the last members passed to {@link RemoteGetRouter#retainMembers(java.util.Collection)}.
+    */
+   private volatile int routerTopologyId = -1;
+   /**
+    * the response times of the remote gets recorded since {@link #remoteGetTimesStart}, and during the window before.
+    */
+   private volatile LatencyHistogram remoteGetTimes = new LatencyHistogram();
+   private volatile LatencyHistogram previousRemoteGetTimes;
+   private volatile long remoteGetTimesStart;
+   /**
+    * the remote gets shared by the concurrent gets of the same key, or {@code null} in transactional caches.
+    */
+   private InFlightRemoteGets inFlightRemoteGets;
+   /**
+    * batches the concurrent remote gets sent to the same owner, or {@code null} if disabled.
+    */
+   private RemoteGetBatcher remoteGetBatcher;
 
    private static final Log log = LogFactory.getLog(BaseDistributionInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
+   /**
+    * the number of response times needed before the adaptive delay is used. Until then, all the owners are asked at
+    * the same time.
+    */
+   private static final int MIN_ADAPTIVE_SAMPLES = 100;
+   private static final long MIN_ADAPTIVE_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+   /**
+    * how long the response times are recorded in the same histogram, so the adaptive delay follows the changes of the
+    * response times.
+    */
+   private static final long ADAPTIVE_WINDOW = TimeUnit.MINUTES.toNanos(1);
 
    @Override
    protected Log getLog() {
@@ -82,11 +127,44 @@ protected Log getLog() {
 
    @Inject
    public void injectDependencies(DistributionManager distributionManager, ClusteringDependentLogic cdl,
-                                  RemoteValueRetrievedListener rvrl, GroupManager groupManager) {
+                                  RemoteValueRetrievedListener rvrl, GroupManager groupManager,
+                                  TimeService timeService) {
       this.dm = distributionManager;
       this.cdl = cdl;
       this.rvrl = rvrl;
       this.groupManager = groupManager;
+      this.timeService = timeService;
+   }
+
+   @Start
+   public void configureRemoteGets() {
+      staggerDelay = cacheConfiguration.clustering().remoteGetStaggerDelay();
+      remoteGetTimesStart = timeService.time();
+      router = new RemoteGetRouter(cacheConfiguration.clustering().remoteGetRouting());
+      // the transactional caches write the keys on commit, so the remote gets would not be invalidated
+      inFlightRemoteGets = cacheConfiguration.transaction().transactionMode().isTransactional() ? null :
+            new InFlightRemoteGets();
+      // with L1, the owners must register the requestors of each key, which ClusteredGetAllCommand doesn't do
+      int batchSize = cacheConfiguration.clustering().remoteGetBatchSize();
+      remoteGetBatcher = batchSize > 1 && !cacheConfiguration.clustering().l1().enabled() ? new RemoteGetBatcher(batchSize,
+            cacheConfiguration.clustering().remoteGetBatchDelay(), TimeUnit.MICROSECONDS, timeService) : null;
+   }
+
+   /**
+    * Forgets the remote gets in flight for the keys written by {@code command}, once the local write completes, so the
+    * gets started afterwards see the written value.
+    */
+   protected final void invalidateRemoteGets(InvocationContext ctx, WriteCommand command) {
+      if (inFlightRemoteGets == null || !ctx.isOriginLocal()) {
+         return;
+      }
+      CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+      if (deferredResult == null) {
+         inFlightRemoteGets.invalidate(command.getAffectedKeys());
+      } else {
+         ctx.deferResult(deferredResult.whenComplete(
+               (ignored, throwable) -> inFlightRemoteGets.invalidate(command.getAffectedKeys())));
+      }
    }
 
    @Override
@@ -116,7 +194,13 @@ public final Object visitClearCommand(InvocationContext ctx, ClearCommand comman
       if (ctx.isOriginLocal() && !isLocalModeForced(command)) {
          rpcManager.invokeRemotely(null, command, rpcManager.getDefaultRpcOptions(isSynchronous(command)));
       }
-      return invokeNextInterceptor(ctx, command);
+      try {
+         return invokeNextInterceptor(ctx, command);
+      } finally {
+         if (inFlightRemoteGets != null && ctx.isOriginLocal()) {
+            inFlightRemoteGets.invalidateAll();
+         }
+      }
    }
 
    @Override
@@ -124,6 +208,32 @@ protected final InternalCacheEntry retrieveFromRemoteSource(Object key, Invocati
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
       ClusteredGetCommand get = cf.buildClusteredGetCommand(key, command.getFlags(), acquireRemoteLock, gtx);
       get.setWrite(isWrite);
+      if (inFlightRemoteGets == null || acquireRemoteLock || isWrite || gtx != null) {
+         return retrieveFromOwners(key, get);
+      }
+
+      InFlightRemoteGets.InFlightGet inFlightGet = new InFlightRemoteGets.InFlightGet(command.getFlags(),
+            stateTransferManager.getCacheTopology().getTopologyId());
+      InFlightRemoteGets.InFlightGet sharedGet = inFlightRemoteGets.register(key, inFlightGet);
+      if (sharedGet == null) {
+         return retrieveFromOwners(key, get);
+      } else if (sharedGet != inFlightGet) {
+         if (trace) log.tracef("Waiting for the remote get of key %s in flight", key);
+         return sharedGet.await(key);
+      }
+      try {
+         InternalCacheEntry<?, ?> value = retrieveFromOwners(key, get);
+         inFlightGet.complete(value);
+         return value;
+      } catch (Throwable t) {
+         inFlightGet.completeExceptionally(t);
+         throw t;
+      } finally {
+         inFlightRemoteGets.unregister(key, inFlightGet);
+      }
+   }
+
+   private InternalCacheEntry<?, ?> retrieveFromOwners(Object key, ClusteredGetCommand get) throws Exception {
 
       RpcOptionsBuilder rpcOptionsBuilder = rpcManager.getRpcOptionsBuilder(ResponseMode.WAIT_FOR_VALID_RESPONSE, DeliverOrder.NONE);
       int lastTopologyId = -1;
@@ -136,16 +246,23 @@ protected final InternalCacheEntry retrieveFromRemoteSource(Object key, Invocati
             log.tracef("Perform remote get for key %s. topologyId=%s, currentTopologyId=%s",
                        key, lastTopologyId, currentTopologyId);
          }
+         if (routerTopologyId != currentTopologyId) {
+            routerTopologyId = currentTopologyId;
+            router.retainMembers(cacheTopology.getMembers());
+            if (remoteGetBatcher != null) {
+               remoteGetBatcher.retainMembers(cacheTopology.getMembers());
+            }
+         }
          List<Address> targets;
          if (lastTopologyId < currentTopologyId) {
             // Cache topology has changed or it is the first time.
             lastTopologyId = currentTopologyId;
-            targets = new ArrayList<>(cacheTopology.getReadConsistentHash().locateOwners(key));
+            targets = router.route(cacheTopology.getReadConsistentHash().locateOwners(key), rpcManager.getAddress());
          } else if (lastTopologyId == currentTopologyId && cacheTopology.getPendingCH() != null) {
             // Same topologyId, but the owners could have already installed the next topology
             // Lets try with pending consistent owners (the read owners in the next topology)
             lastTopologyId = currentTopologyId + 1;
-            targets = new ArrayList<>(cacheTopology.getPendingCH().locateOwners(key));
+            targets = router.route(cacheTopology.getPendingCH().locateOwners(key), rpcManager.getAddress());
             // Remove already contacted nodes
             targets.removeAll(cacheTopology.getReadConsistentHash().locateOwners(key));
             if (targets.isEmpty()) {
@@ -162,7 +279,11 @@ protected final InternalCacheEntry retrieveFromRemoteSource(Object key, Invocati
             break;
          }
 
-         value = invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key);
+         if (remoteGetBatcher != null && !get.isWrite() && get.getGlobalTransaction() == null) {
+            value = invokeClusterGetCommandBatched(targets, rpcOptionsBuilder, get, key);
+         } else {
+            value = invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key);
+         }
          if (trace) {
             log.tracef("Remote get of key '%s' (topologyId=%s) returns %s", key, currentTopologyId, value);
          }
@@ -170,10 +291,89 @@ protected final InternalCacheEntry retrieveFromRemoteSource(Object key, Invocati
       return value;
    }
 
+   /**
+    * Adds the remote get to a batch for the first owner in {@code targets} if other remote gets are in flight to it.
+    * Otherwise, or if the owner did not answer the batch, the remote get is sent alone.
+    * <p/>
+    * The batch is only sent to the first owner. During a rebalance, that owner may not have the key yet, so a key it
+    * did not find is asked again alone, to all the {@code targets}.
+    */
+   private InternalCacheEntry<?, ?> invokeClusterGetCommandBatched(List<Address> targets, RpcOptionsBuilder rpcOptionsBuilder,
+                                                                   ClusteredGetCommand get, Object key) throws Exception {
+      RemoteGetBatcher.Destination destination = remoteGetBatcher.destination(targets.get(0));
+      RemoteGetBatcher.Batch batch = destination.add(key, get.getFlags());
+      if (batch == null) {
+         try {
+            return invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key);
+         } finally {
+            destination.completed();
+         }
+      }
+      boolean sender = batch.isSender();
+      try {
+         if (sender) {
+            sendRemoteGetBatch(batch, targets.get(0), get);
+         }
+         List<InternalCacheValue<?>> values = batch.await();
+         if (values == null) {
+            return invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key);
+         }
+         InternalCacheValue<?> value = values.get(batch.indexOf(key));
+         if (value == null || value.getValue() == null) {
+            if (stateTransferManager.getCacheTopology().getPendingCH() != null) {
+               return invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key);
+            }
+            if (rvrl != null) {
+               rvrl.remoteValueNotFound(key);
+            }
+            return null;
+         }
+         return remoteValueFound(value, key);
+      } finally {
+         if (sender) {
+            // the sender's remote get is in flight until it is answered, by the batch or alone
+            destination.completed();
+         }
+      }
+   }
+
+   private void sendRemoteGetBatch(RemoteGetBatcher.Batch batch, Address target, ClusteredGetCommand get) {
+      List<InternalCacheValue<?>> values = null;
+      try {
+         List<Object> keys = batch.close();
+         if (keys.size() == 1) {
+            // no other remote get was batched, so it is sent alone to all the targets
+            return;
+         }
+         if (trace) log.tracef("Sending a batch of %d remote gets to %s", keys.size(), target);
+         ClusteredGetAllCommand<?, ?> getAll = cf.buildClusteredGetAllCommand(keys, get.getFlags(), null);
+         RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS,
+                                                              DeliverOrder.NONE).build();
+         Response response = rpcManager.invokeRemotely(Collections.singletonList(target), getAll, options).get(target);
+         if (response instanceof SuccessfulResponse) {
+            @SuppressWarnings("unchecked")
+            List<InternalCacheValue<?>> responseValues =
+                  (List<InternalCacheValue<?>>) ((SuccessfulResponse) response).getResponseValue();
+            values = responseValues;
+         }
+      } catch (Throwable t) {
+         // the remote gets are sent alone, and they report the failure
+         if (trace) log.tracef(t, "Batch of remote gets to %s failed", target);
+      } finally {
+         batch.complete(values);
+      }
+   }
+
    private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets, RpcOptionsBuilder rpcOptionsBuilder,
-                                                      ClusteredGetCommand get, Object key) {
+                                                      ClusteredGetCommand get, Object key) throws Exception {
+      long delay = currentStaggerDelay();
+      if (targets.size() > 1 && (delay > 0 || router.getRouting().isSingleOwner())) {
+         // with a single owner routing, the next owner is only asked after an invalid response if there is no delay
+         return invokeClusterGetCommandStaggered(targets, rpcOptionsBuilder, get, key, delay > 0 ? delay : Long.MAX_VALUE);
+      }
       ResponseFilter filter = new ClusteredGetResponseValidityFilter(targets, rpcManager.getAddress());
       RpcOptions options = rpcOptionsBuilder.responseFilter(filter).build();
+      long start = staggerDelay < 0 ? timeService.time() : 0;
       Map<Address, Response> responses = rpcManager.invokeRemotely(targets, get, options);
 
       if (!responses.isEmpty()) {
@@ -187,12 +387,85 @@ private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets
                   continue;
                }
 
-               InternalCacheValue cacheValue = (InternalCacheValue) responseValue;
-               InternalCacheEntry ice = cacheValue.toInternalCacheEntry(key);
-               if (rvrl != null) {
-                  rvrl.remoteValueFound(ice);
+               if (staggerDelay < 0) {
+                  recordRemoteGetTime(timeService.timeDuration(start, TimeUnit.NANOSECONDS));
+               }
+               return remoteValueFound(responseValue, key);
+            }
+         }
+      }
+      if (rvrl != null) {
+         rvrl.remoteValueNotFound(key);
+      }
+      return null;
+   }
+
+   /**
+    * Asks the owners one by one, in the order of {@code targets}. The next owner is asked when the previous ones did
+    * not send a valid response within {@code delay} or when all of them sent an invalid response.
+    * <p/>
+    * Once a valid response is received, the futures of the requests still outstanding are cancelled. This only stops
+    * waiting for their responses: the owners still execute the gets and send their responses, which are discarded.
+    */
+   private InternalCacheEntry invokeClusterGetCommandStaggered(List<Address> targets, RpcOptionsBuilder rpcOptionsBuilder,
+                                                              ClusteredGetCommand get, Object key, long delay) throws Exception {
+      RpcOptions options = rpcOptionsBuilder.responseFilter(null).build();
+      long endTime = timeService.expectedEndTime(options.timeout(), options.timeUnit());
+      BlockingQueue<StaggeredRequest> responses = new LinkedBlockingQueue<>();
+      List<StaggeredRequest> requests = new ArrayList<>(targets.size());
+      Throwable failure = null;
+      int received = 0;
+      try {
+         requests.add(sendStaggeredGet(targets.get(0), get, options, responses));
+         while (true) {
+            long remaining = timeService.remainingTime(endTime, TimeUnit.NANOSECONDS);
+            boolean moreTargets = requests.size() < targets.size();
+            StaggeredRequest request = remaining <= 0 ? null :
+                  responses.poll(moreTargets ? Math.min(delay, remaining) : remaining, TimeUnit.NANOSECONDS);
+            if (request == null) {
+               if (!moreTargets || remaining <= 0) {
+                  throw new TimeoutException("Timed out waiting for valid responses!");
                }
-               return ice;
+               if (trace) {
+                  log.tracef("No valid response for key %s within %d nanoseconds, asking %s", key, delay,
+                             targets.get(requests.size()));
+               }
+               requests.add(sendStaggeredGet(targets.get(requests.size()), get, options, responses));
+               continue;
+            }
+            received++;
+            if (request.response instanceof SuccessfulResponse) {
+               long responseTime = timeService.timeDuration(request.sendTime, TimeUnit.NANOSECONDS);
+               recordRemoteGetTime(responseTime);
+               router.recordResponseTime(request.target, responseTime);
+               Object responseValue = ((SuccessfulResponse) request.response).getResponseValue();
+               if (responseValue != null) {
+                  return remoteValueFound(responseValue, key);
+               }
+               break;
+            }
+            if (failure == null) {
+               failure = request.failure;
+            }
+            if (moreTargets) {
+               // no point in waiting, the owners asked so far cannot send a valid response
+               if (received == requests.size()) {
+                  requests.add(sendStaggeredGet(targets.get(requests.size()), get, options, responses));
+               }
+            } else if (received == requests.size()) {
+               if (failure instanceof Exception) {
+                  throw (Exception) failure;
+               } else if (failure != null) {
+                  throw new CacheException(failure);
+               }
+               break;
+            }
+         }
+      } finally {
+         for (StaggeredRequest request : requests) {
+            if (request.future.cancel(false)) {
+               // the owner was too slow, it should not look faster than it is
+               router.recordResponseTime(request.target, timeService.timeDuration(request.sendTime, TimeUnit.NANOSECONDS));
             }
          }
       }
@@ -202,6 +475,85 @@ private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets
       return null;
    }
 
+   private StaggeredRequest sendStaggeredGet(Address target, ClusteredGetCommand get, RpcOptions options,
+                                             BlockingQueue<StaggeredRequest> responses) {
+      long sendTime = timeService.time();
+      CompletableFuture<Map<Address, Response>> future =
+            rpcManager.invokeRemotelyAsync(Collections.singletonList(target), get, options);
+      StaggeredRequest request = new StaggeredRequest(target, sendTime, future);
+      future.whenComplete((responseMap, throwable) -> {
+         if (throwable != null) {
+            request.failure = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+         } else {
+            request.response = responseMap.get(target);
+         }
+         responses.add(request);
+      });
+      return request;
+   }
+
+   /**
+    * @return the delay, in nanoseconds, before asking the next owner of a key, or {@code 0} to ask all the owners at
+    * the same time.
+    */
+   private long currentStaggerDelay() {
+      if (staggerDelay >= 0) {
+         return TimeUnit.MILLISECONDS.toNanos(staggerDelay);
+      }
+      LatencyHistogram times = remoteGetTimes;
+      if (times.count() < MIN_ADAPTIVE_SAMPLES) {
+         // the current window just started, the previous one is more accurate
+         times = previousRemoteGetTimes;
+         if (times == null || times.count() < MIN_ADAPTIVE_SAMPLES) {
+            return 0;
+         }
+      }
+      return Math.max(MIN_ADAPTIVE_DELAY, times.percentile(99));
+   }
+
+   private void recordRemoteGetTime(long nanos) {
+      LatencyHistogram times = remoteGetTimes;
+      times.record(nanos);
+      long start = remoteGetTimesStart;
+      if (timeService.timeDuration(start, TimeUnit.NANOSECONDS) >= ADAPTIVE_WINDOW) {
+         synchronized (this) {
+            if (remoteGetTimesStart == start) {
+               // the old response times are forgotten gradually, one window at a time
+               previousRemoteGetTimes = times;
+               remoteGetTimes = new LatencyHistogram();
+               remoteGetTimesStart = timeService.time();
+            }
+         }
+      }
+   }
+
+   private InternalCacheEntry remoteValueFound(Object responseValue, Object key) {
+      InternalCacheValue cacheValue = (InternalCacheValue) responseValue;
+      InternalCacheEntry ice = cacheValue.toInternalCacheEntry(key);
+      if (rvrl != null) {
+         rvrl.remoteValueFound(ice);
+      }
+      return ice;
+   }
+
+   /**
+    * A remote get sent to a single owner, and its response or failure once completed.
+    */
+   private static class StaggeredRequest {
+      private final Address target;
+      private final long sendTime;
+      private final CompletableFuture<Map<Address, Response>> future;
+      // written before the request is queued, so the thread polling the queue sees them
+      private Response response;
+      private Throwable failure;
+
+      private StaggeredRequest(Address target, long sendTime, CompletableFuture<Map<Address, Response>> future) {
+         this.target = target;
+         this.sendTime = sendTime;
+         this.future = future;
+      }
+   }
+
    protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> requestedKeys, InvocationContext ctx, Set<Flag> flags) throws Throwable {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
       CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
@@ -266,6 +618,14 @@ protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteC
       if (ctx.isInTxScope()) {
          throw new CacheException("Attempted execution of non-transactional write command in a transactional invocation context");
       }
+      try {
+         return distributeNonTxWriteCommand(ctx, command);
+      } finally {
+         invalidateRemoteGets(ctx, command);
+      }
+   }
+
+   private Object distributeNonTxWriteCommand(InvocationContext ctx, DataWriteCommand command) throws Throwable {
 
       // see if we need to load values from remote sources first
       if (needValuesFromPreviousOwners(ctx, command)) {
@@ -308,15 +668,7 @@ protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteC
                return localResult;
             }
             List<Address> recipients = cdl.getOwners(command.getKey());
-            // Ignore the previous value on the backup owners
-            command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
-            try {
-               rpcManager.invokeRemotely(recipients, command, determineRpcOptionsForBackupReplication(rpcManager,
-                                                                                                      isSync, recipients));
-            } finally {
-               // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
-               command.setValueMatcher(valueMatcher.matcherForRetry());
-            }
+            replicateToBackups(ctx, command, recipients, localResult, isSync, valueMatcher);
          }
          return localResult;
       } else {
@@ -331,54 +683,92 @@ protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteC
             // check if a single owner has been configured and the target for the key is the local address
             boolean isSingleOwnerAndLocal = cacheConfiguration.clustering().hash().numOwners() == 1;
             if (!isSingleOwnerAndLocal) {
-               // Ignore the previous value on the backup owners
-               command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
-               try {
-                  rpcManager.invokeRemotely(recipients, command, determineRpcOptionsForBackupReplication(rpcManager,
-                                                                                                         isSync, recipients));
-               } finally {
-                  // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
-                  command.setValueMatcher(valueMatcher.matcherForRetry());
-               }
+               replicateToBackups(ctx, command, recipients, localResult, isSync, valueMatcher);
             }
             return localResult;
          } else {
             log.tracef("I'm not the primary owner, so sending the command to the primary owner(%s) in order to be forwarded", primaryOwner);
             boolean isSyncForwarding = isSync || isNeedReliableReturnValues(command);
+            List<Address> recipients = Collections.singletonList(primaryOwner);
+            RpcOptions rpcOptions = rpcManager.getDefaultRpcOptions(isSyncForwarding);
+
+            if (isSyncForwarding && ctx.isResultDeferrable()) {
+               ctx.deferResult(rpcManager.invokeRemotelyAsync(recipients, command, rpcOptions)
+                     .handle((responses, throwable) -> {
+                        if (throwable != null) {
+                           throw primaryOwnerException(command, valueMatcher, CompletableFutures.extractException(throwable));
+                        }
+                        return primaryOwnerResult(command, primaryOwner, responses);
+                     }));
+               return localResult;
+            }
 
             Map<Address, Response> addressResponseMap;
             try {
-               addressResponseMap = rpcManager.invokeRemotely(Collections.singletonList(primaryOwner), command,
-                     rpcManager.getDefaultRpcOptions(isSyncForwarding));
-            } catch (RemoteException e) {
-               Throwable ce = e;
-               while (ce instanceof RemoteException) {
-                  ce = ce.getCause();
-               }
-               if (ce instanceof OutdatedTopologyException) {
-                  // If the primary owner throws an OutdatedTopologyException, it must be because the command succeeded there
-                  if (trace) log.tracef("Changing the value matching policy from %s to %s (original value was %s)",
-                        command.getValueMatcher(), valueMatcher.matcherForRetry(), valueMatcher);
-                  command.setValueMatcher(valueMatcher.matcherForRetry());
-               }
-               throw e;
-            } catch (SuspectException e) {
-               // If the primary owner became suspected, we don't know if it was able to replicate it's data properly
-               // to all backup owners and notify all listeners, thus we need to retry with new matcher in case if
-               // it had updated the backup owners
-               if (trace) log.tracef("Primary owner suspected - Changing the value matching policy from %s to %s " +
-                                           "(original value was %s)", command.getValueMatcher(),
-                                     valueMatcher.matcherForRetry(), valueMatcher);
-               command.setValueMatcher(valueMatcher.matcherForRetry());
-               throw e;
+               addressResponseMap = rpcManager.invokeRemotely(recipients, command, rpcOptions);
+            } catch (RemoteException | SuspectException e) {
+               throw primaryOwnerException(command, valueMatcher, e);
             }
             if (!isSyncForwarding) return localResult;
 
-            Object primaryResult = getResponseFromPrimaryOwner(primaryOwner, addressResponseMap);
-            command.updateStatusFromRemoteResponse(primaryResult);
-            return primaryResult;
+            return primaryOwnerResult(command, primaryOwner, addressResponseMap);
+         }
+      }
+   }
+
+   /**
+    * Sends the command to the backup owners. With a deferred result, the invocation continues when the backup owners
+    * applied it, without blocking the current thread.
+    */
+   private void replicateToBackups(InvocationContext ctx, DataWriteCommand command, List<Address> recipients,
+                                   Object localResult, boolean isSync, ValueMatcher valueMatcher) {
+      // Ignore the previous value on the backup owners
+      command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
+      try {
+         RpcOptions rpcOptions = determineRpcOptionsForBackupReplication(rpcManager, isSync, recipients);
+         // With L1, the backup owners must apply the command before the primary owner invalidates the requestors
+         if (isSync && ctx.isResultDeferrable() && !cacheConfiguration.clustering().l1().enabled()) {
+            // The command is marshalled before invokeRemotelyAsync returns, so the value matcher can be changed
+            ctx.deferResult(rpcManager.invokeRemotelyAsync(recipients, command, rpcOptions)
+                                  .thenApply(responses -> localResult));
+         } else {
+            rpcManager.invokeRemotely(recipients, command, rpcOptions);
+         }
+      } finally {
+         // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
+         command.setValueMatcher(valueMatcher.matcherForRetry());
+      }
+   }
+
+   private RuntimeException primaryOwnerException(DataWriteCommand command, ValueMatcher valueMatcher, Throwable t) {
+      if (t instanceof RemoteException) {
+         Throwable ce = t;
+         while (ce instanceof RemoteException) {
+            ce = ce.getCause();
+         }
+         if (ce instanceof OutdatedTopologyException) {
+            // If the primary owner throws an OutdatedTopologyException, it must be because the command succeeded there
+            if (trace) log.tracef("Changing the value matching policy from %s to %s (original value was %s)",
+                  command.getValueMatcher(), valueMatcher.matcherForRetry(), valueMatcher);
+            command.setValueMatcher(valueMatcher.matcherForRetry());
          }
+      } else if (t instanceof SuspectException) {
+         // If the primary owner became suspected, we don't know if it was able to replicate it's data properly
+         // to all backup owners and notify all listeners, thus we need to retry with new matcher in case if
+         // it had updated the backup owners
+         if (trace) log.tracef("Primary owner suspected - Changing the value matching policy from %s to %s " +
+                                     "(original value was %s)", command.getValueMatcher(),
+                               valueMatcher.matcherForRetry(), valueMatcher);
+         command.setValueMatcher(valueMatcher.matcherForRetry());
       }
+      return t instanceof RuntimeException ? (RuntimeException) t : new CacheException(t);
+   }
+
+   private Object primaryOwnerResult(DataWriteCommand command, Address primaryOwner,
+                                     Map<Address, Response> addressResponseMap) {
+      Object primaryResult = getResponseFromPrimaryOwner(primaryOwner, addressResponseMap);
+      command.updateStatusFromRemoteResponse(primaryResult);
+      return primaryResult;
    }
 
    private RpcOptions determineRpcOptionsForBackupReplication(RpcManager rpc, boolean isSync, List<Address> recipients) {
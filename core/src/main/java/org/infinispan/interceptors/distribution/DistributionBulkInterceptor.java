@@ -53,6 +53,12 @@ public void inject(Cache<K, V> cache) {
       this.cache = cache;
    }
 
+   @Override
+   protected boolean isDeferredResultAware() {
+      // Only the entrySet and keySet commands are intercepted, and their results are never deferred
+      return true;
+   }
+
    @Override
    public CacheSet<CacheEntry<K, V>> visitEntrySetCommand(InvocationContext ctx, EntrySetCommand command) throws Throwable {
       CacheSet<CacheEntry<K, V>> entrySet = (CacheSet<CacheEntry<K, V>>) super.visitEntrySetCommand(ctx, command);
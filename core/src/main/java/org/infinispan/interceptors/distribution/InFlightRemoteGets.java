@@ -0,0 +1,122 @@
+package org.infinispan.interceptors.distribution;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.util.concurrent.CompletableFutures;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The remote gets in flight, per key, so the concurrent local gets of the same key share a single remote get.
+ * <p/>
+ * A get only shares a remote get sent with the same flags in the same topology. The remote gets of a key are forgotten
+ * as soon as a local write of the key completes, so the gets started after the write send a new remote get and see
+ * the written value.
+ *
+ * @since 8.0
+ */
+final class InFlightRemoteGets {
+
+   private final ConcurrentMap<Object, InFlightGet> gets = new ConcurrentHashMap<>();
+
+   /**
+    * Registers {@code get} as the remote get of {@code key}, unless there is already one it can share.
+    *
+    * @return {@code get} if the caller must send the remote get and complete it, the remote get in flight if the caller
+    * must wait for it instead, or {@code null} if the caller must send the remote get without sharing it.
+    */
+   InFlightGet register(Object key, InFlightGet get) {
+      InFlightGet existing = gets.putIfAbsent(key, get);
+      while (existing != null) {
+         if (existing.topologyId == get.topologyId) {
+            return existing.flags.equals(get.flags) ? existing : null;
+         }
+         if (existing.topologyId > get.topologyId) {
+            return null;
+         }
+         // the remote get was sent in an older topology
+         if (gets.replace(key, existing, get)) {
+            return get;
+         }
+         existing = gets.putIfAbsent(key, get);
+      }
+      return get;
+   }
+
+   /**
+    * Unregisters {@code get} after it completed.
+    */
+   void unregister(Object key, InFlightGet get) {
+      gets.remove(key, get);
+   }
+
+   /**
+    * Forgets the remote gets of {@code keys} after a local write.
+    */
+   void invalidate(Collection<?> keys) {
+      if (gets.isEmpty()) {
+         return;
+      }
+      for (Object key : keys) {
+         gets.remove(key);
+      }
+   }
+
+   /**
+    * Forgets all the remote gets after a clear.
+    */
+   void invalidateAll() {
+      gets.clear();
+   }
+
+   /**
+    * A remote get, sent in a topology with a set of flags.
+    */
+   static final class InFlightGet {
+      private final Set<Flag> flags;
+      private final int topologyId;
+      private final CompletableFuture<InternalCacheEntry<?, ?>> result = new CompletableFuture<>();
+
+      InFlightGet(Set<Flag> flags, int topologyId) {
+         this.flags = flags == null ? Collections.emptySet() : flags;
+         this.topologyId = topologyId;
+      }
+
+      void complete(InternalCacheEntry<?, ?> entry) {
+         result.complete(entry);
+      }
+
+      void completeExceptionally(Throwable throwable) {
+         result.completeExceptionally(throwable);
+      }
+
+      /**
+       * Waits for the remote get.
+       *
+       * @return a copy of the entry retrieved, or {@code null} if the key was not found.
+       */
+      InternalCacheEntry<?, ?> await(Object key) throws Exception {
+         InternalCacheEntry<?, ?> entry;
+         try {
+            entry = result.get();
+         } catch (ExecutionException e) {
+            Throwable cause = CompletableFutures.extractException(e);
+            if (cause instanceof Exception) {
+               throw (Exception) cause;
+            } else if (cause instanceof Error) {
+               throw (Error) cause;
+            }
+            throw new CacheException(cause);
+         }
+         // the callers may modify the entry
+         return entry == null ? null : entry.toInternalCacheValue().toInternalCacheEntry(key);
+      }
+   }
+}
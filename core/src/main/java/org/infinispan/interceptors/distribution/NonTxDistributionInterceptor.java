@@ -102,6 +102,14 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
 
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+      try {
+         return handlePutMapCommand(ctx, command);
+      } finally {
+         invalidateRemoteGets(ctx, command);
+      }
+   }
+
+   private Object handlePutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       Map<Object, Object> originalMap = command.getMap();
       ConsistentHash ch = dm.getConsistentHash();
       Address localAddress = rpcManager.getAddress();
@@ -248,6 +256,14 @@ public Object visitReadOnlyManyCommand(InvocationContext ctx, ReadOnlyManyComman
 
    @Override
    public Object visitWriteOnlyManyEntriesCommand(InvocationContext ctx, WriteOnlyManyEntriesCommand command) throws Throwable {
+      try {
+         return handleWriteOnlyManyEntriesCommand(ctx, command);
+      } finally {
+         invalidateRemoteGets(ctx, command);
+      }
+   }
+
+   private Object handleWriteOnlyManyEntriesCommand(InvocationContext ctx, WriteOnlyManyEntriesCommand command) throws Throwable {
       // TODO: Refactor this and visitPutMapCommand...
       // TODO: Could PutMap be reimplemented based on WriteOnlyManyEntriesCommand?
       Map<Object, Object> originalMap = command.getEntries();
@@ -346,6 +362,14 @@ public Object visitWriteOnlyManyEntriesCommand(InvocationContext ctx, WriteOnlyM
 
    @Override
    public Object visitWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyCommand command) throws Throwable {
+      try {
+         return handleWriteOnlyManyCommand(ctx, command);
+      } finally {
+         invalidateRemoteGets(ctx, command);
+      }
+   }
+
+   private Object handleWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyCommand command) throws Throwable {
       // TODO: Refactor this, visitWriteOnlyManyCommand and visitPutMapCommand...
       Set<Object> originalMap = command.getKeys();
       ConsistentHash ch = dm.getConsistentHash();
@@ -443,6 +467,14 @@ public Object visitWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyComm
 
    @Override
    public Object visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
+      try {
+         return handleReadWriteManyCommand(ctx, command);
+      } finally {
+         invalidateRemoteGets(ctx, command);
+      }
+   }
+
+   private Object handleReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
       // TODO: Refactor to avoid code duplication
       Set<Object> originalMap = command.getKeys();
       ConsistentHash ch = dm.getConsistentHash();
@@ -551,6 +583,14 @@ public Object visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyComm
 
    @Override
    public Object visitReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) throws Throwable {
+      try {
+         return handleReadWriteManyEntriesCommand(ctx, command);
+      } finally {
+         invalidateRemoteGets(ctx, command);
+      }
+   }
+
+   private Object handleReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) throws Throwable {
       // TODO: Refactor to avoid code duplication
       Map<Object, Object> originalMap = command.getEntries();
       ConsistentHash ch = dm.getConsistentHash();
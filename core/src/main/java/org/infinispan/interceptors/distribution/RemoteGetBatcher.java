@@ -0,0 +1,200 @@
+package org.infinispan.interceptors.distribution;
+
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.context.Flag;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.TimeService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Groups the concurrent single-key remote gets sent to the same owner, so they are sent in a single {@link
+ * org.infinispan.commands.remote.ClusteredGetAllCommand}.
+ * <p/>
+ * A remote get is only batched if another remote get to the same owner is in flight, so the remote gets are not
+ * delayed when the load is low. The first remote get batched is the sender of the batch: it waits for the other remote
+ * gets up to the configured delay, or until the batch is full, and then it sends the batch. The remote gets batched
+ * together must have the same flags.
+ *
+ * @since 8.0
+ */
+final class RemoteGetBatcher {
+
+   private final int maxSize;
+   private final long delayNanos;
+   private final TimeService timeService;
+   private final ConcurrentMap<Address, Destination> destinations = new ConcurrentHashMap<>();
+   /**
+    * the last members passed to {@link #retainMembers(Collection)}, or {@code null} before the first topology.
+    */
+   private volatile Set<Address> members;
+
+   RemoteGetBatcher(int maxSize, long delay, TimeUnit unit, TimeService timeService) {
+      this.maxSize = maxSize;
+      this.delayNanos = unit.toNanos(delay);
+      this.timeService = timeService;
+   }
+
+   /**
+    * @return the remote gets in flight to {@code address}. If it is not a member anymore, a new destination that is
+    * not shared with the other threads, so the remote get is sent alone.
+    */
+   Destination destination(Address address) {
+      if (!isMember(address)) {
+         return new Destination();
+      }
+      Destination destination = destinations.get(address);
+      if (destination != null) {
+         return destination;
+      }
+      destination = destinations.computeIfAbsent(address, a -> new Destination());
+      if (!isMember(address)) {
+         //the owner left while its destination was created
+         destinations.remove(address, destination);
+      }
+      return destination;
+   }
+
+   /**
+    * Forgets the owners that are not {@code members} anymore.
+    */
+   void retainMembers(Collection<Address> members) {
+      Set<Address> newMembers = new HashSet<>(members);
+      //updated first, so a destination created concurrently is either retained here or removed by destination()
+      this.members = newMembers;
+      destinations.keySet().retainAll(newMembers);
+   }
+
+   private boolean isMember(Address address) {
+      Set<Address> currentMembers = members;
+      return currentMembers == null || currentMembers.contains(address);
+   }
+
+   /**
+    * The remote gets in flight to an owner, and the batch still open for it.
+    */
+   final class Destination {
+      private int inFlight;
+      private Batch open;
+
+      /**
+       * Adds a remote get to the open batch, or opens a new batch if another remote get is in flight. Unless the
+       * remote get was added to a batch opened by another thread, the caller must invoke {@link #completed()} once its
+       * remote get is answered, by the batch or alone.
+       *
+       * @return the batch, or {@code null} if the caller must send the remote get alone.
+       */
+      synchronized Batch add(Object key, Set<Flag> flags) {
+         Set<Flag> batchFlags = flags == null ? Collections.emptySet() : flags;
+         if (open != null && open.flags.equals(batchFlags)) {
+            Batch batch = open;
+            batch.keys.add(key);
+            if (batch.keys.size() >= maxSize) {
+               // the sender doesn't need to wait for more remote gets
+               open = null;
+               LockSupport.unpark(batch.sender);
+            }
+            return batch;
+         }
+         inFlight++;
+         if (inFlight == 1 || open != null) {
+            return null;
+         }
+         open = new Batch(this, batchFlags, key);
+         return open;
+      }
+
+      synchronized void completed() {
+         inFlight--;
+      }
+
+      private synchronized boolean isOpen(Batch batch) {
+         return open == batch;
+      }
+
+      private synchronized List<Object> close(Batch batch) {
+         if (open == batch) {
+            open = null;
+         }
+         return batch.keys;
+      }
+   }
+
+   /**
+    * A batch of remote gets to the same owner.
+    */
+   final class Batch {
+      private final Destination destination;
+      private final Set<Flag> flags;
+      private final Thread sender = Thread.currentThread();
+      private final List<Object> keys = new ArrayList<>();
+      private final CompletableFuture<List<InternalCacheValue<?>>> values = new CompletableFuture<>();
+
+      private Batch(Destination destination, Set<Flag> flags, Object key) {
+         this.destination = destination;
+         this.flags = flags;
+         keys.add(key);
+      }
+
+      /**
+       * @return {@code true} if the current thread opened the batch and must send it.
+       */
+      boolean isSender() {
+         return Thread.currentThread() == sender;
+      }
+
+      /**
+       * Waits for more remote gets, up to the delay or until the batch is full, and closes the batch.
+       *
+       * @return the keys to send.
+       */
+      List<Object> close() {
+         long endTime = timeService.expectedEndTime(delayNanos, TimeUnit.NANOSECONDS);
+         while (destination.isOpen(this) && !Thread.currentThread().isInterrupted()) {
+            long remaining = timeService.remainingTime(endTime, TimeUnit.NANOSECONDS);
+            if (remaining <= 0) {
+               break;
+            }
+            LockSupport.parkNanos(this, remaining);
+         }
+         return destination.close(this);
+      }
+
+      /**
+       * Completes the batch with the values of the keys, in the same order, or with {@code null} if the owner did not
+       * send them.
+       */
+      void complete(List<InternalCacheValue<?>> keyValues) {
+         values.complete(keyValues);
+      }
+
+      /**
+       * Waits for the values sent by the owner.
+       *
+       * @return the values of the keys, in the same order as {@link #indexOf(Object)}, or {@code null} if the owner did
+       * not send them and the remote gets must be sent alone.
+       */
+      List<InternalCacheValue<?>> await() throws InterruptedException {
+         try {
+            return values.get();
+         } catch (ExecutionException e) {
+            return null;
+         }
+      }
+
+      int indexOf(Object key) {
+         return keys.indexOf(key);
+      }
+   }
+}
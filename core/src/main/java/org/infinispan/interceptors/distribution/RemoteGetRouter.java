@@ -0,0 +1,126 @@
+package org.infinispan.interceptors.distribution;
+
+import org.infinispan.configuration.cache.RemoteGetRouting;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.TopologyAwareAddress;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orders the owners of a key before a remote get, following the configured {@link RemoteGetRouting}.
+ * <p/>
+ * For {@link RemoteGetRouting#LEAST_LATENCY}, it keeps an exponentially weighted moving average of the response times
+ * of each owner. An owner without any response time recorded is asked first, so its response time is learned.
+ *
+ * @since 8.0
+ */
+final class RemoteGetRouter {
+
+   /**
+    * the weight of the previous average is {@code 1 - 1/2^AVERAGE_SHIFT}.
+    */
+   private static final int AVERAGE_SHIFT = 3;
+
+   private final RemoteGetRouting routing;
+   private final ConcurrentMap<Address, AtomicLong> responseTimes = new ConcurrentHashMap<>();
+   /**
+    * the last members passed to {@link #retainMembers(Collection)}, or {@code null} before the first topology.
+    */
+   private volatile Set<Address> members;
+
+   RemoteGetRouter(RemoteGetRouting routing) {
+      this.routing = routing;
+   }
+
+   RemoteGetRouting getRouting() {
+      return routing;
+   }
+
+   /**
+    * @param owners the owners of the key, the primary owner first.
+    * @param self   the address of this node.
+    * @return a new list with the {@code owners} in the order they should be asked.
+    */
+   List<Address> route(Collection<Address> owners, Address self) {
+      List<Address> targets = new ArrayList<>(owners);
+      if (targets.size() < 2) {
+         return targets;
+      }
+      switch (routing) {
+         case RANDOM_OWNER:
+            targets.add(0, targets.remove(ThreadLocalRandom.current().nextInt(targets.size())));
+            break;
+         case LEAST_LATENCY:
+            targets.sort(Comparator.comparingLong(this::responseTime));
+            break;
+         case NEAREST_OWNER:
+            if (self instanceof TopologyAwareAddress) {
+               targets.sort(Comparator.comparingInt(owner -> distance((TopologyAwareAddress) self, owner)));
+            }
+            break;
+         default:
+            //the primary owner first
+      }
+      return targets;
+   }
+
+   /**
+    * Records the time an owner took to respond to a remote get. It is a no-op unless the routing is {@link
+    * RemoteGetRouting#LEAST_LATENCY}.
+    */
+   void recordResponseTime(Address owner, long nanos) {
+      if (routing != RemoteGetRouting.LEAST_LATENCY || !isMember(owner)) {
+         return;
+      }
+      AtomicLong responseTime = responseTimes.computeIfAbsent(owner, address -> new AtomicLong(nanos));
+      responseTime.accumulateAndGet(nanos, (average, sample) -> average + ((sample - average) >> AVERAGE_SHIFT));
+      if (!isMember(owner)) {
+         //the owner left while its response time was recorded
+         responseTimes.remove(owner, responseTime);
+      }
+   }
+
+   /**
+    * Forgets the response times of the nodes that are not {@code members} anymore.
+    */
+   void retainMembers(Collection<Address> members) {
+      Set<Address> newMembers = new HashSet<>(members);
+      //updated first, so a response time recorded concurrently is either retained here or removed by its recorder
+      this.members = newMembers;
+      responseTimes.keySet().retainAll(newMembers);
+   }
+
+   private boolean isMember(Address owner) {
+      Set<Address> currentMembers = members;
+      return currentMembers == null || currentMembers.contains(owner);
+   }
+
+   private long responseTime(Address owner) {
+      AtomicLong responseTime = responseTimes.get(owner);
+      return responseTime == null ? 0 : responseTime.get();
+   }
+
+   private static int distance(TopologyAwareAddress self, Address owner) {
+      if (!(owner instanceof TopologyAwareAddress)) {
+         return 0;
+      }
+      TopologyAwareAddress address = (TopologyAwareAddress) owner;
+      if (self.isSameMachine(address)) {
+         return 0;
+      } else if (self.isSameRack(address)) {
+         return 1;
+      } else if (self.isSameSite(address)) {
+         return 2;
+      }
+      return 3;
+   }
+}
@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.DataCommand;
 import org.infinispan.commands.LocalFlagAffectedCommand;
+import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.functional.ReadWriteKeyCommand;
 import org.infinispan.commands.functional.ReadWriteKeyValueCommand;
 import org.infinispan.commands.functional.WriteOnlyKeyCommand;
@@ -18,6 +19,7 @@
 import org.infinispan.container.DataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.util.concurrent.TimeoutException;
@@ -27,10 +29,15 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.infinispan.factories.KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
+
 /**
  * Base class for various locking interceptors in this package.
  *
@@ -42,13 +49,19 @@ public abstract class AbstractLockingInterceptor extends CommandInterceptor {
    protected LockManager lockManager;
    protected DataContainer<Object, Object> dataContainer;
    protected ClusteringDependentLogic cdl;
+   private ExecutorService asyncExecutor;
+   private ExecutorService remoteExecutor;
 
    @Inject
    public void setDependencies(LockManager lockManager, DataContainer<Object, Object> dataContainer,
-                               ClusteringDependentLogic cdl) {
+                               ClusteringDependentLogic cdl,
+                               @ComponentName(ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor,
+                               @ComponentName(REMOTE_COMMAND_EXECUTOR) ExecutorService remoteExecutor) {
       this.lockManager = lockManager;
       this.dataContainer = dataContainer;
       this.cdl = cdl;
+      this.asyncExecutor = asyncExecutor;
+      this.remoteExecutor = remoteExecutor;
    }
 
    @Override
@@ -91,10 +104,18 @@ protected final Object visitNonTxDataWriteCommand(InvocationContext ctx, DataWri
          if (hasSkipLocking(command) || !shouldLockKey(command.getKey())) {
             return invokeNextInterceptor(ctx, command);
          }
-         lockAndRecord(ctx, command.getKey(), getLockTimeoutMillis(command));
+         lockAndRecord(ctx, command, command.getKey(), getLockTimeoutMillis(command));
          return invokeNextInterceptor(ctx, command);
       } finally {
-         lockManager.unlockAll(ctx);
+         CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+         if (deferredResult == null) {
+            lockManager.unlockAll(ctx);
+         } else {
+            //keep the key locked until the backup owners applied the command, so they apply the writes in order.
+            //the deferred result may be completed by the thread receiving the responses, so release the lock elsewhere
+            ctx.deferResult(deferredResult.whenCompleteAsync((ignored, throwable) -> lockManager.unlockAll(ctx),
+                                                             ctx.isOriginLocal() ? asyncExecutor : remoteExecutor));
+         }
       }
    }
 
@@ -104,7 +125,7 @@ public final Object visitInvalidateCommand(InvocationContext ctx, InvalidateComm
          if (hasSkipLocking(command)) {
             return invokeNextInterceptor(ctx, command);
          }
-         lockAllAndRecord(ctx, Arrays.asList(command.getKeys()), getLockTimeoutMillis(command));
+         lockAllAndRecord(ctx, command, Arrays.asList(command.getKeys()), getLockTimeoutMillis(command));
          return invokeNextInterceptor(ctx, command);
       } finally {
          if (!ctx.isInTxScope()) {
@@ -130,7 +151,7 @@ public final Object visitInvalidateL1Command(InvocationContext ctx, InvalidateL1
             ArrayList<Object> keysToInvalidate = new ArrayList<>(keys.length);
             for (Object key : keys) {
                try {
-                  lockAndRecord(ctx, key, 0);
+                  lockAndRecord(ctx, command, key, 0);
                   keysToInvalidate.add(key);
                } catch (TimeoutException te) {
                   getLog().unableToLockToInvalidate(key, cdl.getAddress());
@@ -184,18 +205,23 @@ protected final boolean shouldLockKey(Object key) {
       return shouldLock;
    }
 
-   protected final void lockAndRecord(InvocationContext context, Object key, long timeout) throws InterruptedException {
+   protected final void lockAndRecord(InvocationContext context, VisitableCommand command, Object key, long timeout)
+         throws InterruptedException {
       context.addLockedKey(key);
-      lockManager.lock(key, context.getLockOwner(), timeout, TimeUnit.MILLISECONDS).lock();
+      lockManager.lock(key, context.getLockOwner(), timeout, TimeUnit.MILLISECONDS, command.getClass(),
+                       !context.isOriginLocal()).lock();
    }
 
-   protected final void lockAllAndRecord(InvocationContext context, Stream<?> keys, long timeout) throws InterruptedException {
-      lockAllAndRecord(context, keys.collect(Collectors.toList()), timeout);
+   protected final void lockAllAndRecord(InvocationContext context, VisitableCommand command, Stream<?> keys,
+                                         long timeout) throws InterruptedException {
+      lockAllAndRecord(context, command, keys.collect(Collectors.toList()), timeout);
    }
 
-   protected final void lockAllAndRecord(InvocationContext context, Collection<?> keys, long timeout) throws InterruptedException {
+   protected final void lockAllAndRecord(InvocationContext context, VisitableCommand command, Collection<?> keys,
+                                         long timeout) throws InterruptedException {
       keys.forEach(context::addLockedKey);
-      lockManager.lockAll(keys, context.getLockOwner(), timeout, TimeUnit.MILLISECONDS).lock();
+      lockManager.lockAll(keys, context.getLockOwner(), timeout, TimeUnit.MILLISECONDS, command.getClass(),
+                          !context.isOriginLocal()).lock();
    }
 
 }
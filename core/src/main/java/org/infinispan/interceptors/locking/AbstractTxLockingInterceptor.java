@@ -1,5 +1,6 @@
 package org.infinispan.interceptors.locking;
 
+import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
@@ -102,7 +103,8 @@ protected final Object invokeNextAndCommitIf1Pc(TxInvocationContext ctx, Prepare
     *
     * @return {@code true} if the key was really locked.
     */
-   protected final boolean lockOrRegisterBackupLock(TxInvocationContext<?> ctx, Object key, long lockTimeout)
+   protected final boolean lockOrRegisterBackupLock(TxInvocationContext<?> ctx, VisitableCommand command, Object key,
+                                                    long lockTimeout)
          throws InterruptedException {
       final Log log = getLog();
       final boolean trace = log.isTraceEnabled();
@@ -112,7 +114,7 @@ protected final boolean lockOrRegisterBackupLock(TxInvocationContext<?> ctx, Obj
             if (trace) {
                log.tracef("Acquiring locks on %s.", key);
             }
-            checkPendingAndLockKey(ctx, key, lockTimeout);
+            checkPendingAndLockKey(ctx, command, key, lockTimeout);
             return true;
          case BACKUP:
             if (trace) {
@@ -125,12 +127,12 @@ protected final boolean lockOrRegisterBackupLock(TxInvocationContext<?> ctx, Obj
    }
 
    /**
-    * Same as {@link #lockOrRegisterBackupLock(TxInvocationContext, Object, long)}
+    * Same as {@link #lockOrRegisterBackupLock(TxInvocationContext, VisitableCommand, Object, long)}
     *
     * @return a collection with the keys locked.
     */
-   protected final Collection<Object> lockAllOrRegisterBackupLock(TxInvocationContext<?> ctx, Collection<Object> keys,
-                                                                  long lockTimeout) throws InterruptedException {
+   protected final Collection<Object> lockAllOrRegisterBackupLock(TxInvocationContext<?> ctx, VisitableCommand command,
+                                                                  Collection<Object> keys, long lockTimeout) throws InterruptedException {
       if (keys.isEmpty()) {
          return Collections.emptyList();
       }
@@ -162,7 +164,7 @@ protected final Collection<Object> lockAllOrRegisterBackupLock(TxInvocationConte
          return Collections.emptyList();
       }
 
-      checkPendingAndLockAllKeys(ctx, keysToLock, lockTimeout);
+      checkPendingAndLockAllKeys(ctx, command, keysToLock, lockTimeout);
       return keysToLock;
    }
 
@@ -186,17 +188,19 @@ protected final Collection<Object> lockAllOrRegisterBackupLock(TxInvocationConte
     * Note: The algorithm described below only when nodes leave the cluster, so it doesn't add a performance burden
     * when the cluster is stable.
     */
-   private void checkPendingAndLockKey(InvocationContext ctx, Object key, long lockTimeout) throws InterruptedException {
+   private void checkPendingAndLockKey(InvocationContext ctx, VisitableCommand command, Object key, long lockTimeout)
+         throws InterruptedException {
       final long remaining = pendingLockManager.awaitPendingTransactionsForKey((TxInvocationContext<?>) ctx, key,
                                                                                lockTimeout, TimeUnit.MILLISECONDS);
-      lockAndRecord(ctx, key, remaining);
+      lockAndRecord(ctx, command, key, remaining);
    }
 
-   private void checkPendingAndLockAllKeys(InvocationContext ctx, Collection<Object> keys, long lockTimeout)
+   private void checkPendingAndLockAllKeys(InvocationContext ctx, VisitableCommand command, Collection<Object> keys,
+                                           long lockTimeout)
          throws InterruptedException {
       final long remaining = pendingLockManager.awaitPendingTransactionsForAllKeys((TxInvocationContext<?>) ctx, keys,
                                                                                    lockTimeout, TimeUnit.MILLISECONDS);
-      lockAllAndRecord(ctx, keys, remaining);
+      lockAllAndRecord(ctx, command, keys, remaining);
    }
 
    private boolean releaseLockOnTxCompletion(TxInvocationContext ctx) {
@@ -19,6 +19,11 @@ public class NonTransactionalLockingInterceptor extends AbstractLockingIntercept
 
    private static final Log log = LogFactory.getLog(NonTransactionalLockingInterceptor.class);
 
+   @Override
+   protected boolean isDeferredResultAware() {
+      return true;
+   }
+
    @Override
    protected Log getLog() {
       return log;
@@ -54,7 +59,7 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       assertNonTransactional(ctx);
       try {
          if (!command.isForwarded() && !hasSkipLocking(command)) {
-            lockAllAndRecord(ctx, command.getMap().keySet().stream().filter(this::shouldLockKey), getLockTimeoutMillis(command));
+            lockAllAndRecord(ctx, command, command.getMap().keySet().stream().filter(this::shouldLockKey), getLockTimeoutMillis(command));
          }
          return invokeNextInterceptor(ctx, command);
       } finally {
@@ -60,7 +60,7 @@ public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand comman
       final Collection<Object> keysToLock = command.getKeysToLock();
       ((TxInvocationContext<?>) ctx).addAllAffectedKeys(command.getAffectedKeys());
       if (!keysToLock.isEmpty()) {
-         Collection<Object> lockedKeys = lockAllOrRegisterBackupLock(ctx, keysToLock,
+         Collection<Object> lockedKeys = lockAllOrRegisterBackupLock(ctx, command, keysToLock,
                                                                      cacheConfiguration.locking().lockAcquisitionTimeout());
          if (!lockedKeys.isEmpty()) {
             for (Object key : lockedKeys) {
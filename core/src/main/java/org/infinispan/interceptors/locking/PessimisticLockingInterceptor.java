@@ -66,7 +66,7 @@ protected final Object visitDataReadCommand(InvocationContext ctx, DataCommand c
       try {
          if (ctx.isInTxScope() && command.hasFlag(Flag.FORCE_WRITE_LOCK) && !hasSkipLocking(command)) {
             acquireRemoteIfNeeded(ctx, command.getKey(), command);
-            lockOrRegisterBackupLock((TxInvocationContext<?>) ctx, command.getKey(), getLockTimeoutMillis(command));
+            lockOrRegisterBackupLock((TxInvocationContext<?>) ctx, command, command.getKey(), getLockTimeoutMillis(command));
          }
          return invokeNextInterceptor(ctx, command);
       } catch (Throwable t) {
@@ -83,7 +83,7 @@ public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) t
          if (ctx.isInTxScope() && command.hasFlag(Flag.FORCE_WRITE_LOCK) && !hasSkipLocking(command)) {
             acquireAllRemoteIfNeeded(ctx, command.getKeys(), command);
             //noinspection unchecked
-            lockAllOrRegisterBackupLock((TxInvocationContext<?>) ctx, (Collection<Object>) command.getKeys(), getLockTimeoutMillis(command));
+            lockAllOrRegisterBackupLock((TxInvocationContext<?>) ctx, command, (Collection<Object>) command.getKeys(), getLockTimeoutMillis(command));
          }
          return invokeNextInterceptor(ctx, command);
       } catch (Throwable t) {
@@ -104,7 +104,7 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
          if (!hasSkipLocking(command)) {
             final Collection<Object> affectedKeys = command.getMap().keySet();
             acquireAllRemoteIfNeeded(ctx, affectedKeys, command);
-            lockAllOrRegisterBackupLock((TxInvocationContext<?>) ctx, affectedKeys, getLockTimeoutMillis(command));
+            lockAllOrRegisterBackupLock((TxInvocationContext<?>) ctx, command, affectedKeys, getLockTimeoutMillis(command));
          }
          return invokeNextInterceptor(ctx, command);
       } catch (Throwable te) {
@@ -118,7 +118,7 @@ protected Object visitDataWriteCommand(InvocationContext ctx, DataWriteCommand c
       try {
          if (!hasSkipLocking(command)) {
             acquireRemoteIfNeeded(ctx, command.getKey(), command);
-            lockOrRegisterBackupLock((TxInvocationContext<?>) ctx, command.getKey(), getLockTimeoutMillis(command));
+            lockOrRegisterBackupLock((TxInvocationContext<?>) ctx, command, command.getKey(), getLockTimeoutMillis(command));
          }
          return invokeNextInterceptor(ctx, command);
       } catch (OutdatedTopologyException e) {
@@ -138,7 +138,7 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
             Set<Object> keysToLock = new HashSet<>(Arrays.asList(compositeKeys));
             acquireAllRemoteIfNeeded(ctx, keysToLock, command);
             if (cdl.localNodeIsOwner(command.getKey())) {
-               lockAllAndRecord(ctx, keysToLock, getLockTimeoutMillis(command));
+               lockAllAndRecord(ctx, command, keysToLock, getLockTimeoutMillis(command));
             }
          }
          return invokeNextInterceptor(ctx, command);
@@ -181,7 +181,7 @@ public Object visitLockControlCommand(TxInvocationContext ctx, LockControlComman
             return Boolean.FALSE;
          }
 
-         lockAllOrRegisterBackupLock(ctx, command.getKeys(), getLockTimeoutMillis(command));
+         lockAllOrRegisterBackupLock(ctx, command, command.getKeys(), getLockTimeoutMillis(command));
          return Boolean.TRUE;
       } catch (Throwable te) {
          releaseLocksOnFailureBeforePrepare(ctx);
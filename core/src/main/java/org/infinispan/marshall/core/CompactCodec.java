@@ -0,0 +1,555 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.RemoteCommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.TopologyAffectedCommand;
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commands.write.ValueMatcher;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.container.entries.ImmortalCacheValue;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.MortalCacheValue;
+import org.infinispan.container.entries.TransientCacheValue;
+import org.infinispan.container.entries.TransientMortalCacheValue;
+import org.infinispan.container.entries.metadata.MetadataImmortalCacheValue;
+import org.infinispan.context.Flag;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.remoting.responses.CacheNotFoundResponse;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.responses.UnsuccessfulResponse;
+import org.infinispan.remoting.responses.UnsureResponse;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.jgroups.JGroupsAddress;
+import org.infinispan.remoting.transport.jgroups.JGroupsAddressCache;
+import org.jgroups.util.ByteArrayDataInputStream;
+import org.jgroups.util.ByteArrayDataOutputStream;
+import org.jgroups.util.Util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A compact binary codec for the internal types that make up most of the RPCs: the single-key write commands, the
+ * remote gets, the {@link InternalCacheValue}s, {@link EmbeddedMetadata} and the responses.
+ * <p/>
+ * The objects are written field by field into a reusable per-thread buffer, without the object tables, class
+ * descriptors and stream headers of JBoss Marshalling. The keys and values are only written if they are {@code
+ * String}s, {@code byte[]}s or boxed primitives: if the object contains any other type, {@link #encode(Object)}
+ * returns {@code null} and the caller marshalls it with JBoss Marshalling.
+ * <p/>
+ * The encoded payloads start with {@link #MARKER}, which is never the first byte of a JBoss Marshalling stream.
+ *
+ * @since 8.0
+ */
+final class CompactCodec {
+
+   static final byte MARKER = (byte) 0xFE;
+
+   private static final byte NULL = 0;
+   private static final byte TRUE = 1;
+   private static final byte FALSE = 2;
+   private static final byte BYTE = 3;
+   private static final byte SHORT = 4;
+   private static final byte CHAR = 5;
+   private static final byte INT = 6;
+   private static final byte LONG = 7;
+   private static final byte FLOAT = 8;
+   private static final byte DOUBLE = 9;
+   private static final byte STRING = 10;
+   private static final byte BYTE_ARRAY = 11;
+   private static final byte ARRAY_LIST = 12;
+   private static final byte FLAGS = 13;
+   private static final byte NO_FLAGS = 14;
+   private static final byte VALUE_MATCHER = 15;
+   private static final byte METADATA = 16;
+   private static final byte INVOCATION_ID = 17;
+   private static final byte IMMORTAL_VALUE = 18;
+   private static final byte MORTAL_VALUE = 19;
+   private static final byte TRANSIENT_VALUE = 20;
+   private static final byte TRANSIENT_MORTAL_VALUE = 21;
+   private static final byte METADATA_IMMORTAL_VALUE = 22;
+   private static final byte COMMAND = 23;
+   private static final byte CACHE_RPC_COMMAND = 24;
+   private static final byte SUCCESSFUL_RESPONSE = 25;
+   private static final byte UNSUCCESSFUL_RESPONSE = 26;
+   private static final byte UNSURE_RESPONSE = 27;
+   private static final byte CACHE_NOT_FOUND_RESPONSE = 28;
+
+   // The classes of the EmbeddedMetadata built with neither, both, only the lifespan and only the max idle
+   private static final Class<?>[] METADATA_CLASSES = {
+         new EmbeddedMetadata.Builder().build().getClass(),
+         new EmbeddedMetadata.Builder().lifespan(1).maxIdle(1).build().getClass(),
+         new EmbeddedMetadata.Builder().lifespan(1).build().getClass(),
+         new EmbeddedMetadata.Builder().maxIdle(1).build().getClass(),
+   };
+
+   private static final ValueMatcher[] VALUE_MATCHERS = ValueMatcher.values();
+   private static final Flag[] FLAG_VALUES = Flag.values();
+
+   private static final int INITIAL_BUFFER_SIZE = 512;
+   // Larger buffers are not kept, so a single large payload doesn't hold on to the memory forever
+   private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+   private final ThreadLocal<ByteArrayDataOutputStream> buffers =
+         ThreadLocal.withInitial(() -> new ByteArrayDataOutputStream(INITIAL_BUFFER_SIZE));
+   private final RemoteCommandsFactory cmdFactory;
+
+   static {
+      if (FLAG_VALUES.length > Long.SIZE) {
+         throw new IllegalStateException("The flags don't fit in a long");
+      }
+   }
+
+   CompactCodec(RemoteCommandsFactory cmdFactory) {
+      this.cmdFactory = cmdFactory;
+   }
+
+   static boolean isEncoded(byte[] buf, int offset, int length) {
+      return length > 0 && buf[offset] == MARKER;
+   }
+
+   /**
+    * @return the encoded {@code obj}, or {@code null} if it contains a type this codec doesn't know.
+    */
+   ByteBuffer encode(Object obj) throws IOException {
+      ByteArrayDataOutputStream out = buffers.get();
+      try {
+         out.position(0);
+         out.writeByte(MARKER);
+         if (!writeObject(obj, out)) {
+            return null;
+         }
+         int length = out.position();
+         return new ByteBufferImpl(Arrays.copyOf(out.buffer(), length), 0, length);
+      } finally {
+         if (out.buffer().length > MAX_RETAINED_BUFFER_SIZE) {
+            buffers.remove();
+         }
+      }
+   }
+
+   Object decode(byte[] buf, int offset, int length) throws IOException {
+      if (!isEncoded(buf, offset, length)) {
+         throw new StreamCorruptedException("Payload not encoded by " + getClass().getSimpleName());
+      }
+      return readObject(new ByteArrayDataInputStream(buf, offset + 1, length - 1));
+   }
+
+   private boolean writeObject(Object obj, DataOutput out) throws IOException {
+      if (obj == null) {
+         out.writeByte(NULL);
+      } else if (obj instanceof String) {
+         out.writeByte(STRING);
+         writeString((String) obj, out);
+      } else if (obj instanceof byte[]) {
+         byte[] bytes = (byte[]) obj;
+         out.writeByte(BYTE_ARRAY);
+         writeUnsignedInt(bytes.length, out);
+         out.write(bytes);
+      } else if (obj instanceof Boolean) {
+         out.writeByte((Boolean) obj ? TRUE : FALSE);
+      } else if (obj instanceof Integer) {
+         out.writeByte(INT);
+         out.writeInt((Integer) obj);
+      } else if (obj instanceof Long) {
+         out.writeByte(LONG);
+         out.writeLong((Long) obj);
+      } else if (obj instanceof Byte) {
+         out.writeByte(BYTE);
+         out.writeByte((Byte) obj);
+      } else if (obj instanceof Short) {
+         out.writeByte(SHORT);
+         out.writeShort((Short) obj);
+      } else if (obj instanceof Character) {
+         out.writeByte(CHAR);
+         out.writeChar((Character) obj);
+      } else if (obj instanceof Float) {
+         out.writeByte(FLOAT);
+         out.writeFloat((Float) obj);
+      } else if (obj instanceof Double) {
+         out.writeByte(DOUBLE);
+         out.writeDouble((Double) obj);
+      } else if (obj instanceof ValueMatcher) {
+         out.writeByte(VALUE_MATCHER);
+         out.writeByte(((ValueMatcher) obj).ordinal());
+      } else if (obj == InfinispanCollections.emptySet()) {
+         out.writeByte(NO_FLAGS);
+      } else if (obj instanceof EnumSet) {
+         return writeFlags((EnumSet<?>) obj, out);
+      } else if (obj.getClass() == ArrayList.class) {
+         return writeList((List<?>) obj, out);
+      } else if (obj instanceof Metadata) {
+         return writeMetadata((Metadata) obj, out);
+      } else if (obj instanceof CommandInvocationId) {
+         return writeInvocationId((CommandInvocationId) obj, out);
+      } else if (obj instanceof InternalCacheValue) {
+         return writeInternalCacheValue((InternalCacheValue<?>) obj, out);
+      } else if (obj instanceof ReplicableCommand) {
+         return writeCommand((ReplicableCommand) obj, out);
+      } else {
+         return writeResponse(obj, out);
+      }
+      return true;
+   }
+
+   private boolean writeFlags(EnumSet<?> flags, DataOutput out) throws IOException {
+      // an empty EnumSet doesn't tell its element type
+      if (flags.isEmpty() || !(flags.iterator().next() instanceof Flag)) {
+         return false;
+      }
+      long bits = 0;
+      for (Object flag : flags) {
+         bits |= 1L << ((Flag) flag).ordinal();
+      }
+      out.writeByte(FLAGS);
+      out.writeLong(bits);
+      return true;
+   }
+
+   private boolean writeList(List<?> list, DataOutput out) throws IOException {
+      int size = list.size();
+      out.writeByte(ARRAY_LIST);
+      writeUnsignedInt(size, out);
+      for (int i = 0; i < size; i++) {
+         if (!writeObject(list.get(i), out)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private boolean writeMetadata(Metadata metadata, DataOutput out) throws IOException {
+      if (metadata.version() != null) {
+         return false;
+      }
+      int kind = metadataKind(metadata);
+      if (kind < 0) {
+         return false;
+      }
+      out.writeByte(METADATA);
+      out.writeByte(kind);
+      if (kind == 1 || kind == 2) {
+         out.writeLong(metadata.lifespan());
+      }
+      if (kind == 1 || kind == 3) {
+         out.writeLong(metadata.maxIdle());
+      }
+      return true;
+   }
+
+   private static int metadataKind(Metadata metadata) {
+      Class<?> metadataClass = metadata.getClass();
+      for (int i = 0; i < METADATA_CLASSES.length; i++) {
+         if (METADATA_CLASSES[i] == metadataClass) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   private boolean writeInvocationId(CommandInvocationId id, DataOutput out) throws IOException {
+      Address address = id.getAddress();
+      if (!(address instanceof JGroupsAddress)) {
+         return false;
+      }
+      out.writeByte(INVOCATION_ID);
+      try {
+         Util.writeAddress(((JGroupsAddress) address).getJGroupsAddress(), out);
+      } catch (IOException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new IOException(e);
+      }
+      out.writeLong(id.getId());
+      return true;
+   }
+
+   private boolean writeInternalCacheValue(InternalCacheValue<?> icv, DataOutput out) throws IOException {
+      Class<?> icvClass = icv.getClass();
+      if (icvClass == ImmortalCacheValue.class) {
+         out.writeByte(IMMORTAL_VALUE);
+         return writeObject(icv.getValue(), out);
+      } else if (icvClass == MortalCacheValue.class) {
+         out.writeByte(MORTAL_VALUE);
+         out.writeLong(icv.getCreated());
+         out.writeLong(icv.getLifespan());
+         return writeObject(icv.getValue(), out);
+      } else if (icvClass == TransientCacheValue.class) {
+         out.writeByte(TRANSIENT_VALUE);
+         out.writeLong(icv.getLastUsed());
+         out.writeLong(icv.getMaxIdle());
+         return writeObject(icv.getValue(), out);
+      } else if (icvClass == TransientMortalCacheValue.class) {
+         out.writeByte(TRANSIENT_MORTAL_VALUE);
+         out.writeLong(icv.getCreated());
+         out.writeLong(icv.getLifespan());
+         out.writeLong(icv.getLastUsed());
+         out.writeLong(icv.getMaxIdle());
+         return writeObject(icv.getValue(), out);
+      } else if (icvClass == MetadataImmortalCacheValue.class) {
+         out.writeByte(METADATA_IMMORTAL_VALUE);
+         return writeMetadata(icv.getMetadata(), out) && writeObject(icv.getValue(), out);
+      }
+      return false;
+   }
+
+   private boolean writeCommand(ReplicableCommand command, DataOutput out) throws IOException {
+      Class<?> commandClass = command.getClass();
+      boolean cacheRpcCommand;
+      if (commandClass == SingleRpcCommand.class || commandClass == ClusteredGetCommand.class ||
+            commandClass == ClusteredGetAllCommand.class) {
+         cacheRpcCommand = true;
+      } else if (commandClass == PutKeyValueCommand.class || commandClass == RemoveCommand.class ||
+            commandClass == ReplaceCommand.class) {
+         cacheRpcCommand = false;
+      } else {
+         return false;
+      }
+      out.writeByte(cacheRpcCommand ? CACHE_RPC_COMMAND : COMMAND);
+      out.writeByte(command.getCommandId());
+      if (cacheRpcCommand) {
+         writeString(((CacheRpcCommand) command).getCacheName(), out);
+      }
+      Object[] parameters = command.getParameters();
+      int numParameters = parameters == null ? 0 : parameters.length;
+      writeUnsignedInt(numParameters, out);
+      for (int i = 0; i < numParameters; i++) {
+         if (!writeObject(parameters[i], out)) {
+            return false;
+         }
+      }
+      if (command instanceof TopologyAffectedCommand) {
+         out.writeInt(((TopologyAffectedCommand) command).getTopologyId());
+      }
+      return true;
+   }
+
+   private boolean writeResponse(Object response, DataOutput out) throws IOException {
+      Class<?> responseClass = response.getClass();
+      if (responseClass == SuccessfulResponse.class) {
+         out.writeByte(SUCCESSFUL_RESPONSE);
+         return writeObject(((SuccessfulResponse) response).getResponseValue(), out);
+      } else if (responseClass == UnsuccessfulResponse.class) {
+         out.writeByte(UNSUCCESSFUL_RESPONSE);
+      } else if (responseClass == UnsureResponse.class) {
+         out.writeByte(UNSURE_RESPONSE);
+      } else if (responseClass == CacheNotFoundResponse.class) {
+         out.writeByte(CACHE_NOT_FOUND_RESPONSE);
+      } else {
+         return false;
+      }
+      return true;
+   }
+
+   private Object readObject(DataInput in) throws IOException {
+      byte type = in.readByte();
+      switch (type) {
+         case NULL:
+            return null;
+         case TRUE:
+            return Boolean.TRUE;
+         case FALSE:
+            return Boolean.FALSE;
+         case BYTE:
+            return in.readByte();
+         case SHORT:
+            return in.readShort();
+         case CHAR:
+            return in.readChar();
+         case INT:
+            return in.readInt();
+         case LONG:
+            return in.readLong();
+         case FLOAT:
+            return in.readFloat();
+         case DOUBLE:
+            return in.readDouble();
+         case STRING:
+            return readString(in);
+         case BYTE_ARRAY:
+            byte[] bytes = new byte[readUnsignedInt(in)];
+            in.readFully(bytes);
+            return bytes;
+         case ARRAY_LIST:
+            int size = readUnsignedInt(in);
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+               list.add(readObject(in));
+            }
+            return list;
+         case FLAGS:
+            return readFlags(in);
+         case NO_FLAGS:
+            return InfinispanCollections.emptySet();
+         case VALUE_MATCHER:
+            return VALUE_MATCHERS[in.readUnsignedByte()];
+         case METADATA:
+            return readMetadata(in);
+         case INVOCATION_ID:
+            return readInvocationId(in);
+         case IMMORTAL_VALUE:
+            return new ImmortalCacheValue(readObject(in));
+         case MORTAL_VALUE: {
+            long created = in.readLong();
+            long lifespan = in.readLong();
+            return new MortalCacheValue(readObject(in), created, lifespan);
+         }
+         case TRANSIENT_VALUE: {
+            long lastUsed = in.readLong();
+            long maxIdle = in.readLong();
+            return new TransientCacheValue(readObject(in), maxIdle, lastUsed);
+         }
+         case TRANSIENT_MORTAL_VALUE: {
+            long created = in.readLong();
+            long lifespan = in.readLong();
+            long lastUsed = in.readLong();
+            long maxIdle = in.readLong();
+            return new TransientMortalCacheValue(readObject(in), created, lifespan, maxIdle, lastUsed);
+         }
+         case METADATA_IMMORTAL_VALUE: {
+            in.readByte(); // METADATA
+            Metadata metadata = readMetadata(in);
+            return new MetadataImmortalCacheValue(readObject(in), metadata);
+         }
+         case COMMAND:
+            return readCommand(in, false);
+         case CACHE_RPC_COMMAND:
+            return readCommand(in, true);
+         case SUCCESSFUL_RESPONSE:
+            return SuccessfulResponse.create(readObject(in));
+         case UNSUCCESSFUL_RESPONSE:
+            return UnsuccessfulResponse.INSTANCE;
+         case UNSURE_RESPONSE:
+            return UnsureResponse.INSTANCE;
+         case CACHE_NOT_FOUND_RESPONSE:
+            return CacheNotFoundResponse.INSTANCE;
+         default:
+            throw new StreamCorruptedException("Unknown type " + type);
+      }
+   }
+
+   private static Set<Flag> readFlags(DataInput in) throws IOException {
+      long bits = in.readLong();
+      EnumSet<Flag> flags = EnumSet.noneOf(Flag.class);
+      for (int i = 0; i < FLAG_VALUES.length; i++) {
+         if ((bits & (1L << i)) != 0) {
+            flags.add(FLAG_VALUES[i]);
+         }
+      }
+      return flags;
+   }
+
+   private static Metadata readMetadata(DataInput in) throws IOException {
+      int kind = in.readUnsignedByte();
+      EmbeddedMetadata.Builder builder = new EmbeddedMetadata.Builder();
+      if (kind == 1 || kind == 2) {
+         builder.lifespan(in.readLong());
+      }
+      if (kind == 1 || kind == 3) {
+         builder.maxIdle(in.readLong());
+      }
+      return builder.build();
+   }
+
+   private static CommandInvocationId readInvocationId(DataInput in) throws IOException {
+      org.jgroups.Address address;
+      try {
+         address = Util.readAddress(in);
+      } catch (IOException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new IOException(e);
+      }
+      return CommandInvocationId.create(JGroupsAddressCache.fromJGroupsAddress(address), in.readLong());
+   }
+
+   private ReplicableCommand readCommand(DataInput in, boolean cacheRpcCommand) throws IOException {
+      byte commandId = in.readByte();
+      String cacheName = cacheRpcCommand ? readString(in) : null;
+      int numParameters = readUnsignedInt(in);
+      Object[] parameters = null;
+      if (numParameters > 0) {
+         parameters = new Object[numParameters];
+         for (int i = 0; i < numParameters; i++) {
+            parameters[i] = readObject(in);
+         }
+      }
+      ReplicableCommand command = cacheRpcCommand ?
+            cmdFactory.fromStream(commandId, parameters, (byte) 0, cacheName) :
+            cmdFactory.fromStream(commandId, parameters, (byte) 0);
+      if (command instanceof TopologyAffectedCommand) {
+         ((TopologyAffectedCommand) command).setTopologyId(in.readInt());
+      }
+      return command;
+   }
+
+   private static void writeString(String string, DataOutput out) throws IOException {
+      int length = string.length();
+      writeUnsignedInt(length, out);
+      for (int i = 0; i < length; i++) {
+         char c = string.charAt(i);
+         if (c < 0x80) {
+            out.writeByte(c);
+         } else if (c < 0x800) {
+            out.writeByte(0xC0 | (c >> 6));
+            out.writeByte(0x80 | (c & 0x3F));
+         } else {
+            out.writeByte(0xE0 | (c >> 12));
+            out.writeByte(0x80 | ((c >> 6) & 0x3F));
+            out.writeByte(0x80 | (c & 0x3F));
+         }
+      }
+   }
+
+   private static String readString(DataInput in) throws IOException {
+      char[] chars = new char[readUnsignedInt(in)];
+      for (int i = 0; i < chars.length; i++) {
+         int b = in.readUnsignedByte();
+         if (b < 0x80) {
+            chars[i] = (char) b;
+         } else if ((b & 0xE0) == 0xC0) {
+            chars[i] = (char) (((b & 0x1F) << 6) | (in.readUnsignedByte() & 0x3F));
+         } else {
+            int b2 = in.readUnsignedByte();
+            chars[i] = (char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (in.readUnsignedByte() & 0x3F));
+         }
+      }
+      return new String(chars);
+   }
+
+   // Same format as UnsignedNumeric, which only writes to ObjectOutputs and streams
+   private static void writeUnsignedInt(int i, DataOutput out) throws IOException {
+      while ((i & ~0x7F) != 0) {
+         out.writeByte((byte) ((i & 0x7f) | 0x80));
+         i >>>= 7;
+      }
+      out.writeByte((byte) i);
+   }
+
+   private static int readUnsignedInt(DataInput in) throws IOException {
+      byte b = in.readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = in.readByte();
+         i |= (b & 0x7FL) << shift;
+      }
+      return i;
+   }
+}
@@ -1,5 +1,7 @@
 package org.infinispan.marshall.core;
 
+import org.infinispan.commands.RemoteCommandsFactory;
+import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -8,10 +10,16 @@
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.commons.marshall.AbstractDelegatingMarshaller;
 
+import java.io.IOException;
+
 /**
  * A globally-scoped marshaller. This is needed so that the transport layer
  * can unmarshall requests even before it's known which cache's marshaller can
  * do the job.
+ * <p/>
+ * In clustered cache managers, the hot internal types are marshalled by a
+ * {@link CompactCodec} into {@link #objectToBuffer(Object) buffers}, and only
+ * the other objects go through JBoss Marshalling.
  *
  * @author Galder Zamarreño
  * @since 5.0
@@ -19,15 +27,21 @@
 @Scope(Scopes.GLOBAL)
 public class GlobalMarshaller extends AbstractDelegatingMarshaller {
 
+   private CompactCodec codec;
+
    public GlobalMarshaller(VersionAwareMarshaller marshaller) {
       this.marshaller = marshaller;
    }
 
    @Inject
    public void inject(ExternalizerTable extTable,
-            GlobalConfiguration globalCfg) {
+            GlobalConfiguration globalCfg, RemoteCommandsFactory cmdFactory) {
       ((VersionAwareMarshaller) this.marshaller)
             .inject(null, null, null, extTable, globalCfg);
+      // The codec needs the JGroups classes, which local cache managers may not have
+      if (globalCfg.isClustered()) {
+         this.codec = new CompactCodec(cmdFactory);
+      }
    }
 
    @Override
@@ -36,6 +50,30 @@ public void start() {
       this.marshaller.start();
    }
 
+   @Override
+   public ByteBuffer objectToBuffer(Object o) throws IOException, InterruptedException {
+      if (codec != null) {
+         ByteBuffer buffer = codec.encode(o);
+         if (buffer != null) {
+            return buffer;
+         }
+      }
+      return super.objectToBuffer(o);
+   }
+
+   @Override
+   public Object objectFromByteBuffer(byte[] buf) throws IOException, ClassNotFoundException {
+      return objectFromByteBuffer(buf, 0, buf.length);
+   }
+
+   @Override
+   public Object objectFromByteBuffer(byte[] buf, int offset, int length) throws IOException, ClassNotFoundException {
+      if (codec != null && CompactCodec.isEncoded(buf, offset, length)) {
+         return codec.decode(buf, offset, length);
+      }
+      return super.objectFromByteBuffer(buf, offset, length);
+   }
+
    @Override
    @Stop(priority = 11) // Stop after transport to avoid send/receive and marshaller not being ready
    public void stop() {
@@ -58,7 +58,10 @@ public K getKey() {
    @Override
    public V getValue() {
       if (value == null) {
-         value = unmarshall(valueBytes);
+         if (valueBytes == null)
+            return null;
+         else
+            value = unmarshall(valueBytes);
       }
       return value;
    }
@@ -1,7 +1,8 @@
 package org.infinispan.marshall.exts;
 
-import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Set;
@@ -28,12 +29,14 @@
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.tx.VersionedCommitCommand;
 import org.infinispan.commands.tx.VersionedPrepareCommand;
+import org.infinispan.commands.tx.totalorder.TotalOrderBatchPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderNonVersionedPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderRollbackCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
 import org.infinispan.commons.io.ExposedByteArrayOutputStream;
+import org.infinispan.commons.io.MarshallingBufferPool;
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.AbstractExternalizer;
 import org.infinispan.commons.marshall.BufferSizePredictor;
@@ -56,6 +59,7 @@
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferControlCommand;
+import org.jboss.marshalling.ByteInput;
 
 /**
  * Externalizer in charge of marshalling cache specific commands. At read time,
@@ -89,7 +93,7 @@ public Set<Class<? extends CacheRpcCommand>> getTypeClasses() {
                VersionedPrepareCommand.class, CreateCacheCommand.class, CancelCommand.class,
                VersionedCommitCommand.class, XSiteAdminCommand.class, TotalOrderNonVersionedPrepareCommand.class,
                TotalOrderVersionedPrepareCommand.class, TotalOrderCommitCommand.class,
-               TotalOrderVersionedCommitCommand.class, TotalOrderRollbackCommand.class,
+               TotalOrderVersionedCommitCommand.class, TotalOrderRollbackCommand.class, TotalOrderBatchPrepareCommand.class,
                XSiteStateTransferControlCommand.class, XSiteStatePushCommand.class, SingleXSiteRpcCommand.class,
                EntryRequestCommand.class, EntryResponseCommand.class, ClusteredGetAllCommand.class,
                StreamRequestCommand.class, StreamSegmentResponseCommand.class, StreamResponseCommand.class);
@@ -110,9 +114,13 @@ public void writeObject(ObjectOutput output, CacheRpcCommand command) throws IOE
       // the command using that cache marshaller and the write the bytes in
       // the original payload.
       ExposedByteArrayOutputStream os = marshallParameters(command, marshaller);
-      UnsignedNumeric.writeUnsignedInt(output, os.size());
-      // Do not rely on the raw buffer's length which is likely to be much longer!
-      output.write(os.getRawBuffer(), 0, os.size());
+      try {
+         UnsignedNumeric.writeUnsignedInt(output, os.size());
+         // Do not rely on the raw buffer's length which is likely to be much longer!
+         output.write(os.getRawBuffer(), 0, os.size());
+      } finally {
+         MarshallingBufferPool.release(os);
+      }
       if (command instanceof TopologyAffectedCommand) {
          output.writeInt(((TopologyAffectedCommand) command).getTopologyId());
       }
@@ -122,13 +130,17 @@ private ExposedByteArrayOutputStream marshallParameters(
          CacheRpcCommand cmd, StreamingMarshaller marshaller) throws IOException {
       BufferSizePredictor sizePredictor = marshaller.getBufferSizePredictor(cmd);
       int estimatedSize = sizePredictor.nextSize(cmd);
-      ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
+      // The caller releases the buffer after copying the parameters
+      ExposedByteArrayOutputStream baos = MarshallingBufferPool.acquire(estimatedSize);
       ObjectOutput output = marshaller.startObjectOutput(baos, true, estimatedSize);
       try {
          cmdExt.writeCommandParameters(output, cmd);
       } finally {
          marshaller.finishObjectOutput(output);
       }
+      // Train the predictor, otherwise the buffer of a large command grows,
+      // and is copied, several times on every invocation
+      sizePredictor.recordSize(baos.size());
       return baos;
    }
 
@@ -140,13 +152,9 @@ public CacheRpcCommand readObject(ObjectInput input) throws IOException, ClassNo
       String cacheName = input.readUTF();
       StreamingMarshaller marshaller = getCacheMarshaller(cacheName);
 
-      byte[] paramsRaw = new byte[UnsignedNumeric.readUnsignedInt(input)];
-      // This is not ideal cos it forces the code to read all parameters into
-      // memory and then splitting them, potentially leading to excessive
-      // buffering. An alternative solution is shown in SharedStreamMultiMarshallerTest
-      // but it requires some special treatment - iow, hacking :)
-      input.readFully(paramsRaw);
-      ByteArrayInputStream is = new ByteArrayInputStream(paramsRaw, 0, paramsRaw.length);
+      // The parameters are unmarshalled straight from the received stream,
+      // bounded to their length, instead of being copied into a new array first
+      ParametersInput is = new ParametersInput(input, UnsignedNumeric.readUnsignedInt(input));
       ObjectInput paramsInput = marshaller.startObjectInput(is, true);
       // Not ideal, but the alternative (without changing API), would have been
       // using thread locals which are expensive to retrieve.
@@ -154,17 +162,19 @@ public CacheRpcCommand readObject(ObjectInput input) throws IOException, ClassNo
       if (paramsInput instanceof ExtendedRiverUnmarshaller)
          ((ExtendedRiverUnmarshaller) paramsInput).setInfinispanMarshaller(marshaller);
 
+      CacheRpcCommand cacheRpcCommand;
       try {
          Object[] args = cmdExt.readParameters(paramsInput);
-         CacheRpcCommand cacheRpcCommand = cmdExt.fromStream(methodId, args, type, cacheName);
-         if (cacheRpcCommand instanceof TopologyAffectedCommand) {
-            int topologyId = input.readInt();
-            ((TopologyAffectedCommand)cacheRpcCommand).setTopologyId(topologyId);
-         }
-         return cacheRpcCommand;
+         cacheRpcCommand = cmdExt.fromStream(methodId, args, type, cacheName);
       } finally {
          marshaller.finishObjectInput(paramsInput);
       }
+      is.skipRemaining();
+      if (cacheRpcCommand instanceof TopologyAffectedCommand) {
+         int topologyId = input.readInt();
+         ((TopologyAffectedCommand)cacheRpcCommand).setTopologyId(topologyId);
+      }
+      return cacheRpcCommand;
    }
 
    @Override
@@ -191,4 +201,71 @@ private StreamingMarshaller getCacheMarshaller(String cacheName) {
       }
    }
 
+   /**
+    * The marshalled parameters of a command: a view of the next {@code length} bytes of the command's stream.
+    */
+   private static final class ParametersInput extends InputStream implements ByteInput {
+      private final ObjectInput input;
+      private int remaining;
+
+      private ParametersInput(ObjectInput input, int length) {
+         this.input = input;
+         this.remaining = length;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (remaining == 0) {
+            return -1;
+         }
+         int b = input.read();
+         if (b >= 0) {
+            remaining--;
+         }
+         return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (len == 0) {
+            return 0;
+         }
+         if (remaining == 0) {
+            return -1;
+         }
+         int read = input.read(b, off, Math.min(len, remaining));
+         if (read > 0) {
+            remaining -= read;
+         }
+         return read;
+      }
+
+      @Override
+      public long skip(long n) throws IOException {
+         int skipped = input.skipBytes((int) Math.min(n, remaining));
+         remaining -= skipped;
+         return skipped;
+      }
+
+      @Override
+      public int available() throws IOException {
+         return Math.min(remaining, input.available());
+      }
+
+      @Override
+      public void close() {
+         // The command's stream is still being read
+      }
+
+      /**
+       * Moves the command's stream past the parameters, in case the unmarshaller did not read all of them.
+       */
+      private void skipRemaining() throws IOException {
+         while (remaining > 0) {
+            if (skip(remaining) == 0) {
+               throw new EOFException();
+            }
+         }
+      }
+   }
 }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.async;
 
+import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -82,11 +83,11 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
          if (batch.size() == batchSize) {
             final Set<Object> toHandle = batch;
             batch = new HashSet<Object>(batchSize);
-            submitProcessTask(cacheLoaderTask, eacs, taskContext, toHandle);
+            submitProcessTask(cacheLoaderTask, eacs, taskContext, toHandle, loadValues || loadMetadata);
          }
       }
       if (!batch.isEmpty()) {
-         submitProcessTask(cacheLoaderTask, eacs, taskContext, batch);
+         submitProcessTask(cacheLoaderTask, eacs, taskContext, batch, loadValues || loadMetadata);
       }
 
       eacs.waitUntilAllCompleted();
@@ -95,7 +96,8 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
       }
    }
 
-   private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, CompletionService<Void> ecs, final TaskContext taskContext, final Set<Object> batch) {
+   private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, CompletionService<Void> ecs, final TaskContext taskContext,
+                                  final Set<Object> batch, final boolean loadEntries) {
       ecs.submit(new Callable() {
          @Override
          public Object call() throws Exception {
@@ -103,7 +105,9 @@ public Object call() throws Exception {
                for (Object k : batch) {
                   if (taskContext.isStopped())
                      break;
-                  MarshalledEntry load = load(k);
+                  // the keys were already filtered, so there is no need to load them if only the keys are required
+                  MarshalledEntry load = loadEntries ? load(k) :
+                        ctx.getMarshalledEntryFactory().newMarshalledEntry(k, (ByteBuffer) null, (ByteBuffer) null);
                   if (load != null)
                      cacheLoaderTask.processEntry(load, taskContext);
                }
@@ -474,6 +474,22 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
          }
       }
 
+      // The key is in memory and the value isn't required, so read only the metadata from disk
+      if (!loadValue) {
+         try {
+            if (fe.metadataLen > 0) {
+               byte[] metadata = new byte[fe.metadataLen];
+               channel.read(ByteBuffer.wrap(metadata), fe.offset + KEY_POS + fe.keyLen + fe.dataLen);
+               metadataBb = ctx.getByteBufferFactory().newByteBuffer(metadata, 0, metadata.length);
+            }
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         } finally {
+            fe.unlock();
+         }
+         return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
+      }
+
       final byte[] data;
       try {
          // load serialized data from disk
@@ -491,9 +507,7 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
       ByteBufferFactory factory = ctx.getByteBufferFactory();
       org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
-      if (loadValue) {
-         valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
-      }
+      valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
       if (loadMetadata && fe.metadataLen > 0) {
          metadataBb = factory.newByteBuffer(data, fe.keyLen + fe.dataLen, fe.metadataLen);
       }
@@ -0,0 +1,440 @@
+package org.infinispan.persistence.manager;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferFactory;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.EvictionListener;
+import org.infinispan.container.entries.ClassLayoutEntrySizeCalculator;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.persistence.TaskContextImpl;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * In-memory tier sitting between the data container and the cache stores when passivation is enabled.  Passivated
+ * entries are kept here in their marshalled form, compressed, and are only written to the stores once the total size
+ * of the tier exceeds its capacity, in which case the least recently used entries overflow to the stores.
+ * <p>
+ * Activating an entry removes it from the tier, so an entry is never both in the tier and in a store.  Keys are kept
+ * as they are, and are accounted for together with the compressed bytes by walking their layout.
+ * <p>
+ * An entry that overflows stays visible to loads until the thread that passivated the entry making the tier overflow
+ * has written it to the stores, so the stores are never written while holding a lock of the tier.
+ *
+ * @since 8.0
+ */
+final class CompressedColdTier {
+
+   private static final Log log = LogFactory.getLog(CompressedColdTier.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private static final byte RAW = 0;
+   private static final byte DEFLATED = 1;
+
+   private final BoundedEquivalentConcurrentHashMapV8<Object, ColdEntry> entries;
+   // The entries that left the tier but haven't been written to the stores yet
+   private final ConcurrentMap<Object, Overflow> overflowing;
+   private final Queue<Overflow> overflowQueue = new ConcurrentLinkedQueue<>();
+   private final ByteBufferFactory byteBufferFactory;
+   private final MarshalledEntryFactory<Object, Object> marshalledEntryFactory;
+   private final TimeService timeService;
+   private final Consumer<MarshalledEntry<Object, Object>> overflow;
+
+   /**
+    * @param capacity the maximum number of bytes the tier may hold
+    * @param keyEquivalence the equivalence of the cache keys
+    * @param overflow invoked, without holding any lock of the tier, with every entry that has to leave the tier
+    */
+   CompressedColdTier(long capacity, Equivalence<Object> keyEquivalence, ByteBufferFactory byteBufferFactory,
+                      MarshalledEntryFactory<Object, Object> marshalledEntryFactory, TimeService timeService,
+                      Consumer<MarshalledEntry<Object, Object>> overflow) {
+      this.byteBufferFactory = byteBufferFactory;
+      this.marshalledEntryFactory = marshalledEntryFactory;
+      this.timeService = timeService;
+      this.overflow = overflow;
+      this.overflowing = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.getInstance());
+      this.entries = new BoundedEquivalentConcurrentHashMapV8<>(capacity, Eviction.LRU, new OverflowListener(),
+            keyEquivalence, AnyEquivalence.getInstance(), new ClassLayoutEntrySizeCalculator());
+   }
+
+   void put(MarshalledEntry<?, ?> entry) {
+      InternalMetadata metadata = entry.getMetadata();
+      long expiryTime = metadata == null ? -1 : metadata.expiryTime();
+      byte[] data = compress(entry.getValueBytes(), entry.getMetadataBytes());
+      // An older value of the key that is still waiting to be written to the stores is replaced as well
+      Overflow overflowed = overflowing.remove(entry.getKey());
+      if (overflowed != null) {
+         overflowed.cancelOrAwait();
+      }
+      entries.put(entry.getKey(), new ColdEntry(data, expiryTime));
+      writeOverflow();
+   }
+
+   MarshalledEntry<Object, Object> get(Object key) {
+      ColdEntry entry = entries.get(key);
+      if (entry == null) {
+         Overflow overflowed = overflowing.get(key);
+         entry = overflowed != null ? overflowed.entry : null;
+      }
+      if (entry == null || entry.isExpired(timeService.wallClockTime())) {
+         return null;
+      }
+      return decompress(key, entry, true, true);
+   }
+
+   /**
+    * Removes the entry from the tier.  If it is being written to the stores, waits for the write to finish, so that
+    * the caller can delete it from the stores afterwards.
+    */
+   boolean remove(Object key) {
+      boolean removed = entries.remove(key) != null;
+      Overflow overflowed = overflowing.remove(key);
+      if (overflowed != null) {
+         overflowed.cancelOrAwait();
+         removed = true;
+      }
+      return removed;
+   }
+
+   void clear() {
+      entries.clear();
+      for (Overflow overflowed : overflowing.values()) {
+         overflowing.remove(overflowed.key, overflowed);
+         overflowed.cancelOrAwait();
+      }
+   }
+
+   int size() {
+      return entries.size() + overflowing.size();
+   }
+
+   /**
+    * Iterates over the entries held by the tier, until the task stops the given context.
+    */
+   void process(KeyFilter<? super Object> filter, AdvancedCacheLoader.CacheLoaderTask<Object, Object> task,
+                AdvancedCacheLoader.TaskContext taskContext, boolean fetchValue, boolean fetchMetadata) {
+      long now = timeService.wallClockTime();
+      Iterator<Map.Entry<Object, ColdEntry>> it = entries.entrySet().iterator();
+      Iterator<Overflow> overflowIt = overflowing.values().iterator();
+      while (!taskContext.isStopped() && (it.hasNext() || overflowIt.hasNext())) {
+         Object key;
+         ColdEntry entry;
+         if (it.hasNext()) {
+            Map.Entry<Object, ColdEntry> e = it.next();
+            key = e.getKey();
+            entry = e.getValue();
+         } else {
+            Overflow overflowed = overflowIt.next();
+            key = overflowed.key;
+            entry = overflowed.entry;
+         }
+         if ((filter == null || filter.accept(key)) && !entry.isExpired(now)) {
+            try {
+               task.processEntry(decompress(key, entry, fetchValue, fetchMetadata), taskContext);
+            } catch (InterruptedException ie) {
+               Thread.currentThread().interrupt();
+               taskContext.stop();
+            }
+         }
+      }
+   }
+
+   /**
+    * @return the keys of the entries held by the tier that have expired
+    */
+   List<Object> expiredKeys() {
+      long now = timeService.wallClockTime();
+      List<Object> expired = new ArrayList<>();
+      for (Map.Entry<Object, ColdEntry> e : entries.entrySet()) {
+         if (e.getValue().isExpired(now)) {
+            expired.add(e.getKey());
+         }
+      }
+      return expired;
+   }
+
+   /**
+    * Moves every entry held by the tier to the stores.
+    */
+   void flush() {
+      if (trace) log.tracef("Flushing %d entries from the cold tier to the stores", entries.size());
+      for (Map.Entry<Object, ColdEntry> e : entries.entrySet()) {
+         // Same as an overflow, the entry stays visible to loads until it is in the stores
+         Overflow overflowed = new Overflow(e.getKey(), e.getValue());
+         overflowing.put(overflowed.key, overflowed);
+         if (entries.remove(overflowed.key, overflowed.entry)) {
+            overflowQueue.add(overflowed);
+         } else {
+            overflowing.remove(overflowed.key, overflowed);
+         }
+      }
+      writeOverflow();
+   }
+
+   /**
+    * Wraps the given store, so that the entries held by the tier are also transferred to the other nodes.
+    */
+   AdvancedCacheLoader<Object, Object> stateTransferProvider(AdvancedCacheLoader<Object, Object> store) {
+      return new ColdTierStateTransferProvider(store);
+   }
+
+   private void writeOverflow() {
+      Overflow overflowed;
+      while ((overflowed = overflowQueue.poll()) != null) {
+         try {
+            overflowed.write();
+         } catch (PersistenceException e) {
+            log.unableToPassivateEntry(overflowed.key, e);
+         }
+      }
+   }
+
+   private MarshalledEntry<Object, Object> decompress(Object key, ColdEntry entry, boolean fetchValue, boolean fetchMetadata) {
+      if (!fetchValue && !fetchMetadata) {
+         // key only: the expiration was checked using the entry, no need to inflate it
+         return marshalledEntryFactory.newMarshalledEntry(key, (ByteBuffer) null, (ByteBuffer) null);
+      }
+      byte[] data = entry.data;
+      if (data[0] == DEFLATED) {
+         data = inflate(data);
+      }
+      int offset = 1;
+      int valueLength = readInt(data, offset);
+      offset += 4;
+      ByteBuffer valueBytes = fetchValue ? byteBufferFactory.newByteBuffer(data, offset, valueLength) : null;
+      offset += valueLength;
+      int metadataLength = readInt(data, offset);
+      offset += 4;
+      ByteBuffer metadataBytes = fetchMetadata && metadataLength >= 0 ?
+            byteBufferFactory.newByteBuffer(data, offset, metadataLength) : null;
+      return marshalledEntryFactory.newMarshalledEntry(key, valueBytes, metadataBytes);
+   }
+
+   private static byte[] compress(ByteBuffer valueBytes, ByteBuffer metadataBytes) {
+      int metadataLength = metadataBytes == null ? -1 : metadataBytes.getLength();
+      byte[] raw = new byte[1 + 4 + valueBytes.getLength() + 4 + Math.max(metadataLength, 0)];
+      raw[0] = RAW;
+      int offset = writeInt(raw, 1, valueBytes.getLength());
+      System.arraycopy(valueBytes.getBuf(), valueBytes.getOffset(), raw, offset, valueBytes.getLength());
+      offset = writeInt(raw, offset + valueBytes.getLength(), metadataLength);
+      if (metadataBytes != null) {
+         System.arraycopy(metadataBytes.getBuf(), metadataBytes.getOffset(), raw, offset, metadataLength);
+      }
+
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         deflater.setInput(raw, 1, raw.length - 1);
+         deflater.finish();
+         // Only keep the compressed form if it is actually smaller
+         byte[] compressed = new byte[raw.length + 4];
+         compressed[0] = DEFLATED;
+         int length = writeInt(compressed, 1, raw.length - 1);
+         while (!deflater.finished() && length < compressed.length) {
+            length += deflater.deflate(compressed, length, compressed.length - length);
+         }
+         if (!deflater.finished() || length >= raw.length) {
+            return raw;
+         }
+         byte[] result = new byte[length];
+         System.arraycopy(compressed, 0, result, 0, length);
+         return result;
+      } finally {
+         deflater.end();
+      }
+   }
+
+   private static byte[] inflate(byte[] data) {
+      int rawLength = readInt(data, 1);
+      byte[] raw = new byte[1 + rawLength];
+      raw[0] = RAW;
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(data, 5, data.length - 5);
+         int offset = 1;
+         while (offset < raw.length) {
+            int read = inflater.inflate(raw, offset, raw.length - offset);
+            if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+               throw new PersistenceException("Truncated entry in the cold tier");
+            }
+            offset += read;
+         }
+         return raw;
+      } catch (DataFormatException e) {
+         throw new PersistenceException(e);
+      } finally {
+         inflater.end();
+      }
+   }
+
+   private static int writeInt(byte[] buf, int offset, int value) {
+      buf[offset] = (byte) (value >>> 24);
+      buf[offset + 1] = (byte) (value >>> 16);
+      buf[offset + 2] = (byte) (value >>> 8);
+      buf[offset + 3] = (byte) value;
+      return offset + 4;
+   }
+
+   private static int readInt(byte[] buf, int offset) {
+      return ((buf[offset] & 0xFF) << 24) | ((buf[offset + 1] & 0xFF) << 16) | ((buf[offset + 2] & 0xFF) << 8)
+            | (buf[offset + 3] & 0xFF);
+   }
+
+   private static final class ColdEntry {
+      final byte[] data;
+      final long expiryTime;
+
+      ColdEntry(byte[] data, long expiryTime) {
+         this.data = data;
+         this.expiryTime = expiryTime;
+      }
+
+      boolean isExpired(long now) {
+         return expiryTime > -1 && expiryTime <= now;
+      }
+   }
+
+   private final class Overflow {
+      final Object key;
+      final ColdEntry entry;
+      // Set by whoever gets to the entry first, either the writer or a removal
+      final AtomicBoolean claimed = new AtomicBoolean();
+      final CountDownLatch written = new CountDownLatch(1);
+
+      Overflow(Object key, ColdEntry entry) {
+         this.key = key;
+         this.entry = entry;
+      }
+
+      void write() {
+         if (!claimed.compareAndSet(false, true)) {
+            return;
+         }
+         try {
+            overflow.accept(decompress(key, entry, true, true));
+         } finally {
+            overflowing.remove(key, this);
+            written.countDown();
+         }
+      }
+
+      boolean cancel() {
+         if (claimed.compareAndSet(false, true)) {
+            written.countDown();
+            return true;
+         }
+         return false;
+      }
+
+      void cancelOrAwait() {
+         if (cancel()) {
+            return;
+         }
+         try {
+            written.await();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+   }
+
+   private final class ColdTierStateTransferProvider implements AdvancedCacheLoader<Object, Object> {
+      private final AdvancedCacheLoader<Object, Object> store;
+
+      ColdTierStateTransferProvider(AdvancedCacheLoader<Object, Object> store) {
+         this.store = store;
+      }
+
+      @Override
+      public void process(KeyFilter<? super Object> filter, CacheLoaderTask<Object, Object> task, Executor executor,
+                          boolean fetchValue, boolean fetchMetadata) {
+         TaskContextImpl taskContext = new TaskContextImpl();
+         CompressedColdTier.this.process(filter, task, taskContext, fetchValue, fetchMetadata);
+         if (!taskContext.isStopped()) {
+            store.process(filter, task, executor, fetchValue, fetchMetadata);
+         }
+      }
+
+      @Override
+      public int size() {
+         return CompressedColdTier.this.size() + store.size();
+      }
+
+      @Override
+      public void init(InitializationContext ctx) {
+         // Only a view of the tier and of the store, whose lifecycle is managed by the PersistenceManager
+      }
+
+      @Override
+      public MarshalledEntry<Object, Object> load(Object key) {
+         MarshalledEntry<Object, Object> entry = get(key);
+         return entry != null ? entry : store.load(key);
+      }
+
+      @Override
+      public boolean contains(Object key) {
+         return get(key) != null || store.contains(key);
+      }
+
+      @Override
+      public void start() {
+      }
+
+      @Override
+      public void stop() {
+      }
+   }
+
+   private final class OverflowListener implements EvictionListener<Object, ColdEntry> {
+      @Override
+      public void onEntryEviction(Map<Object, ColdEntry> evicted) {
+      }
+
+      @Override
+      public void onEntryChosenForEviction(Map.Entry<Object, ColdEntry> entry) {
+         // Invoked while holding the lock on the key: the entry is only queued here, and it stays visible to loads
+         // until the thread that made the tier overflow has written it to the stores
+         if (trace) log.tracef("Cold tier is full, passivating %s to the stores", entry.getKey());
+         Overflow overflowed = new Overflow(entry.getKey(), entry.getValue());
+         Overflow previous = overflowing.put(overflowed.key, overflowed);
+         if (previous != null) {
+            // Only possible with a concurrent put of the same key, the newer value wins
+            previous.cancel();
+         }
+         overflowQueue.add(overflowed);
+      }
+
+      @Override
+      public void onEntryActivated(Object key) {
+      }
+
+      @Override
+      public void onEntryRemoved(Map.Entry<Object, ColdEntry> entry) {
+      }
+   }
+}
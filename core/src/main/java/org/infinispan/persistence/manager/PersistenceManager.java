@@ -58,6 +58,14 @@ public interface PersistenceManager extends Lifecycle {
 
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes an entry evicted from the data container.  Unlike {@link #writeToAllStores(MarshalledEntry, AccessMode)},
+    * the entry may be kept in the cold tier and only reach the stores later.
+    *
+    * @since 8.0
+    */
+   void passivate(MarshalledEntry<?, ?> marshalledEntry);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
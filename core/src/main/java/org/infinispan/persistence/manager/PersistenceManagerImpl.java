@@ -30,6 +30,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.InitializationContextImpl;
+import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
 import org.infinispan.persistence.async.AsyncCacheLoader;
@@ -86,7 +87,7 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private final Map<Object, StoreConfiguration> configMap = new HashMap<>();
 
    private CacheStoreFactoryRegistry cacheStoreFactoryRegistry;
-   private ExpirationManager expirationManager;
+   private ExpirationManager<Object, Object> expirationManager;
 
    /**
     * making it volatile as it might change after @Start, so it needs the visibility.
@@ -94,15 +95,16 @@ public class PersistenceManagerImpl implements PersistenceManager {
    volatile boolean enabled;
    private Executor persistenceExecutor;
    private ByteBufferFactory byteBufferFactory;
-   private MarshalledEntryFactory marshalledEntryFactory;
+   private MarshalledEntryFactory<Object, Object> marshalledEntryFactory;
    private volatile boolean clearOnStop;
+   private CompressedColdTier coldTier;
 
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
                       Configuration configuration, TransactionManager transactionManager,
                       TimeService timeService, @ComponentName(PERSISTENCE_EXECUTOR) ExecutorService persistenceExecutor,
-                      ByteBufferFactory byteBufferFactory, MarshalledEntryFactory marshalledEntryFactory,
-                      CacheStoreFactoryRegistry cacheStoreFactoryRegistry, ExpirationManager expirationManager) {
+                      ByteBufferFactory byteBufferFactory, MarshalledEntryFactory<Object, Object> marshalledEntryFactory,
+                      CacheStoreFactoryRegistry cacheStoreFactoryRegistry, ExpirationManager<Object, Object> expirationManager) {
       this.cache = cache;
       this.m = marshaller;
       this.configuration = configuration;
@@ -123,6 +125,7 @@ public void start() {
          return;
       try {
          createLoadersAndWriters();
+         createColdTier();
          Transaction xaTx = null;
          if (transactionManager != null) {
             xaTx = transactionManager.suspend();
@@ -174,6 +177,8 @@ public void stop() {
       // If needed, clear the persistent store before stopping
       if (clearOnStop)
          clearAllStores(AccessMode.BOTH);
+      else if (coldTier != null)
+         coldTier.flush();
 
       Set undelegated = new HashSet();
       for (CacheWriter w : writers) {
@@ -339,6 +344,12 @@ public void purgeExpired() {
             start = timeService.time();
          }
 
+         if (coldTier != null) {
+            for (Object key : coldTier.expiredKeys()) {
+               expirationManager.handleInStoreExpiration(key);
+            }
+         }
+
          storesMutex.readLock().lock();
          try {
             for (CacheWriter w : writers) {
@@ -366,6 +377,8 @@ public void purgeExpired() {
    public void clearAllStores(AccessMode mode) {
       storesMutex.readLock().lock();
       try {
+         if (usesColdTier(mode))
+            coldTier.clear();
          for (CacheWriter w : writers) {
             if (w instanceof AdvancedCacheWriter) {
                if (mode.canPerform(configMap.get(w))) {
@@ -382,7 +395,7 @@ public void clearAllStores(AccessMode mode) {
    public boolean deleteFromAllStores(Object key, AccessMode mode) {
       storesMutex.readLock().lock();
       try {
-         boolean removed = false;
+         boolean removed = usesColdTier(mode) && coldTier.remove(key);
          for (CacheWriter w : writers) {
             if (mode.canPerform(configMap.get(w))) {
                removed |= w.delete(key);
@@ -415,6 +428,18 @@ public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoa
    public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
       storesMutex.readLock().lock();
       try {
+         if (usesColdTier(mode)) {
+            // The PersistenceManager signatures are raw, while the cold tier holds entries of any key and value
+            @SuppressWarnings("unchecked")
+            AdvancedCacheLoader.CacheLoaderTask<Object, Object> coldTierTask = task;
+            @SuppressWarnings("unchecked")
+            KeyFilter<Object> coldTierFilter = keyFilter;
+            // The task sees a single iteration, so the stores are skipped once it stops the cold tier's
+            TaskContextImpl taskContext = new TaskContextImpl();
+            coldTier.process(coldTierFilter, coldTierTask, taskContext, fetchValue, fetchMetadata);
+            if (taskContext.isStopped())
+               return;
+         }
          for (CacheLoader loader : loaders) {
             if (mode.canPerform(configMap.get(loader)) && loader instanceof AdvancedCacheLoader) {
                ((AdvancedCacheLoader) loader).process(keyFilter, task, executor, fetchValue, fetchMetadata);
@@ -429,6 +454,11 @@ public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedC
    public MarshalledEntry loadFromAllStores(Object key, InvocationContext context) {
       storesMutex.readLock().lock();
       try {
+         if (coldTier != null) {
+            MarshalledEntry load = coldTier.get(key);
+            if (load != null)
+               return load;
+         }
          for (CacheLoader l : loaders) {
             if (!context.isOriginLocal() && isLocalOnlyLoader(l))
                continue;
@@ -453,8 +483,25 @@ private boolean isLocalOnlyLoader(CacheLoader loader) {
       return false;
    }
 
+   @Override
+   public void passivate(MarshalledEntry<?, ?> marshalledEntry) {
+      if (coldTier != null) {
+         // Passivated entries only reach the stores once they overflow from the cold tier
+         coldTier.put(marshalledEntry);
+      } else {
+         writeToStores(marshalledEntry, BOTH);
+      }
+   }
+
    @Override
    public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
+      // The stores get the new value, so an older one can't be loaded from the cold tier
+      if (usesColdTier(mode))
+         coldTier.remove(marshalledEntry.getKey());
+      writeToStores(marshalledEntry, mode);
+   }
+
+   private void writeToStores(MarshalledEntry<?, ?> marshalledEntry, AccessMode mode) {
       storesMutex.readLock().lock();
       try {
          for (CacheWriter w : writers) {
@@ -473,8 +520,14 @@ public AdvancedCacheLoader getStateTransferProvider() {
       try {
          for (CacheLoader l : loaders) {
             StoreConfiguration storeConfiguration = configMap.get(l);
-            if (storeConfiguration.fetchPersistentState() && !storeConfiguration.shared())
-               return (AdvancedCacheLoader) l;
+            if (storeConfiguration.fetchPersistentState() && !storeConfiguration.shared()) {
+               if (coldTier == null)
+                  return (AdvancedCacheLoader) l;
+               // The entries held by the cold tier have to be transferred as well
+               @SuppressWarnings("unchecked")
+               AdvancedCacheLoader<Object, Object> store = (AdvancedCacheLoader<Object, Object>) l;
+               return coldTier.stateTransferProvider(store);
+            }
          }
          return null;
       } finally {
@@ -486,14 +539,15 @@ public AdvancedCacheLoader getStateTransferProvider() {
    public int size() {
       storesMutex.readLock().lock();
       try {
+         int coldTierSize = coldTier != null ? coldTier.size() : 0;
          for (CacheLoader l : loaders) {
             if (l instanceof AdvancedCacheLoader)
-               return ((AdvancedCacheLoader) l).size();
+               return coldTierSize + ((AdvancedCacheLoader) l).size();
          }
       } finally {
          storesMutex.readLock().unlock();
       }
-      return 0;
+      return coldTier != null ? coldTier.size() : 0;
    }
 
    @Override
@@ -509,6 +563,22 @@ public List<CacheWriter> getAllWriters() {
       return Collections.unmodifiableList(writers);
    }
 
+   /**
+    * The cold tier is private to this node, so it takes part in every operation that isn't restricted to shared stores.
+    */
+   private boolean usesColdTier(AccessMode mode) {
+      return coldTier != null && mode != AccessMode.SHARED;
+   }
+
+   private void createColdTier() {
+      long coldTierSize = configuration.persistence().coldTierSize();
+      if (coldTierSize > 0 && configuration.persistence().passivation()) {
+         coldTier = new CompressedColdTier(coldTierSize, configuration.dataContainer().keyEquivalence(),
+                                           byteBufferFactory, marshalledEntryFactory, timeService,
+                                           me -> writeToStores(me, BOTH));
+      }
+   }
+
    private void createLoadersAndWriters() {
       for (StoreConfiguration cfg : configuration.persistence().stores()) {
          Object bareInstance = cacheStoreFactoryRegistry.createInstance(cfg);
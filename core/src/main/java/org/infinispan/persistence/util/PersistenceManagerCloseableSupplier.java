@@ -38,6 +38,8 @@
    private final BlockingQueue<CacheEntry<K, V>> queue;
    private final long timeout;
    private final TimeUnit unit;
+   private final boolean fetchValue;
+   private final boolean fetchMetadata;
 
    private final Lock closeLock = new ReentrantLock();
    private final Condition closeCondition = closeLock.newCondition();
@@ -48,6 +50,12 @@
    public PersistenceManagerCloseableSupplier(Executor executor, PersistenceManager manager,
                                               InternalEntryFactory factory, KeyFilter<K> filter, long timeout,
                                               TimeUnit unit, int maxQueue) {
+      this(executor, manager, factory, filter, timeout, unit, maxQueue, true, true);
+   }
+
+   public PersistenceManagerCloseableSupplier(Executor executor, PersistenceManager manager,
+                                              InternalEntryFactory factory, KeyFilter<K> filter, long timeout,
+                                              TimeUnit unit, int maxQueue, boolean fetchValue, boolean fetchMetadata) {
       this.executor = executor;
       this.manager = manager;
       this.factory = factory;
@@ -55,6 +63,8 @@ public PersistenceManagerCloseableSupplier(Executor executor, PersistenceManager
       this.timeout = timeout;
       this.unit = unit;
       this.queue = new ArrayBlockingQueue<>(maxQueue);
+      this.fetchValue = fetchValue;
+      this.fetchMetadata = fetchMetadata;
    }
 
    class SupplierCacheLoaderTask implements AdvancedCacheLoader.CacheLoaderTask<K, V> {
@@ -112,7 +122,7 @@ public CacheEntry<K, V> get() throws TimeoutException {
          // can't really use the persistence executor since we will block while waiting for additional work
          executor.execute(() -> {
             try {
-               manager.processOnAllStores(new WithinThreadExecutor(), filter, task, true, true);
+               manager.processOnAllStores(new WithinThreadExecutor(), filter, task, fetchValue, fetchMetadata);
             } finally {
                close();
             }
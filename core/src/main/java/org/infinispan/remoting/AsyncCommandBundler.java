@@ -0,0 +1,188 @@
+package org.infinispan.remoting;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.concurrent.locks.RemoteLockCommand;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces the asynchronous commands of a cache into {@link org.infinispan.commands.remote.MultipleRpcCommand}s.
+ * <p/>
+ * The commands are queued, without locking, and the thread adding a command to an empty queue sends it, together with
+ * any command queued in the meantime. Consecutive commands for the same recipients and with the same {@link
+ * DeliverOrder} are sent in a single message, up to {@link org.infinispan.configuration.cache.AsyncConfiguration#bundleSize()}
+ * commands. The commands are sent in the order they were queued, so the per sender order is preserved. Nothing is
+ * delayed waiting for more commands: a bundle only contains the commands queued while the previous bundle was sent.
+ * <p/>
+ * A bundle never contains two commands locking the same key, since the receivers acquire the locks of all the commands
+ * in a bundle before executing any of them.
+ * <p/>
+ * A thread that keeps finding new commands to send hands the queue over to the asynchronous transport executor, so
+ * the thread is not held by the other writers for long.
+ *
+ * @since 8.0
+ */
+public class AsyncCommandBundler {
+
+   private static final Log log = LogFactory.getLog(AsyncCommandBundler.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final int MAX_INLINE_BUNDLES = 4;
+
+   private final Queue<PendingCommand> queue = new ConcurrentLinkedQueue<>();
+   /**
+    * the number of commands queued and not sent yet. The thread incrementing it from 0 is in charge of sending them.
+    */
+   private final AtomicInteger pending = new AtomicInteger();
+   /**
+    * the command that did not fit in the last bundle. Only accessed by the thread in charge of sending.
+    */
+   private PendingCommand next;
+   private RpcManager rpcManager;
+   private CommandsFactory commandsFactory;
+   private Configuration configuration;
+   private ExecutorService executor;
+   private Equivalence<Object> keyEquivalence;
+   private int bundleSize;
+
+   @Inject
+   public void inject(RpcManager rpcManager, CommandsFactory commandsFactory, Configuration configuration,
+                      @ComponentName(KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR) ExecutorService executor) {
+      this.rpcManager = rpcManager;
+      this.commandsFactory = commandsFactory;
+      this.configuration = configuration;
+      this.executor = executor;
+   }
+
+   @Start
+   public void start() {
+      bundleSize = configuration.clustering().async().bundleSize();
+      keyEquivalence = configuration.dataContainer().keyEquivalence();
+   }
+
+   /**
+    * Sends the command asynchronously, possibly together with other commands.
+    *
+    * @param recipients   the recipients, or {@code null} to send to all the members.
+    * @param command      the command to send. It must not be a {@link org.infinispan.commands.remote.CacheRpcCommand}.
+    * @param deliverOrder the {@link DeliverOrder}, other than {@link DeliverOrder#TOTAL}.
+    */
+   public void send(Collection<Address> recipients, ReplicableCommand command, DeliverOrder deliverOrder) {
+      queue.add(new PendingCommand(recipients, command, deliverOrder));
+      if (pending.getAndIncrement() == 0) {
+         sendPending(true);
+      }
+   }
+
+   private void sendPending(boolean inline) {
+      int bundles = 0;
+      int remaining = pending.get();
+      while (remaining > 0) {
+         if (inline && bundles++ == MAX_INLINE_BUNDLES && handOver()) {
+            return;
+         }
+         remaining = pending.addAndGet(-sendBundle(remaining));
+      }
+   }
+
+   private boolean handOver() {
+      try {
+         executor.execute(() -> sendPending(false));
+         return true;
+      } catch (RejectedExecutionException e) {
+         return false;
+      }
+   }
+
+   /**
+    * @param available the number of commands queued.
+    * @return the number of commands sent.
+    */
+   private int sendBundle(int available) {
+      PendingCommand first = next != null ? next : queue.poll();
+      next = null;
+      List<ReplicableCommand> commands = new ArrayList<>(Math.min(available, bundleSize));
+      Set<Object> keys = CollectionFactory.makeSet(keyEquivalence);
+      commands.add(first.command);
+      addKeys(first.command, keys);
+      while (commands.size() < available && commands.size() < bundleSize) {
+         PendingCommand pendingCommand = queue.poll();
+         if (!first.sameDestination(pendingCommand) || !addKeys(pendingCommand.command, keys)) {
+            next = pendingCommand;
+            break;
+         }
+         commands.add(pendingCommand.command);
+      }
+
+      if (trace) {
+         log.tracef("Sending %d asynchronous commands to %s", commands.size(),
+                    first.recipients == null ? "all" : first.recipients);
+      }
+      ReplicableCommand rpc = commands.size() == 1 ?
+            commandsFactory.buildSingleRpcCommand(commands.get(0)) :
+            commandsFactory.buildReplicateCommand(commands);
+      try {
+         rpcManager.invokeRemotelyAsync(first.recipients, rpc,
+                                        rpcManager.getRpcOptionsBuilder(ResponseMode.ASYNCHRONOUS, first.deliverOrder)
+                                              .skipReplicationQueue(true).build());
+      } catch (Throwable t) {
+         log.failedReplicatingQueue(commands.size(), t);
+      }
+      return commands.size();
+   }
+
+   /**
+    * @return {@code false}, without adding anything, if the command locks any key in {@code keys}.
+    */
+   private static boolean addKeys(ReplicableCommand command, Set<Object> keys) {
+      if (!(command instanceof RemoteLockCommand)) {
+         return true;
+      }
+      Collection<?> keysToLock = ((RemoteLockCommand) command).getKeysToLock();
+      for (Object key : keysToLock) {
+         if (keys.contains(key)) {
+            return false;
+         }
+      }
+      keys.addAll(keysToLock);
+      return true;
+   }
+
+   private static class PendingCommand {
+      private final Collection<Address> recipients;
+      private final ReplicableCommand command;
+      private final DeliverOrder deliverOrder;
+
+      private PendingCommand(Collection<Address> recipients, ReplicableCommand command, DeliverOrder deliverOrder) {
+         this.recipients = recipients;
+         this.command = command;
+         this.deliverOrder = deliverOrder;
+      }
+
+      private boolean sameDestination(PendingCommand other) {
+         return deliverOrder == other.deliverOrder && Objects.equals(recipients, other.recipients);
+      }
+   }
+}
@@ -7,6 +7,9 @@
 import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.util.concurrent.BlockingRunnable;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Common logic to handle {@link org.infinispan.commands.remote.CacheRpcCommand}.
  *
@@ -28,33 +31,68 @@ protected BaseBlockingRunnable(BasePerCacheInboundInvocationHandler handler, Cac
 
    @Override
    public void run() {
+      boolean deferred = false;
       try {
          response = beforeInvoke();
          if (response == null) {
-            response = handler.invokePerform(command);
+            CompletableFuture<Response> future = handler.invokePerform(command);
+            if (!future.isDone()) {
+               //the command is waiting for other nodes, e.g. for the backup owners. reply when they are done instead of
+               //blocking this thread until then. the reply is sent by another remote executor thread, since the future is
+               //completed by the thread delivering the responses.
+               deferred = true;
+               future.whenCompleteAsync(this::onDeferredResponse, handler.remoteCommandsExecutor);
+               return;
+            }
+            response = future.join();
          }
          afterInvoke();
-      } catch (InterruptedException e) {
-         response = handler.interruptedException(command);
-         onException(e);
-      } catch (OutdatedTopologyException oe) {
-         response = handler.outdatedTopology(oe);
-         onException(oe);
-      } catch (IllegalLifecycleStateException e) {
-         response = CacheNotFoundResponse.INSTANCE;
-         onException(e);
-      } catch (Exception e) {
-         response = handler.exceptionHandlingCommand(command, e);
-         onException(e);
       } catch (Throwable throwable) {
-         response = handler.exceptionHandlingCommand(command, throwable);
-         onException(throwable);
+         response = exceptionResponse(throwable);
+      } finally {
+         if (!deferred) {
+            reply.reply(response);
+            onFinally();
+         }
+      }
+   }
+
+   private void onDeferredResponse(Response deferredResponse, Throwable throwable) {
+      try {
+         if (throwable == null) {
+            response = deferredResponse;
+            afterInvoke();
+         } else {
+            response = exceptionResponse(throwable);
+         }
+      } catch (Throwable t) {
+         response = exceptionResponse(t);
       } finally {
          reply.reply(response);
          onFinally();
       }
    }
 
+   private Response exceptionResponse(Throwable throwable) {
+      if (throwable instanceof CompletionException && throwable.getCause() != null) {
+         throwable = throwable.getCause();
+      }
+      Response exceptionResponse;
+      if (throwable instanceof InterruptedException) {
+         exceptionResponse = handler.interruptedException(command);
+      } else if (throwable instanceof OutdatedTopologyException) {
+         exceptionResponse = handler.outdatedTopology((OutdatedTopologyException) throwable);
+      } else if (throwable instanceof IllegalLifecycleStateException) {
+         exceptionResponse = CacheNotFoundResponse.INSTANCE;
+      } else if (throwable instanceof Exception) {
+         exceptionResponse = handler.exceptionHandlingCommand(command, (Exception) throwable);
+      } else {
+         exceptionResponse = handler.exceptionHandlingCommand(command, throwable);
+      }
+      onException(throwable);
+      return exceptionResponse;
+   }
+
    protected void onFinally() {
       //no-op by default
    }
@@ -20,6 +20,8 @@
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.logging.Log;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
 
 /**
@@ -81,7 +83,11 @@ public void injectDependencies(@ComponentName(REMOTE_COMMAND_EXECUTOR) BlockingT
       this.stateTransferManager = stateTransferManager;
    }
 
-   final Response invokePerform(CacheRpcCommand cmd) throws Throwable {
+   /**
+    * @return a {@link CompletableFuture} completed with the response. It is not completed yet if the command is still
+    * waiting for other nodes, e.g. for the backup owners.
+    */
+   final CompletableFuture<Response> invokePerform(CacheRpcCommand cmd) throws Throwable {
       try {
          if (isTraceEnabled()) {
             getLog().tracef("Calling perform() on %s", cmd);
@@ -89,7 +95,11 @@ final Response invokePerform(CacheRpcCommand cmd) throws Throwable {
          if (cmd instanceof CancellableCommand) {
             cancellationService.register(Thread.currentThread(), ((CancellableCommand) cmd).getUUID());
          }
-         return responseGenerator.getResponse(cmd, cmd.perform(null));
+         if (cmd instanceof SingleRpcCommand) {
+            return ((SingleRpcCommand) cmd).performAsync()
+                  .thenApply(returnValue -> responseGenerator.getResponse(cmd, returnValue));
+         }
+         return CompletableFuture.completedFuture(responseGenerator.getResponse(cmd, cmd.perform(null)));
       } finally {
          if (cmd instanceof CancellableCommand) {
             cancellationService.unregister(((CancellableCommand) cmd).getUUID());
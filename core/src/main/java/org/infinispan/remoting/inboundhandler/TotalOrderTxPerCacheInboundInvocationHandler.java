@@ -3,6 +3,7 @@
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
+import org.infinispan.commands.tx.totalorder.TotalOrderBatchPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderNonVersionedPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderPrepareCommand;
@@ -11,6 +12,7 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.totalorder.RetryPrepareException;
 import org.infinispan.remoting.responses.ExceptionResponse;
+import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.transaction.impl.TotalOrderRemoteTransactionState;
 import org.infinispan.transaction.totalorder.TotalOrderLatch;
@@ -19,6 +21,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A {@link org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler} implementation for total order
  * caches.
@@ -57,6 +61,14 @@ public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
                runnable = createRunnableForPrepare(state, (PrepareCommand) command, reply);
                onExecutorService = true;
                break;
+            case TotalOrderBatchPrepareCommand.COMMAND_ID:
+               if (!stateTransferManager.ownsData()) {
+                  log.debugf("No Data in local node.");
+                  reply.reply(null);
+                  return;
+               }
+               handleBatchPrepare((TotalOrderBatchPrepareCommand) command, reply);
+               return;
             case TotalOrderCommitCommand.COMMAND_ID:
             case TotalOrderVersionedCommitCommand.COMMAND_ID:
             case RollbackCommand.COMMAND_ID:
@@ -85,6 +97,24 @@ protected boolean isTraceEnabled() {
       return trace;
    }
 
+   private void handleBatchPrepare(TotalOrderBatchPrepareCommand command, Reply reply) throws InterruptedException {
+      PrepareCommand[] prepares = command.getPrepares();
+      if (trace) {
+         log.tracef("Ordering %d prepares delivered in a batch", prepares.length);
+      }
+      BatchReply batchReply = new BatchReply(reply, prepares.length);
+      //all the prepares are ordered before any of them is executed, as if they were delivered one after the other
+      BlockingRunnable[] runnables = new BlockingRunnable[prepares.length];
+      for (int i = 0; i < prepares.length; i++) {
+         TotalOrderRemoteTransactionState state = ((TotalOrderPrepareCommand) prepares[i]).getOrCreateState();
+         totalOrderManager.ensureOrder(state, prepares[i].getKeysToLock());
+         runnables[i] = createRunnableForPrepare(state, prepares[i], batchReply.forPrepare(i));
+      }
+      for (BlockingRunnable runnable : runnables) {
+         handleRunnable(runnable, true);
+      }
+   }
+
    private BlockingRunnable createRunnableForPrepare(final TotalOrderRemoteTransactionState state,
                                                      final PrepareCommand command,
                                                      final Reply reply) {
@@ -144,4 +174,30 @@ protected void onFinally() {
          }
       };
    }
+
+   /**
+    * Collects the responses of the prepares in a batch and sends them back, all together, once the last one is
+    * available.
+    */
+   private static class BatchReply {
+      private final Reply reply;
+      private final Object[] responses;
+      private final AtomicInteger missing;
+
+      private BatchReply(Reply reply, int size) {
+         this.reply = reply;
+         this.responses = new Object[size];
+         this.missing = new AtomicInteger(size);
+      }
+
+      private Reply forPrepare(final int index) {
+         return returnValue -> {
+            responses[index] = returnValue;
+            //the atomic decrement makes the array writes visible to the thread sending the reply
+            if (missing.decrementAndGet() == 0) {
+               reply.reply(SuccessfulResponse.create(responses));
+            }
+         };
+      }
+   }
 }
@@ -57,9 +57,11 @@ protected ActionStatus init(ActionState state) {
          return cas(InternalState.CHECKING, InternalState.READY) ? ActionStatus.READY : ActionStatus.NOT_READY;
       }
 
+      //the command was received from another node
+      final Class<?> commandType = state.getCommand().getClass();
       LockPromise promise = keysToLock.size() == 1 ?
-            lockManager.lock(keysToLock.get(0), lockOwner, timeout, TimeUnit.MILLISECONDS) :
-            lockManager.lockAll(keysToLock, lockOwner, timeout, TimeUnit.MILLISECONDS);
+            lockManager.lock(keysToLock.get(0), lockOwner, timeout, TimeUnit.MILLISECONDS, commandType, true) :
+            lockManager.lockAll(keysToLock, lockOwner, timeout, TimeUnit.MILLISECONDS, commandType, true);
 
       lockPromise = promise;
       if (!promise.isAvailable()) {
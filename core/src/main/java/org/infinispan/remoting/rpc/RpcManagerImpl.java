@@ -31,6 +31,7 @@
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.jmx.annotations.Parameter;
 import org.infinispan.jmx.annotations.Units;
+import org.infinispan.remoting.AsyncCommandBundler;
 import org.infinispan.remoting.ReplicationQueue;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.Response;
@@ -68,6 +69,7 @@ public class RpcManagerImpl implements RpcManager, JmxStatisticsExposer {
    private boolean statisticsEnabled = false; // by default, don't gather statistics.
    private Configuration configuration;
    private ReplicationQueue replicationQueue;
+   private AsyncCommandBundler asyncCommandBundler;
    private CommandsFactory cf;
    private StateTransferManager stateTransferManager;
    private TimeService timeService;
@@ -84,6 +86,11 @@ public void injectDependencies(Transport t, Configuration cfg,
       this.timeService = timeService;
    }
 
+   @Inject
+   public void injectAsyncCommandBundler(AsyncCommandBundler asyncCommandBundler) {
+      this.asyncCommandBundler = asyncCommandBundler;
+   }
+
    @Start(priority = 9)
    private void start() {
       statisticsEnabled = configuration.jmxStatistics().enabled();
@@ -115,6 +122,13 @@ private boolean useReplicationQueue(boolean sync) {
       return !sync && replicationQueue != null && replicationQueue.isEnabled();
    }
 
+   private boolean useAsyncCommandBundler(ReplicableCommand rpc, RpcOptions options) {
+      //the bundler sends the commands wrapped in a SingleRpcCommand or a MultipleRpcCommand, which skip it
+      return asyncCommandBundler != null && !options.skipReplicationQueue() &&
+            !options.responseMode().isSynchronous() && options.deliverOrder() != DeliverOrder.TOTAL &&
+            !(rpc instanceof CacheRpcCommand);
+   }
+
    @Override
    public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
                                                                         ReplicableCommand rpc,
@@ -143,6 +157,11 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
          }
       }
 
+      if (useAsyncCommandBundler(rpc, options)) {
+         asyncCommandBundler.send(recipients, rpc, options.deliverOrder());
+         return CompletableFuture.completedFuture(InfinispanCollections.emptyMap());
+      }
+
       CacheRpcCommand cacheRpc =
             rpc instanceof CacheRpcCommand ? (CacheRpcCommand) rpc : cf.buildSingleRpcCommand(rpc);
 
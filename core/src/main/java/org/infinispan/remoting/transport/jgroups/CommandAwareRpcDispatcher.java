@@ -58,12 +58,14 @@ public class CommandAwareRpcDispatcher extends RpcDispatcher {
 
    private final InboundInvocationHandler handler;
    private final ScheduledExecutorService timeoutExecutor;
+   private final JGroupsTransport transport;
 
    public CommandAwareRpcDispatcher(Channel channel, JGroupsTransport transport,
                                     InboundInvocationHandler globalHandler, ScheduledExecutorService timeoutExecutor) {
       this.server_obj = transport;
       this.handler = globalHandler;
       this.timeoutExecutor = timeoutExecutor;
+      this.transport = transport;
 
       // MessageDispatcher superclass constructors will call start() so perform all init here
       this.setMembershipListener(transport);
@@ -214,7 +216,26 @@ private void reply(org.jgroups.blocks.Response response, Object retVal, Replicab
       if (response != null) {
          if (trace) log.tracef("About to send back response %s for command %s", retVal, command);
          //exceptionThrown is always false because the exceptions are wrapped in an ExceptionResponse
-         response.send(retVal, false);
+         response.send(marshallResponse(retVal, command), false);
+      }
+   }
+
+   /**
+    * Marshalls the response in advance if the statistics are enabled, so its size can be recorded. {@link
+    * MarshallerAdapter} sends the buffer as it is. If the marshalling fails, the response is returned unchanged and
+    * JGroups handles the failure as usual.
+    */
+   private Object marshallResponse(Object retVal, ReplicableCommand command) {
+      RpcStatistics statistics = transport.getRpcStatistics();
+      if (statistics == null || command == null || !(rsp_marshaller instanceof MarshallerAdapter)) {
+         return retVal;
+      }
+      try {
+         Buffer buf = rsp_marshaller.objectToBuffer(retVal);
+         statistics.responseSent(command, buf.getLength());
+         return buf;
+      } catch (Exception e) {
+         return retVal;
       }
    }
 
@@ -243,6 +264,13 @@ Buffer marshallCall(Marshaller marshaller, ReplicableCommand command) {
       return buf;
    }
 
+   private void recordRequest(ReplicableCommand command, Buffer buf) {
+      RpcStatistics statistics = transport.getRpcStatistics();
+      if (statistics != null) {
+         statistics.requestSent(command, buf.getLength());
+      }
+   }
+
    private SingleResponseFuture processSingleCall(ReplicableCommand command, long timeout,
                                                   Address destination, ResponseMode mode,
                                                   DeliverOrder deliverOrder, Marshaller marshaller) throws Exception {
@@ -253,6 +281,7 @@ private SingleResponseFuture processSingleCall(ReplicableCommand command, long t
       // Replay capability requires responses from all members!
       Buffer buf;
       buf = marshallCall(marshaller, command);
+      recordRequest(command, buf);
       Message msg = constructMessage(buf, destination, mode, rsvp, deliverOrder);
       NotifyingFuture<Response> request = sendMessageWithFuture(msg, new RequestOptions(mode, timeout));
       if (mode == ResponseMode.GET_NONE)
@@ -274,6 +303,7 @@ private RspListFuture processCalls(ReplicableCommand command, boolean broadcast,
       boolean rsvp = isRsvpCommand(command);
 
       Buffer buf = marshallCall(marshaller, command);
+      recordRequest(command, buf);
       Message msg;
       RequestOptions opts;
       if (deliverOrder == DeliverOrder.TOTAL) {
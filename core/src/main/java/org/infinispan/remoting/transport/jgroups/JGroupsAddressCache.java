@@ -18,7 +18,7 @@ public class JGroupsAddressCache {
 
    // HACK: Avoid the org.jgroups.Address reference in the signature so that local caches can work without the jgroups jar.
    // Otherwise, instantiating the JGroupsAddress externalizer will try to load the org.jgroups.Address class.
-   static org.infinispan.remoting.transport.Address fromJGroupsAddress(Object address) {
+   public static org.infinispan.remoting.transport.Address fromJGroupsAddress(Object address) {
       final Address jgAddress = (Address) address;
       // New entries are rarely added added after startup, but computeIfAbsent synchronizes every time
       JGroupsAddress ispnAddress = addressCache.get(jgAddress);
@@ -16,6 +16,9 @@
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.jmx.JmxUtil;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.notifications.cachemanagerlistener.CacheManagerNotifier;
 import org.infinispan.remoting.RpcException;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -66,6 +69,7 @@
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -85,11 +89,15 @@
  * These are normally passed in as Properties in
  * {@link org.infinispan.configuration.global.TransportConfigurationBuilder#withProperties(java.util.Properties)} or
  * in the Infinispan XML configuration file.
+ * <p/>
+ * If the statistics are enabled, the round-trip latency, the sizes and the number in flight of the remote invocations
+ * are recorded per command type, see {@link RpcStatistics}.
  *
  * @author Manik Surtani
  * @author Galder Zamarreño
  * @since 4.0
  */
+@MBean(objectName = "Transport", description = "Component that sends the commands to the other nodes in the cluster.")
 public class JGroupsTransport extends AbstractTransport implements MembershipListener {
    public static final String CONFIGURATION_STRING = "configurationString";
    public static final String CONFIGURATION_XML = "configurationXml";
@@ -102,6 +110,7 @@ public class JGroupsTransport extends AbstractTransport implements MembershipLis
 
    protected boolean connectChannel = true, disconnectChannel = true, closeChannel = true;
    protected CommandAwareRpcDispatcher dispatcher;
+   private PayloadCompressor payloadCompressor;
    protected TypedProperties props;
    protected StreamingMarshaller marshaller;
    protected CacheManagerNotifier notifier;
@@ -109,6 +118,9 @@ public class JGroupsTransport extends AbstractTransport implements MembershipLis
    private TimeService timeService;
    protected InboundInvocationHandler globalHandler;
    private ScheduledExecutorService timeoutExecutor;
+   private final RpcStatistics rpcStatistics = new RpcStatistics();
+   @ManagedAttribute(description = "Enables or disables the gathering of the remote invocation statistics", displayName = "Statistics enabled", writable = true)
+   private volatile boolean statisticsEnabled;
 
    private boolean globalStatsEnabled;
    private MBeanServer mbeanServer;
@@ -154,6 +166,13 @@ protected ScheduledExecutorService getTimeoutExecutor() {
       return timeoutExecutor;
   }
 
+   /**
+    * @return the statistics of the remote invocations, or {@code null} if they are not gathered.
+    */
+   RpcStatistics getRpcStatistics() {
+      return statisticsEnabled ? rpcStatistics : null;
+   }
+
    // ------------------------------------------------------------------------------------------------------------------
    // Lifecycle and setup stuff
    // ------------------------------------------------------------------------------------------------------------------
@@ -181,6 +200,7 @@ public void initialize(@ComponentName(GLOBAL_MARSHALLER) StreamingMarshaller mar
    @Override
    public void start() {
       props = TypedProperties.toTypedProperties(configuration.transport().properties());
+      setStatisticsEnabled(configuration.globalJmxStatistics().enabled());
 
       if (log.isInfoEnabled())
          log.startingJGroupsChannel(configuration.transport().clusterName());
@@ -283,6 +303,10 @@ public void stop() {
             }
          }
       }
+      if (payloadCompressor != null) {
+         payloadCompressor.stop();
+         payloadCompressor = null;
+      }
 
       channel = null;
       viewId = -1;
@@ -353,12 +377,22 @@ private void initChannelAndRPCDispatcher() throws CacheException {
 
    protected void initRPCDispatcher() {
       dispatcher = new CommandAwareRpcDispatcher(channel, this, globalHandler, timeoutExecutor);
-      MarshallerAdapter adapter = new MarshallerAdapter(marshaller);
+      payloadCompressor = createPayloadCompressor();
+      MarshallerAdapter adapter = new MarshallerAdapter(marshaller, payloadCompressor);
       dispatcher.setRequestMarshaller(adapter);
       dispatcher.setResponseMarshaller(adapter);
       dispatcher.start();
    }
 
+   /**
+    * @return the compressor of the commands and responses sent by this node, or {@code null} if the compression is
+    * disabled.
+    */
+   protected PayloadCompressor createPayloadCompressor() {
+      int threshold = configuration.transport().compressionThreshold();
+      return threshold > 0 ? new PayloadCompressor(threshold) : null;
+   }
+
    // This is per CM, so the CL in use should be the CM CL
    private void buildChannel() {
 	  FileLookup fileLookup = FileLookupFactory.newInstance();
@@ -523,6 +557,8 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
 
       if (trace)
          log.tracef("dests=%s, command=%s, mode=%s, timeout=%s", recipients, rpcCommand, mode, timeout);
+      RpcStatistics statistics = getRpcStatistics();
+      long startNanos = statistics != null ? timeService.time() : 0;
       Address self = getAddress();
       boolean ignoreLeavers = mode == ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS || mode == ResponseMode.WAIT_FOR_VALID_RESPONSE;
       if (mode.isSynchronous() && recipients != null && !getMembers().containsAll(recipients)) {
@@ -583,6 +619,10 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
 
       if (singleResponseFuture != null) {
          // Unicast request
+         if (statistics != null) {
+            recordInvocation(statistics, singleResponseFuture, rpcCommand, fromJGroupsAddress(singleJGAddress),
+                             startNanos);
+         }
          return singleResponseFuture.thenApply(rsp -> {
             if (trace) log.tracef("Response: %s", rsp);
             Address sender = fromJGroupsAddress(rsp.getSender());
@@ -591,6 +631,11 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
          });
       } else if (rspListFuture != null) {
          // Broadcast/anycast request
+         Address destination = jgAddressList != null && jgAddressList.size() == 1 ?
+               fromJGroupsAddress(jgAddressList.get(0)) : null;
+         if (statistics != null) {
+            recordInvocation(statistics, rspListFuture, rpcCommand, destination, startNanos);
+         }
          return rspListFuture.thenApply(rsps -> {
             if (trace) log.tracef("Responses: %s", rsps);
             Map<Address, Response> retval = new HashMap<>(rsps.size());
@@ -631,6 +676,13 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
       }
    }
 
+   private void recordInvocation(RpcStatistics statistics, CompletableFuture<?> future, ReplicableCommand rpcCommand,
+                                 Address destination, long startNanos) {
+      statistics.invocationStarted(rpcCommand, destination);
+      future.whenComplete((ignored, throwable) -> statistics.invocationCompleted(rpcCommand, destination,
+            timeService.timeDuration(startNanos, TimeUnit.NANOSECONDS)));
+   }
+
    @Override
    public Map<Address, Response> invokeRemotely(Map<Address, ReplicableCommand> rpcCommands, ResponseMode mode,
                                                 long timeout, boolean usePriorityQueue, ResponseFilter responseFilter, boolean totalOrder, boolean anycast)
@@ -813,6 +865,7 @@ public void viewAccepted(View newView) {
 
          // we need a defensive copy anyway
          members = fromJGroupsAddressList(newMembers);
+         rpcStatistics.retainMembers(members);
 
          // Delta view debug log for large cluster
          if (log.isDebugEnabled() && oldMembers != null) {
@@ -853,6 +906,49 @@ public void viewAccepted(View newView) {
       JGroupsAddressCache.pruneAddressCache();
    }
 
+   @ManagedAttribute(description = "The average round-trip time, in nanoseconds, of the synchronous remote invocations.", displayName = "Average remote invocation latency")
+   public long getAverageRpcLatency() {
+      return rpcStatistics.getLatency().mean();
+   }
+
+   @ManagedAttribute(description = "The 99th percentile, in nanoseconds, of the round-trip time of the synchronous remote invocations.", displayName = "99th percentile of the remote invocation latency")
+   public long getRpcLatency99thPercentile() {
+      return rpcStatistics.getLatency().percentile(99);
+   }
+
+   @ManagedAttribute(description = "Histogram of the round-trip time of the synchronous remote invocations, per command type and destination.", displayName = "Remote invocation latency histogram")
+   public Map<String, String> getRpcLatencyHistogram() {
+      return rpcStatistics.latencySummary();
+   }
+
+   @ManagedAttribute(description = "Histogram of the size of the commands sent to the other nodes, per command type.", displayName = "Request size histogram")
+   public Map<String, String> getRpcRequestSizeHistogram() {
+      return rpcStatistics.requestSizeSummary();
+   }
+
+   @ManagedAttribute(description = "Histogram of the size of the responses sent to the other nodes, per command type.", displayName = "Response size histogram")
+   public Map<String, String> getRpcResponseSizeHistogram() {
+      return rpcStatistics.responseSizeSummary();
+   }
+
+   @ManagedAttribute(description = "The number of synchronous remote invocations waiting for their responses, per command type and destination.", displayName = "Remote invocations in flight")
+   public Map<String, Long> getRpcsInFlight() {
+      return rpcStatistics.inFlightSummary();
+   }
+
+   @ManagedOperation(description = "Resets the remote invocation latencies and sizes", displayName = "Reset remote invocation statistics")
+   public void resetRpcStatistics() {
+      rpcStatistics.reset();
+   }
+
+   public boolean getStatisticsEnabled() {
+      return statisticsEnabled;
+   }
+
+   public void setStatisticsEnabled(boolean enabled) {
+      statisticsEnabled = enabled;
+   }
+
    @Override
    public void suspect(org.jgroups.Address suspected_mbr) {
       // no-op
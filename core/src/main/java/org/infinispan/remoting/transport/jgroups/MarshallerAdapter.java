@@ -6,25 +6,46 @@
 import org.jgroups.util.Buffer;
 
 /**
- * Bridge between JGroups and Infinispan marshallers
+ * Bridge between JGroups and Infinispan marshallers.
+ * <p/>
+ * The payloads are compressed with a {@link PayloadCompressor}, if one is given. The compressed payloads are always
+ * decompressed, so the nodes without a compressor can still read them.
  *
  * @author Manik Surtani
  * @since 4.0
  */
 public class MarshallerAdapter implements RpcDispatcher.Marshaller {
    StreamingMarshaller m;
+   private final PayloadCompressor compressor;
 
    public MarshallerAdapter(StreamingMarshaller m) {
+      this(m, null);
+   }
+
+   /**
+    * @param compressor the compressor of the outgoing payloads, or {@code null} to send them uncompressed.
+    */
+   public MarshallerAdapter(StreamingMarshaller m, PayloadCompressor compressor) {
       this.m = m;
+      this.compressor = compressor;
    }
 
    @Override
    public Buffer objectToBuffer(Object obj) throws Exception {
-      return toBuffer(m.objectToBuffer(obj));
+      if (obj instanceof Buffer) {
+         // already marshalled by CommandAwareRpcDispatcher
+         return (Buffer) obj;
+      }
+      Buffer buf = toBuffer(m.objectToBuffer(obj));
+      return compressor == null ? buf : compressor.compress(obj, buf);
    }
 
    @Override
    public Object objectFromBuffer(byte[] buf, int offset, int length) throws Exception {
+      if (buf != null && PayloadCompressor.isCompressed(buf, offset, length)) {
+         byte[] uncompressed = PayloadCompressor.decompress(buf, offset, length);
+         return m.objectFromByteBuffer(uncompressed, 0, uncompressed.length);
+      }
       return m.objectFromByteBuffer(buf, offset, length);
    }
 
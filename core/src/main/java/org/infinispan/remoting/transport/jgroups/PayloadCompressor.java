@@ -0,0 +1,237 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.jgroups.util.Buffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the marshalled commands and responses above a size threshold, before they are sent to the other nodes.
+ * <p/>
+ * The compressibility is sampled per payload type: when a payload doesn't shrink to at most 7/8 of its size, it is sent
+ * uncompressed, and the next payloads of the same type are sent uncompressed without trying. The number of payloads
+ * skipped doubles every time the type fails to compress again, up to {@link #MAX_SKIPPED}, and it is reset as soon as
+ * a payload of the type compresses. The commands wrapped in a {@link SingleRpcCommand} are sampled as the type of the
+ * wrapped command.
+ * <p/>
+ * A compressed payload starts with the {@link #COMPRESSED} marker, followed by the uncompressed length and the deflated
+ * bytes. The marshalled payloads start with the header of the marshaller's stream, so they never start with the
+ * marker, and every node can read the compressed payloads, regardless of its own threshold.
+ * <p/>
+ * Each thread compresses with its own {@link Deflater} and scratch array. The deflater of a thread is ended when the
+ * thread terminates, or when the compressor is {@link #stop() stopped}.
+ *
+ * @since 8.0
+ */
+public final class PayloadCompressor {
+
+   static final byte COMPRESSED = (byte) 0xFF;
+   private static final int HEADER_SIZE = 5;
+   private static final int MIN_SKIPPED = 16;
+   private static final int MAX_SKIPPED = 1024;
+   /**
+    * the payloads larger than this are compressed in a new array, so the threads don't keep huge scratch arrays.
+    */
+   private static final int MAX_SCRATCH_SIZE = 1 << 20;
+
+   private final int threshold;
+   private final ConcurrentMap<Class<?>, Compressibility> types = new ConcurrentHashMap<>();
+   private final ThreadLocal<Deflation> deflations = new ThreadLocal<>();
+   /**
+    * the deflations of the live threads, to end them when the compressor is stopped. guarded by itself.
+    */
+   private final Map<Thread, Deflation> threadDeflations = new WeakHashMap<>();
+   private boolean stopped;
+
+   /**
+    * @param threshold the minimum size, in bytes, of the payloads to compress.
+    */
+   public PayloadCompressor(int threshold) {
+      if (threshold <= 0) {
+         throw new IllegalArgumentException("The compression threshold must be positive: " + threshold);
+      }
+      this.threshold = threshold;
+   }
+
+   /**
+    * @param payload the object marshalled in {@code buffer}.
+    * @param buffer  the marshalled payload.
+    * @return the compressed payload, or {@code buffer} if it is too small or it doesn't compress.
+    */
+   public Buffer compress(Object payload, Buffer buffer) {
+      if (buffer.getLength() < threshold) {
+         return buffer;
+      }
+      Compressibility compressibility = compressibility(payload);
+      if (compressibility.skip()) {
+         return buffer;
+      }
+      Deflation deflation = deflation();
+      if (deflation == null) {
+         return buffer;
+      }
+      Buffer compressed = deflation.deflate(buffer);
+      if (compressed == null) {
+         compressibility.incompressible();
+         return buffer;
+      }
+      compressibility.compressible();
+      return compressed;
+   }
+
+   /**
+    * Ends the deflaters of all the threads. The payloads are sent uncompressed afterwards.
+    */
+   public void stop() {
+      synchronized (threadDeflations) {
+         stopped = true;
+         threadDeflations.values().forEach(Deflation::end);
+         threadDeflations.clear();
+      }
+      deflations.remove();
+   }
+
+   /**
+    * @return {@code true} if the payload was compressed by {@link #compress(Object, Buffer)}.
+    */
+   public static boolean isCompressed(byte[] buf, int offset, int length) {
+      return length > HEADER_SIZE && buf[offset] == COMPRESSED;
+   }
+
+   /**
+    * @return the uncompressed payload.
+    * @throws IOException if the payload is corrupted.
+    */
+   public static byte[] decompress(byte[] buf, int offset, int length) throws IOException {
+      int uncompressedLength = ((buf[offset + 1] & 0xFF) << 24) | ((buf[offset + 2] & 0xFF) << 16) |
+            ((buf[offset + 3] & 0xFF) << 8) | (buf[offset + 4] & 0xFF);
+      byte[] uncompressed = new byte[uncompressedLength];
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(buf, offset + HEADER_SIZE, length - HEADER_SIZE);
+         int inflated = 0;
+         while (inflated < uncompressedLength && !inflater.finished()) {
+            int count = inflater.inflate(uncompressed, inflated, uncompressedLength - inflated);
+            if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+               break;
+            }
+            inflated += count;
+         }
+         if (inflated != uncompressedLength) {
+            throw new IOException("Compressed payload truncated: expected " + uncompressedLength + " bytes but got " +
+                                        inflated);
+         }
+         return uncompressed;
+      } catch (DataFormatException e) {
+         throw new IOException("Corrupted compressed payload", e);
+      } finally {
+         inflater.end();
+      }
+   }
+
+   /**
+    * @return the deflation of the current thread, or {@code null} if the compressor is stopped.
+    */
+   private Deflation deflation() {
+      Deflation deflation = deflations.get();
+      if (deflation == null) {
+         synchronized (threadDeflations) {
+            if (stopped) {
+               return null;
+            }
+            deflation = new Deflation();
+            threadDeflations.put(Thread.currentThread(), deflation);
+         }
+         deflations.set(deflation);
+      }
+      return deflation;
+   }
+
+   private Compressibility compressibility(Object payload) {
+      Class<?> type = payload instanceof SingleRpcCommand ?
+            ((SingleRpcCommand) payload).getCommand().getClass() : payload.getClass();
+      Compressibility compressibility = types.get(type);
+      return compressibility != null ? compressibility : types.computeIfAbsent(type, t -> new Compressibility());
+   }
+
+   private static final class Deflation {
+      private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      private byte[] scratch = new byte[0];
+      private boolean ended;
+
+      /**
+       * @return the compressed payload, or {@code null} if it doesn't compress.
+       */
+      private synchronized Buffer deflate(Buffer buffer) {
+         if (ended) {
+            return null;
+         }
+         int length = buffer.getLength();
+         //only worth it if at least 1/8 of the payload is saved
+         int maxCompressedLength = length - (length >>> 3);
+         byte[] compressed;
+         if (maxCompressedLength <= scratch.length) {
+            compressed = scratch;
+         } else if (maxCompressedLength <= MAX_SCRATCH_SIZE) {
+            compressed = scratch = new byte[maxCompressedLength];
+         } else {
+            compressed = new byte[maxCompressedLength];
+         }
+         try {
+            deflater.setInput(buffer.getBuf(), buffer.getOffset(), length);
+            deflater.finish();
+            int compressedLength = HEADER_SIZE;
+            while (!deflater.finished() && compressedLength < maxCompressedLength) {
+               compressedLength += deflater.deflate(compressed, compressedLength, maxCompressedLength - compressedLength);
+            }
+            if (!deflater.finished()) {
+               return null;
+            }
+            compressed[0] = COMPRESSED;
+            compressed[1] = (byte) (length >>> 24);
+            compressed[2] = (byte) (length >>> 16);
+            compressed[3] = (byte) (length >>> 8);
+            compressed[4] = (byte) length;
+            //the scratch array is reused, so the compressed payload is copied out of it
+            return compressed == scratch ? new Buffer(Arrays.copyOf(compressed, compressedLength)) :
+                  new Buffer(compressed, 0, compressedLength);
+         } finally {
+            deflater.reset();
+         }
+      }
+
+      private synchronized void end() {
+         ended = true;
+         deflater.end();
+         scratch = null;
+      }
+   }
+
+   private static final class Compressibility {
+      private final AtomicInteger remainingSkips = new AtomicInteger();
+      private volatile int skipped = MIN_SKIPPED;
+
+      private boolean skip() {
+         return remainingSkips.get() > 0 && remainingSkips.getAndDecrement() > 0;
+      }
+
+      private void incompressible() {
+         int skipped = this.skipped;
+         remainingSkips.set(skipped);
+         this.skipped = Math.min(skipped << 1, MAX_SKIPPED);
+      }
+
+      private void compressible() {
+         skipped = MIN_SKIPPED;
+      }
+   }
+}
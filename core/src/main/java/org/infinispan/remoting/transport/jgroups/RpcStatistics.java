@@ -0,0 +1,248 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.stats.impl.LatencyHistogram;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograms of the remote invocations of a {@link JGroupsTransport}, per command type.
+ * <p/>
+ * The round-trip latency and the number of invocations in flight are only tracked for the synchronous invocations.
+ * They are broken down by destination when the command is sent to a single node, so a slow node can be identified.
+ * The request sizes are the sizes of the commands sent by this node, and the response sizes are the sizes of the
+ * responses this node sent back to the commands received from the other nodes.
+ * <p/>
+ * The commands wrapped in a {@link SingleRpcCommand} are accounted as the type of the wrapped command.
+ * <p/>
+ * The statistics are only gathered if they are enabled in the {@link JGroupsTransport}.
+ *
+ * @since 8.0
+ */
+public final class RpcStatistics {
+
+   private final ConcurrentMap<Class<?>, CommandStatistics> commands = new ConcurrentHashMap<>();
+   private final LatencyHistogram latency = new LatencyHistogram();
+   /**
+    * the last members passed to {@link #retainMembers(Collection)}, or {@code null} before the first view.
+    */
+   private volatile Set<Address> members;
+
+   /**
+    * Records the size of a command sent by this node.
+    */
+   public void requestSent(ReplicableCommand command, int size) {
+      statistics(command).requestSize.record(size);
+   }
+
+   /**
+    * Records the size of the response this node sent to a command.
+    */
+   public void responseSent(ReplicableCommand command, int size) {
+      statistics(command).responseSize.record(size);
+   }
+
+   /**
+    * Marks the start of a synchronous invocation.
+    *
+    * @param destination the target node, or {@code null} if the command is sent to several nodes.
+    */
+   public void invocationStarted(ReplicableCommand command, Address destination) {
+      CommandStatistics statistics = statistics(command);
+      statistics.inFlight.increment();
+      DestinationStatistics destinationStatistics = destination == null ? null : destination(statistics, destination);
+      if (destinationStatistics != null) {
+         destinationStatistics.inFlight.increment();
+      }
+   }
+
+   /**
+    * Records the round-trip latency of a synchronous invocation, started with {@link
+    * #invocationStarted(ReplicableCommand, Address)}.
+    *
+    * @param destination the target node, or {@code null} if the command is sent to several nodes.
+    * @param nanos       the time elapsed until all the responses were received, or until the invocation failed.
+    */
+   public void invocationCompleted(ReplicableCommand command, Address destination, long nanos) {
+      CommandStatistics statistics = statistics(command);
+      statistics.inFlight.decrement();
+      statistics.latency.record(nanos);
+      //the destination is gone if it left the cluster in the meantime
+      DestinationStatistics destinationStatistics = destination == null ? null :
+            statistics.destinations.get(destination);
+      if (destinationStatistics != null) {
+         destinationStatistics.inFlight.decrement();
+         destinationStatistics.latency.record(nanos);
+      }
+      latency.record(nanos);
+   }
+
+   /**
+    * @return the round-trip latency of all the synchronous invocations.
+    */
+   public LatencyHistogram getLatency() {
+      return latency;
+   }
+
+   /**
+    * @return a summary of the round-trip latency, per command type and per command type and destination.
+    */
+   public Map<String, String> latencySummary() {
+      Map<String, String> summary = new TreeMap<>();
+      for (CommandStatistics statistics : commands.values()) {
+         if (statistics.latency.count() > 0) {
+            summary.put(statistics.name(), statistics.latency.toString());
+         }
+         statistics.destinations.forEach((destination, destinationStatistics) ->
+               summary.put(statistics.name(destination), destinationStatistics.latency.toString()));
+      }
+      return summary;
+   }
+
+   /**
+    * @return a summary of the request sizes, in bytes, per command type.
+    */
+   public Map<String, String> requestSizeSummary() {
+      Map<String, String> summary = new TreeMap<>();
+      for (CommandStatistics statistics : commands.values()) {
+         if (statistics.requestSize.count() > 0) {
+            summary.put(statistics.name(), sizeSummary(statistics.requestSize));
+         }
+      }
+      return summary;
+   }
+
+   /**
+    * @return a summary of the response sizes, in bytes, per command type.
+    */
+   public Map<String, String> responseSizeSummary() {
+      Map<String, String> summary = new TreeMap<>();
+      for (CommandStatistics statistics : commands.values()) {
+         if (statistics.responseSize.count() > 0) {
+            summary.put(statistics.name(), sizeSummary(statistics.responseSize));
+         }
+      }
+      return summary;
+   }
+
+   /**
+    * @return the number of synchronous invocations in flight, per command type and per command type and destination.
+    */
+   public Map<String, Long> inFlightSummary() {
+      Map<String, Long> summary = new TreeMap<>();
+      for (CommandStatistics statistics : commands.values()) {
+         summary.put(statistics.name(), statistics.inFlight.sum());
+         statistics.destinations.forEach((destination, destinationStatistics) ->
+               summary.put(statistics.name(destination), destinationStatistics.inFlight.sum()));
+      }
+      return summary;
+   }
+
+   /**
+    * Forgets the destinations that are not {@code members} anymore.
+    */
+   public void retainMembers(Collection<Address> members) {
+      Set<Address> newMembers = new HashSet<>(members);
+      //updated first, so a destination created concurrently is either retained here or removed by destination()
+      this.members = newMembers;
+      commands.values().forEach(statistics -> statistics.destinations.keySet().retainAll(newMembers));
+   }
+
+   /**
+    * Discards all the recorded latencies and sizes. The invocations in flight are still counted.
+    */
+   public void reset() {
+      commands.values().forEach(CommandStatistics::reset);
+      latency.reset();
+   }
+
+   private CommandStatistics statistics(ReplicableCommand command) {
+      Class<?> type = command instanceof SingleRpcCommand ?
+            ((SingleRpcCommand) command).getCommand().getClass() : command.getClass();
+      CommandStatistics statistics = commands.get(type);
+      return statistics != null ? statistics : commands.computeIfAbsent(type, CommandStatistics::new);
+   }
+
+   /**
+    * @return the statistics of {@code destination}, or {@code null} if it is not a member anymore.
+    */
+   private DestinationStatistics destination(CommandStatistics statistics, Address destination) {
+      Set<Address> currentMembers = members;
+      if (currentMembers != null && !currentMembers.contains(destination)) {
+         return null;
+      }
+      DestinationStatistics destinationStatistics = statistics.destinations.get(destination);
+      if (destinationStatistics != null) {
+         return destinationStatistics;
+      }
+      destinationStatistics = statistics.destinations.computeIfAbsent(destination, address -> new DestinationStatistics());
+      currentMembers = members;
+      if (currentMembers != null && !currentMembers.contains(destination)) {
+         //the destination left while its statistics were created
+         statistics.destinations.remove(destination, destinationStatistics);
+         return null;
+      }
+      return destinationStatistics;
+   }
+
+   private static String sizeSummary(LatencyHistogram histogram) {
+      //the histogram only needs non-negative values, so it is used for the sizes as well
+      return "count=" + histogram.count() +
+            ", mean=" + histogram.mean() +
+            ", p50=" + histogram.percentile(50) +
+            ", p90=" + histogram.percentile(90) +
+            ", p99=" + histogram.percentile(99) +
+            ", max=" + histogram.max() +
+            " (bytes)";
+   }
+
+   private static final class CommandStatistics {
+      private final Class<?> commandType;
+      private final LatencyHistogram latency = new LatencyHistogram();
+   /**
+    * the last members passed to {@link #retainMembers(Collection)}, or {@code null} before the first view.
+    */
+   private volatile Set<Address> members;
+      private final LatencyHistogram requestSize = new LatencyHistogram();
+      private final LatencyHistogram responseSize = new LatencyHistogram();
+      private final LongAdder inFlight = new LongAdder();
+      private final ConcurrentMap<Address, DestinationStatistics> destinations = new ConcurrentHashMap<>();
+
+      private CommandStatistics(Class<?> commandType) {
+         this.commandType = commandType;
+      }
+
+      private String name() {
+         return commandType.getSimpleName();
+      }
+
+      private String name(Address destination) {
+         return commandType.getSimpleName() + " -> " + destination;
+      }
+
+      private void reset() {
+         latency.reset();
+         requestSize.reset();
+         responseSize.reset();
+         destinations.values().forEach(statistics -> statistics.latency.reset());
+      }
+   }
+
+   private static final class DestinationStatistics {
+      private final LatencyHistogram latency = new LatencyHistogram();
+   /**
+    * the last members passed to {@link #retainMembers(Collection)}, or {@code null} before the first view.
+    */
+   private volatile Set<Address> members;
+      private final LongAdder inFlight = new LongAdder();
+   }
+}
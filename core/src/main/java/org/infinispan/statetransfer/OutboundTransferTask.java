@@ -9,6 +9,8 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.CollectionKeyFilter;
+import org.infinispan.filter.CompositeKeyFilter;
+import org.infinispan.filter.KeyFilter;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -153,18 +155,24 @@ public void run() {
          AdvancedCacheLoader stProvider = persistenceManager.getStateTransferProvider();
          if (stProvider != null) {
             try {
-               CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
+               // filter the segments by key, so the entries of the other segments are not loaded
+               KeyFilter<Object> filter = new CompositeKeyFilter<Object>(
+                     new CollectionKeyFilter<>(new ReadOnlyDataContainerBackedKeySet(dataContainer)),
+                     new KeyFilter<Object>() {
+                        @Override
+                        public boolean accept(Object key) {
+                           return segments.contains(readCh.getSegment(key));
+                        }
+                     });
                AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
                   @Override
                   public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
                         int segmentId = readCh.getSegment(me.getKey());
-                        if (segments.contains(segmentId)) {
-                           try {
-                              InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
-                              sendEntry(icv, segmentId);
-                           } catch (CacheException e) {
-                              log.failedLoadingValueFromCacheStore(me.getKey(), e);
-                           }
+                        try {
+                           InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
+                           sendEntry(icv, segmentId);
+                        } catch (CacheException e) {
+                           log.failedLoadingValueFromCacheStore(me.getKey(), e);
                         }
                      }
                   };
@@ -28,6 +28,7 @@
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.base.BaseStateTransferInterceptor;
 import org.infinispan.remoting.RemoteException;
@@ -36,10 +37,15 @@
 import org.infinispan.remoting.transport.Transport;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.infinispan.factories.KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR;
 
 //todo [anistor] command forwarding breaks the rule that we have only one originator for a command. this opens now the possibility to have two threads processing incoming remote commands for the same TX
 /**
@@ -69,6 +75,7 @@ public class StateTransferInterceptor extends BaseStateTransferInterceptor {
 
    private StateTransferManager stateTransferManager;
    private Transport transport;
+   private ExecutorService asyncExecutor;
 
    private final AffectedKeysVisitor affectedKeysVisitor = new AffectedKeysVisitor();
 
@@ -78,9 +85,16 @@ protected Log getLog() {
    }
 
    @Inject
-   public void init(StateTransferManager stateTransferManager, Transport transport) {
+   public void init(StateTransferManager stateTransferManager, Transport transport,
+                    @ComponentName(ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor) {
       this.stateTransferManager = stateTransferManager;
       this.transport = transport;
+      this.asyncExecutor = asyncExecutor;
+   }
+
+   @Override
+   protected boolean isDeferredResultAware() {
+      return true;
    }
 
    @Override
@@ -354,26 +368,16 @@ private Object handleNonTxWriteCommand(InvocationContext ctx, WriteCommand comma
       Object localResult;
       try {
          localResult = invokeNextInterceptor(ctx, command);
+         CompletableFuture<Object> deferredResult = ctx.getDeferredResult();
+         if (deferredResult != null) {
+            ctx.deferResult(retryDeferredResultIfNeeded(ctx, command, commandTopologyId, deferredResult));
+         }
          return localResult;
       } catch (CacheException e) {
-         Throwable ce = e;
-         while (ce instanceof RemoteException) {
-            ce = ce.getCause();
-         }
-         if (!(ce instanceof OutdatedTopologyException) && !(ce instanceof SuspectException))
+         if (!isRetryNeeded(e))
             throw e;
 
-         // We increment the topology id so that updateTopologyIdAndWaitForTransactionData waits for the next topology.
-         // Without this, we could retry the command too fast and we could get the OutdatedTopologyException again.
-         int currentTopologyId = currentTopologyId();
-         if (trace) log.tracef("Retrying command because of topology change, current topology is %d: %s",
-                 currentTopologyId, command);
-         int newTopologyId = Math.max(currentTopologyId, commandTopologyId + 1);
-         command.setTopologyId(newTopologyId);
-         waitForTransactionData(newTopologyId);
-
-         command.setFlags(Flag.COMMAND_RETRY);
-         localResult = handleNonTxWriteCommand(ctx, command);
+         localResult = retryNonTxWriteCommand(ctx, command, commandTopologyId);
       }
 
       // We retry the command every time the topology changes, either in NonTxConcurrentDistributionInterceptor or in
@@ -382,6 +386,73 @@ private Object handleNonTxWriteCommand(InvocationContext ctx, WriteCommand comma
       return localResult;
    }
 
+   private boolean isRetryNeeded(Throwable t) {
+      Throwable ce = t;
+      while (ce instanceof RemoteException) {
+         ce = ce.getCause();
+      }
+      return ce instanceof OutdatedTopologyException || ce instanceof SuspectException;
+   }
+
+   private Object retryNonTxWriteCommand(InvocationContext ctx, WriteCommand command, int commandTopologyId) throws Throwable {
+      // We increment the topology id so that updateTopologyIdAndWaitForTransactionData waits for the next topology.
+      // Without this, we could retry the command too fast and we could get the OutdatedTopologyException again.
+      int currentTopologyId = currentTopologyId();
+      if (trace) log.tracef("Retrying command because of topology change, current topology is %d: %s",
+              currentTopologyId, command);
+      int newTopologyId = Math.max(currentTopologyId, commandTopologyId + 1);
+      command.setTopologyId(newTopologyId);
+      waitForTransactionData(newTopologyId);
+
+      command.setFlags(Flag.COMMAND_RETRY);
+      return handleNonTxWriteCommand(ctx, command);
+   }
+
+   /**
+    * Same as the retry in {@link #handleNonTxWriteCommand(InvocationContext, WriteCommand)}, for an invocation that
+    * deferred its result. Waiting for the new topology would block the thread that completed the deferred result, e.g.
+    * the one that received the response from the primary owner, so the command is retried in the async executor.
+    */
+   private CompletableFuture<Object> retryDeferredResultIfNeeded(InvocationContext ctx, WriteCommand command,
+                                                                 int commandTopologyId,
+                                                                 CompletableFuture<Object> deferredResult) {
+      CompletableFuture<Object> result = new CompletableFuture<>();
+      deferredResult.whenComplete((returnValue, throwable) -> {
+         if (throwable == null) {
+            result.complete(returnValue);
+            return;
+         }
+         Throwable cause = CompletableFutures.extractException(throwable);
+         if (!(cause instanceof CacheException) || !isRetryNeeded(cause)) {
+            result.completeExceptionally(cause);
+            return;
+         }
+         asyncExecutor.execute(() -> {
+            // The invocation that deferred the result may still be using its context
+            InvocationContext retryCtx = ctx.clone();
+            retryCtx.deferResult(null);
+            try {
+               Object retryResult = retryNonTxWriteCommand(retryCtx, command, commandTopologyId);
+               CompletableFuture<Object> retryDeferredResult = retryCtx.getDeferredResult();
+               if (retryDeferredResult == null) {
+                  result.complete(retryResult);
+               } else {
+                  retryDeferredResult.whenComplete((retryReturnValue, retryThrowable) -> {
+                     if (retryThrowable == null) {
+                        result.complete(retryReturnValue);
+                     } else {
+                        result.completeExceptionally(CompletableFutures.extractException(retryThrowable));
+                     }
+                  });
+               }
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         });
+      });
+      return result;
+   }
+
    @Override
    protected Object handleDefault(InvocationContext ctx, VisitableCommand command) throws Throwable {
       if (command instanceof TopologyAffectedCommand) {
@@ -0,0 +1,131 @@
+package org.infinispan.stats.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of durations, cheap enough to be always enabled.
+ * <p/>
+ * The durations are recorded, in nanoseconds, in power of two buckets: bucket {@code i} counts the durations whose
+ * binary representation has {@code i} bits, i.e. {@code [2^(i-1), 2^i)}. The percentiles are therefore approximated by
+ * the upper bound of the bucket they fall into, which is at most twice the real value.
+ * <p/>
+ * Recording a value never blocks and does not allocate. The reads are not atomic with respect to the concurrent
+ * updates, so a snapshot may be slightly inconsistent while values are being recorded.
+ *
+ * @since 8.0
+ */
+public final class LatencyHistogram {
+
+   private static final int BUCKETS = Long.SIZE;
+
+   private final LongAdder[] buckets = new LongAdder[BUCKETS];
+   private final LongAdder sum = new LongAdder();
+   private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+   public LatencyHistogram() {
+      for (int i = 0; i < BUCKETS; i++) {
+         buckets[i] = new LongAdder();
+      }
+   }
+
+   /**
+    * Records a duration. Negative durations, e.g. due to a clock adjustment, are recorded as zero.
+    *
+    * @param nanos the duration in nanoseconds.
+    */
+   public void record(long nanos) {
+      if (nanos < 0) {
+         nanos = 0;
+      }
+      buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+      sum.add(nanos);
+      max.accumulate(nanos);
+   }
+
+   /**
+    * @return the number of durations recorded.
+    */
+   public long count() {
+      long count = 0;
+      for (LongAdder bucket : buckets) {
+         count += bucket.sum();
+      }
+      return count;
+   }
+
+   /**
+    * @return the average duration, in nanoseconds, or {@code 0} if nothing was recorded.
+    */
+   public long mean() {
+      long count = count();
+      return count == 0 ? 0 : sum.sum() / count;
+   }
+
+   /**
+    * @return the longest duration recorded, in nanoseconds.
+    */
+   public long max() {
+      return max.get();
+   }
+
+   /**
+    * @param percentile the percentile, between {@code 0} and {@code 100}.
+    * @return an upper bound, in nanoseconds, of the duration at the {@code percentile}, or {@code 0} if nothing was
+    * recorded.
+    */
+   public long percentile(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+         throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+      }
+      long[] counts = new long[BUCKETS];
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         counts[i] = buckets[i].sum();
+         count += counts[i];
+      }
+      if (count == 0) {
+         return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         seen += counts[i];
+         if (seen >= rank) {
+            //the bucket's upper bound, but never more than what was really observed
+            return i == 0 ? 0 : Math.min((1L << i) - 1, max.get());
+         }
+      }
+      return max.get();
+   }
+
+   /**
+    * Discards all the recorded durations.
+    */
+   public void reset() {
+      for (LongAdder bucket : buckets) {
+         bucket.reset();
+      }
+      sum.reset();
+      max.reset();
+   }
+
+   /**
+    * @return a human readable summary, with the durations in microseconds.
+    */
+   @Override
+   public String toString() {
+      return "count=" + count() +
+            ", mean=" + micros(mean()) +
+            ", p50=" + micros(percentile(50)) +
+            ", p90=" + micros(percentile(90)) +
+            ", p99=" + micros(percentile(99)) +
+            ", max=" + micros(max()) +
+            " (us)";
+   }
+
+   private static long micros(long nanos) {
+      return TimeUnit.NANOSECONDS.toMicros(nanos);
+   }
+}
@@ -43,10 +43,10 @@
 import javax.transaction.Transaction;
 import javax.transaction.TransactionSynchronizationRegistry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -639,8 +639,22 @@ public CompletedTransactionStatus getCompletedTransactionStatus(GlobalTransactio
       return completedTransactionsInfo.getTransactionStatus(gtx);
    }
 
+   /**
+    * Keeps track of the recently completed transactions.
+    * <p>
+    * Transactions are grouped in buckets by the time they were marked as completed, each bucket covering a fraction of
+    * the completed transaction timeout, and the reaper discards whole buckets once all their transactions are older
+    * than the timeout.  The reaper therefore only visits the transactions it removes, instead of every completed
+    * transaction, and marking a transaction as completed doesn't need to allocate a timestamp holder.  A transaction is
+    * kept for at least the completed transaction timeout, and at most one bucket longer.
+    */
    private class CompletedTransactionsInfo {
-      final EquivalentConcurrentHashMapV8<GlobalTransaction, CompletedTransactionInfo> completedTransactions;
+      // The number of buckets covering the completed transaction timeout
+      private static final int BUCKETS = 4;
+
+      private final long bucketWidth;
+      // The buckets that weren't discarded yet, the newest first. Copied on write while holding the monitor.
+      private volatile CompletedTransactionsBucket[] buckets;
       // The highest transaction id previously cleared, one per originator
       final EquivalentConcurrentHashMapV8<Address, Long> nodeMaxPrunedTxIds;
       // The highest transaction id previously cleared, with any originator
@@ -648,7 +662,8 @@ private class CompletedTransactionsInfo {
 
       public CompletedTransactionsInfo() {
          nodeMaxPrunedTxIds = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
-         completedTransactions = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
+         bucketWidth = Math.max(1, TimeUnit.MILLISECONDS.toNanos(configuration.transaction().completedTxTimeout()) / BUCKETS);
+         buckets = new CompletedTransactionsBucket[0];
          globalMaxPrunedTxId = -1;
       }
 
@@ -660,14 +675,20 @@ public CompletedTransactionsInfo() {
        */
       public void markTransactionCompleted(GlobalTransaction globalTx, boolean successful) {
          if (trace) log.tracef("Marking transaction %s as completed", globalTx);
-         completedTransactions.put(globalTx, new CompletedTransactionInfo(timeService.time(), successful));
+         CompletedTransactionsBucket bucket = currentBucket();
+         bucket.transactions.put(globalTx, successful);
+         // The reaper may have discarded the bucket before seeing the transaction, in which case it goes in a new one
+         while (bucket.discarded) {
+            bucket = currentBucket();
+            bucket.transactions.put(globalTx, successful);
+         }
       }
 
       /**
        * @see #markTransactionCompleted(GlobalTransaction, boolean)
        */
       public boolean isTransactionCompleted(GlobalTransaction gtx) {
-         if (completedTransactions.containsKey(gtx))
+         if (findCompleted(gtx) != null)
             return true;
 
          // Transaction ids are allocated in sequence, so any transaction with a smaller id must have been started
@@ -682,9 +703,9 @@ public boolean isTransactionCompleted(GlobalTransaction gtx) {
       }
 
       public CompletedTransactionStatus getTransactionStatus(GlobalTransaction gtx) {
-         CompletedTransactionInfo completedTx = completedTransactions.get(gtx);
-         if (completedTx != null) {
-            return completedTx.successful ? CompletedTransactionStatus.COMMITTED : CompletedTransactionStatus.ABORTED;
+         Boolean successful = findCompleted(gtx);
+         if (successful != null) {
+            return successful ? CompletedTransactionStatus.COMMITTED : CompletedTransactionStatus.ABORTED;
          }
 
          // Transaction ids are allocated in sequence, so any transaction with a smaller id must have been started
@@ -708,11 +729,11 @@ public CompletedTransactionStatus getTransactionStatus(GlobalTransaction gtx) {
       }
 
       public void cleanupCompletedTransactions() {
-         if (completedTransactions.isEmpty())
+         if (buckets.length == 0)
             return;
 
          try {
-            if (trace) log.tracef("About to cleanup completed transaction. Initial size is %d", completedTransactions.size());
+            if (trace) log.tracef("About to cleanup completed transaction. Initial size is %d", size());
             long beginning = timeService.time();
             long minCompleteTimestamp = timeService.time() - TimeUnit.MILLISECONDS.toNanos(configuration.transaction().completedTxTimeout());
             int removedEntries = 0;
@@ -725,23 +746,37 @@ public void cleanupCompletedTransactions() {
                }
             }
 
-            // Remove stale completed transactions.
-            Iterator<Map.Entry<GlobalTransaction, CompletedTransactionInfo>> txIterator = completedTransactions.entrySet().iterator();
-            while (txIterator.hasNext()) {
-               Map.Entry<GlobalTransaction, CompletedTransactionInfo> e = txIterator.next();
-               CompletedTransactionInfo completedTx = e.getValue();
-               if (minCompleteTimestamp - completedTx.timestamp > 0) {
-                  // Need to update lastPrunedTxId *before* removing the tx from the map
-                  // Don't need atomic operations, there can't be more than one thread updating lastPrunedTxId.
-                  final long txId = e.getKey().getId();
-                  final Address address = e.getKey().getAddress();
-                  updateLastPrunedTxId(txId, address);
-
-                  txIterator.remove();
+            // Discard the buckets whose transactions are all stale, starting with the oldest one.
+            // Buckets are only added at the head, so the tail can't change while the reaper is running.
+            CompletedTransactionsBucket[] current = buckets;
+            int remaining = current.length;
+            while (remaining > 0 && minCompleteTimestamp - (current[remaining - 1].start + bucketWidth) > 0) {
+               CompletedTransactionsBucket bucket = current[remaining - 1];
+               bucket.discarded = true;
+               // Need to update lastPrunedTxId *before* removing the bucket
+               // Don't need atomic operations, there can't be more than one thread updating lastPrunedTxId.
+               for (GlobalTransaction gtx : bucket.transactions.keySet()) {
+                  updateLastPrunedTxId(gtx.getId(), gtx.getAddress());
                   removedEntries++;
-               } else {
-                  // Nodes with "active" completed transactions are not removed..
-                  leavers.remove(e.getKey().getAddress());
+               }
+               remaining--;
+            }
+            if (remaining < current.length) {
+               synchronized (this) {
+                  // New buckets may have been added at the head in the meantime
+                  CompletedTransactionsBucket[] updated = buckets;
+                  buckets = Arrays.copyOf(updated, updated.length - (current.length - remaining));
+               }
+            }
+
+            // Nodes with "active" completed transactions are not removed.
+            if (!leavers.isEmpty()) {
+               scan:
+               for (CompletedTransactionsBucket bucket : buckets) {
+                  for (GlobalTransaction gtx : bucket.transactions.keySet()) {
+                     if (leavers.remove(gtx.getAddress()) && leavers.isEmpty())
+                        break scan;
+                  }
                }
             }
 
@@ -754,13 +789,52 @@ public void cleanupCompletedTransactions() {
 
             if (trace) log.tracef("Finished cleaning up completed transactions in %d millis, %d transactions were removed, " +
                   "current number of completed transactions is %d",
-                  removedEntries, duration, completedTransactions.size());
+                  duration, removedEntries, size());
             if (trace) log.tracef("Last pruned transaction ids were updated: %d, %s", globalMaxPrunedTxId, nodeMaxPrunedTxIds);
          } catch (Exception e) {
             log.errorf(e, "Failed to cleanup completed transactions: %s", e.getMessage());
          }
       }
 
+      private Boolean findCompleted(GlobalTransaction gtx) {
+         // The newest bucket first, so the latest outcome wins if a transaction was marked as completed twice
+         for (CompletedTransactionsBucket bucket : buckets) {
+            Boolean successful = bucket.transactions.get(gtx);
+            if (successful != null) {
+               return successful;
+            }
+         }
+         return null;
+      }
+
+      private CompletedTransactionsBucket currentBucket() {
+         long now = timeService.time();
+         CompletedTransactionsBucket[] current = buckets;
+         if (current.length > 0 && now - current[0].start < bucketWidth && !current[0].discarded) {
+            return current[0];
+         }
+         synchronized (this) {
+            current = buckets;
+            if (current.length > 0 && now - current[0].start < bucketWidth && !current[0].discarded) {
+               return current[0];
+            }
+            CompletedTransactionsBucket bucket = new CompletedTransactionsBucket(now);
+            CompletedTransactionsBucket[] updated = new CompletedTransactionsBucket[current.length + 1];
+            updated[0] = bucket;
+            System.arraycopy(current, 0, updated, 1, current.length);
+            buckets = updated;
+            return bucket;
+         }
+      }
+
+      private int size() {
+         int size = 0;
+         for (CompletedTransactionsBucket bucket : buckets) {
+            size += bucket.transactions.size();
+         }
+         return size;
+      }
+
       private void updateLastPrunedTxId(final long txId, Address address) {
          if (txId > globalMaxPrunedTxId) {
             globalMaxPrunedTxId = txId;
@@ -773,13 +847,17 @@ private void updateLastPrunedTxId(final long txId, Address address) {
          });
       }
    }
-   private static class CompletedTransactionInfo {
-      public final long timestamp;
-      public final boolean successful;
 
-      private CompletedTransactionInfo(long timestamp, boolean successful) {
-         this.timestamp = timestamp;
-         this.successful = successful;
+   private static class CompletedTransactionsBucket {
+      // The time the first transaction was added to the bucket, in nanoseconds
+      final long start;
+      // The outcome of each transaction, true if it was committed
+      final EquivalentConcurrentHashMapV8<GlobalTransaction, Boolean> transactions;
+      volatile boolean discarded;
+
+      private CompletedTransactionsBucket(long start) {
+         this.start = start;
+         this.transactions = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
       }
    }
 }
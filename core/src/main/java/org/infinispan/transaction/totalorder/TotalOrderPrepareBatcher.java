@@ -0,0 +1,368 @@
+package org.infinispan.transaction.totalorder;
+
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.tx.totalorder.TotalOrderBatchPrepareCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.Immutables;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.partitionhandling.AvailabilityException;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.ExceptionResponse;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.responses.TimeoutValidationResponseFilter;
+import org.infinispan.remoting.rpc.ResponseFilter;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptionsBuilder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.jgroups.SuspectException;
+import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Packs the prepares of concurrent transactions into a single total order multicast.
+ * <p/>
+ * Prepares are only held back while {@link #MAX_BATCHES_IN_FLIGHT} prepares, or batches of prepares, for the same
+ * members are in flight: until then every prepare is sent immediately, and the following ones accumulate, up to {@link
+ * org.infinispan.configuration.cache.TransactionConfiguration#totalOrderBatchSize()} prepares per batch, until one of
+ * them completes. When the load is low every prepare is still sent on its own. The batches don't need to wait for
+ * each other, as the total order delivery already ensures all the members apply them in the same order.
+ * <p/>
+ * A batch never contains two prepares modifying the same key. The receivers order all the prepares in a batch before
+ * executing any of them, so a prepare waiting for the commit of another one in the same batch would never complete.
+ * <p/>
+ * The response of each member is split per transaction, and each transaction's response filter is fed and validated
+ * as if its prepare had been sent on its own.
+ *
+ * @since 8.0
+ */
+public class TotalOrderPrepareBatcher {
+
+   /**
+    * The maximum number of prepares, or batches of prepares, in flight for the same members.
+    */
+   public static final int MAX_BATCHES_IN_FLIGHT = 4;
+
+   private static final Log log = LogFactory.getLog(TotalOrderPrepareBatcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   /**
+    * the batches in flight, or waiting to be sent, for each set of recipients. {@code null} is used as key when
+    * sending to all the members.
+    */
+   private final Map<Set<Address>, Destination> destinations = new HashMap<>();
+   private RpcManager rpcManager;
+   private Configuration configuration;
+   private Equivalence<Object> keyEquivalence;
+   private int batchSize;
+
+   @Inject
+   public void inject(RpcManager rpcManager, Configuration configuration) {
+      this.rpcManager = rpcManager;
+      this.configuration = configuration;
+   }
+
+   @Start
+   public void start() {
+      batchSize = configuration.transaction().totalOrderBatchSize();
+      keyEquivalence = configuration.dataContainer().keyEquivalence();
+   }
+
+   /**
+    * Sends the prepare synchronously in total order, possibly together with the prepares of other transactions.
+    *
+    * @param recipients     the recipients, including the local node, or {@code null} to send to all the members
+    * @param prepareCommand the prepare to send
+    * @param responseFilter the filter to apply to the responses of this prepare, may be {@code null}
+    * @return the responses to this prepare
+    */
+   public Map<Address, Response> prepare(Collection<Address> recipients, PrepareCommand prepareCommand,
+                                         TimeoutValidationResponseFilter responseFilter) {
+      PendingPrepare pending = new PendingPrepare(prepareCommand, responseFilter);
+      Set<Address> key = recipients == null ? null : Immutables.immutableSetConvert(recipients);
+      Batch batch;
+      synchronized (this) {
+         Destination destination = destinations.get(key);
+         if (destination == null) {
+            destination = new Destination(key, recipients);
+            destinations.put(key, destination);
+         }
+         batch = destination.enqueue(pending);
+      }
+      if (batch != null) {
+         send(batch);
+      }
+      return pending.await();
+   }
+
+   private void send(Batch batch) {
+      boolean inFlight = true;
+      try {
+         try {
+            batch.ready.await();
+         } catch (InterruptedException e) {
+            synchronized (this) {
+               inFlight = batch.closed;
+               if (!inFlight) {
+                  batch.destination.queued.remove(batch);
+                  batch.closed = true;
+               }
+            }
+            throw e;
+         }
+         //the batch is closed, nobody else modifies its prepares
+         if (batch.prepares.size() == 1) {
+            sendSingle(batch.destination.recipients, batch.prepares.get(0));
+         } else {
+            sendBatch(batch.destination.recipients, batch.prepares);
+         }
+      } catch (Throwable t) {
+         for (PendingPrepare pending : batch.prepares) {
+            pending.result.completeExceptionally(t);
+         }
+      } finally {
+         if (inFlight) {
+            synchronized (this) {
+               batch.destination.completed();
+            }
+         }
+      }
+   }
+
+   private void sendSingle(Collection<Address> recipients, PendingPrepare pending) {
+      RpcOptionsBuilder builder = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.TOTAL);
+      if (pending.responseFilter != null) {
+         builder.responseFilter(pending.responseFilter);
+      }
+      Map<Address, Response> responseMap = rpcManager.invokeRemotely(recipients, pending.command, builder.build());
+      if (pending.responseFilter != null) {
+         pending.responseFilter.validate();
+      }
+      pending.result.complete(responseMap);
+   }
+
+   private void sendBatch(Collection<Address> recipients, List<PendingPrepare> prepares) {
+      if (trace) {
+         log.tracef("Sending %d prepares in a single total order batch to %s", prepares.size(),
+                    recipients == null ? "all" : recipients);
+      }
+      List<PrepareCommand> commands = new ArrayList<>(prepares.size());
+      boolean filtered = true;
+      for (PendingPrepare pending : prepares) {
+         commands.add(pending.command);
+         filtered &= pending.responseFilter != null;
+      }
+      TotalOrderBatchPrepareCommand command = new TotalOrderBatchPrepareCommand(commands.get(0).getCacheName(), commands);
+      RpcOptionsBuilder builder = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.TOTAL);
+      if (filtered) {
+         //without a filter, someone needs all the responses anyway
+         builder.responseFilter(new BatchResponseFilter(prepares));
+      }
+      Map<Address, Response> responseMap = rpcManager.invokeRemotely(recipients, command, builder.build());
+      for (int i = 0; i < prepares.size(); i++) {
+         PendingPrepare pending = prepares.get(i);
+         try {
+            Map<Address, Response> own = new HashMap<>(responseMap.size());
+            for (Map.Entry<Address, Response> entry : responseMap.entrySet()) {
+               Response response = responseOf(entry.getValue(), i, prepares.size());
+               if (response instanceof ExceptionResponse) {
+                  throw remoteException(entry.getKey(), ((ExceptionResponse) response).getException());
+               }
+               own.put(entry.getKey(), response);
+            }
+            if (pending.responseFilter != null) {
+               pending.responseFilter.validate();
+            }
+            pending.result.complete(own);
+         } catch (Throwable t) {
+            pending.result.completeExceptionally(t);
+         }
+      }
+   }
+
+   /**
+    * @return the response to the {@code index}-th prepare, extracted from a member's response to the whole batch
+    */
+   private static Response responseOf(Response batchResponse, int index, int size) {
+      if (batchResponse instanceof SuccessfulResponse) {
+         Object value = ((SuccessfulResponse) batchResponse).getResponseValue();
+         if (value instanceof Object[] && ((Object[]) value).length == size) {
+            Object response = ((Object[]) value)[index];
+            return response == null ? SuccessfulResponse.SUCCESSFUL_EMPTY_RESPONSE : (Response) response;
+         }
+      }
+      //e.g. the member doesn't have the cache, or doesn't own any data: the same applies to all the prepares
+      return batchResponse;
+   }
+
+   private static RuntimeException remoteException(Address sender, Exception e) {
+      //the same conversion the transport applies to the exception responses
+      if (e instanceof SuspectException) return log.thirdPartySuspected(sender, (SuspectException) e);
+      if (e instanceof AvailabilityException || e instanceof OutdatedTopologyException) return (CacheException) e;
+      return log.remoteException(sender, e);
+   }
+
+   /**
+    * The state of the prepares sent to the same recipients, guarded by the batcher's lock.
+   */
+   private class Destination {
+      private final Set<Address> key;
+      private final Collection<Address> recipients;
+      private final Deque<Batch> queued = new ArrayDeque<>();
+      private int inFlight;
+
+      private Destination(Set<Address> key, Collection<Address> recipients) {
+         this.key = key;
+         this.recipients = recipients;
+      }
+
+      /**
+       * @return the new batch created for the prepare, to be sent by the caller, or {@code null} if it joined a queued
+       * batch
+       */
+      private Batch enqueue(PendingPrepare pending) {
+         Batch last = queued.peekLast();
+         if (last != null && last.add(pending)) {
+            return null;
+         }
+         Batch batch = new Batch(this, pending);
+         if (inFlight < MAX_BATCHES_IN_FLIGHT) {
+            inFlight++;
+            batch.close();
+         } else {
+            queued.addLast(batch);
+         }
+         return batch;
+      }
+
+      /**
+       * Hands the completed batch's slot to the oldest queued batch.
+       */
+      private void completed() {
+         Batch next = queued.pollFirst();
+         if (next != null) {
+            next.close();
+         } else if (--inFlight == 0) {
+            destinations.remove(key);
+         }
+      }
+   }
+
+   private class Batch {
+      private final Destination destination;
+      private final List<PendingPrepare> prepares = new ArrayList<>();
+      private final Set<Object> keys = CollectionFactory.makeSet(keyEquivalence);
+      private final CountDownLatch ready = new CountDownLatch(1);
+      private boolean closed;
+
+      private Batch(Destination destination, PendingPrepare first) {
+         this.destination = destination;
+         prepares.add(first);
+         keys.addAll(first.command.getKeysToLock());
+      }
+
+      /**
+       * Invoked while holding the batcher's lock.
+       *
+       * @return {@code false} if the prepare cannot join this batch
+       */
+      private boolean add(PendingPrepare pending) {
+         if (closed || prepares.size() >= batchSize) {
+            return false;
+         }
+         Collection<Object> keysToLock = pending.command.getKeysToLock();
+         for (Object key : keysToLock) {
+            if (keys.contains(key)) {
+               return false;
+            }
+         }
+         prepares.add(pending);
+         keys.addAll(keysToLock);
+         return true;
+      }
+
+      /**
+       * Invoked while holding the batcher's lock, once the batch can be sent.
+       */
+      private void close() {
+         closed = true;
+         ready.countDown();
+      }
+   }
+
+   private static class PendingPrepare {
+      private final PrepareCommand command;
+      private final TimeoutValidationResponseFilter responseFilter;
+      private final CompletableFuture<Map<Address, Response>> result = new CompletableFuture<>();
+
+      private PendingPrepare(PrepareCommand command, TimeoutValidationResponseFilter responseFilter) {
+         this.command = command;
+         this.responseFilter = responseFilter;
+      }
+
+      private Map<Address, Response> await() {
+         try {
+            return result.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+         } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+               throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+               throw (Error) cause;
+            }
+            throw new CacheException(cause);
+         }
+      }
+   }
+
+   /**
+    * Feeds each member's response to the response filter of every prepare in the batch, and stops waiting once none of
+    * them needs more responses.
+    */
+   private static class BatchResponseFilter implements ResponseFilter {
+      private final List<PendingPrepare> prepares;
+
+      private BatchResponseFilter(List<PendingPrepare> prepares) {
+         this.prepares = prepares;
+      }
+
+      @Override
+      public synchronized boolean isAcceptable(Response response, Address sender) {
+         for (int i = 0; i < prepares.size(); i++) {
+            prepares.get(i).responseFilter.isAcceptable(responseOf(response, i, prepares.size()), sender);
+         }
+         return true;
+      }
+
+      @Override
+      public synchronized boolean needMoreResponses() {
+         for (PendingPrepare pending : prepares) {
+            if (pending.responseFilter.needMoreResponses()) {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+}
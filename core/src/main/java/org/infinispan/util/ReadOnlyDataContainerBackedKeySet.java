@@ -24,12 +24,13 @@ public ReadOnlyDataContainerBackedKeySet(DataContainer container) {
 
    @Override
    public int size() {
-      return container.size();
+      return container.sizeExact();
    }
 
    @Override
    public boolean isEmpty() {
-      return container.size() == 0;
+      // The iterator skips the expired entries
+      return !container.iterator().hasNext();
    }
 
    @Override
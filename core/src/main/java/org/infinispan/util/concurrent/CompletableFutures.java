@@ -3,6 +3,7 @@
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -48,4 +49,41 @@ public static boolean await(CompletableFuture<?> future, long time, TimeUnit uni
          return false;
       }
    }
+
+   /**
+    * It waits until the {@link CompletableFuture} is completed and returns its value.
+    *
+    * @param future the {@link CompletableFuture} to wait for.
+    * @return the value of the {@link CompletableFuture}.
+    * @throws Throwable the exception the {@link CompletableFuture} was completed with, or {@link InterruptedException}
+    *                   if interrupted while waiting.
+    */
+   public static <T> T await(CompletableFuture<T> future) throws Throwable {
+      try {
+         return requireNonNull(future, "Completable Future must be non-null.").get();
+      } catch (ExecutionException e) {
+         throw extractException(e);
+      }
+   }
+
+   /**
+    * @return the cause of {@code throwable} if it only wraps the exception a {@link CompletableFuture} was completed
+    * with, {@code throwable} otherwise.
+    */
+   public static Throwable extractException(Throwable throwable) {
+      if ((throwable instanceof CompletionException || throwable instanceof ExecutionException) &&
+            throwable.getCause() != null) {
+         return throwable.getCause();
+      }
+      return throwable;
+   }
+
+   /**
+    * @return a {@link CompletableFuture} completed exceptionally with {@code throwable}.
+    */
+   public static <T> CompletableFuture<T> completedExceptionFuture(Throwable throwable) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      future.completeExceptionally(throwable);
+      return future;
+   }
 }
@@ -1,46 +1,58 @@
 package org.infinispan.util.concurrent.locks;
 
 import org.infinispan.factories.annotations.Start;
-import org.infinispan.factories.annotations.Stop;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.transaction.xa.DldGlobalTransaction;
 import org.infinispan.util.concurrent.locks.impl.DefaultLockManager;
+import org.infinispan.util.concurrent.locks.impl.InfinispanLock;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.concurrent.ScheduledFuture;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Lock manager in charge with processing deadlock detections.
  * </p>
- * Implementation notes: if a deadlock is detected, then one of the transactions has to rollback. The transaction that
- * rollbacks is determined by comparing the coin toss from {@link org.infinispan.transaction.xa.DldGlobalTransaction}.
+ * Implementation notes: deadlocks are found by looking for cycles in a wait-for graph, where a transaction waits for
+ * another one if it is queued in a lock owned by the other transaction. The graph is not stored, the edges are derived
+ * from the lock intention of the transactions (see {@link org.infinispan.transaction.xa.DldGlobalTransaction}) and the
+ * current state of the locks. Edges to transactions waiting on other nodes are derived from the information the
+ * remote transactions carry with them, i.e. the locks they hold at the originator.
  * </p>
- * A thread calling {@link #lock(Object, Object, long, TimeUnit)} or {@link #lockAll(Collection, Object, long, TimeUnit)}
- * would run the deadlock detection algorithm only if all of the following take place:
- * - the call is made in the scope of a transaction (either locally originated or remotely originated)
- * - it cannot acquire lock on the given key and the lock owner is another transaction
- * - when comparing coin toss, this thread would loose against the other one - so it's always the potential loser that runs DLD.
- * If deadlock is detected then a {@link org.infinispan.util.concurrent.locks.DeadlockDetectedException} is thrown.
- * This is subsequently handled in the interceptor chain - locks owned by this tx are released.
+ * The graph is searched each time a transaction has to wait for a lock, as soon as it has been queued, and each time
+ * a transaction acquires one of several locks it is waiting for, as the transactions queued behind it start waiting
+ * for it. These are the only events closing a cycle, so there is no need to search the graph periodically.
+ * </p>
+ * When a cycle is found, the transaction in the cycle with the lowest coin toss is the one that rolls back, so all the
+ * nodes involved in a deadlock pick the same transaction. The search and the resolution of a cycle are done while
+ * holding a single lock, so a transaction is never picked twice. If the transaction is waiting for a lock on this
+ * node, its lock request is canceled with a {@link org.infinispan.util.concurrent.locks.DeadlockDetectedException},
+ * which is subsequently handled in the interceptor chain - locks owned by the transaction are released. Otherwise, the node
+ * where it is waiting is in charge of rolling it back.
  *
  * @author Mircea.Markus@jboss.com
  */
 @MBean(objectName = "DeadlockDetectingLockManager", description = "Information about the number of deadlocks that were detected")
-public class DeadlockDetectingLockManager extends DefaultLockManager implements DeadlockChecker, Runnable {
+public class DeadlockDetectingLockManager extends DefaultLockManager implements DeadlockChecker {
 
    private static final Log log = LogFactory.getLog(DeadlockDetectingLockManager.class);
    private static final boolean trace = log.isTraceEnabled();
 
-   private ScheduledFuture<?> scheduledFuture;
+   // Only one cycle is searched and resolved at a time, otherwise two transactions closing the same cycle could both roll back
+   private final Object graphLock = new Object();
 
    protected volatile boolean exposeJmxStats;
 
@@ -52,52 +64,149 @@ public class DeadlockDetectingLockManager extends DefaultLockManager implements
 
    @Start
    public void init() {
-      long spinDuration = configuration.deadlockDetection().spinDuration();
       exposeJmxStats = configuration.jmxStatistics().enabled();
-      scheduledFuture = scheduler.scheduleWithFixedDelay(this, spinDuration, spinDuration, TimeUnit.MILLISECONDS);
-   }
-
-   @Stop
-   public void stopScheduler() {
-      if (scheduledFuture != null) {
-         scheduledFuture.cancel(false);
-         scheduledFuture = null;
-      }
    }
 
    @Override
-   public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
+   public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit, Class<?> commandType,
+                                   boolean remote) {
       if (lockOwner instanceof DldGlobalTransaction) {
          ((DldGlobalTransaction) lockOwner).setLockIntention(Collections.singleton(key));
-         return super.lock(key, lockOwner, time, unit);
+         KeyAwareLockPromise promise = super.lock(key, lockOwner, time, unit, commandType, remote);
+         if (!promise.isAvailable()) {
+            checkDeadlock(key);
+         }
+         return promise;
       }
-      return super.lock(key, lockOwner, time, unit);
+      return super.lock(key, lockOwner, time, unit, commandType, remote);
    }
 
    @Override
-   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit,
+                                      Class<?> commandType, boolean remote) {
       if (lockOwner instanceof DldGlobalTransaction) {
          ((DldGlobalTransaction) lockOwner).setLockIntention(new HashSet<>(keys));
-         return super.lockAll(keys, lockOwner, time, unit);
+         KeyAwareLockPromise promise = super.lockAll(keys, lockOwner, time, unit, commandType, remote);
+         if (!promise.isAvailable()) {
+            keys.forEach(this::checkDeadlock);
+            //the transactions queued behind a key acquired while still waiting for the others now wait for this one
+            promise.addListener((key, state) -> {
+               if (state == LockState.ACQUIRED) {
+                  checkDeadlock(key);
+               }
+            });
+         }
+         return promise;
       }
-      return super.lockAll(keys, lockOwner, time, unit);
+      return super.lockAll(keys, lockOwner, time, unit, commandType, remote);
    }
 
+   /**
+    * Searches the whole wait-for graph for a cycle through the pending transaction.
+    */
    @Override
-   public void run() {
-      lockContainer.deadlockCheck(this);
+   public boolean deadlockDetected(Object pendingOwner, Object currentOwner) {
+      if (!(pendingOwner instanceof DldGlobalTransaction) || !(currentOwner instanceof DldGlobalTransaction)) {
+         if (trace) {
+            log.tracef("Unable to run DLD with %s and %s. One of them are not a DldGlobalTransaction.",
+                       pendingOwner, currentOwner);
+         }
+         cannotRunDld.incrementAndGet();
+         return false;
+      }
+      if (trace) {
+         log.tracef("Could not acquire lock. It is locked by %s (%s)", currentOwner, System.identityHashCode(currentOwner));
+      }
+
+      final DldGlobalTransaction ownerTx = (DldGlobalTransaction) currentOwner;
+      final DldGlobalTransaction pendingTx = (DldGlobalTransaction) pendingOwner;
+      synchronized (graphLock) {
+         List<DldGlobalTransaction> cycle = findCycle(pendingTx, ownerTx);
+         return cycle != null && resolveCycle(pendingTx, cycle);
+      }
    }
 
-   private boolean isDeadlockAndIAmLoosing(DldGlobalTransaction lockOwnerTx, DldGlobalTransaction thisTx) {
-      //run the lose check first as it is cheaper
-      boolean wouldWeLoose = thisTx.wouldLose(lockOwnerTx);
-      if (!wouldWeLoose) {
-         if (trace)
-            log.tracef("We (%s) win against the other (%s) transaction, so no point running rest of DLD", thisTx, lockOwnerTx);
-         return false;
+   /**
+    * Rolls back the transaction in the cycle with the lowest coin toss. Must be invoked while holding {@code graphLock}.
+    *
+    * @return {@code true} if the pending transaction has to roll back.
+    */
+   private boolean resolveCycle(DldGlobalTransaction pendingTx, List<DldGlobalTransaction> cycle) {
+      DldGlobalTransaction victim = pendingTx;
+      for (DldGlobalTransaction tx : cycle) {
+         if (tx.wouldLose(victim)) {
+            victim = tx;
+         }
+      }
+      if (trace) {
+         if (victim == pendingTx) {
+            log.tracef("Deadlock found and we (%s) shall not continue. Cycle is %s", pendingTx, cycle);
+         } else {
+            log.tracef("Deadlock found and we (%s) win against %s. Cycle is %s", pendingTx, victim, cycle);
+         }
+      }
+      //the pending transaction is canceled here as well, so it can't be found in a cycle again once graphLock is released
+      if (cancelLocalWait(victim)) {
+         updateStats(victim);
+      }
+      return victim == pendingTx;
+   }
+
+   private void checkDeadlock(Object key) {
+      InfinispanLock lock = lockContainer.getLock(key);
+      if (lock != null) {
+         lock.deadlockCheck(this);
+      }
+   }
+
+   /**
+    * Searches a path in the wait-for graph from the current lock owner back to the pending lock owner.
+    *
+    * @return the transactions in the cycle, except the pending lock owner, or {@code null} if there is no cycle.
+    */
+   private List<DldGlobalTransaction> findCycle(DldGlobalTransaction pendingTx, DldGlobalTransaction ownerTx) {
+      if (isSameKeyDeadlock(pendingTx, ownerTx)) {
+         return Collections.singletonList(ownerTx);
+      }
+      Map<DldGlobalTransaction, DldGlobalTransaction> predecessors = new HashMap<>();
+      Deque<DldGlobalTransaction> toVisit = new ArrayDeque<>();
+      predecessors.put(ownerTx, null);
+      toVisit.add(ownerTx);
+      DldGlobalTransaction tx;
+      while ((tx = toVisit.poll()) != null) {
+         if (waitsAtOriginFor(tx, pendingTx)) {
+            return pathTo(tx, predecessors);
+         }
+         for (Object key : tx.getLockIntention()) {
+            if (ownsLock(key, pendingTx)) {
+               if (trace) log.tracef("Local intention is '%s' and %s owns the lock.", key, pendingTx);
+               return pathTo(tx, predecessors);
+            }
+            InfinispanLock lock = lockContainer.getLock(key);
+            if (lock == null || !lock.isWaiting(tx)) {
+               continue;
+            }
+            Object owner = getOwner(key);
+            if (!(owner instanceof DldGlobalTransaction) || owner.equals(tx)) {
+               continue;
+            }
+            if (!predecessors.containsKey(owner)) {
+               predecessors.put((DldGlobalTransaction) owner, tx);
+               toVisit.add((DldGlobalTransaction) owner);
+            }
+         }
+      }
+      return null;
+   }
+
+   private static List<DldGlobalTransaction> pathTo(DldGlobalTransaction tx,
+                                                    Map<DldGlobalTransaction, DldGlobalTransaction> predecessors) {
+      List<DldGlobalTransaction> path = new ArrayList<>();
+      for (DldGlobalTransaction t = tx; t != null; t = predecessors.get(t)) {
+         path.add(t);
       }
-      //do we have lock on what other tx intends to acquire?
-      return ownsAnyLocalIntention(thisTx, lockOwnerTx) || ownsRemoteIntention(lockOwnerTx, thisTx) || isSameKeyDeadlock(thisTx, lockOwnerTx);
+      Collections.reverse(path);
+      return path;
    }
 
    private boolean isSameKeyDeadlock(DldGlobalTransaction thisTx, DldGlobalTransaction lockOwnerTx) {
@@ -113,55 +222,30 @@ private boolean isSameKeyDeadlock(DldGlobalTransaction thisTx, DldGlobalTransact
    }
 
    /**
-    * This happens with two nodes replicating same tx at the same time.
+    * A locally originated transaction waits for a remote transaction, at the remote transaction's originator, if it is
+    * trying to lock remotely any key the remote transaction holds there. This happens with two nodes replicating same
+    * tx at the same time.
     */
-   private boolean ownsRemoteIntention(DldGlobalTransaction lockOwnerTx, DldGlobalTransaction thisTx) {
-      boolean localLockOwner = !lockOwnerTx.isRemote();
-      if (localLockOwner) {
-         // I've already acquired lock on this key before replicating here, so this mean we are in deadlock. This assumes the fact that
-         // if trying to acquire a remote lock, a tx first acquires a local lock.
-         if (thisTx.hasAnyLockAtOrigin(lockOwnerTx)) {
-            if (trace)
-               log.trace("Same key deadlock detected: lock owner tries to acquire a lock remotely but we have it!");
-            return true;
-         }
-      } else {
-         if (trace) log.tracef("Lock owner is remote: %s", lockOwnerTx);
-      }
-      return false;
-   }
-
-   private boolean ownsAnyLocalIntention(DldGlobalTransaction thisTx, DldGlobalTransaction otherTx) {
-      for (Object key : otherTx.getLockIntention()) {
-         if (ownsLock(key, thisTx)) {
-            if (trace) log.tracef("Local intention is '%s' and we (%s) own the lock.", key, thisTx);
-            return true;
-         }
+   private boolean waitsAtOriginFor(DldGlobalTransaction tx, DldGlobalTransaction remoteTx) {
+      // I've already acquired lock on this key before replicating here, so this mean we are in deadlock. This assumes the fact that
+      // if trying to acquire a remote lock, a tx first acquires a local lock.
+      if (!tx.isRemote() && remoteTx.isRemote() && remoteTx.hasAnyLockAtOrigin(tx)) {
+         if (trace) log.tracef("%s tries to acquire a lock remotely but %s has it!", tx, remoteTx);
+         return true;
       }
       return false;
    }
 
-   @Override
-   public boolean deadlockDetected(Object pendingOwner, Object currentOwner) {
-      if (!(pendingOwner instanceof DldGlobalTransaction) || !(currentOwner instanceof DldGlobalTransaction)) {
-         if (trace) {
-            log.tracef("Unable to run DLD with %s and %s. One of them are not a DldGlobalTransaction.",
-                       pendingOwner, currentOwner);
+   /**
+    * Cancels the lock request the transaction is waiting for on this node, if any.
+    */
+   private boolean cancelLocalWait(DldGlobalTransaction victim) {
+      for (Object key : victim.getLockIntention()) {
+         InfinispanLock lock = lockContainer.getLock(key);
+         if (lock != null && lock.isWaiting(victim)) {
+            lock.deadlockCheck((pendingOwner, currentOwner) -> pendingOwner.equals(victim));
+            return !lock.isWaiting(victim);
          }
-         cannotRunDld.incrementAndGet();
-         return false;
-      }
-      if (trace) {
-         log.tracef("Could not acquire lock. It is locked by %s (%s)", currentOwner, System.identityHashCode(currentOwner));
-      }
-
-      final DldGlobalTransaction ownerTx = (DldGlobalTransaction) currentOwner;
-      final DldGlobalTransaction pendingTx = (DldGlobalTransaction) pendingOwner;
-
-      if (isDeadlockAndIAmLoosing(ownerTx, pendingTx)) {
-         updateStats(pendingTx);
-         log.tracef("Deadlock found and we (%s) shall not continue. Other tx is %s", pendingOwner, currentOwner);
-         return true;
       }
       return false;
    }
@@ -43,6 +43,40 @@ public interface LockManager {
     */
    KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit);
 
+   /**
+    * Same as {@link #lock(Object, Object, long, TimeUnit)} but identifies the command acquiring the lock, so the time
+    * spent waiting for it and holding it can be accounted for per command type.
+    *
+    * @param key         key to lock.
+    * @param lockOwner   the owner of the lock.
+    * @param time        the maximum time to wait for the lock
+    * @param unit        the time unit of the {@code time} argument
+    * @param commandType the type of the command acquiring the lock.
+    * @param remote      {@code true} if the command was invoked in another node.
+    * @return the {@link KeyAwareLockPromise} associated to this keys.
+    */
+   default KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit, Class<?> commandType,
+                                    boolean remote) {
+      return lock(key, lockOwner, time, unit);
+   }
+
+   /**
+    * Same as {@link #lockAll(Collection, Object, long, TimeUnit)} but identifies the command acquiring the locks, so
+    * the time spent waiting for them and holding them can be accounted for per command type.
+    *
+    * @param keys        keys to lock.
+    * @param lockOwner   the owner of the lock.
+    * @param time        the maximum time to wait for the lock
+    * @param unit        the time unit of the {@code time} argument
+    * @param commandType the type of the command acquiring the locks.
+    * @param remote      {@code true} if the command was invoked in another node.
+    * @return the {@link KeyAwareLockPromise} associated to this keys.
+    */
+   default KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit,
+                                       Class<?> commandType, boolean remote) {
+      return lockAll(keys, lockOwner, time, unit);
+   }
+
    /**
     * Releases the lock for the {@code key} if the {@code lockOwner} is the lock owner.
     *
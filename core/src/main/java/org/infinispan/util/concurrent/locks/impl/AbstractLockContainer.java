@@ -0,0 +1,72 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.util.StripedHashFunction;
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Base {@link LockContainer} implementing the acquisition of multiple keys.
+ * <p>
+ * The keys are sorted by segment of a {@link StripedHashFunction} and the segments are locked, in order, while the
+ * lock owner is queued in the keys' locks. Invocations with at least one segment in common are serialized, so the lock
+ * owners are queued in the same order in all the locks they share, and invocations for unrelated keys run in parallel.
+ *
+ * @since 8.0
+ */
+abstract class AbstractLockContainer implements LockContainer {
+
+   protected final StripedHashFunction<Object> hashFunction;
+   private final ReentrantLock[] segmentLocks;
+
+   AbstractLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
+      hashFunction = new StripedHashFunction<>(keyEquivalence, concurrencyLevel);
+      segmentLocks = new ReentrantLock[hashFunction.getNumSegments()];
+      for (int i = 0; i < segmentLocks.length; i++) {
+         segmentLocks[i] = new ReentrantLock();
+      }
+   }
+
+   @Override
+   public void acquireAll(Collection<?> keys, Object lockOwner, long time, TimeUnit timeUnit,
+                          LockStatistics.Recorder recorder, BiConsumer<Object, ExtendedLockPromise> consumer) {
+      Object[] keyArray = keys.toArray();
+      //segment in the high bits and the key index in the low bits, so sorting orders the keys by segment
+      long[] order = new long[keyArray.length];
+      for (int i = 0; i < keyArray.length; i++) {
+         order[i] = ((long) hashFunction.hashToSegment(keyArray[i]) << 32) | i;
+      }
+      Arrays.sort(order);
+
+      int lastLocked = -1;
+      try {
+         for (long entry : order) {
+            int segment = (int) (entry >>> 32);
+            if (segment != lastLocked) {
+               segmentLocks[segment].lock();
+               lastLocked = segment;
+            }
+         }
+         for (long entry : order) {
+            Object key = keyArray[(int) entry];
+            consumer.accept(key, acquire(key, lockOwner, time, timeUnit, recorder));
+         }
+      } finally {
+         int lastUnlocked = -1;
+         for (long entry : order) {
+            int segment = (int) (entry >>> 32);
+            if (segment > lastLocked) {
+               break;
+            } else if (segment != lastUnlocked) {
+               segmentLocks[segment].unlock();
+               lastUnlocked = segment;
+            }
+         }
+      }
+   }
+}
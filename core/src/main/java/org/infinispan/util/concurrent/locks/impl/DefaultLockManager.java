@@ -6,9 +6,12 @@
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
@@ -25,6 +28,7 @@
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -34,6 +38,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
 
 /**
@@ -54,6 +59,9 @@ public class DefaultLockManager implements LockManager {
    protected LockContainer lockContainer;
    protected Configuration configuration;
    protected ScheduledExecutorService scheduler;
+   private final LockStatistics statistics = new LockStatistics();
+   @ManagedAttribute(description = "Enables or disables the gathering of the lock waiting and holding times", writable = true)
+   private volatile boolean statisticsEnabled;
 
    @Inject
    public void inject(LockContainer container, Configuration configuration,
@@ -63,9 +71,25 @@ public void inject(LockContainer container, Configuration configuration,
       this.scheduler = executorService;
    }
 
+   @Start
+   public void checkStatisticsUsed() {
+      setStatisticsEnabled(configuration.jmxStatistics().enabled());
+   }
+
 
    @Override
    public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
+      return lock(key, lockOwner, time, unit, null, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return lockAll(keys, lockOwner, time, unit, null, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit, Class<?> commandType,
+                                   boolean remote) {
       Objects.requireNonNull(key, "Key must be non null");
       Objects.requireNonNull(lockOwner, "Lock owner must be non null");
       Objects.requireNonNull(unit, "Time unit must be non null");
@@ -74,12 +98,14 @@ public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUni
          log.tracef("Lock key=%s for owner=%s. timeout=%s (%s)", key, lockOwner, time, unit);
       }
 
-      ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit);
+      ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit,
+                                                          recorder(commandType, remote));
       return new KeyAwareExtendedLockPromise(promise, key, unit.toMillis(time)).scheduleLockTimeoutTask(scheduler);
    }
 
    @Override
-   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit,
+                                      Class<?> commandType, boolean remote) {
       Objects.requireNonNull(keys, "Keys must be non null");
       Objects.requireNonNull(lockOwner, "Lock owner must be non null");
       Objects.requireNonNull(unit, "Time unit must be non null");
@@ -91,14 +117,14 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
          return KeyAwareLockPromise.NO_OP;
       } else if (keys.size() == 1) {
          //although will have the cost of creating an iterator, at least, we don't need to enter the synchronized section.
-         return lock(keys.iterator().next(), lockOwner, time, unit);
+         return lock(keys.iterator().next(), lockOwner, time, unit, commandType, remote);
       }
 
       final Set<Object> uniqueKeys = filterDistinctKeys(keys);
 
       if (uniqueKeys.size() == 1) {
          //although will have the cost of creating an iterator, at least, we don't need to enter the synchronized section.
-         return lock(uniqueKeys.iterator().next(), lockOwner, time, unit);
+         return lock(uniqueKeys.iterator().next(), lockOwner, time, unit, commandType, remote);
       }
 
       if (trace) {
@@ -106,17 +132,20 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       }
 
       final CompositeLockPromise compositeLockPromise = new CompositeLockPromise(uniqueKeys.size());
-      //needed to avoid internal deadlock when 2 or more lock owner invokes this method with the same keys.
-      //ordering will not solve the problem since acquire() is non-blocking and each lock owner can iterate faster/slower than the other.
-      synchronized (this) {
-         for (Object key : uniqueKeys) {
-            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(lockContainer.acquire(key, lockOwner, time, unit), key, unit.toMillis(time)));
-         }
-      }
+      final long timeoutMillis = unit.toMillis(time);
+      //the container serializes the invocations with keys in common, to avoid an internal deadlock when 2 or more lock
+      //owners invoke this method with the same keys. ordering alone will not solve the problem since acquire() is
+      //non-blocking and each lock owner can iterate faster/slower than the other.
+      lockContainer.acquireAll(uniqueKeys, lockOwner, time, unit, recorder(commandType, remote), (key, promise) ->
+            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(promise, key, timeoutMillis)));
       compositeLockPromise.markListAsFinal();
       return compositeLockPromise.scheduleLockTimeoutTask(scheduler, time, unit);
    }
 
+   private LockStatistics.Recorder recorder(Class<?> commandType, boolean remote) {
+      return statisticsEnabled ? statistics.recorder(commandType, remote) : null;
+   }
+
    private Set<Object> filterDistinctKeys(Collection<?> collection) {
       if (collection instanceof Set) {
          //noinspection unchecked
@@ -191,11 +220,61 @@ public int getNumberOfLocksAvailable() {
       return lockContainer.size() - lockContainer.getNumLocksHeld();
    }
 
+   @ManagedAttribute(description = "The average time, in milliseconds, spent waiting for a lock.", displayName = "Average lock waiting time", units = Units.MILLISECONDS)
+   public long getAverageLockWaitingTime() {
+      return NANOSECONDS.toMillis(statistics.getWaitTime().mean());
+   }
+
+   @ManagedAttribute(description = "The 99th percentile, in milliseconds, of the time spent waiting for a lock.", displayName = "99th percentile of the lock waiting time", units = Units.MILLISECONDS)
+   public long getLockWaitingTime99thPercentile() {
+      return NANOSECONDS.toMillis(statistics.getWaitTime().percentile(99));
+   }
+
+   @ManagedAttribute(description = "The average time, in milliseconds, a lock is held.", displayName = "Average lock holding time", units = Units.MILLISECONDS)
+   public long getAverageLockHoldingTime() {
+      return NANOSECONDS.toMillis(statistics.getHoldTime().mean());
+   }
+
+   @ManagedAttribute(description = "The 99th percentile, in milliseconds, of the time a lock is held.", displayName = "99th percentile of the lock holding time", units = Units.MILLISECONDS)
+   public long getLockHoldingTime99thPercentile() {
+      return NANOSECONDS.toMillis(statistics.getHoldTime().percentile(99));
+   }
+
+   @ManagedAttribute(description = "Histogram of the time spent waiting for a lock, per command type and origin.", displayName = "Lock waiting time histogram")
+   public Map<String, String> getLockWaitingTimeHistogram() {
+      return statistics.waitTimeSummary();
+   }
+
+   @ManagedAttribute(description = "Histogram of the time a lock is held, per command type and origin.", displayName = "Lock holding time histogram")
+   public Map<String, String> getLockHoldingTimeHistogram() {
+      return statistics.holdTimeSummary();
+   }
+
+   @ManagedOperation(description = "Resets the lock waiting and holding times", displayName = "Reset lock times")
+   public void resetLockTimes() {
+      statistics.reset();
+   }
+
+   public boolean getStatisticsEnabled() {
+      return statisticsEnabled;
+   }
+
+   public void setStatisticsEnabled(boolean enabled) {
+      statisticsEnabled = enabled;
+   }
+
    @Override
    public InfinispanLock getLock(Object key) {
       return lockContainer.getLock(key);
    }
 
+   /**
+    * @return the waiting and holding times of the locks acquired through this lock manager.
+    */
+   public LockStatistics getLockStatistics() {
+      return statistics;
+   }
+
    private static class KeyAwareExtendedLockPromise implements KeyAwareLockPromise, ExtendedLockPromise, Callable<Void> {
 
       private final ExtendedLockPromise lockPromise;
@@ -17,6 +17,7 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
@@ -32,6 +33,14 @@
  * In addition, it has an asynchronous interface. {@link #acquire(Object, long, TimeUnit)}  will not acquire the lock
  * immediately (except if it is free) but will return a {@link ExtendedLockPromise}. This promise allow to test if the
  * lock is acquired asynchronously and cancel the lock acquisition, without any blocking.
+ * <p/>
+ * When the lock is free and nobody is waiting for it, the lock owner acquires it directly, without going through the
+ * queue. The queue, the lock owners' map and the promise's {@link CompletableFuture} are only created when they are
+ * needed, so an uncontended acquisition only allocates the {@link ExtendedLockPromise} itself. Until the lock is
+ * contended, its lock owner is only known as the current one.
+ * <p/>
+ * Optionally, a {@link LockStatistics.Recorder} is updated with the time each lock owner waited for the lock and held
+ * it. The time is only read when a recorder is used.
  *
  * @author Pedro Ruivo
  * @since 8.0
@@ -44,10 +53,28 @@ public class InfinispanLock {
          newUpdater(InfinispanLock.class, LockPlaceHolder.class, "current");
    private static final AtomicReferenceFieldUpdater<LockPlaceHolder, LockState> STATE_UPDATER =
          newUpdater(LockPlaceHolder.class, LockState.class, "lockState");
-
-
-   private final Queue<LockPlaceHolder> pendingRequest;
-   private final ConcurrentMap<Object, LockPlaceHolder> lockOwners;
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<InfinispanLock, Queue> QUEUE_UPDATER =
+         newUpdater(InfinispanLock.class, Queue.class, "pendingRequest");
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<InfinispanLock, ConcurrentMap> OWNERS_UPDATER =
+         newUpdater(InfinispanLock.class, ConcurrentMap.class, "lockOwners");
+   private static final AtomicIntegerFieldUpdater<LockPlaceHolder> REGISTRATION_UPDATER =
+         AtomicIntegerFieldUpdater.newUpdater(LockPlaceHolder.class, "registration");
+   //how a lock owner can be found: acquiring through the fast path, only as the current one, or in the lock owners' map
+   private static final int UNREGISTERED = 0;
+   private static final int CURRENT_ONLY = 1;
+   private static final int REGISTERED = 2;
+   private static final int WITHDRAWN = 3;
+   private static final int CLEANED = 4;
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<LockPlaceHolder, CompletableFuture> NOTIFIER_UPDATER =
+         newUpdater(LockPlaceHolder.class, CompletableFuture.class, "notifier");
+   private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+
+   private volatile Queue<LockPlaceHolder> pendingRequest; //created on the first contended acquisition
+   private volatile ConcurrentMap<Object, LockPlaceHolder> lockOwners; //created on the first contended acquisition
    private final Runnable releaseRunnable;
    private TimeService timeService;
    private volatile LockPlaceHolder current;
@@ -59,8 +86,6 @@ public class InfinispanLock {
     */
    public InfinispanLock(TimeService timeService) {
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
-      lockOwners = new ConcurrentHashMap<>();
       current = null;
       releaseRunnable = null;
    }
@@ -73,8 +98,6 @@ public InfinispanLock(TimeService timeService) {
     */
    public InfinispanLock(TimeService timeService, Runnable releaseRunnable) {
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
-      lockOwners = new ConcurrentHashMap<>();
       current = null;
       this.releaseRunnable = releaseRunnable;
    }
@@ -103,6 +126,20 @@ public void setTimeService(TimeService timeService) {
     * @throws NullPointerException if {@code lockOwner} or {@code timeUnit} is {@code null}.
     */
    public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUnit) {
+      return acquire(lockOwner, time, timeUnit, null);
+   }
+
+   /**
+    * Same as {@link #acquire(Object, long, TimeUnit)} but records the time spent waiting for the lock and holding it.
+    *
+    * @param lockOwner the lock owner who needs to acquire the lock.
+    * @param time      the timeout value.
+    * @param timeUnit  the timeout unit.
+    * @param recorder  the {@link LockStatistics.Recorder} to update, or {@code null} to not record anything.
+    * @return an {@link ExtendedLockPromise}.
+    * @throws NullPointerException if {@code lockOwner} or {@code timeUnit} is {@code null}.
+    */
+   public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUnit, LockStatistics.Recorder recorder) {
       Objects.requireNonNull(lockOwner, "Lock Owner should be non-null");
       Objects.requireNonNull(timeUnit, "Time Unit should be non-null");
 
@@ -110,7 +147,7 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
          log.tracef("Acquire lock for %s. Timeout=%s (%s)", lockOwner, time, timeUnit);
       }
 
-      LockPlaceHolder lockPlaceHolder = lockOwners.get(lockOwner);
+      LockPlaceHolder lockPlaceHolder = find(lockOwner);
       if (lockPlaceHolder != null) {
          if (trace) {
             log.tracef("Lock owner already exists: %s", lockPlaceHolder);
@@ -118,8 +155,36 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
          return lockPlaceHolder;
       }
 
-      lockPlaceHolder = createLockInfo(lockOwner, time, timeUnit);
-      LockPlaceHolder other = lockOwners.putIfAbsent(lockOwner, lockPlaceHolder);
+      lockPlaceHolder = createLockInfo(lockOwner, time, timeUnit, recorder);
+
+      if (isQueueEmpty() && cas(null, lockPlaceHolder)) {
+         //fast path: the lock is free and nobody is waiting for it
+         LockPlaceHolder other = registerCurrent(lockPlaceHolder);
+         if (other != null) {
+            if (trace) {
+               log.tracef("Lock owner already exists: %s", other);
+            }
+            return other;
+         }
+         if (trace) {
+            log.tracef("Created a new one: %s", lockPlaceHolder);
+         }
+         if (!lockPlaceHolder.setAcquire()) {
+            //released or timed out in the meantime
+            tryAcquire(lockPlaceHolder);
+         }
+         return lockPlaceHolder;
+      }
+
+      lockPlaceHolder.registration = REGISTERED;
+      ConcurrentMap<Object, LockPlaceHolder> owners = lockOwners();
+      LockPlaceHolder other = owners.putIfAbsent(lockOwner, lockPlaceHolder);
+      if (other == null) {
+         other = awaitCurrentOnly(lockOwner);
+         if (other != null) {
+            owners.remove(lockOwner, lockPlaceHolder);
+         }
+      }
 
       if (other != null) {
          if (trace) {
@@ -132,7 +197,7 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
          log.tracef("Created a new one: %s", lockPlaceHolder);
       }
 
-      pendingRequest.add(lockPlaceHolder);
+      pendingQueue().add(lockPlaceHolder);
       tryAcquire(null);
       return lockPlaceHolder;
    }
@@ -155,7 +220,7 @@ public void release(Object lockOwner) {
          log.tracef("Release lock for %s.", lockOwner);
       }
 
-      LockPlaceHolder wantToRelease = lockOwners.get(lockOwner);
+      LockPlaceHolder wantToRelease = find(lockOwner);
       if (wantToRelease == null) {
          if (trace) {
             log.tracef("%s not found!", lockOwner);
@@ -194,6 +259,18 @@ public boolean isLocked() {
       return current != null;
    }
 
+   /**
+    * It tests if the lock owner is queued, waiting to acquire this lock.
+    *
+    * @param lockOwner the lock owner to test.
+    * @return {@code true} if the lock owner is waiting for this lock, {@code false} if it acquired it, gave up or never
+    * tried to acquire it.
+    */
+   public boolean isWaiting(Object lockOwner) {
+      LockPlaceHolder lockPlaceHolder = find(lockOwner);
+      return lockPlaceHolder != null && lockPlaceHolder != current && lockPlaceHolder.lockState == LockState.WAITING;
+   }
+
    /**
     * It forces a deadlock checking.
     */
@@ -202,8 +279,9 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
          return; //no-op
       }
       LockPlaceHolder holder = current;
-      if (holder != null) {
-         for (LockPlaceHolder pending : pendingRequest) {
+      Queue<LockPlaceHolder> queue = pendingRequest;
+      if (holder != null && queue != null) {
+         for (LockPlaceHolder pending : queue) {
             pending.checkDeadlock(deadlockChecker, holder.owner);
          }
       }
@@ -218,7 +296,76 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
     * @return {@code true} if it contains the lock owner.
     */
    public boolean containsLockOwner(Object lockOwner) {
-      return lockOwners.containsKey(lockOwner);
+      return find(lockOwner) != null;
+   }
+
+   /**
+    * Forgets the queue and the lock owners' map if nobody holds, waits for or still has to clean up this lock, so it
+    * can be reused for another key as if it was new.
+    *
+    * @return {@code true} if the lock is not used.
+    */
+   boolean resetIfUnused() {
+      ConcurrentMap<Object, LockPlaceHolder> owners = lockOwners;
+      if (current != null || !isQueueEmpty() || (owners != null && !owners.isEmpty())) {
+         return false;
+      }
+      lockOwners = null;
+      pendingRequest = null;
+      return true;
+   }
+
+   private LockPlaceHolder find(Object lockOwner) {
+      LockPlaceHolder lockPlaceHolder = current;
+      if (lockPlaceHolder != null && lockPlaceHolder.registration == CURRENT_ONLY &&
+            lockPlaceHolder.owner.equals(lockOwner)) {
+         return lockPlaceHolder;
+      }
+      ConcurrentMap<Object, LockPlaceHolder> owners = lockOwners;
+      return owners == null ? null : owners.get(lockOwner);
+   }
+
+   /**
+    * Invoked after a lock owner acquired the lock through the fast path. While the lock was never contended, the lock
+    * owner is only known as the current one. Otherwise, it has to be added to the lock owners' map, unless the same
+    * lock owner got there first through the queue: then the lock is given back and the queued one is returned.
+    *
+    * @return the existing {@link LockPlaceHolder} of the same lock owner, or {@code null} if it is the current one.
+    */
+   private LockPlaceHolder registerCurrent(LockPlaceHolder acquired) {
+      ConcurrentMap<Object, LockPlaceHolder> owners = lockOwners;
+      if (owners == null) {
+         acquired.registration = CURRENT_ONLY;
+         return null;
+      }
+      acquired.registration = REGISTERED;
+      LockPlaceHolder other = owners.putIfAbsent(acquired.owner, acquired);
+      if (other == null) {
+         return null;
+      }
+      acquired.registration = WITHDRAWN;
+      casRelease(acquired);
+      tryAcquire(null);
+      return other;
+   }
+
+   /**
+    * Invoked after a lock owner was added to the lock owners' map. If the same lock owner is acquiring the lock
+    * through the fast path, waits until it is known whether it went to the map too.
+    *
+    * @return the current {@link LockPlaceHolder} if it belongs to the same lock owner and is not in the map.
+    */
+   private LockPlaceHolder awaitCurrentOnly(Object lockOwner) {
+      LockPlaceHolder lockPlaceHolder = current;
+      if (lockPlaceHolder == null || !lockPlaceHolder.owner.equals(lockOwner)) {
+         return null;
+      }
+      int registration;
+      while ((registration = lockPlaceHolder.registration) == UNREGISTERED) {
+         //only a few instructions away, see registerCurrent()
+         Thread.yield();
+      }
+      return registration == CURRENT_ONLY ? lockPlaceHolder : null;
    }
 
    private void onCanceled(LockPlaceHolder canceled) {
@@ -235,8 +382,9 @@ private boolean casRelease(LockPlaceHolder lockPlaceHolder) {
       return OWNER_UPDATER.compareAndSet(this, lockPlaceHolder, null);
    }
 
-   private boolean remove(Object lockOwner) {
-      return lockOwners.remove(lockOwner) != null;
+   private boolean remove(LockPlaceHolder lockPlaceHolder) {
+      ConcurrentMap<Object, LockPlaceHolder> owners = lockOwners;
+      return owners != null && owners.remove(lockPlaceHolder.owner, lockPlaceHolder);
    }
 
    private void triggerReleased() {
@@ -249,10 +397,40 @@ private boolean cas(LockPlaceHolder release, LockPlaceHolder acquire) {
       return OWNER_UPDATER.compareAndSet(this, release, acquire);
    }
 
+   private boolean isQueueEmpty() {
+      Queue<LockPlaceHolder> queue = pendingRequest;
+      return queue == null || queue.isEmpty();
+   }
+
+   @SuppressWarnings("unchecked")
+   private ConcurrentMap<Object, LockPlaceHolder> lockOwners() {
+      ConcurrentMap<Object, LockPlaceHolder> owners = lockOwners;
+      if (owners == null) {
+         owners = new ConcurrentHashMap<>();
+         if (!OWNERS_UPDATER.compareAndSet(this, null, owners)) {
+            owners = lockOwners;
+         }
+      }
+      return owners;
+   }
+
+   @SuppressWarnings("unchecked")
+   private Queue<LockPlaceHolder> pendingQueue() {
+      Queue<LockPlaceHolder> queue = pendingRequest;
+      if (queue == null) {
+         queue = new ConcurrentLinkedQueue<>();
+         if (!QUEUE_UPDATER.compareAndSet(this, null, queue)) {
+            queue = pendingRequest;
+         }
+      }
+      return queue;
+   }
+
    private void tryAcquire(LockPlaceHolder release) {
       LockPlaceHolder toRelease = release;
       do {
-         LockPlaceHolder toAcquire = pendingRequest.peek();
+         Queue<LockPlaceHolder> queue = pendingRequest;
+         LockPlaceHolder toAcquire = queue == null ? null : queue.peek();
          if (trace) {
             log.tracef("Try acquire. Next in queue=%s. Current=%s", toAcquire, current);
          }
@@ -264,7 +442,7 @@ private void tryAcquire(LockPlaceHolder release) {
          }
          if (cas(toRelease, toAcquire)) {
             //we set the current lock owner, so we must remove it from the queue
-            pendingRequest.remove(toAcquire);
+            queue.remove(toAcquire);
             if (toAcquire.setAcquire()) {
                if (trace) {
                   log.tracef("%s successfully acquired the lock.", toAcquire);
@@ -286,22 +464,27 @@ private void tryAcquire(LockPlaceHolder release) {
       } while (true);
    }
 
-   private LockPlaceHolder createLockInfo(Object lockOwner, long time, TimeUnit timeUnit) {
-      return new LockPlaceHolder(lockOwner, timeService.expectedEndTime(time, timeUnit));
+   private LockPlaceHolder createLockInfo(Object lockOwner, long time, TimeUnit timeUnit, LockStatistics.Recorder recorder) {
+      return new LockPlaceHolder(lockOwner, timeService.expectedEndTime(time, timeUnit), recorder);
    }
 
    private class LockPlaceHolder implements ExtendedLockPromise {
 
       private final Object owner;
       private final long timeout;
-      private final CompletableFuture<Void> notifier;
+      private final LockStatistics.Recorder recorder;
+      private final long requestTime; //only read when recording
+      private volatile long acquireTime;
+      volatile CompletableFuture<Void> notifier; //created when someone has to wait for the state to change
       volatile LockState lockState;
+      volatile int registration;
 
-      private LockPlaceHolder(Object owner, long timeout) {
+      private LockPlaceHolder(Object owner, long timeout, LockStatistics.Recorder recorder) {
          this.owner = owner;
          this.timeout = timeout;
+         this.recorder = recorder;
+         this.requestTime = recorder == null ? 0 : timeService.time();
          lockState = LockState.WAITING;
-         notifier = new CompletableFuture<>();
       }
 
       @Override
@@ -316,7 +499,7 @@ public void lock() throws InterruptedException, TimeoutException {
             switch (lockState) {
                case WAITING:
                   checkTimeout();
-                  await(notifier, timeService.remainingTime(timeout, TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+                  await(notifier(), timeService.remainingTime(timeout, TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
                   break;
                case ACQUIRED:
                   return; //acquired!
@@ -336,7 +519,7 @@ public void lock() throws InterruptedException, TimeoutException {
 
       @Override
       public void addListener(LockListener listener) {
-         notifier.thenRun(() -> this.invoke(listener));
+         notifier().thenRun(() -> this.invoke(listener));
       }
 
       @Override
@@ -348,6 +531,7 @@ public void cancel(LockState state) {
             switch (currentState) {
                case WAITING:
                   if (casState(LockState.WAITING, state)) {
+                     recordWaitEnd();
                      notifyListeners();
                      break out;
                   }
@@ -416,6 +600,7 @@ private void checkDeadlock(DeadlockChecker checker, Object currentOwner) {
                !owner.equals(currentOwner) && //needed? just to be safe
                checker.deadlockDetected(owner, currentOwner) && //deadlock has been detected!
                casState(LockState.WAITING, LockState.DEADLOCKED)) { //state could have been changed to available or timed_out
+            recordWaitEnd();
             onCanceled(this);
             notifyListeners();
          }
@@ -423,6 +608,7 @@ private void checkDeadlock(DeadlockChecker checker, Object currentOwner) {
 
       private boolean setAcquire() {
          if (casState(LockState.WAITING, LockState.ACQUIRED)) {
+            acquireTime = recordWaitEnd();
             notifyListeners();
          }
          return lockState == LockState.ACQUIRED;
@@ -435,6 +621,9 @@ private boolean setReleased() {
                case WAITING:
                case ACQUIRED:
                   if (casState(state, LockState.RELEASED)) {
+                     if (state == LockState.ACQUIRED) {
+                        recordHoldEnd();
+                     }
                      cleanup();
                      notifyListeners();
                      return true;
@@ -461,8 +650,28 @@ private boolean casState(LockState expect, LockState update) {
          return updated;
       }
 
+      /**
+       * Invoked once, when the lock request stops waiting.
+       *
+       * @return the current time, if recording.
+       */
+      private long recordWaitEnd() {
+         if (recorder == null) {
+            return 0;
+         }
+         long now = timeService.time();
+         recorder.recordWait(now - requestTime);
+         return now;
+      }
+
+      private void recordHoldEnd() {
+         if (recorder != null) {
+            recorder.recordHold(timeService.time() - acquireTime);
+         }
+      }
+
       private void cleanup() {
-         if (remove(owner)) {
+         if (REGISTRATION_UPDATER.compareAndSet(this, CURRENT_ONLY, CLEANED) || remove(this)) {
             triggerReleased();
          }
       }
@@ -471,15 +680,37 @@ private void checkTimeout() {
          if (lockState == LockState.WAITING &&
                timeService.isTimeExpired(timeout) &&
                casState(LockState.WAITING, LockState.TIMED_OUT)) {
+            recordWaitEnd();
             onCanceled(this);
             notifyListeners();
          }
 
       }
 
+      @SuppressWarnings("unchecked")
+      private CompletableFuture<Void> notifier() {
+         CompletableFuture<Void> future = notifier;
+         if (future != null) {
+            return future;
+         } else if (lockState != LockState.WAITING) {
+            //the state is final, no need to create a new future
+            return COMPLETED;
+         }
+         future = new CompletableFuture<>();
+         if (!NOTIFIER_UPDATER.compareAndSet(this, null, future)) {
+            return notifier;
+         }
+         //the state may have changed before the future was visible to notifyListeners()
+         notifyListeners();
+         return future;
+      }
+
       private void notifyListeners() {
          if (lockState != LockState.WAITING) {
-            notifier.complete(null);
+            CompletableFuture<Void> future = notifier;
+            if (future != null) {
+               future.complete(null);
+            }
          }
       }
    }
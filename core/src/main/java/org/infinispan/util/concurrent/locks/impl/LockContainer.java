@@ -3,7 +3,9 @@
 import org.infinispan.util.concurrent.locks.DeadlockChecker;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
 
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * A container for locks
@@ -19,7 +21,40 @@ public interface LockContainer {
     * @param key the key to lock.
     * @return the lock for a specific object to be acquired. If the lock does not exists, it is created.
     */
-   ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit);
+   default ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      return acquire(key, lockOwner, time, timeUnit, null);
+   }
+
+   /**
+    * Same as {@link #acquire(Object, Object, long, TimeUnit)} but records the lock's waiting and holding times.
+    *
+    * @param recorder the {@link LockStatistics.Recorder} to update, or {@code null} to not record anything.
+    */
+   ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit,
+                               LockStatistics.Recorder recorder);
+
+   /**
+    * Same as {@link #acquire(Object, Object, long, TimeUnit)} but for multiple keys.
+    * <p>
+    * The keys are acquired in a deterministic order, and concurrent invocations for overlapping keys queue their lock
+    * owners in the same order in all the locks they have in common, so they do not deadlock each other.
+    *
+    * @param keys     the keys to lock, without duplicates.
+    * @param consumer invoked with each key and its {@link ExtendedLockPromise}.
+    */
+   default void acquireAll(Collection<?> keys, Object lockOwner, long time, TimeUnit timeUnit,
+                           BiConsumer<Object, ExtendedLockPromise> consumer) {
+      acquireAll(keys, lockOwner, time, timeUnit, null, consumer);
+   }
+
+   /**
+    * Same as {@link #acquireAll(Collection, Object, long, TimeUnit, BiConsumer)} but records the locks' waiting and
+    * holding times.
+    *
+    * @param recorder the {@link LockStatistics.Recorder} to update, or {@code null} to not record anything.
+    */
+   void acquireAll(Collection<?> keys, Object lockOwner, long time, TimeUnit timeUnit, LockStatistics.Recorder recorder,
+                   BiConsumer<Object, ExtendedLockPromise> consumer);
 
    /**
     * @param key the key to lock.
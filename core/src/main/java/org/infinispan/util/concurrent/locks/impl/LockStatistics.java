@@ -0,0 +1,138 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import org.infinispan.stats.impl.LatencyHistogram;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Histograms of the time spent waiting for the locks, and of the time the locks are held, per cache.
+ * <p/>
+ * The times are broken down by the type of the command acquiring the lock and by the origin of the lock owner: local
+ * when the command was invoked on this node, remote otherwise. The waiting time of a lock request starts when it is
+ * created and ends when it acquires the lock, times out or is rolled back due to a deadlock. An uncontended
+ * acquisition records a waiting time close to zero.
+ * <p/>
+ * Nothing is recorded unless the cache's statistics are enabled.
+ *
+ * @since 8.0
+ */
+public final class LockStatistics {
+
+   /**
+    * the command type used when it is not known, e.g. when the lock is acquired directly through the {@link
+    * org.infinispan.util.concurrent.locks.LockManager}.
+    */
+   private static final Class<?> UNKNOWN = Object.class;
+
+   private final ConcurrentMap<Class<?>, Recorder> local = new ConcurrentHashMap<>();
+   private final ConcurrentMap<Class<?>, Recorder> remote = new ConcurrentHashMap<>();
+   private final LatencyHistogram waitTime = new LatencyHistogram();
+   private final LatencyHistogram holdTime = new LatencyHistogram();
+
+   /**
+    * @param commandType the type of the command acquiring the lock, or {@code null} if unknown.
+    * @param remote      {@code true} if the lock owner was created in another node.
+    * @return the {@link Recorder} for the lock requests of the {@code commandType} and origin.
+    */
+   public Recorder recorder(Class<?> commandType, boolean remote) {
+      ConcurrentMap<Class<?>, Recorder> recorders = remote ? this.remote : local;
+      Class<?> type = commandType == null ? UNKNOWN : commandType;
+      Recorder recorder = recorders.get(type);
+      return recorder != null ? recorder : recorders.computeIfAbsent(type, Recorder::new);
+   }
+
+   /**
+    * @return the waiting times of all the lock requests.
+    */
+   public LatencyHistogram getWaitTime() {
+      return waitTime;
+   }
+
+   /**
+    * @return the holding times of all the locks.
+    */
+   public LatencyHistogram getHoldTime() {
+      return holdTime;
+   }
+
+   /**
+    * @return a summary of the waiting times, in milliseconds, per command type and origin.
+    */
+   public Map<String, String> waitTimeSummary() {
+      Map<String, String> summary = new TreeMap<>();
+      local.values().forEach(recorder -> summary.put(recorder.name(false), summary(recorder.waitTime)));
+      remote.values().forEach(recorder -> summary.put(recorder.name(true), summary(recorder.waitTime)));
+      return summary;
+   }
+
+   /**
+    * @return a summary of the holding times, in milliseconds, per command type and origin.
+    */
+   public Map<String, String> holdTimeSummary() {
+      Map<String, String> summary = new TreeMap<>();
+      local.values().forEach(recorder -> summary.put(recorder.name(false), summary(recorder.holdTime)));
+      remote.values().forEach(recorder -> summary.put(recorder.name(true), summary(recorder.holdTime)));
+      return summary;
+   }
+
+   /**
+    * Discards all the recorded times.
+    */
+   public void reset() {
+      local.values().forEach(Recorder::reset);
+      remote.values().forEach(Recorder::reset);
+      waitTime.reset();
+      holdTime.reset();
+   }
+
+   private static String summary(LatencyHistogram histogram) {
+      return "count=" + histogram.count() +
+            ", mean=" + millis(histogram.mean()) +
+            ", p50=" + millis(histogram.percentile(50)) +
+            ", p90=" + millis(histogram.percentile(90)) +
+            ", p99=" + millis(histogram.percentile(99)) +
+            ", max=" + millis(histogram.max()) +
+            " (ms)";
+   }
+
+   private static String millis(long nanos) {
+      return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+   }
+
+   /**
+    * Records the times of the lock requests of a command type and origin.
+    */
+   public final class Recorder {
+      private final Class<?> commandType;
+      private final LatencyHistogram waitTime = new LatencyHistogram();
+      private final LatencyHistogram holdTime = new LatencyHistogram();
+
+      private Recorder(Class<?> commandType) {
+         this.commandType = commandType;
+      }
+
+      public void recordWait(long nanos) {
+         waitTime.record(nanos);
+         LockStatistics.this.waitTime.record(nanos);
+      }
+
+      public void recordHold(long nanos) {
+         holdTime.record(nanos);
+         LockStatistics.this.holdTime.record(nanos);
+      }
+
+      private String name(boolean remote) {
+         String type = commandType == UNKNOWN ? "Unknown" : commandType.getSimpleName();
+         return type + (remote ? " (remote)" : " (local)");
+      }
+
+      private void reset() {
+         waitTime.reset();
+         holdTime.reset();
+      }
+   }
+}
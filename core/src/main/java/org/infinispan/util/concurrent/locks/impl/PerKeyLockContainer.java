@@ -10,62 +10,71 @@
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A lock container that creates and maintains a new lock per entry.
+ * <p>
+ * A lock that is no longer used is kept in a slot of a small pool, one per segment, and reused by the next key of
+ * the same segment that needs a lock.
  *
  * @author Pedro Ruivo
  * @since 8.0
  */
-public class PerKeyLockContainer implements LockContainer {
+public class PerKeyLockContainer extends AbstractLockContainer {
 
    private static final int INITIAL_CAPACITY = 32;
-   private final EquivalentConcurrentHashMapV8<Object, InfinispanLock> lockMap;
+   private final EquivalentConcurrentHashMapV8<Object, LockSlot> lockMap;
+   private final AtomicReferenceArray<LockSlot> unusedSlots;
    private TimeService timeService;
 
    public PerKeyLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
+      super(concurrencyLevel, keyEquivalence);
       lockMap = new EquivalentConcurrentHashMapV8<>(INITIAL_CAPACITY, concurrencyLevel, keyEquivalence, AnyEquivalence.getInstance());
+      unusedSlots = new AtomicReferenceArray<>(hashFunction.getNumSegments());
    }
 
    @Inject
    public void inject(TimeService timeService) {
       this.timeService = timeService;
-      for (InfinispanLock lock : lockMap.values()) {
-         lock.setTimeService(timeService);
+      for (LockSlot slot : lockMap.values()) {
+         slot.lock.setTimeService(timeService);
       }
    }
 
    @Override
-   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit,
+                                      LockStatistics.Recorder recorder) {
       ByRef<ExtendedLockPromise> reference = ByRef.create(null);
-      lockMap.compute(key, (aKey, lock) -> {
-         if (lock == null) {
-            lock = createInfinispanLock(aKey);
+      lockMap.compute(key, (aKey, slot) -> {
+         if (slot == null) {
+            slot = slotFor(aKey);
          }
-         reference.set(lock.acquire(lockOwner, time, timeUnit));
-         return lock;
+         reference.set(slot.lock.acquire(lockOwner, time, timeUnit, recorder));
+         return slot;
       });
       return reference.get();
    }
 
    @Override
    public InfinispanLock getLock(Object key) {
-      return lockMap.get(key);
+      LockSlot slot = lockMap.get(key);
+      return slot == null ? null : slot.lock;
    }
 
    @Override
    public void release(Object key, Object lockOwner) {
-      lockMap.computeIfPresent(key, (ignoredKey, lock) -> {
-         lock.release(lockOwner);
-         return !lock.isLocked() ? null : lock; //remove it if empty
+      lockMap.computeIfPresent(key, (aKey, slot) -> {
+         slot.lock.release(lockOwner);
+         return removeIfUnlocked(aKey, slot);
       });
    }
 
    @Override
    public int getNumLocksHeld() {
       int count = 0;
-      for (InfinispanLock lock : lockMap.values()) {
-         if (lock.isLocked()) {
+      for (LockSlot slot : lockMap.values()) {
+         if (slot.lock.isLocked()) {
             count++;
          }
       }
@@ -74,8 +83,8 @@ public int getNumLocksHeld() {
 
    @Override
    public boolean isLocked(Object key) {
-      InfinispanLock lock = lockMap.get(key);
-      return lock != null && lock.isLocked();
+      LockSlot slot = lockMap.get(key);
+      return slot != null && slot.lock.isLocked();
    }
 
    @Override
@@ -85,7 +94,7 @@ public int size() {
 
    @Override
    public void deadlockCheck(DeadlockChecker deadlockChecker) {
-      lockMap.values().forEach(lock -> lock.deadlockCheck(deadlockChecker));
+      lockMap.values().forEach(slot -> slot.lock.deadlockCheck(deadlockChecker));
    }
 
    @Override
@@ -95,8 +104,44 @@ public String toString() {
             '}';
    }
 
-   private InfinispanLock createInfinispanLock(Object key) {
-      return new InfinispanLock(timeService, () -> lockMap.computeIfPresent(key, (ignoredKey, lock) -> lock.isLocked() ? lock : null));
+   private LockSlot slotFor(Object key) {
+      int segment = hashFunction.hashToSegment(key);
+      LockSlot slot = unusedSlots.get(segment);
+      if (slot == null || !unusedSlots.compareAndSet(segment, slot, null)) {
+         slot = new LockSlot();
+      }
+      slot.key = key;
+      return slot;
+   }
+
+   /**
+    * Invoked while holding the lock of the key in the map.
+    */
+   private LockSlot removeIfUnlocked(Object key, LockSlot slot) {
+      if (slot.lock.isLocked()) {
+         return slot;
+      }
+      //remove it if empty, and keep it for the next key if nobody will use it anymore
+      if (slot.lock.resetIfUnused()) {
+         unusedSlots.compareAndSet(hashFunction.hashToSegment(key), null, slot);
+      }
+      return null;
+   }
+
+   private final class LockSlot implements Runnable {
+      private final InfinispanLock lock = new InfinispanLock(timeService, this);
+      private volatile Object key;
+
+      @Override
+      public void run() {
+         //invoked when a lock owner leaves the lock, which may be after the slot moved on to another key
+         lockMap.computeIfPresent(key, (aKey, slot) -> slot == this ? removeIfUnlocked(aKey, slot) : slot);
+      }
+
+      @Override
+      public String toString() {
+         return lock.toString();
+      }
    }
 
 }
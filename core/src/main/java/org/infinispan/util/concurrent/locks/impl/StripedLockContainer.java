@@ -2,7 +2,6 @@
 
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.factories.annotations.Inject;
-import org.infinispan.util.StripedHashFunction;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.locks.DeadlockChecker;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
@@ -18,13 +17,12 @@
  * @author Pedro Ruivo
  * @since 8.0
  */
-public class StripedLockContainer implements LockContainer {
+public class StripedLockContainer extends AbstractLockContainer {
 
    private final InfinispanLock[] sharedLocks;
-   private final StripedHashFunction<Object> hashFunction;
 
    public StripedLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
-      this.hashFunction = new StripedHashFunction<>(keyEquivalence, concurrencyLevel);
+      super(concurrencyLevel, keyEquivalence);
       sharedLocks = new InfinispanLock[hashFunction.getNumSegments()];
    }
 
@@ -40,8 +38,9 @@ public void inject(TimeService timeService) {
    }
 
    @Override
-   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
-      return getLock(key).acquire(lockOwner, time, timeUnit);
+   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit,
+                                      LockStatistics.Recorder recorder) {
+      return getLock(key).acquire(lockOwner, time, timeUnit, recorder);
    }
 
    @Override
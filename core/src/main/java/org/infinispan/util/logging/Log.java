@@ -1346,4 +1346,10 @@ void preparedTxAlreadyExists(RecoveryAwareTransaction previous,
 
    @Message(value = "Cannot use configuration '%s' as a template", id = 375)
    CacheConfigurationException noConfiguration(String extend);
+
+   @Message(value = "totalOrderBatchSize must be >= 1, we got %d", id = 376)
+   CacheConfigurationException invalidTotalOrderBatchSize(int batchSize);
+
+   @Message(value = "bundleSize must be >= 1, we got %d", id = 377)
+   CacheConfigurationException invalidAsyncBundleSize(int bundleSize);
 }
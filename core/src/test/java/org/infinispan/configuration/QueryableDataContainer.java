@@ -82,6 +82,12 @@ public int size() {
       return delegate.size();
    }
 
+   @Override
+   public int sizeExact() {
+      loggedOperations.add("sizeExact()" );
+      return delegate.sizeExact();
+   }
+
    @Override
    public int sizeIncludingExpired() {
       loggedOperations.add("sizeIncludingExpired()" );
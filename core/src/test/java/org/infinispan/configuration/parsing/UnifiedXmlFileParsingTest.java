@@ -23,6 +23,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.InterceptorConfiguration;
+import org.infinispan.configuration.cache.RemoteGetRouting;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
 import org.infinispan.configuration.cache.VersioningScheme;
 import org.infinispan.configuration.global.GlobalConfiguration;
@@ -84,10 +85,17 @@ public void call() {
 
    private static void configurationCheck80(EmbeddedCacheManager cm) {
       configurationCheck70(cm);
+      GlobalConfiguration g = cm.getCacheManagerConfiguration();
+      assertEquals(4096, g.transport().compressionThreshold());
       Configuration c = cm.getCache().getCacheConfiguration();
       assertFalse(c.eviction().type() == EvictionType.MEMORY);
       c = cm.getCache("invalid").getCacheConfiguration();
       assertTrue(c.eviction().type() == EvictionType.MEMORY);
+      c = cm.getCache("dist").getCacheConfiguration();
+      assertEquals(20, c.clustering().remoteGetStaggerDelay());
+      assertEquals(RemoteGetRouting.LEAST_LATENCY, c.clustering().remoteGetRouting());
+      assertEquals(32, c.clustering().remoteGetBatchSize());
+      assertEquals(100, c.clustering().remoteGetBatchDelay());
 
       DefaultThreadFactory threadFactory;
       BlockingThreadPoolExecutorFactory threadPool;
@@ -0,0 +1,160 @@
+package org.infinispan.container;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the entries evicted with {@link EvictionThreadPolicy#ASYNC} are visible in the container until they are
+ * passivated, and that a write cancels their passivation.
+ *
+ * @since 8.0
+ */
+@Test(groups = "unit", testName = "container.AsyncEvictionDataContainerTest")
+public class AsyncEvictionDataContainerTest extends AbstractInfinispanTest {
+
+   private DefaultDataContainer<String, String> dc;
+   private PassivationManager passivator;
+   private List<Runnable> tasks;
+
+   @BeforeMethod
+   public void setUp() {
+      dc = DefaultDataContainer.boundedDataContainer(16, 1, EvictionStrategy.LRU, EvictionThreadPolicy.ASYNC,
+                                                     AnyEquivalence.getInstance(), EvictionType.COUNT);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      passivator = mock(PassivationManager.class);
+      when(passivator.isEnabled()).thenReturn(true);
+      dc.initialize(mock(EvictionManager.class), passivator, internalEntryFactory, mock(ActivationManager.class), null,
+                    TIME_SERVICE, null, mock(ExpirationManager.class));
+      // The drain task only runs when the test says so
+      tasks = new ArrayList<>();
+      ExecutorService executor = mock(ExecutorService.class);
+      doAnswer(invocation -> tasks.add((Runnable) invocation.getArguments()[0])).when(executor).execute(any(Runnable.class));
+      dc.injectPersistenceExecutor(executor);
+   }
+
+   public void testPendingEntriesVisible() {
+      dc.put("k1", "v1", new EmbeddedMetadata.Builder().build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<String, String> evicted = dc.peek("k1");
+
+      assertEquals("v1", evicted.getValue());
+      assertEquals("v1", dc.get("k1").getValue());
+      assertTrue(dc.containsKey("k1"));
+      assertEquals(2, dc.size());
+      assertEquals(2, dc.sizeExact());
+      assertEquals(asSet("k1", "k2"), new HashSet<>(dc.keySet()));
+      Set<String> iterated = new HashSet<>();
+      dc.iterator().forEachRemaining(ice -> iterated.add(ice.getKey()));
+      assertEquals(asSet("k1", "k2"), iterated);
+      verify(passivator, never()).passivate(any(InternalCacheEntry.class));
+
+      runTasks();
+      verify(passivator).passivate(evicted);
+      assertNull(dc.peek("k1"));
+      assertEquals(1, dc.size());
+      assertEquals(asSet("k2"), new HashSet<>(dc.keySet()));
+   }
+
+   public void testWriteCancelsPassivation() {
+      dc.put("k1", "v1", new EmbeddedMetadata.Builder().build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<String, String> evicted = dc.peek("k1");
+
+      // k1 is written again before it is passivated, which evicts k2
+      dc.put("k1", "v1-new", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<String, String> evicted2 = dc.peek("k2");
+      runTasks();
+
+      verify(passivator, never()).passivate(evicted);
+      verify(passivator).passivate(evicted2);
+      assertEquals("v1-new", dc.get("k1").getValue());
+   }
+
+   public void testUnchangedComputePassivates() {
+      dc.put("k1", "v1", new EmbeddedMetadata.Builder().build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<String, String> evicted = dc.peek("k1");
+
+      // The entry is left as it is, so it must be passivated instead of cancelled
+      assertNull(dc.compute("k1", (key, oldEntry, factory) -> oldEntry));
+      verify(passivator).passivate(evicted);
+      assertNull(dc.peek("k1"));
+
+      runTasks();
+      verify(passivator, times(1)).passivate(evicted);
+   }
+
+   public void testClearCancelsPassivation() {
+      dc.put("k1", "v1", new EmbeddedMetadata.Builder().build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<String, String> evicted = dc.peek("k1");
+
+      dc.clear();
+      assertNull(dc.get("k1"));
+      assertNull(dc.peek("k1"));
+      assertFalse(dc.containsKey("k1"));
+      assertEquals(0, dc.sizeIncludingExpired());
+      assertFalse(dc.iterator().hasNext());
+
+      runTasks();
+      verify(passivator, never()).passivate(evicted);
+   }
+
+   public void testRemoveReturnsPendingEntry() {
+      dc.put("k1", "v1", new EmbeddedMetadata.Builder().build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<String, String> evicted = dc.peek("k1");
+
+      assertSame(evicted, dc.remove("k1"));
+      assertNull(dc.peek("k1"));
+
+      runTasks();
+      verify(passivator, never()).passivate(evicted);
+   }
+
+   private void runTasks() {
+      List<Runnable> toRun = new ArrayList<>(tasks);
+      tasks.clear();
+      toRun.forEach(Runnable::run);
+      assertTrue(tasks.isEmpty());
+   }
+
+   private static Set<String> asSet(String... keys) {
+      Set<String> set = new HashSet<>();
+      for (String key : keys) {
+         set.add(key);
+      }
+      return set;
+   }
+}
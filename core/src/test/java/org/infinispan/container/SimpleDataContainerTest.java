@@ -76,15 +76,25 @@ public void testExpiredData() throws InterruptedException {
       dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(0, TimeUnit.MINUTES).build());
       Thread.sleep(10);
       assert dc.get("k") == null;
-      assert dc.size() == 0;
+      assert dc.sizeExact() == 0;
 
       dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(0, TimeUnit.MINUTES).build());
       Thread.sleep(100);
-      assert dc.size() == 0;
+      assert dc.sizeExact() == 0;
       dc.purgeExpired();
-      assert dc.size() == 0;
+      assert dc.sizeExact() == 0;
    }
    
+   public void testSizeAfterContainsKeyOnExpiredEntry() throws InterruptedException {
+      dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      Thread.sleep(10);
+
+      assert !dc.containsKey("k");
+      assert dc.size() == 1 : "Expected 1, was " + dc.size();
+      assert dc.sizeExact() == 1;
+   }
+
    public void testResetOfCreationTime() throws Exception {
       long now = System.currentTimeMillis();
       dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(1000, TimeUnit.SECONDS).build());
@@ -0,0 +1,168 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.InvocationContextInterceptor;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that the asynchronous operations do not block the async executor threads while the command is sent to the
+ * primary owner or to the backup owners, and that the interceptors that do not support deferred results still see a
+ * completed invocation.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "distribution.AsyncOperationsDeferredResultTest")
+public class AsyncOperationsDeferredResultTest extends MultipleCacheManagersTest {
+
+   //more operations than async executor threads
+   private static final int NUM_OPERATIONS = TestCacheManagerFactory.ASYNC_EXEC_MAX_THREADS * 2;
+
+   public void testAsyncPutsForwardedToPrimaryOwner() throws Exception {
+      List<MagicKey> keys = new ArrayList<>(NUM_OPERATIONS);
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+         keys.add(new MagicKey("forwarded" + i, cache(1), cache(2)));
+      }
+      assertAsyncPutsDeferred(keys, false);
+   }
+
+   public void testAsyncPutsReplicatedToBackupOwners() throws Exception {
+      List<MagicKey> keys = new ArrayList<>(NUM_OPERATIONS);
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+         keys.add(new MagicKey("replicated" + i, cache(0), cache(1)));
+      }
+      assertAsyncPutsDeferred(keys, true);
+   }
+
+   public void testInterceptorSeesCompletedInvocation() throws Exception {
+      MagicKey key = new MagicKey("interceptor", cache(1), cache(2));
+      cache(0).put(key, "v1");
+      ResultRecordingInterceptor interceptor = new ResultRecordingInterceptor(key);
+      cache(0).getAdvancedCache().addInterceptorAfter(interceptor, InvocationContextInterceptor.class);
+      try {
+         assertEquals(cache(0).putAsync(key, "v2").get(10, TimeUnit.SECONDS), "v1");
+         //the return value comes from the primary owner, and the backup owner applied the command before
+         assertEquals(interceptor.returnValue, "v1");
+         assertTrue(interceptor.backupOwnerUpdated);
+      } finally {
+         cache(0).getAdvancedCache().removeInterceptor(ResultRecordingInterceptor.class);
+      }
+   }
+
+   private void assertAsyncPutsDeferred(List<MagicKey> keys, boolean primaryOwner) throws Exception {
+      PutBlockingRpcManager rpcManager = new PutBlockingRpcManager(cache(0).getAdvancedCache().getRpcManager());
+      TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager, true);
+      try {
+         List<NotifyingFuture<Object>> puts = new ArrayList<>(keys.size());
+         for (MagicKey key : keys) {
+            puts.add(cache(0).putAsync(key, "v"));
+         }
+
+         eventually(() -> rpcManager.putsSent() == keys.size());
+         for (int i = 0; i < keys.size(); i++) {
+            assertFalse(puts.get(i).isDone());
+            if (primaryOwner) {
+               assertTrue(TestingUtil.extractLockManager(cache(0)).isLocked(keys.get(i)));
+            }
+         }
+
+         rpcManager.release.complete(null);
+         for (int i = 0; i < keys.size(); i++) {
+            assertNull(puts.get(i).get(10, TimeUnit.SECONDS));
+            assertFalse(TestingUtil.extractLockManager(cache(0)).isLocked(keys.get(i)));
+            for (Cache<Object, Object> cache : caches()) {
+               assertEquals(cache.get(keys.get(i)), "v");
+            }
+         }
+      } finally {
+         rpcManager.release.complete(null);
+         TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager.realOne(), true);
+      }
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).l1().disable();
+      createClusteredCaches(3, builder);
+   }
+
+   private class ResultRecordingInterceptor extends CommandInterceptor {
+
+      private final Object key;
+      private volatile Object returnValue;
+      private volatile boolean backupOwnerUpdated;
+
+      private ResultRecordingInterceptor(Object key) {
+         this.key = key;
+      }
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         Object retval = invokeNextInterceptor(ctx, command);
+         if (ctx.isOriginLocal() && key.equals(command.getKey())) {
+            returnValue = retval;
+            backupOwnerUpdated = "v2".equals(cache(2).getAdvancedCache().getDataContainer().get(key).getValue());
+         }
+         return retval;
+      }
+   }
+
+   private static class PutBlockingRpcManager extends AbstractControlledRpcManager {
+
+      private final CompletableFuture<Void> release = new CompletableFuture<>();
+      private final List<CompletableFuture<?>> puts = new ArrayList<>();
+
+      private PutBlockingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      RpcManager realOne() {
+         return realOne;
+      }
+
+      synchronized int putsSent() {
+         return puts.size();
+      }
+
+      @Override
+      public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
+                                                                           ReplicableCommand rpc, RpcOptions options) {
+         CompletableFuture<Map<Address, Response>> future = super.invokeRemotelyAsync(recipients, rpc, options);
+         if (rpc instanceof PutKeyValueCommand) {
+            //the other owners apply the command, but this node only sees the responses when released
+            future = future.thenCombine(release, (responses, ignored) -> responses);
+            synchronized (this) {
+               puts.add(future);
+            }
+         }
+         return future;
+      }
+   }
+}
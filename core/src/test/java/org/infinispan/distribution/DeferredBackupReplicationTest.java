@@ -0,0 +1,111 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that the primary owner does not block a remote executor thread while it waits for the backup owners to apply
+ * a write, and that it keeps the key locked until then.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "distribution.DeferredBackupReplicationTest")
+public class DeferredBackupReplicationTest extends MultipleCacheManagersTest {
+
+   public void testRemoteThreadsNotBlockedByBackups() throws Exception {
+      BackupBlockingRpcManager rpcManager = new BackupBlockingRpcManager(cache(1).getAdvancedCache().getRpcManager());
+      TestingUtil.replaceComponent(cache(1), RpcManager.class, rpcManager, true);
+      try {
+         //more writes than remote executor threads in the primary owner
+         int numWrites = TestCacheManagerFactory.REMOTE_EXEC_MAX_THREADS * 2;
+         List<MagicKey> keys = new ArrayList<>(numWrites);
+         List<Future<Object>> puts = new ArrayList<>(numWrites);
+         for (int i = 0; i < numWrites; i++) {
+            MagicKey key = new MagicKey("k" + i, cache(1), cache(2));
+            keys.add(key);
+            puts.add(fork(() -> cache(0).put(key, "v")));
+         }
+
+         eventually(() -> rpcManager.backupsReplicated() == numWrites);
+         for (int i = 0; i < numWrites; i++) {
+            assertFalse(puts.get(i).isDone());
+            assertTrue(TestingUtil.extractLockManager(cache(1)).isLocked(keys.get(i)));
+         }
+
+         rpcManager.release.complete(null);
+         for (int i = 0; i < numWrites; i++) {
+            puts.get(i).get(10, TimeUnit.SECONDS);
+            assertFalse(TestingUtil.extractLockManager(cache(1)).isLocked(keys.get(i)));
+            for (Cache<Object, Object> cache : caches()) {
+               assertEquals(cache.get(keys.get(i)), "v");
+            }
+         }
+      } finally {
+         rpcManager.release.complete(null);
+         TestingUtil.replaceComponent(cache(1), RpcManager.class, rpcManager.realOne(), true);
+      }
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).l1().disable();
+      createClusteredCaches(3, builder);
+   }
+
+   private static class BackupBlockingRpcManager extends AbstractControlledRpcManager {
+
+      private final CompletableFuture<Void> release = new CompletableFuture<>();
+      private final List<CompletableFuture<?>> backups = new ArrayList<>();
+
+      private BackupBlockingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      RpcManager realOne() {
+         return realOne;
+      }
+
+      synchronized int backupsReplicated() {
+         return backups.size();
+      }
+
+      @Override
+      public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
+                                                                           ReplicableCommand rpc, RpcOptions options) {
+         CompletableFuture<Map<Address, Response>> future = super.invokeRemotelyAsync(recipients, rpc, options);
+         if (rpc instanceof PutKeyValueCommand) {
+            //the backup owners apply the command, but the primary owner only sees it when released
+            future = future.thenCombine(release, (responses, ignored) -> responses);
+            synchronized (this) {
+               backups.add(future);
+            }
+         }
+         return future;
+      }
+   }
+}
@@ -0,0 +1,127 @@
+package org.infinispan.distribution;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests that the concurrent remote gets sent to the same owner are batched in a single {@link ClusteredGetAllCommand}
+ * and that a remote get is sent alone when no other remote get is in flight.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "distribution.RemoteGetBatchingTest")
+public class RemoteGetBatchingTest extends MultipleCacheManagersTest {
+
+   private static final int BATCH_SIZE = 4;
+
+   public void testRemoteGetNotBatchedWithoutLoad() {
+      MagicKey key = new MagicKey("alone", cache(1));
+      cache(1).put(key, "v");
+      CountingRpcManager rpcManager = replaceRpcManager();
+      try {
+         assertEquals(cache(0).get(key), "v");
+         assertEquals(rpcManager.clusteredGets.get(), 1);
+         assertEquals(rpcManager.clusteredGetAlls.get(), 0);
+      } finally {
+         rpcManager.release.countDown();
+         TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager.realOne(), true);
+      }
+   }
+
+   public void testConcurrentRemoteGetsBatched() throws Exception {
+      MagicKey blockedKey = new MagicKey("blocked", cache(1));
+      List<MagicKey> keys = new ArrayList<>(BATCH_SIZE);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+         MagicKey key = new MagicKey("batched" + i, cache(1));
+         keys.add(key);
+         if (i > 0) {
+            cache(1).put(key, "v" + i);
+         }
+      }
+      CountingRpcManager rpcManager = replaceRpcManager();
+      try {
+         //the first remote get stays in flight, so the next ones are batched
+         Future<Object> blockedGet = fork(() -> cache(0).get(blockedKey));
+         eventually(() -> rpcManager.clusteredGets.get() == 1);
+
+         List<Future<Object>> gets = new ArrayList<>(BATCH_SIZE);
+         for (MagicKey key : keys) {
+            gets.add(fork(() -> cache(0).get(key)));
+         }
+         assertNull(gets.get(0).get(10, TimeUnit.SECONDS));
+         for (int i = 1; i < BATCH_SIZE; i++) {
+            assertEquals(gets.get(i).get(10, TimeUnit.SECONDS), "v" + i);
+         }
+         assertEquals(rpcManager.clusteredGetAlls.get(), 1);
+         assertEquals(rpcManager.clusteredGets.get(), 1);
+
+         rpcManager.release.countDown();
+         assertNull(blockedGet.get(10, TimeUnit.SECONDS));
+      } finally {
+         rpcManager.release.countDown();
+         TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager.realOne(), true);
+      }
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      //the batches are only sent when they are full
+      builder.clustering().remoteGetBatchSize(BATCH_SIZE).remoteGetBatchDelay(1, TimeUnit.MINUTES)
+            .hash().numOwners(1).l1().disable();
+      createClusteredCaches(2, builder);
+   }
+
+   private CountingRpcManager replaceRpcManager() {
+      CountingRpcManager rpcManager = new CountingRpcManager(cache(0).getAdvancedCache().getRpcManager());
+      TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager, true);
+      return rpcManager;
+   }
+
+   private static class CountingRpcManager extends AbstractControlledRpcManager {
+
+      private final CountDownLatch release = new CountDownLatch(1);
+      private final AtomicInteger clusteredGets = new AtomicInteger();
+      private final AtomicInteger clusteredGetAlls = new AtomicInteger();
+
+      private CountingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      RpcManager realOne() {
+         return realOne;
+      }
+
+      @Override
+      protected void beforeInvokeRemotely(ReplicableCommand command) {
+         if (command instanceof ClusteredGetAllCommand) {
+            clusteredGetAlls.incrementAndGet();
+         } else if (command instanceof ClusteredGetCommand && clusteredGets.incrementAndGet() == 1 &&
+               ((ClusteredGetCommand) command).getKey().toString().contains("blocked")) {
+            try {
+               release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+   }
+}
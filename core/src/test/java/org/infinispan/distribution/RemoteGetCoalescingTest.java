@@ -0,0 +1,127 @@
+package org.infinispan.distribution;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * Tests that the concurrent gets of the same key share a single remote get, and that the gets started after a local
+ * write of the key do not share the remote gets sent before it.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "distribution.RemoteGetCoalescingTest")
+public class RemoteGetCoalescingTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_GETS = 10;
+
+   public void testConcurrentGetsShareRemoteGet() throws Exception {
+      MagicKey key = new MagicKey("shared", cache(1));
+      cache(1).put(key, "v");
+      GetBlockingRpcManager rpcManager = replaceRpcManager();
+      try {
+         List<Thread> threads = new ArrayList<>(NUM_GETS);
+         List<FutureTask<Object>> gets = new ArrayList<>(NUM_GETS);
+         for (int i = 0; i < NUM_GETS; i++) {
+            FutureTask<Object> get = new FutureTask<>(() -> cache(0).get(key));
+            Thread thread = new Thread(get, "RemoteGetCoalescingTest-" + i);
+            gets.add(get);
+            threads.add(thread);
+            thread.start();
+            if (i == 0) {
+               eventually(() -> rpcManager.clusteredGets.get() == 1);
+            }
+         }
+         //the other gets wait for the first one
+         eventually(() -> threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING ||
+               thread.getState() == Thread.State.TIMED_WAITING));
+         assertEquals(rpcManager.clusteredGets.get(), 1);
+
+         rpcManager.release.countDown();
+         for (FutureTask<Object> get : gets) {
+            assertEquals(get.get(10, TimeUnit.SECONDS), "v");
+         }
+         assertEquals(rpcManager.clusteredGets.get(), 1);
+      } finally {
+         rpcManager.release.countDown();
+         TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager.realOne(), true);
+      }
+   }
+
+   public void testGetAfterWriteNotShared() throws Exception {
+      MagicKey key = new MagicKey("written", cache(1));
+      cache(1).put(key, "v1");
+      GetBlockingRpcManager rpcManager = replaceRpcManager();
+      try {
+         FutureTask<Object> blockedGet = new FutureTask<>(() -> cache(0).get(key));
+         new Thread(blockedGet, "RemoteGetCoalescingTest-blocked").start();
+         eventually(() -> rpcManager.clusteredGets.get() == 1);
+
+         cache(0).put(key, "v2");
+         //only the first remote get is blocked
+         assertEquals(cache(0).get(key), "v2");
+         assertEquals(rpcManager.clusteredGets.get(), 2);
+         assertFalse(blockedGet.isDone());
+
+         rpcManager.release.countDown();
+         blockedGet.get(10, TimeUnit.SECONDS);
+      } finally {
+         rpcManager.release.countDown();
+         TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager.realOne(), true);
+      }
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).l1().disable();
+      createClusteredCaches(2, builder);
+   }
+
+   private GetBlockingRpcManager replaceRpcManager() {
+      GetBlockingRpcManager rpcManager = new GetBlockingRpcManager(cache(0).getAdvancedCache().getRpcManager());
+      TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager, true);
+      return rpcManager;
+   }
+
+   private static class GetBlockingRpcManager extends AbstractControlledRpcManager {
+
+      private final CountDownLatch release = new CountDownLatch(1);
+      private final AtomicInteger clusteredGets = new AtomicInteger();
+
+      private GetBlockingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      RpcManager realOne() {
+         return realOne;
+      }
+
+      @Override
+      protected void beforeInvokeRemotely(ReplicableCommand command) {
+         if (command instanceof ClusteredGetCommand && clusteredGets.incrementAndGet() == 1) {
+            try {
+               release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+   }
+}
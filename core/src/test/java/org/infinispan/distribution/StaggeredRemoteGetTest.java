@@ -0,0 +1,233 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.RemoteGetRouting;
+import org.infinispan.interceptors.distribution.BaseDistributionInterceptor;
+import org.infinispan.remoting.responses.CacheNotFoundResponse;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.infinispan.util.ControlledTimeService;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests that the remote gets are sent to the primary owner first, and to the backup owner only if the primary owner
+ * does not respond in time, and that they follow the configured {@link RemoteGetRouting}.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "distribution.StaggeredRemoteGetTest")
+public class StaggeredRemoteGetTest extends MultipleCacheManagersTest {
+
+   private static final String FIXED = "fixed";
+   private static final String ADAPTIVE = "adaptive";
+   private static final String PRIMARY = "primary";
+   private static final String RANDOM = "random";
+   private static final String WINDOW = "window";
+
+   @AfterMethod(alwaysRun = true)
+   public void restoreRpcManagers() {
+      for (String cacheName : Arrays.asList(FIXED, ADAPTIVE, PRIMARY, RANDOM, WINDOW)) {
+         RpcManager rpcManager = cache(2, cacheName).getAdvancedCache().getRpcManager();
+         if (rpcManager instanceof TargetRecordingRpcManager) {
+            TestingUtil.replaceComponent(cache(2, cacheName), RpcManager.class,
+                                         ((TargetRecordingRpcManager) rpcManager).realOne(), true);
+         }
+      }
+   }
+
+   public void testOnlyPrimaryOwnerAsked() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, FIXED));
+      MagicKey key = new MagicKey(cache(0, FIXED), cache(1, FIXED));
+      cache(0, FIXED).put(key, "v");
+
+      assertEquals(cache(2, FIXED).get(key), "v");
+      assertEquals(rpcManager.getTargets, Collections.singletonList(Collections.singletonList(address(0))));
+   }
+
+   public void testMissingKey() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, FIXED));
+      MagicKey key = new MagicKey(cache(0, FIXED), cache(1, FIXED));
+
+      assertNull(cache(2, FIXED).get(key));
+      assertEquals(rpcManager.getTargets, Collections.singletonList(Collections.singletonList(address(0))));
+   }
+
+   public void testBackupOwnerAskedWhenPrimaryOwnerIsSlow() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, FIXED));
+      MagicKey key = new MagicKey(cache(0, FIXED), cache(1, FIXED));
+      cache(0, FIXED).put(key, "v");
+      rpcManager.unresponsive = address(0);
+
+      assertEquals(cache(2, FIXED).get(key), "v");
+      assertEquals(rpcManager.getTargets, Arrays.asList(Collections.singletonList(address(0)),
+                                                        Collections.singletonList(address(1))));
+   }
+
+   public void testAdaptiveDelay() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, ADAPTIVE));
+      MagicKey key = new MagicKey(cache(0, ADAPTIVE), cache(1, ADAPTIVE));
+      cache(0, ADAPTIVE).put(key, "v");
+
+      //until there are enough response times, all the owners are asked at the same time
+      assertEquals(cache(2, ADAPTIVE).get(key), "v");
+      assertEquals(rpcManager.getTargets.get(0).size(), 2);
+      for (int i = 0; i < 100; i++) {
+         assertEquals(cache(2, ADAPTIVE).get(key), "v");
+      }
+
+      rpcManager.getTargets.clear();
+      rpcManager.unresponsive = address(0);
+      assertEquals(cache(2, ADAPTIVE).get(key), "v");
+      assertEquals(rpcManager.getTargets, Arrays.asList(Collections.singletonList(address(0)),
+                                                        Collections.singletonList(address(1))));
+   }
+
+   public void testAdaptiveDelayForgetsOldResponseTimes() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, WINDOW));
+      //replacing the rpc manager injects the components again, so the time service is replaced afterwards
+      ControlledTimeService timeService = new ControlledTimeService(0);
+      BaseDistributionInterceptor interceptor = TestingUtil.findInterceptor(cache(2, WINDOW), BaseDistributionInterceptor.class);
+      TestingUtil.replaceField(timeService, "timeService", interceptor, BaseDistributionInterceptor.class);
+      TestingUtil.replaceField(timeService.time(), "remoteGetTimesStart", interceptor, BaseDistributionInterceptor.class);
+      MagicKey key = new MagicKey(cache(0, WINDOW), cache(1, WINDOW));
+      cache(0, WINDOW).put(key, "v");
+      for (int i = 0; i < 101; i++) {
+         assertEquals(cache(2, WINDOW).get(key), "v");
+      }
+
+      //the controlled time service counts microseconds
+      timeService.advance(TimeUnit.MINUTES.toMicros(1));
+      assertEquals(cache(2, WINDOW).get(key), "v");
+      //the response times of the previous window are still used
+      rpcManager.getTargets.clear();
+      assertEquals(cache(2, WINDOW).get(key), "v");
+      assertEquals(rpcManager.getTargets.get(0).size(), 1);
+
+      timeService.advance(TimeUnit.MINUTES.toMicros(1));
+      assertEquals(cache(2, WINDOW).get(key), "v");
+      //the last window didn't record enough response times, so all the owners are asked again
+      rpcManager.getTargets.clear();
+      assertEquals(cache(2, WINDOW).get(key), "v");
+      assertEquals(rpcManager.getTargets.get(0).size(), 2);
+   }
+
+   public void testPrimaryOwnerRouting() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, PRIMARY));
+      MagicKey key = new MagicKey(cache(0, PRIMARY), cache(1, PRIMARY));
+      cache(0, PRIMARY).put(key, "v");
+
+      assertEquals(cache(2, PRIMARY).get(key), "v");
+      assertEquals(rpcManager.getTargets, Collections.singletonList(Collections.singletonList(address(0))));
+
+      //the backup owner is asked as soon as the primary owner sends an invalid response
+      rpcManager.getTargets.clear();
+      rpcManager.invalid = address(0);
+      assertEquals(cache(2, PRIMARY).get(key), "v");
+      assertEquals(rpcManager.getTargets, Arrays.asList(Collections.singletonList(address(0)),
+                                                        Collections.singletonList(address(1))));
+   }
+
+   public void testRandomOwnerRouting() {
+      TargetRecordingRpcManager rpcManager = TargetRecordingRpcManager.replaceRpcManager(cache(2, RANDOM));
+      MagicKey key = new MagicKey(cache(0, RANDOM), cache(1, RANDOM));
+      cache(0, RANDOM).put(key, "v");
+
+      for (int i = 0; i < 50; i++) {
+         assertEquals(cache(2, RANDOM).get(key), "v");
+      }
+      Set<Address> asked = new HashSet<>();
+      for (List<Address> targets : rpcManager.getTargets) {
+         assertEquals(targets.size(), 1);
+         asked.addAll(targets);
+      }
+      assertEquals(rpcManager.getTargets.size(), 50);
+      assertEquals(asked, new HashSet<>(Arrays.asList(address(0), address(1))));
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).l1().disable();
+      builder.clustering().remoteGetStaggerDelay(100, TimeUnit.MILLISECONDS);
+      createClusteredCaches(3, FIXED, builder);
+
+      builder.clustering().remoteGetStaggerDelay(-1);
+      defineConfigurationOnAllManagers(ADAPTIVE, builder);
+      defineConfigurationOnAllManagers(WINDOW, builder);
+
+      builder.clustering().remoteGetStaggerDelay(0).remoteGetRouting(RemoteGetRouting.PRIMARY_OWNER);
+      defineConfigurationOnAllManagers(PRIMARY, builder);
+      builder.clustering().remoteGetRouting(RemoteGetRouting.RANDOM_OWNER);
+      defineConfigurationOnAllManagers(RANDOM, builder);
+      waitForClusterToForm(ADAPTIVE, PRIMARY, RANDOM, WINDOW);
+   }
+
+   private static class TargetRecordingRpcManager extends AbstractControlledRpcManager {
+
+      private final List<List<Address>> getTargets = Collections.synchronizedList(new ArrayList<>());
+      private volatile Address unresponsive;
+      private volatile Address invalid;
+
+      private TargetRecordingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      static TargetRecordingRpcManager replaceRpcManager(Cache<?, ?> cache) {
+         TargetRecordingRpcManager rpcManager = new TargetRecordingRpcManager(cache.getAdvancedCache().getRpcManager());
+         TestingUtil.replaceComponent(cache, RpcManager.class, rpcManager, true);
+         return rpcManager;
+      }
+
+      RpcManager realOne() {
+         return realOne;
+      }
+
+      @Override
+      public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
+                                                                           ReplicableCommand rpc, RpcOptions options) {
+         if (rpc instanceof ClusteredGetCommand) {
+            getTargets.add(new ArrayList<>(recipients));
+            if (recipients.equals(Collections.singletonList(unresponsive))) {
+               //never completes, as if the owner was stuck
+               return new CompletableFuture<>();
+            } else if (recipients.equals(Collections.singletonList(invalid))) {
+               return CompletableFuture.completedFuture(Collections.singletonMap(invalid, CacheNotFoundResponse.INSTANCE));
+            }
+         }
+         return super.invokeRemotelyAsync(recipients, rpc, options);
+      }
+
+      @Override
+      public Map<Address, Response> invokeRemotely(Collection<Address> recipients, ReplicableCommand rpc,
+                                                   RpcOptions options) {
+         if (rpc instanceof ClusteredGetCommand) {
+            getTargets.add(new ArrayList<>(recipients));
+         }
+         return super.invokeRemotely(recipients, rpc, options);
+      }
+   }
+}
@@ -2,6 +2,7 @@
 
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
@@ -88,6 +89,14 @@ public void testDefaultUNORDERED() {
       runTest(EvictionThreadPolicy.DEFAULT, EvictionStrategy.UNORDERED);
    }
 
+   public void testAsyncLRU() {
+      runTest(EvictionThreadPolicy.ASYNC, EvictionStrategy.LRU);
+   }
+
+   public void testAsyncLIRS() {
+      runTest(EvictionThreadPolicy.ASYNC, EvictionStrategy.LIRS);
+   }
+
    public void testActivationInBatchRolledBackNONE() {
       testActivationInBatchRolledBack(EvictionThreadPolicy.DEFAULT, EvictionStrategy.NONE);
    }
@@ -213,6 +222,15 @@ public void testActivationPendingTransactionDoesNotAffectOthersEmptyValueDefault
       testActivationPendingTransactionDoesNotAffectOthers(EvictionThreadPolicy.DEFAULT, EvictionStrategy.UNORDERED, null);
    }
 
+   public void testActivationPendingTransactionDoesNotAffectOthersAsyncLRU() throws Throwable {
+      testActivationPendingTransactionDoesNotAffectOthers(EvictionThreadPolicy.ASYNC, EvictionStrategy.LRU,
+                                                          "prev-value");
+   }
+
+   public void testActivationPutAllInBatchRolledBackAsyncLRU() throws Throwable {
+      testActivationPutAllInBatchRolledBack(EvictionThreadPolicy.ASYNC, EvictionStrategy.LRU);
+   }
+
    public void testActivationPutAllInBatchRolledBackNONE() throws Throwable {
       testActivationPutAllInBatchRolledBack(EvictionThreadPolicy.DEFAULT, EvictionStrategy.NONE);
    }
@@ -252,9 +270,11 @@ private void runTest(EvictionThreadPolicy p, EvictionStrategy s) {
       testCache.put("Z", "4569");
 
       if (!s.equals(EvictionStrategy.NONE)) {
-         assertEquals(EVICTION_MAX_ENTRIES, testCache.getAdvancedCache().getDataContainer().size());
+         DataContainer dataContainer = testCache.getAdvancedCache().getDataContainer();
+         // The asynchronously evicted entries are counted until they are passivated
+         eventually(() -> dataContainer.size() == EVICTION_MAX_ENTRIES);
          assertEquals("4567", testCache.get("X"));
-         assertEquals(EVICTION_MAX_ENTRIES, testCache.getAdvancedCache().getDataContainer().size());
+         eventually(() -> dataContainer.size() == EVICTION_MAX_ENTRIES);
       }
 
       assertEquals("4567", testCache.get("X"));
@@ -456,6 +456,11 @@ public int size() {
          return delegate.size();
       }
 
+      @Override
+      public int sizeExact() {
+         return delegate.sizeExact();
+      }
+
       @Override
       public int sizeIncludingExpired() {
          return delegate.sizeIncludingExpired();
@@ -1,9 +1,11 @@
 package org.infinispan.eviction.impl;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ClassLayoutEntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.CustomClass;
 import org.infinispan.test.SingleCacheManagerTest;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.Test;
@@ -15,6 +17,9 @@
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static org.infinispan.commons.util.concurrent.jdk8backported.AbstractEntrySizeCalculatorHelper.OBJECT_SIZE;
+import static org.infinispan.commons.util.concurrent.jdk8backported.AbstractEntrySizeCalculatorHelper.POINTER_SIZE;
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertTrue;
 
 @Test(groups = "functional", testName = "eviction.MemoryBasedEvictionFunctionalTest")
@@ -249,6 +254,30 @@ public void testStringArray() throws Exception {
       assertTrue(cache.getAdvancedCache().getDataContainer().size() < numberInserted);
    }
 
+   public void testCustomObject() throws Exception {
+      int stringLength = 10;
+      long numberInserted = CACHE_SIZE / stringLength;
+      Random random = new Random();
+      // Custom types are sized by walking their fields, so eviction has to kick in as well
+      for (long i = 0; i < numberInserted; i++) {
+         cache.put(i, new CustomClass(randomStringFullOfInt(random, stringLength)));
+      }
+      assertTrue(cache.getAdvancedCache().getDataContainer().size() < numberInserted);
+   }
+
+   public void testCustomObjectSize() {
+      ClassLayoutEntrySizeCalculator calculator = new ClassLayoutEntrySizeCalculator();
+      String val = "0123456789";
+      long stringSize = calculator.calculateObjectSize(val);
+      assertTrue(stringSize > 2 * val.length());
+      // CustomClass only adds its own header, class pointer and the reference to the String
+      assertEquals(calculator.roundUpToNearest8(OBJECT_SIZE + 2 * POINTER_SIZE) + stringSize,
+            calculator.calculateObjectSize(new CustomClass(val)));
+      // The same String referenced twice is only counted once
+      assertEquals(calculator.roundUpToNearest8(OBJECT_SIZE + POINTER_SIZE + 4 + 2 * POINTER_SIZE) + stringSize,
+            calculator.calculateObjectSize(new Object[]{val, val}));
+   }
+
    protected String randomStringFullOfInt(Random random, int digits) {
       return random.ints(digits, 0, 10).collect(StringBuilder::new, StringBuilder::append,
               StringBuilder::append).toString();
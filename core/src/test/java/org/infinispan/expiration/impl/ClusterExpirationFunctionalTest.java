@@ -6,6 +6,7 @@
 import org.infinispan.distribution.MagicKey;
 import org.infinispan.test.MultipleCacheManagersTest;
 import org.infinispan.test.TestingUtil;
+import org.infinispan.util.CountingRpcManager;
 import org.infinispan.util.ControlledTimeService;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -111,4 +112,33 @@ public void testExpiredOnBoth() {
       assertNull(cache0.get(key));
       assertNull(cache1.get(key));
    }
+
+   public void testExpirationSweepIsBatched() {
+      int numKeys = 50;
+      MagicKey[] keys = new MagicKey[numKeys];
+      for (int i = 0; i < numKeys; i++) {
+         keys[i] = new MagicKey("sweep-" + i, cache0, cache1);
+         cache0.put(keys[i], keys[i].toString(), 10, TimeUnit.MINUTES);
+      }
+      CountingRpcManager rpcManager = CountingRpcManager.replaceRpcManager(cache0);
+      ts0.advance(TimeUnit.MINUTES.toMillis(10) + 1);
+      cache0.getAdvancedCache().getExpirationManager().processExpiration();
+
+      // The entries haven't expired on the other nodes, so they can only be removed by the primary owner
+      eventually(() -> {
+         for (MagicKey key : keys) {
+            if (cache1.getAdvancedCache().getDataContainer().peek(key) != null) {
+               return false;
+            }
+         }
+         return true;
+      }, 10, TimeUnit.SECONDS);
+      // A single command per backup owner
+      assertEquals(numOwners() - 1, rpcManager.otherCount);
+   }
+
+   private int numOwners() {
+      return cache0.getCacheConfiguration().clustering().cacheMode().isReplicated() ? 3 :
+            cache0.getCacheConfiguration().clustering().hash().numOwners();
+   }
 }
@@ -1,6 +1,7 @@
 package org.infinispan.expiration.impl;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.test.SingleCacheManagerTest;
 import org.infinispan.test.TestingUtil;
@@ -54,4 +55,49 @@ public void testSimpleExpirationMaxIdle() throws Exception {
       timeService.advance(2);
       assertEquals(0, cache.size());
    }
+
+   public void testDataContainerSizeEstimate() throws Exception {
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("key-" + i, "value-" + i, 10, TimeUnit.SECONDS);
+      }
+      cache.put("immortal", "value");
+      assertEquals(SIZE + 1, dataContainer.size());
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(12));
+      assertEquals(1, dataContainer.size());
+      assertEquals(1, dataContainer.sizeExact());
+      assertEquals(SIZE + 1, dataContainer.sizeIncludingExpired());
+
+      // Removing the expired entries on access doesn't make them count twice
+      for (int i = 0; i < SIZE / 2; i++) {
+         assertNull(cache.get("key-" + i));
+      }
+      assertEquals(1, dataContainer.size());
+
+      cache.getAdvancedCache().getExpirationManager().processExpiration();
+      assertEquals(1, dataContainer.size());
+      assertEquals(1, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testDataContainerSizeAfterOverwrite() throws Exception {
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      cache.put("refreshed", "value", 10, TimeUnit.SECONDS);
+      cache.put("immortal", "value", 10, TimeUnit.SECONDS);
+      cache.put("removed", "value", 10, TimeUnit.SECONDS);
+      timeService.advance(TimeUnit.SECONDS.toMillis(5));
+
+      // The old expiration times must no longer be counted
+      cache.put("refreshed", "value2", 10, TimeUnit.SECONDS);
+      cache.put("immortal", "value2");
+      cache.remove("removed");
+      assertEquals(2, dataContainer.size());
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(7));
+      assertEquals(2, dataContainer.size());
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(5));
+      assertEquals(1, dataContainer.size());
+      assertEquals(1, dataContainer.sizeExact());
+   }
 }
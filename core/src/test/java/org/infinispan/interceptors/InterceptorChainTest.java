@@ -9,6 +9,12 @@
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.tx.VersionedPrepareCommand;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.InvalidateL1Command;
+import org.infinispan.context.InvocationContext;
 import org.infinispan.factories.components.ComponentMetadataRepo;
 import org.infinispan.factories.components.ModuleMetadataFileFinder;
 import org.infinispan.interceptors.base.CommandInterceptor;
@@ -16,6 +22,8 @@
 import org.infinispan.util.logging.LogFactory;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertSame;
+
 /**
  * Tests {@link InterceptorChain} logic
  *
@@ -60,6 +68,46 @@ public void testConcurrentAddRemove() throws Exception {
       assert ic.asList().size() == 5 : "Resulting interceptor chain was actually " + ic.asList();
    }
 
+   public void testCommandChains() {
+      ComponentMetadataRepo componentMetadataRepo = new ComponentMetadataRepo();
+      componentMetadataRepo.initialize(Collections.<ModuleMetadataFileFinder>emptyList(), InterceptorChainTest.class.getClassLoader());
+      InterceptorChain ic = new InterceptorChain(componentMetadataRepo);
+      CallInterceptor call = new CallInterceptor();
+      IsMarshallableInterceptor isMarshallable = new IsMarshallableInterceptor();
+      NotificationInterceptor notification = new NotificationInterceptor();
+      CacheMgmtInterceptor cacheMgmt = new CacheMgmtInterceptor();
+      CommandInterceptor invalidation = new CommandInterceptor() {
+         @Override
+         public Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand command) throws Throwable {
+            return invokeNextInterceptor(ctx, command);
+         }
+      };
+      ic.setFirstInChain(call);
+      ic.addInterceptor(isMarshallable, 0);
+      ic.addInterceptor(invalidation, 0);
+      ic.addInterceptor(notification, 0);
+      ic.addInterceptor(cacheMgmt, 0);
+
+      // the statistics are always kept
+      assertSame(ic.getFirstInChain(GetKeyValueCommand.class), cacheMgmt);
+      assertSame(cacheMgmt.getNext(GetKeyValueCommand.class), isMarshallable);
+      assertSame(isMarshallable.getNext(GetKeyValueCommand.class), call);
+      assertSame(cacheMgmt.getNext(PrepareCommand.class), notification);
+      assertSame(notification.getNext(PrepareCommand.class), call);
+      assertSame(notification.getNext(InvalidateL1Command.class), invalidation);
+      // InvalidateCommand extends RemoveCommand
+      assertSame(invalidation.getNext(InvalidateL1Command.class), isMarshallable);
+      assertSame(isMarshallable.getNext(InvalidateL1Command.class), call);
+      // the subclasses of the command classes go through the whole chain
+      assertSame(cacheMgmt.getNext(VersionedPrepareCommand.class), notification);
+      assertSame(notification.getNext(VersionedPrepareCommand.class), invalidation);
+
+      ic.removeInterceptor(CacheMgmtInterceptor.class);
+      assertSame(ic.getFirstInChain(GetKeyValueCommand.class), isMarshallable);
+      assertSame(ic.getFirstInChain(PrepareCommand.class), notification);
+      assertSame(ic.getFirstInChain(InvalidateCommand.class), invalidation);
+   }
+
    private static class InterceptorChainUpdater implements Callable<Void> {
       private final InterceptorChain ic;
       private final CyclicBarrier barrier;
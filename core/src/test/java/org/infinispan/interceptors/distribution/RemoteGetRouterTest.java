@@ -0,0 +1,99 @@
+package org.infinispan.interceptors.distribution;
+
+import org.infinispan.configuration.cache.RemoteGetRouting;
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.distribution.TestTopologyAwareAddress;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests the order in which the {@link RemoteGetRouter} asks the owners of a key.
+ *
+ * @since 8.0
+ */
+@Test(groups = "unit", testName = "interceptors.distribution.RemoteGetRouterTest")
+public class RemoteGetRouterTest extends AbstractInfinispanTest {
+
+   private final Address self = new TestAddress(0);
+   private final Address primary = new TestAddress(1);
+   private final Address backup1 = new TestAddress(2);
+   private final Address backup2 = new TestAddress(3);
+   private final List<Address> owners = Arrays.asList(primary, backup1, backup2);
+
+   public void testPrimaryOwner() {
+      for (RemoteGetRouting routing : Arrays.asList(RemoteGetRouting.ALL_OWNERS, RemoteGetRouting.PRIMARY_OWNER)) {
+         assertEquals(new RemoteGetRouter(routing).route(owners, self), owners);
+      }
+   }
+
+   public void testRandomOwner() {
+      RemoteGetRouter router = new RemoteGetRouter(RemoteGetRouting.RANDOM_OWNER);
+      Set<Address> firstOwners = new HashSet<>();
+      for (int i = 0; i < 1000; i++) {
+         List<Address> targets = router.route(owners, self);
+         assertEquals(new HashSet<>(targets), new HashSet<>(owners));
+         firstOwners.add(targets.get(0));
+      }
+      assertEquals(firstOwners, new HashSet<>(owners));
+   }
+
+   public void testLeastLatency() {
+      RemoteGetRouter router = new RemoteGetRouter(RemoteGetRouting.LEAST_LATENCY);
+      router.recordResponseTime(primary, 3000);
+      router.recordResponseTime(backup1, 1000);
+      //backup2 has no response time yet, so it is asked first
+      assertEquals(router.route(owners, self), Arrays.asList(backup2, backup1, primary));
+
+      router.recordResponseTime(backup2, 2000);
+      assertEquals(router.route(owners, self), Arrays.asList(backup1, backup2, primary));
+
+      //the average moves slowly towards the new response times
+      for (int i = 0; i < 20; i++) {
+         router.recordResponseTime(primary, 100);
+      }
+      assertEquals(router.route(owners, self), Arrays.asList(primary, backup1, backup2));
+
+      router.retainMembers(Arrays.asList(self, backup1, backup2));
+      assertEquals(router.route(owners, self), Arrays.asList(primary, backup1, backup2));
+      //a late response from a node that left is not recorded
+      router.recordResponseTime(primary, 5000);
+      assertEquals(router.route(owners, self), Arrays.asList(primary, backup1, backup2));
+
+      router.retainMembers(Arrays.asList(self, primary, backup1, backup2));
+      router.recordResponseTime(primary, 5000);
+      assertEquals(router.route(owners, self), Arrays.asList(backup1, backup2, primary));
+   }
+
+   public void testNearestOwner() {
+      TestTopologyAwareAddress self = new TestTopologyAwareAddress(0, "s1", "r1", "m1");
+      Address otherSite = new TestTopologyAwareAddress(1, "s2", "r1", "m1");
+      Address sameSite = new TestTopologyAwareAddress(2, "s1", "r2", "m2");
+      Address sameRack = new TestTopologyAwareAddress(3, "s1", "r1", "m2");
+      Address sameMachine = new TestTopologyAwareAddress(4, "s1", "r1", "m1");
+      RemoteGetRouter router = new RemoteGetRouter(RemoteGetRouting.NEAREST_OWNER);
+
+      assertEquals(router.route(Arrays.asList(otherSite, sameSite, sameRack, sameMachine), self),
+                   Arrays.asList(sameMachine, sameRack, sameSite, otherSite));
+      //the same distance keeps the consistent hash order
+      assertEquals(router.route(Arrays.asList(sameRack, otherSite, sameRack), self),
+                   Arrays.asList(sameRack, sameRack, otherSite));
+      //without topology information, the primary owner first
+      assertEquals(router.route(owners, this.self), owners);
+   }
+
+   public void testSingleOwner() {
+      for (RemoteGetRouting routing : RemoteGetRouting.values()) {
+         assertEquals(new RemoteGetRouter(routing).route(Collections.singletonList(primary), self),
+                      Collections.singletonList(primary));
+      }
+   }
+}
@@ -7,14 +7,22 @@
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.transaction.lookup.DummyTransactionManagerLookup;
 import org.infinispan.transaction.tm.DummyTransactionManager;
+import org.infinispan.util.concurrent.locks.impl.DefaultLockManager;
+import org.infinispan.util.concurrent.locks.impl.LockStatistics;
 import org.testng.annotations.Test;
 
+import javax.management.Attribute;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import javax.transaction.TransactionManager;
 
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import static org.infinispan.test.TestingUtil.checkMBeanOperationParameterNaming;
 import static org.infinispan.test.TestingUtil.getCacheObjectName;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
 
 /**
  * Test the JMX functionality in {@link org.infinispan.util.concurrent.locks.LockManager}.
@@ -84,6 +92,41 @@ public void testNumberOfLocksAvailable() throws Exception {
       assertAttributeValue("NumberOfLocksHeld", 0);
    }
 
+   public void testLockTimes() throws Exception {
+      DummyTransactionManager tm = (DummyTransactionManager) TestingUtil.extractComponent(cache, TransactionManager.class);
+      threadMBeanServer.invoke(lockManagerObjName, "resetLockTimes", new Object[0], new String[0]);
+      tm.begin();
+      cache.put("key", "value");
+      tm.getTransaction().runPrepare();
+      tm.getTransaction().runCommit(false);
+
+      Map<?, ?> holdTimes = (Map<?, ?>) threadMBeanServer.getAttribute(lockManagerObjName, "LockHoldingTimeHistogram");
+      assertEquals(1, holdTimes.size());
+      assertTrue(holdTimes.get("PrepareCommand (local)").toString().startsWith("count=1,"));
+      assertEquals(TimeUnit.NANOSECONDS.toMillis(lockStatistics().getHoldTime().mean()),
+                   threadMBeanServer.getAttribute(lockManagerObjName, "AverageLockHoldingTime"));
+      assertTrue(lockStatistics().getHoldTime().mean() > 0);
+   }
+
+   public void testLockTimesDisabled() throws Exception {
+      DummyTransactionManager tm = (DummyTransactionManager) TestingUtil.extractComponent(cache, TransactionManager.class);
+      threadMBeanServer.invoke(lockManagerObjName, "resetLockTimes", new Object[0], new String[0]);
+      threadMBeanServer.setAttribute(lockManagerObjName, new Attribute("StatisticsEnabled", false));
+      try {
+         tm.begin();
+         cache.put("key", "value");
+         tm.getTransaction().runPrepare();
+         tm.getTransaction().runCommit(false);
+         assertEquals(0, lockStatistics().getHoldTime().count());
+      } finally {
+         threadMBeanServer.setAttribute(lockManagerObjName, new Attribute("StatisticsEnabled", true));
+      }
+   }
+
+   private LockStatistics lockStatistics() {
+      return ((DefaultLockManager) TestingUtil.extractLockManager(cache)).getLockStatistics();
+   }
+
    private void assertAttributeValue(String attrName, int expectedVal) throws Exception {
       int cl = getAttrValue(attrName);
       assert cl == expectedVal : "expected " + expectedVal + ", but received " + cl;
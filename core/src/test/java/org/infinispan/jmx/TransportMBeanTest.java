@@ -0,0 +1,133 @@
+package org.infinispan.jmx;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.TransportFlags;
+import org.testng.annotations.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+
+import static org.infinispan.test.TestingUtil.checkMBeanOperationParameterNaming;
+import static org.infinispan.test.TestingUtil.getCacheManagerObjectName;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the remote invocation statistics exposed by the transport.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "jmx.TransportMBeanTest")
+public class TransportMBeanTest extends MultipleCacheManagersTest {
+
+   private static final String JMX_DOMAIN = TransportMBeanTest.class.getSimpleName();
+   private static final String JMX_DOMAIN2 = JMX_DOMAIN + "2";
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      for (int i = 0; i < 2; i++) {
+         GlobalConfigurationBuilder gcb = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         gcb.globalJmxStatistics()
+               .enable()
+               .allowDuplicateDomains(true)
+               .jmxDomain(JMX_DOMAIN)
+               .mBeanServerLookup(new PerThreadMBeanServerLookup());
+         ConfigurationBuilder builder = new ConfigurationBuilder();
+         builder.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(1).l1().disable();
+         EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createClusteredCacheManager(gcb, builder,
+               new TransportFlags(), true);
+         cacheManager.start();
+         registerCacheManager(cacheManager);
+      }
+      waitForClusterToForm();
+   }
+
+   public void testJmxOperationMetadata() throws Exception {
+      checkMBeanOperationParameterNaming(getCacheManagerObjectName(JMX_DOMAIN, "DefaultCacheManager", "Transport"));
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testRpcStatistics() throws Exception {
+      MBeanServer mBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      ObjectName transport1 = getCacheManagerObjectName(JMX_DOMAIN, "DefaultCacheManager", "Transport");
+      ObjectName transport2 = getCacheManagerObjectName(JMX_DOMAIN2, "DefaultCacheManager", "Transport");
+      assertTrue(mBeanServer.isRegistered(transport1));
+      assertTrue(mBeanServer.isRegistered(transport2));
+      mBeanServer.invoke(transport1, "resetRpcStatistics", new Object[0], new String[0]);
+      mBeanServer.invoke(transport2, "resetRpcStatistics", new Object[0], new String[0]);
+
+      Cache<Object, Object> cache1 = cache(0);
+      MagicKey key = new MagicKey(cache(1));
+      cache1.put(key, "value");
+      assertEquals(cache1.get(key), "value");
+
+      String put = PutKeyValueCommand.class.getSimpleName();
+      String get = ClusteredGetCommand.class.getSimpleName();
+      String toCache2 = " -> " + address(1);
+      Map<String, String> latency = (Map<String, String>) mBeanServer.getAttribute(transport1, "RpcLatencyHistogram");
+      assertTrue(latency.get(put + toCache2).startsWith("count=1,"), String.valueOf(latency));
+      assertTrue(latency.get(get + toCache2).startsWith("count=1,"), String.valueOf(latency));
+      assertTrue((Long) mBeanServer.getAttribute(transport1, "AverageRpcLatency") > 0);
+      assertTrue((Long) mBeanServer.getAttribute(transport1, "RpcLatency99thPercentile") > 0);
+
+      Map<String, Long> inFlight = (Map<String, Long>) mBeanServer.getAttribute(transport1, "RpcsInFlight");
+      assertEquals(inFlight.get(get), Long.valueOf(0));
+      assertEquals(inFlight.get(get + toCache2), Long.valueOf(0));
+
+      Map<String, String> requestSizes = (Map<String, String>) mBeanServer.getAttribute(transport1, "RpcRequestSizeHistogram");
+      assertTrue(requestSizes.get(get).startsWith("count=1,"), String.valueOf(requestSizes));
+      assertTrue(requestSizes.get(get).endsWith("(bytes)"), String.valueOf(requestSizes));
+      //the responses are recorded by the node that sends them
+      Map<String, String> responseSizes = (Map<String, String>) mBeanServer.getAttribute(transport2, "RpcResponseSizeHistogram");
+      assertTrue(responseSizes.get(get).startsWith("count=1,"), String.valueOf(responseSizes));
+      assertFalse(((Map<String, String>) mBeanServer.getAttribute(transport1, "RpcResponseSizeHistogram")).containsKey(get));
+
+      mBeanServer.invoke(transport1, "resetRpcStatistics", new Object[0], new String[0]);
+      latency = (Map<String, String>) mBeanServer.getAttribute(transport1, "RpcLatencyHistogram");
+      assertTrue(latency.get(get + toCache2).startsWith("count=0,"), String.valueOf(latency));
+      assertEquals(mBeanServer.getAttribute(transport1, "AverageRpcLatency"), 0L);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testRpcStatisticsDisabled() throws Exception {
+      MBeanServer mBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      ObjectName transport1 = getCacheManagerObjectName(JMX_DOMAIN, "DefaultCacheManager", "Transport");
+      ObjectName transport2 = getCacheManagerObjectName(JMX_DOMAIN2, "DefaultCacheManager", "Transport");
+      assertEquals(mBeanServer.getAttribute(transport1, "StatisticsEnabled"), true);
+      mBeanServer.setAttribute(transport1, new Attribute("StatisticsEnabled", false));
+      mBeanServer.setAttribute(transport2, new Attribute("StatisticsEnabled", false));
+      try {
+         mBeanServer.invoke(transport1, "resetRpcStatistics", new Object[0], new String[0]);
+         mBeanServer.invoke(transport2, "resetRpcStatistics", new Object[0], new String[0]);
+
+         Cache<Object, Object> cache1 = cache(0);
+         MagicKey key = new MagicKey(cache(1));
+         cache1.put(key, "value");
+         assertEquals(cache1.get(key), "value");
+
+         String get = ClusteredGetCommand.class.getSimpleName();
+         Map<String, String> latency = (Map<String, String>) mBeanServer.getAttribute(transport1, "RpcLatencyHistogram");
+         assertFalse(latency.containsKey(get), String.valueOf(latency));
+         assertEquals(mBeanServer.getAttribute(transport1, "AverageRpcLatency"), 0L);
+         Map<String, String> requestSizes = (Map<String, String>) mBeanServer.getAttribute(transport1, "RpcRequestSizeHistogram");
+         assertFalse(requestSizes.containsKey(get), String.valueOf(requestSizes));
+         Map<String, String> responseSizes = (Map<String, String>) mBeanServer.getAttribute(transport2, "RpcResponseSizeHistogram");
+         assertFalse(responseSizes.containsKey(get), String.valueOf(responseSizes));
+      } finally {
+         mBeanServer.setAttribute(transport1, new Attribute("StatisticsEnabled", true));
+         mBeanServer.setAttribute(transport2, new Attribute("StatisticsEnabled", true));
+      }
+   }
+}
@@ -24,7 +24,9 @@
 
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotSame;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
 import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
@@ -224,6 +226,71 @@ public void testCancel() throws InterruptedException {
       assertFalse(lock.isLocked());
    }
 
+   public void testUncontendedAcquire() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      final ExtendedLockPromise lockPromise1 = lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS);
+      assertTrue(lockPromise1.isAvailable());
+      assertEquals(lockOwner1, lock.getLockOwner());
+      assertTrue(lock.containsLockOwner(lockOwner1));
+      assertSame(lockPromise1, lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS));
+
+      final List<LockState> events = new ArrayList<>();
+      lockPromise1.addListener(events::add);
+      assertEquals(1, events.size());
+      assertEquals(LockState.ACQUIRED, events.get(0));
+      lockPromise1.lock();
+
+      final ExtendedLockPromise lockPromise2 = lock.acquire(lockOwner2, 1, TimeUnit.DAYS);
+      lockPromise2.addListener(events::add);
+      assertFalse(lockPromise2.isAvailable());
+      assertEquals(1, events.size());
+
+      lock.release(lockOwner1);
+      assertFalse(lock.containsLockOwner(lockOwner1));
+      assertTrue(lockPromise2.isAvailable());
+      assertEquals(2, events.size());
+      assertEquals(LockState.ACQUIRED, events.get(1));
+      lockPromise2.lock();
+      assertEquals(lockOwner2, lock.getLockOwner());
+
+      lock.release(lockOwner2);
+      assertNull(lock.getLockOwner());
+      assertFalse(lock.isLocked());
+   }
+
+   public void testLockOwnerFoundBeforeAndAfterContention() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      //acquired while nobody else wanted the lock, so it is only known as the current lock owner
+      final ExtendedLockPromise lockPromise1 = lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS);
+      lockPromise1.lock();
+      final ExtendedLockPromise lockPromise2 = lock.acquire(lockOwner2, 1, TimeUnit.DAYS);
+      assertTrue(lock.isWaiting(lockOwner2));
+      assertFalse(lock.isWaiting(lockOwner1));
+      assertSame(lockPromise1, lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS));
+      assertSame(lockPromise2, lock.acquire(lockOwner2, 0, TimeUnit.MILLISECONDS));
+
+      lock.release(lockOwner1);
+      assertFalse(lock.containsLockOwner(lockOwner1));
+      lockPromise2.lock();
+
+      //a new request of the first lock owner is queued, not confused with the released one
+      final ExtendedLockPromise lockPromise3 = lock.acquire(lockOwner1, 1, TimeUnit.DAYS);
+      assertNotSame(lockPromise1, lockPromise3);
+      assertTrue(lock.isWaiting(lockOwner1));
+      lock.release(lockOwner2);
+      lockPromise3.lock();
+      assertEquals(lockOwner1, lock.getLockOwner());
+      lock.release(lockOwner1);
+      assertFalse(lock.isLocked());
+      assertFalse(lock.containsLockOwner(lockOwner1));
+   }
+
    public void testSingleCounter() throws ExecutionException, InterruptedException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final InfinispanLock counterLock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
@@ -3,6 +3,7 @@
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.test.AbstractCacheTest;
 import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.impl.InfinispanLock;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
 import org.infinispan.util.concurrent.locks.LockPromise;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
@@ -56,6 +57,31 @@ public void testSingleCounterWithStriped() throws ExecutionException, Interrupte
       doSingleCounterTest(lockContainer, 16);
    }
 
+   public void testUnusedLockReusedPerEntry() throws InterruptedException {
+      //a single segment, so all the keys share the same slot of unused locks
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer(1, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+
+      lockContainer.acquire("k1", "LO1", 0, TimeUnit.MILLISECONDS).lock();
+      InfinispanLock lock1 = lockContainer.getLock("k1");
+      lockContainer.acquire("k2", "LO2", 0, TimeUnit.MILLISECONDS).lock();
+      AssertJUnit.assertNotSame(lock1, lockContainer.getLock("k2"));
+
+      lockContainer.release("k1", "LO1");
+      AssertJUnit.assertEquals(1, lockContainer.size());
+      LockPromise promise3 = lockContainer.acquire("k3", "LO3", 0, TimeUnit.MILLISECONDS);
+      AssertJUnit.assertSame(lock1, lockContainer.getLock("k3"));
+      promise3.lock();
+      AssertJUnit.assertEquals("LO3", lockContainer.getLock("k3").getLockOwner());
+      AssertJUnit.assertFalse(lockContainer.getLock("k3").containsLockOwner("LO1"));
+      AssertJUnit.assertEquals(2, lockContainer.getNumLocksHeld());
+
+      lockContainer.release("k2", "LO2");
+      lockContainer.release("k3", "LO3");
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+      AssertJUnit.assertEquals(0, lockContainer.size());
+   }
+
    private void doSingleCounterTest(LockContainer lockContainer, int poolSize) throws InterruptedException, ExecutionException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final String key = "key";
@@ -83,6 +83,54 @@ public void testTimeoutStripped() throws ExecutionException, InterruptedExceptio
       doTestWithFailAcquisition(lockManager);
    }
 
+   public void testLockAllQueueOrderPerKey() throws InterruptedException {
+      DefaultLockManager lockManager = new DefaultLockManager();
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      lockManager.inject(lockContainer, null, null);
+      doLockAllQueueOrderTest(lockManager);
+   }
+
+   public void testLockAllQueueOrderStripped() throws InterruptedException {
+      DefaultLockManager lockManager = new DefaultLockManager();
+      StripedLockContainer lockContainer = new StripedLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      lockManager.inject(lockContainer, null, null);
+      doLockAllQueueOrderTest(lockManager);
+   }
+
+   private void doLockAllQueueOrderTest(LockManager lockManager) throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+      final String lockOwner3 = "LO3";
+
+      LockPromise lockPromise1 = lockManager.lockAll(Arrays.asList("k1", "k2", "k3"), lockOwner1, 1, TimeUnit.MINUTES);
+      LockPromise lockPromise2 = lockManager.lockAll(Arrays.asList("k4", "k3", "k2", "k1"), lockOwner2, 1, TimeUnit.MINUTES);
+      LockPromise lockPromise3 = lockManager.lockAll(Arrays.asList("k1", "k4"), lockOwner3, 1, TimeUnit.MINUTES);
+
+      AssertJUnit.assertTrue(lockPromise1.isAvailable());
+      AssertJUnit.assertFalse(lockPromise2.isAvailable());
+      AssertJUnit.assertFalse(lockPromise3.isAvailable());
+      lockPromise1.lock();
+
+      //lock owners are queued in the order they invoked lockAll(), in every key
+      lockManager.unlockAll(Arrays.asList("k1", "k2", "k3"), lockOwner1);
+      AssertJUnit.assertTrue(lockPromise2.isAvailable());
+      AssertJUnit.assertFalse(lockPromise3.isAvailable());
+      lockPromise2.lock();
+      AssertJUnit.assertTrue(lockManager.ownsLock("k1", lockOwner2));
+      AssertJUnit.assertTrue(lockManager.ownsLock("k4", lockOwner2));
+
+      lockManager.unlockAll(Arrays.asList("k1", "k2", "k3", "k4"), lockOwner2);
+      AssertJUnit.assertTrue(lockPromise3.isAvailable());
+      lockPromise3.lock();
+      AssertJUnit.assertTrue(lockManager.ownsLock("k1", lockOwner3));
+      AssertJUnit.assertTrue(lockManager.ownsLock("k4", lockOwner3));
+
+      lockManager.unlockAll(Arrays.asList("k1", "k4"), lockOwner3);
+      AssertJUnit.assertEquals(0, lockManager.getNumberOfLocksHeld());
+   }
+
    private void doSingleCounterTest(LockManager lockManager) throws ExecutionException, InterruptedException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final String key = "key";
@@ -0,0 +1,128 @@
+package org.infinispan.lock;
+
+import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.stats.impl.LatencyHistogram;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.concurrent.locks.KeyAwareLockPromise;
+import org.infinispan.util.concurrent.locks.impl.DefaultLockManager;
+import org.infinispan.util.concurrent.locks.impl.LockStatistics;
+import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the lock waiting and holding times recorded by the {@link DefaultLockManager}.
+ *
+ * @since 8.0
+ */
+@Test(groups = "unit", testName = "lock.LockStatisticsTest")
+public class LockStatisticsTest {
+
+   private ControlledTimeService timeService;
+   private DefaultLockManager lockManager;
+
+   @BeforeMethod
+   public void setUp() {
+      timeService = new ControlledTimeService(0);
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(timeService);
+      lockManager = new DefaultLockManager();
+      lockManager.inject(lockContainer, null, null);
+      lockManager.setStatisticsEnabled(true);
+   }
+
+   public void testDisabled() throws InterruptedException {
+      lockManager.setStatisticsEnabled(false);
+      lockManager.lock("k", "o1", 1, TimeUnit.MINUTES, PutKeyValueCommand.class, false).lock();
+      timeService.advance(5);
+      lockManager.unlock("k", "o1");
+
+      LockStatistics statistics = lockManager.getLockStatistics();
+      assertEquals(0, statistics.getWaitTime().count());
+      assertEquals(0, statistics.getHoldTime().count());
+      assertTrue(lockManager.getLockHoldingTimeHistogram().isEmpty());
+   }
+
+   public void testUncontended() throws InterruptedException {
+      lockManager.lock("k", "o1", 1, TimeUnit.MINUTES, PutKeyValueCommand.class, false).lock();
+      timeService.advance(5);
+      lockManager.unlock("k", "o1");
+
+      LockStatistics statistics = lockManager.getLockStatistics();
+      assertEquals(1, statistics.getWaitTime().count());
+      assertEquals(0, statistics.getWaitTime().max());
+      assertEquals(1, statistics.getHoldTime().count());
+      assertEquals(timeService.time(), statistics.getHoldTime().max());
+      assertEquals(Arrays.asList("PutKeyValueCommand (local)"),
+                   Arrays.asList(lockManager.getLockHoldingTimeHistogram().keySet().toArray()));
+   }
+
+   public void testContended() throws InterruptedException {
+      lockManager.lock("k", "o1", 1, TimeUnit.MINUTES, LockControlCommand.class, true).lock();
+      KeyAwareLockPromise promise = lockManager.lockAll(Arrays.asList("k", "k2"), "o2", 1, TimeUnit.MINUTES,
+                                                        PrepareCommand.class, true);
+      assertFalse(promise.isAvailable());
+      long start = timeService.time();
+      timeService.advance(10);
+      lockManager.unlock("k", "o1");
+      promise.lock();
+
+      LockStatistics statistics = lockManager.getLockStatistics();
+      assertEquals(3, statistics.getWaitTime().count());
+      assertEquals(timeService.time() - start, statistics.getWaitTime().max());
+      assertEquals(1, statistics.getHoldTime().count());
+
+      Map<String, String> waitTimes = lockManager.getLockWaitingTimeHistogram();
+      assertEquals(2, waitTimes.size());
+      assertTrue(waitTimes.get("PrepareCommand (remote)").startsWith("count=2,"));
+      assertTrue(waitTimes.get("LockControlCommand (remote)").startsWith("count=1,"));
+      lockManager.unlockAll(Arrays.asList("k", "k2"), "o2");
+      assertEquals(3, statistics.getHoldTime().count());
+   }
+
+   public void testTimedOut() throws InterruptedException {
+      lockManager.lock("k", "o1", 1, TimeUnit.MINUTES);
+      KeyAwareLockPromise promise = lockManager.lock("k", "o2", 10, TimeUnit.MILLISECONDS, PutKeyValueCommand.class,
+                                                     false);
+      assertFalse(promise.isAvailable());
+      //the controlled time service counts microseconds
+      timeService.advance(10000);
+      assertTrue(promise.isAvailable());
+
+      LockStatistics statistics = lockManager.getLockStatistics();
+      assertEquals(2, statistics.getWaitTime().count());
+      assertEquals(timeService.time(), statistics.getWaitTime().max());
+      assertEquals(0, statistics.getHoldTime().count());
+      assertTrue(lockManager.getLockWaitingTimeHistogram().containsKey("Unknown (local)"));
+
+      lockManager.resetLockTimes();
+      assertEquals(0, statistics.getWaitTime().count());
+      assertEquals(0, statistics.getWaitTime().max());
+   }
+
+   public void testHistogram() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      assertEquals(0, histogram.percentile(99));
+      for (int i = 1; i <= 1000; i++) {
+         histogram.record(i);
+      }
+      assertEquals(1000, histogram.count());
+      assertEquals(500, histogram.mean());
+      assertEquals(1000, histogram.max());
+      //500 falls in [256, 512) and 990 in [512, 1024), capped by the maximum
+      assertEquals(511, histogram.percentile(50));
+      assertEquals(1000, histogram.percentile(99));
+      assertEquals(1, histogram.percentile(0));
+   }
+}
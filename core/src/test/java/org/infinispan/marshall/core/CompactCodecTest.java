@@ -0,0 +1,148 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ValueMatcher;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.AbstractDelegatingMarshaller;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheValue;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.MortalCacheValue;
+import org.infinispan.container.entries.TransientMortalCacheValue;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.responses.UnsureResponse;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.data.Person;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that the global marshaller writes the hot internal types with the {@link CompactCodec}, and the other types
+ * with JBoss Marshalling.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "marshall.core.CompactCodecTest")
+public class CompactCodecTest extends AbstractInfinispanTest {
+
+   private static final String CACHE_NAME = EmbeddedCacheManager.DEFAULT_CACHE_NAME;
+
+   private EmbeddedCacheManager cm;
+   private AbstractDelegatingMarshaller marshaller;
+
+   @BeforeClass
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      cm = TestCacheManagerFactory.createClusteredCacheManager(builder);
+      cm.getCache();
+      marshaller = TestingUtil.extractGlobalMarshaller(cm);
+   }
+
+   @AfterClass
+   public void tearDown() {
+      TestingUtil.killCacheManagers(cm);
+   }
+
+   public void testWriteCommands() throws Exception {
+      Metadata metadata = new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MINUTES).build();
+      PutKeyValueCommand put = new PutKeyValueCommand("kéy", new byte[]{1, 2, 3}, false, null, metadata,
+            EnumSet.of(Flag.SKIP_CACHE_LOAD, Flag.IGNORE_RETURN_VALUES), AnyEquivalence.getInstance(),
+            CommandInvocationId.generateId(cm.getAddress()));
+      put.setValueMatcher(ValueMatcher.MATCH_EXPECTED);
+      put.setTopologyId(7);
+
+      SingleRpcCommand read = (SingleRpcCommand) assertEncoded(new SingleRpcCommand(CACHE_NAME, put));
+      assertEquals(read.getCacheName(), CACHE_NAME);
+      PutKeyValueCommand readPut = (PutKeyValueCommand) read.getCommand();
+      assertEquals(readPut.getKey(), "kéy");
+      assertTrue(Arrays.equals((byte[]) readPut.getValue(), new byte[]{1, 2, 3}));
+      assertEquals(readPut.getMetadata(), metadata);
+      assertEquals(readPut.getFlags(), put.getFlags());
+      assertEquals(readPut.getValueMatcher(), ValueMatcher.MATCH_EXPECTED);
+      assertEquals(readPut.getTopologyId(), 7);
+      assertEquals(readPut.getParameters()[6], put.getParameters()[6]);
+
+      RemoveCommand remove = new RemoveCommand(42, 1L, null, null, AnyEquivalence.getInstance(),
+                                               CommandInvocationId.generateId(cm.getAddress()));
+      RemoveCommand readRemove = (RemoveCommand) ((SingleRpcCommand) assertEncoded(
+            new SingleRpcCommand(CACHE_NAME, remove))).getCommand();
+      assertTrue(Arrays.equals(readRemove.getParameters(), remove.getParameters()));
+   }
+
+   public void testRemoteGets() throws Exception {
+      ClusteredGetCommand get = new ClusteredGetCommand("key", CACHE_NAME, EnumSet.of(Flag.SKIP_CACHE_LOAD), false,
+                                                        null, AnyEquivalence.getInstance());
+      ClusteredGetCommand readGet = (ClusteredGetCommand) assertEncoded(get);
+      assertEquals(readGet.getKey(), "key");
+      assertTrue(Arrays.equals(readGet.getParameters(), get.getParameters()));
+
+      List<Object> keys = new ArrayList<>(Arrays.asList("a", 1, 2L));
+      ClusteredGetAllCommand getAll = new ClusteredGetAllCommand(CACHE_NAME, keys, null, null,
+                                                                 AnyEquivalence.getInstance());
+      assertEquals(((ClusteredGetAllCommand) assertEncoded(getAll)).getKeys(), keys);
+   }
+
+   public void testResponses() throws Exception {
+      long now = System.currentTimeMillis();
+      List<InternalCacheValue> values = new ArrayList<>();
+      values.add(new ImmortalCacheValue("v"));
+      values.add(new MortalCacheValue(1.5d, now, 1000));
+      values.add(new TransientMortalCacheValue('c', now, 1000, 500, now));
+      values.add(null);
+
+      SuccessfulResponse response = (SuccessfulResponse) assertEncoded(SuccessfulResponse.create(values));
+      assertEquals(response.getResponseValue(), values);
+      assertEquals(assertEncoded(SuccessfulResponse.SUCCESSFUL_EMPTY_RESPONSE),
+                   SuccessfulResponse.SUCCESSFUL_EMPTY_RESPONSE);
+      assertEquals(assertEncoded(UnsureResponse.INSTANCE), UnsureResponse.INSTANCE);
+   }
+
+   public void testUserTypesFallBack() throws Exception {
+      Person person = new Person("Bob");
+      PutKeyValueCommand put = new PutKeyValueCommand("key", person, false, null,
+            new EmbeddedMetadata.Builder().build(), null, AnyEquivalence.getInstance(),
+            CommandInvocationId.generateId(cm.getAddress()));
+      SingleRpcCommand read = (SingleRpcCommand) assertNotEncoded(new SingleRpcCommand(CACHE_NAME, put));
+      assertEquals(((PutKeyValueCommand) read.getCommand()).getValue(), person);
+
+      assertEquals(assertNotEncoded(SuccessfulResponse.create(new ImmortalCacheValue(person))),
+                   SuccessfulResponse.create(new ImmortalCacheValue(person)));
+   }
+
+   private Object assertEncoded(Object obj) throws Exception {
+      ByteBuffer buffer = marshaller.objectToBuffer(obj);
+      assertTrue(CompactCodec.isEncoded(buffer.getBuf(), buffer.getOffset(), buffer.getLength()));
+      return marshaller.objectFromByteBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+   }
+
+   private Object assertNotEncoded(Object obj) throws Exception {
+      ByteBuffer buffer = marshaller.objectToBuffer(obj);
+      assertFalse(CompactCodec.isEncoded(buffer.getBuf(), buffer.getOffset(), buffer.getLength()));
+      return marshaller.objectFromByteBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+   }
+}
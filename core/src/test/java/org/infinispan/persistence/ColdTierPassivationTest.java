@@ -0,0 +1,146 @@
+package org.infinispan.persistence;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that passivated entries are held in the compressed cold tier and only reach the store when it overflows.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "persistence.ColdTierPassivationTest")
+public class ColdTierPassivationTest extends SingleCacheManagerTest {
+
+   private static final int NUM_KEYS = 50;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(config(1024 * 1024));
+   }
+
+   private ConfigurationBuilder config(long coldTierSize) {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence().passivation(true).coldTierSize(coldTierSize)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class).fetchPersistentState(true);
+      return cfg;
+   }
+
+   public void testPassivatedEntriesStayInMemory() {
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstLoader(cache);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.put("k" + i, "value" + i);
+         cache.put("e" + i, "value" + i, 10, TimeUnit.MINUTES);
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.evict("k" + i);
+         cache.evict("e" + i);
+      }
+      assertEquals(0, cache.getAdvancedCache().getDataContainer().size());
+      assertTrue(store.isEmpty());
+      assertEquals(2 * NUM_KEYS, cache.size());
+
+      store.clearStats();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("value" + i, cache.get("k" + i));
+         assertEquals("value" + i, cache.get("e" + i));
+      }
+      // Activation went through the cold tier only
+      assertEquals(0, store.stats().get("load").intValue());
+      assertEquals(2 * NUM_KEYS, cache.getAdvancedCache().getDataContainer().size());
+
+      // Activated entries are no longer in the cold tier
+      cache.clear();
+      assertNull(cache.get("k0"));
+      assertEquals(0, cache.size());
+   }
+
+   public void testColdTierOverflowsToStore() {
+      cacheManager.defineConfiguration("small", config(4096).build());
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstLoader(cacheManager.getCache("small"));
+      Random random = new Random(7);
+      String[] values = new String[NUM_KEYS];
+      for (int i = 0; i < NUM_KEYS; i++) {
+         StringBuilder sb = new StringBuilder();
+         for (int j = 0; j < 256; j++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+         }
+         values[i] = sb.toString();
+         cacheManager.getCache("small").put(i, values[i]);
+         cacheManager.getCache("small").evict(i);
+      }
+      assertFalse(store.isEmpty());
+      assertTrue(store.size() < NUM_KEYS);
+      assertEquals(NUM_KEYS, cacheManager.getCache("small").size());
+
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals(values[i], cacheManager.getCache("small").get(i));
+      }
+      // Every entry was activated, either from the cold tier or from the store
+      assertTrue(store.isEmpty());
+   }
+
+   public void testColdTierFlushedOnStop() {
+      cacheManager.defineConfiguration("flush", config(1024 * 1024).build());
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstLoader(cacheManager.getCache("flush"));
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cacheManager.getCache("flush").put(i, "value" + i);
+      }
+      cacheManager.getCache("flush").evict(0);
+      assertTrue(store.isEmpty());
+
+      cacheManager.getCache("flush").stop();
+      assertEquals(NUM_KEYS, store.size());
+   }
+
+   public void testStateTransferProviderIncludesColdTier() {
+      cacheManager.defineConfiguration("st", config(1024 * 1024).build());
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstLoader(cacheManager.getCache("st"));
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cacheManager.getCache("st").put(i, "value" + i);
+         cacheManager.getCache("st").evict(i);
+      }
+
+      Set<Object> keys = new HashSet<>();
+      TestingUtil.extractComponent(cacheManager.getCache("st"), PersistenceManager.class).getStateTransferProvider()
+            .process(null, (me, taskContext) -> keys.add(me.getKey()), null, true, true);
+      assertEquals(NUM_KEYS, keys.size());
+      // The cold tier was iterated, not flushed
+      assertTrue(store.isEmpty());
+   }
+
+   public void testProcessStoppedInColdTierSkipsStores() {
+      cacheManager.defineConfiguration("stop", config(4096).build());
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstLoader(cacheManager.getCache("stop"));
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cacheManager.getCache("stop").put(i, new String(new char[256]).replace('\0', (char) ('a' + i % 26)) + i);
+         cacheManager.getCache("stop").evict(i);
+      }
+      assertFalse(store.isEmpty());
+      assertTrue(store.size() < NUM_KEYS);
+
+      Set<Object> keys = new HashSet<>();
+      TestingUtil.extractComponent(cacheManager.getCache("stop"), PersistenceManager.class)
+            .processOnAllStores(null, (me, taskContext) -> {
+               keys.add(me.getKey());
+               taskContext.stop();
+            }, true, true);
+      assertEquals(1, keys.size());
+   }
+}
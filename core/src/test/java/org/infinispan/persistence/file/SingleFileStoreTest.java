@@ -2,15 +2,24 @@
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static org.infinispan.test.TestingUtil.recursiveFileRemove;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 
 /**
  * Low level single-file cache store tests.
@@ -45,4 +54,36 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
       store.init(createContext(configurationBuilder.build()));
       return store;
    }
+
+   public void testProcessKeysAndMetadataOnly() throws Exception {
+      cl.write(marshalledEntry(internalCacheEntry("k1", "v1", -1)));
+      cl.write(marshalledEntry(internalCacheEntry("k2", "v2", 1000)));
+      cl.write(marshalledEntry(internalCacheEntry("k3", "v3", 3000)));
+      timeService.advance(2000);
+
+      Map<Object, MarshalledEntry> keysOnly = process(false, false);
+      assertEquals(keysOnly.keySet(), new HashSet<>(Arrays.asList("k1", "k3")));
+      for (MarshalledEntry entry : keysOnly.values()) {
+         assertNull(entry.getValue());
+         assertNull(entry.getMetadata());
+      }
+
+      Map<Object, MarshalledEntry> metadataOnly = process(false, true);
+      assertEquals(metadataOnly.keySet(), new HashSet<>(Arrays.asList("k1", "k3")));
+      assertNull(metadataOnly.get("k1").getValue());
+      assertNull(metadataOnly.get("k3").getValue());
+      assertEquals(metadataOnly.get("k3").getMetadata().lifespan(), 3000);
+
+      Map<Object, MarshalledEntry> entries = process(true, true);
+      assertEquals(entries.get("k1").getValue(), "v1");
+      assertEquals(entries.get("k3").getValue(), "v3");
+      assertEquals(entries.get("k3").getMetadata().lifespan(), 3000);
+   }
+
+   private Map<Object, MarshalledEntry> process(boolean fetchValue, boolean fetchMetadata) {
+      Map<Object, MarshalledEntry> entries = new ConcurrentHashMap<>();
+      cl.process(null, (marshalledEntry, taskContext) -> entries.put(marshalledEntry.getKey(), marshalledEntry),
+                 new WithinThreadExecutor(), fetchValue, fetchMetadata);
+      return entries;
+   }
 }
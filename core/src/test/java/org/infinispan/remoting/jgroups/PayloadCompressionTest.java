@@ -0,0 +1,121 @@
+package org.infinispan.remoting.jgroups;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.remoting.transport.jgroups.MarshallerAdapter;
+import org.infinispan.remoting.transport.jgroups.PayloadCompressor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.jgroups.util.Buffer;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the compression of the payloads above the transport's compression threshold.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "remoting.jgroups.PayloadCompressionTest")
+public class PayloadCompressionTest extends MultipleCacheManagersTest {
+
+   private static final int THRESHOLD = 1024;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      for (int i = 0; i < 2; i++) {
+         GlobalConfigurationBuilder gcb = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         gcb.transport().compressionThreshold(THRESHOLD);
+         addClusterEnabledCacheManager(gcb, getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false));
+      }
+      waitForClusterToForm();
+   }
+
+   public void testReplication() {
+      String largeValue = largeString();
+      cache(0).put("small", "value");
+      cache(0).put("large", largeValue);
+      assertEquals(cache(1).get("small"), "value");
+      assertEquals(cache(1).get("large"), largeValue);
+   }
+
+   public void testCompressedPayload() throws Exception {
+      StreamingMarshaller marshaller = TestingUtil.extractGlobalMarshaller(manager(0));
+      MarshallerAdapter adapter = new MarshallerAdapter(marshaller, new PayloadCompressor(THRESHOLD));
+      String largeValue = largeString();
+
+      Buffer small = adapter.objectToBuffer("value");
+      assertFalse(isCompressed(small));
+      assertEquals(adapter.objectFromBuffer(small.getBuf(), small.getOffset(), small.getLength()), "value");
+
+      Buffer large = adapter.objectToBuffer(largeValue);
+      assertTrue(isCompressed(large));
+      assertTrue(large.getLength() < largeValue.length() / 4, String.valueOf(large.getLength()));
+      assertEquals(adapter.objectFromBuffer(large.getBuf(), large.getOffset(), large.getLength()), largeValue);
+
+      //the nodes without a compressor read the compressed payloads as well
+      MarshallerAdapter uncompressed = new MarshallerAdapter(marshaller);
+      assertEquals(uncompressed.objectFromBuffer(large.getBuf(), large.getOffset(), large.getLength()), largeValue);
+      assertFalse(isCompressed(uncompressed.objectToBuffer(largeValue)));
+   }
+
+   public void testIncompressiblePayloadsSkipped() throws Exception {
+      MarshallerAdapter adapter = new MarshallerAdapter(TestingUtil.extractGlobalMarshaller(manager(0)),
+                                                        new PayloadCompressor(THRESHOLD));
+      byte[] random = new byte[THRESHOLD * 4];
+      new Random(0).nextBytes(random);
+      byte[] zeros = new byte[THRESHOLD * 4];
+
+      Buffer buffer = adapter.objectToBuffer(random);
+      assertFalse(isCompressed(buffer));
+      assertTrue(Arrays.equals((byte[]) adapter.objectFromBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength()),
+                               random));
+
+      //the next byte arrays are not sampled, even if they compress
+      int skipped = 0;
+      while (!isCompressed(adapter.objectToBuffer(zeros))) {
+         skipped++;
+         assertTrue(skipped < 100, "Byte arrays never compressed again");
+      }
+      assertTrue(skipped > 0);
+      //the other types are still sampled
+      assertTrue(isCompressed(adapter.objectToBuffer(largeString())));
+   }
+
+   public void testStop() throws Exception {
+      PayloadCompressor compressor = new PayloadCompressor(THRESHOLD);
+      MarshallerAdapter adapter = new MarshallerAdapter(TestingUtil.extractGlobalMarshaller(manager(0)), compressor);
+      String largeValue = largeString();
+      String otherLargeValue = largeValue.replace("value", "other");
+
+      //the thread reuses its scratch array, the payloads compressed before are not overwritten
+      Buffer large = adapter.objectToBuffer(largeValue);
+      Buffer otherLarge = adapter.objectToBuffer(otherLargeValue);
+      assertTrue(isCompressed(large));
+      assertTrue(isCompressed(otherLarge));
+      assertEquals(adapter.objectFromBuffer(large.getBuf(), large.getOffset(), large.getLength()), largeValue);
+      assertEquals(adapter.objectFromBuffer(otherLarge.getBuf(), otherLarge.getOffset(), otherLarge.getLength()),
+                   otherLargeValue);
+
+      compressor.stop();
+      assertFalse(isCompressed(adapter.objectToBuffer(largeValue)));
+   }
+
+   private static boolean isCompressed(Buffer buffer) {
+      return PayloadCompressor.isCompressed(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+   }
+
+   private static String largeString() {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; sb.length() < THRESHOLD * 8; i++) {
+         sb.append("value-").append(i % 10).append(' ');
+      }
+      return sb.toString();
+   }
+}
@@ -0,0 +1,152 @@
+package org.infinispan.replication;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.MultipleRpcCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.remoting.AsyncCommandBundler;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that the asynchronous commands sent while a previous one is in flight are bundled together.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "replication.AsyncCommandBundlerTest")
+public class AsyncCommandBundlerTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_THREADS = 8;
+   private static final int NUM_WRITES = 50;
+
+   public void testCommandsBundledWhileInFlight() throws Exception {
+      assertNotNull(TestingUtil.extractComponent(cache(0), AsyncCommandBundler.class));
+      BundleTrackingRpcManager rpcManager = BundleTrackingRpcManager.replaceRpcManager(cache(0));
+      MagicKey k0 = new MagicKey("k0", cache(0));
+      MagicKey k1 = new MagicKey("k1", cache(0));
+      MagicKey k2 = new MagicKey("k2", cache(0));
+      MagicKey k3 = new MagicKey("k3", cache(0));
+      Future<Object> first;
+      try {
+         //the first command is sent immediately and blocked in flight
+         first = fork(() -> cache(0).put(k0, "v0"));
+         assertTrue(rpcManager.blocked.await(10, TimeUnit.SECONDS));
+         //these ones are queued in the same bundle
+         cache(0).put(k1, "v1");
+         cache(0).put(k2, "v1");
+         cache(0).put(k3, "v1");
+         //it locks the same key as the put of k1, so it must go in the next bundle
+         cache(0).put(k1, "v2");
+      } finally {
+         rpcManager.unblock.countDown();
+      }
+      first.get(30, TimeUnit.SECONDS);
+
+      eventually(() -> rpcManager.bundleSizes.size() == 3);
+      assertEquals(rpcManager.bundleSizes, Arrays.asList(1, 3, 1));
+      for (Cache<Object, Object> cache : caches()) {
+         eventually(() -> "v2".equals(cache.get(k1)));
+         assertEquals(cache.get(k0), "v0");
+         assertEquals(cache.get(k2), "v1");
+         assertEquals(cache.get(k3), "v1");
+      }
+   }
+
+   public void testConcurrentWrites() throws Exception {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < NUM_THREADS; t++) {
+         final int thread = t;
+         futures.add(fork(() -> {
+            Cache<Object, Object> cache = cache(thread % getCacheManagers().size());
+            for (int i = 0; i < NUM_WRITES; i++) {
+               cache.put("key-" + thread, i);
+               cache.put("key-" + thread + "-" + i, thread);
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+
+      for (Cache<Object, Object> cache : caches()) {
+         for (int t = 0; t < NUM_THREADS; t++) {
+            final int thread = t;
+            // the replication is asynchronous, so every key has to be waited for
+            eventually(() -> {
+               if (!Integer.valueOf(NUM_WRITES - 1).equals(cache.get("key-" + thread))) {
+                  return false;
+               }
+               for (int i = 0; i < NUM_WRITES; i++) {
+                  if (!Integer.valueOf(thread).equals(cache.get("key-" + thread + "-" + i))) {
+                     return false;
+                  }
+               }
+               return true;
+            });
+         }
+      }
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_ASYNC, false);
+      builder.clustering().async().bundleSize(16);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   private static class BundleTrackingRpcManager extends AbstractControlledRpcManager {
+
+      private final List<Integer> bundleSizes = Collections.synchronizedList(new ArrayList<>());
+      private final CountDownLatch blocked = new CountDownLatch(1);
+      private final CountDownLatch unblock = new CountDownLatch(1);
+
+      private BundleTrackingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      static BundleTrackingRpcManager replaceRpcManager(Cache<?, ?> cache) {
+         BundleTrackingRpcManager rpcManager = new BundleTrackingRpcManager(cache.getAdvancedCache().getRpcManager());
+         TestingUtil.replaceComponent(cache, RpcManager.class, rpcManager, true);
+         return rpcManager;
+      }
+
+      @Override
+      protected void beforeInvokeRemotely(ReplicableCommand command) {
+         if (command instanceof MultipleRpcCommand) {
+            bundleSizes.add(((MultipleRpcCommand) command).getCommands().length);
+         } else if (command instanceof SingleRpcCommand) {
+            bundleSizes.add(1);
+         } else {
+            return;
+         }
+         if (bundleSizes.size() == 1) {
+            blocked.countDown();
+            try {
+               unblock.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,90 @@
+package org.infinispan.transaction.impl;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.impl.TransactionTable.CompletedTransactionStatus;
+import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.transaction.xa.TransactionFactory;
+import org.infinispan.util.DefaultTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that completed transactions are remembered for the completed transaction timeout, and are reported as
+ * expired afterwards.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "transaction.impl.CompletedTransactionsExpirationTest")
+public class CompletedTransactionsExpirationTest extends MultipleCacheManagersTest {
+
+   private static final long COMPLETED_TX_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+   private final NanoTimeService timeService = new NanoTimeService();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, true);
+      builder.transaction().completedTxTimeout(COMPLETED_TX_TIMEOUT).reaperWakeUpInterval(50);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+      TestingUtil.replaceComponent(manager(1), TimeService.class, timeService, true);
+   }
+
+   public void testCompletedTransactionsExpire() {
+      TransactionTable txTable = transactionTable(1);
+      GlobalTransaction committed = newGlobalTransaction();
+      GlobalTransaction rolledBack = newGlobalTransaction();
+      GlobalTransaction pending = newGlobalTransaction();
+      GlobalTransaction later = newGlobalTransaction();
+
+      txTable.markTransactionCompleted(committed, true);
+      txTable.markTransactionCompleted(rolledBack, false);
+      assertEquals(CompletedTransactionStatus.COMMITTED, txTable.getCompletedTransactionStatus(committed));
+      assertEquals(CompletedTransactionStatus.ABORTED, txTable.getCompletedTransactionStatus(rolledBack));
+      assertEquals(CompletedTransactionStatus.NOT_COMPLETED, txTable.getCompletedTransactionStatus(pending));
+      assertFalse(txTable.isTransactionCompleted(pending));
+
+      timeService.advance(COMPLETED_TX_TIMEOUT / 2);
+      txTable.markTransactionCompleted(later, true);
+
+      // The first two transactions are too old, the last one is still remembered
+      timeService.advance(COMPLETED_TX_TIMEOUT);
+      eventually(() -> txTable.getCompletedTransactionStatus(committed) == CompletedTransactionStatus.EXPIRED);
+      assertEquals(CompletedTransactionStatus.EXPIRED, txTable.getCompletedTransactionStatus(rolledBack));
+      assertTrue(txTable.isTransactionCompleted(committed));
+      assertEquals(CompletedTransactionStatus.COMMITTED, txTable.getCompletedTransactionStatus(later));
+      assertEquals(CompletedTransactionStatus.NOT_COMPLETED, txTable.getCompletedTransactionStatus(pending));
+
+      // Once the last transaction expires, any transaction started before it is assumed to be completed
+      timeService.advance(COMPLETED_TX_TIMEOUT);
+      eventually(() -> txTable.getCompletedTransactionStatus(later) == CompletedTransactionStatus.EXPIRED);
+      assertEquals(CompletedTransactionStatus.EXPIRED, txTable.getCompletedTransactionStatus(pending));
+      assertTrue(txTable.isTransactionCompleted(pending));
+   }
+
+   private GlobalTransaction newGlobalTransaction() {
+      return TestingUtil.extractComponent(cache(0), TransactionFactory.class).newGlobalTransaction(address(0), false);
+   }
+
+   private static class NanoTimeService extends DefaultTimeService {
+      private volatile long currentNanos;
+
+      @Override
+      public long time() {
+         return currentNanos;
+      }
+
+      void advance(long millis) {
+         currentNanos += TimeUnit.MILLISECONDS.toNanos(millis);
+      }
+   }
+}
@@ -4,15 +4,18 @@
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.AbstractControlledRpcManager;
 import org.infinispan.util.concurrent.ReclosableLatch;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -104,6 +107,19 @@ protected void waitForReplicationLatch(ReplicableCommand rpcCommand, Set<Class>
       }
    }
 
+   @Override
+   public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
+                                                                        ReplicableCommand rpc, RpcOptions options) {
+      beforeInvokeRemotely(rpc);
+      CompletableFuture<Map<Address, Response>> future = realOne.invokeRemotelyAsync(recipients, rpc, options);
+      if (blockAfterFilter.contains(getActualClass(rpc))) {
+         //block after the remote nodes applied the command, like invokeRemotely does
+         future.handle((responses, throwable) -> null).join();
+      }
+      afterInvokeRemotely(rpc, null);
+      return future;
+   }
+
    @Override
    protected void beforeInvokeRemotely(ReplicableCommand command) {
       failIfNeeded(command);
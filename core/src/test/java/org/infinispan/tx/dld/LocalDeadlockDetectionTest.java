@@ -10,12 +10,19 @@
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectingLockManager;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
 
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import javax.transaction.RollbackException;
+import javax.transaction.TransactionManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests deadlock detection functionality for local caches.
@@ -154,6 +161,48 @@ public void testDldReplaceAndPut() {
    }
 
 
+   public void testDldThreeTransactionCycle() throws Exception {
+      final int numTx = 3;
+      final TransactionManager tm = tm();
+      final CyclicBarrier barrier = new CyclicBarrier(numTx);
+      List<Future<Boolean>> deadlocked = new ArrayList<>(numTx);
+      for (int i = 0; i < numTx; i++) {
+         final String key = "k" + i;
+         final String nextKey = "k" + (i + 1) % numTx;
+         final String value = "value_t" + i;
+         // each transaction runs in its own thread, from begin to commit. t0 waits for t1, t1 for t2 and t2 for t0
+         deadlocked.add(fork(() -> {
+            tm.begin();
+            cache.put(key, value);
+            barrier.await(10, TimeUnit.SECONDS);
+            try {
+               cache.put(nextKey, value);
+            } catch (DeadlockDetectedException e) {
+               try {
+                  tm.commit();
+                  fail("RollbackException expected");
+               } catch (RollbackException expected) {
+                  //expected
+               }
+               return true;
+            }
+            tm.commit();
+            return false;
+         }));
+      }
+
+      int victims = 0;
+      for (Future<Boolean> future : deadlocked) {
+         if (future.get(30, TimeUnit.SECONDS)) {
+            victims++;
+         }
+      }
+      assertEquals(victims, 1);
+      assert lockManager.getNumberOfLocksHeld() == 0;
+      assertEquals(lockManager.getDetectedLocalDeadlocks(), 1);
+   }
+
+
    private void testLocalVsLocalTxDeadlock(PerCacheExecutorThread.Operations firstOperation, PerCacheExecutorThread.Operations secondOperation) {
 
       assert PerCacheExecutorThread.OperationsResult.BEGIN_TX_OK == t1.execute(PerCacheExecutorThread.Operations.BEGIN_TX);
@@ -0,0 +1,183 @@
+package org.infinispan.tx.totalorder;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.tx.totalorder.TotalOrderBatchPrepareCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.VersioningScheme;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.TransactionProtocol;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.transaction.totalorder.TotalOrderPrepareBatcher.MAX_BATCHES_IN_FLIGHT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that the prepares of concurrent transactions are sent together in a single total order multicast.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "tx.totalorder.TotalOrderBatchPrepareTest")
+public class TotalOrderBatchPrepareTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_THREADS = 8;
+   private static final int NUM_TX = 20;
+
+   public void testPreparesBatchedWhileInFlight() throws Exception {
+      BatchTrackingRpcManager rpcManager = BatchTrackingRpcManager.replaceRpcManager(cache(0));
+      List<Thread> threads = new ArrayList<>();
+      try {
+         //the first prepares are sent immediately and blocked in flight
+         for (int i = 0; i < MAX_BATCHES_IN_FLIGHT; i++) {
+            threads.add(commitInThread("in-flight-" + i, "v0"));
+         }
+         assertTrue(rpcManager.blocked.await(10, TimeUnit.SECONDS));
+         //these ones are queued in the same batch
+         for (String key : new String[]{"k1", "k2", "k3"}) {
+            threads.add(commitInThread(key, "v1"));
+            awaitWaiting(threads);
+         }
+         //it conflicts with the prepare of k1, so it must go in the next batch
+         threads.add(commitInThread("k1", "v2"));
+         awaitWaiting(threads);
+      } finally {
+         rpcManager.unblock.countDown();
+      }
+      for (Thread thread : threads) {
+         thread.join(TimeUnit.SECONDS.toMillis(30));
+      }
+
+      List<Integer> expected = new ArrayList<>(Collections.nCopies(MAX_BATCHES_IN_FLIGHT + 1, 1));
+      expected.add(3);
+      List<Integer> batchSizes = new ArrayList<>(rpcManager.batchSizes);
+      //the queued batches are sent concurrently once the slots are released
+      Collections.sort(batchSizes);
+      assertEquals(batchSizes, expected);
+      //the last transaction may fail the write skew check, but all the members must agree
+      Object k1 = cache(0).get("k1");
+      assertTrue("v1".equals(k1) || "v2".equals(k1));
+      for (Cache<Object, Object> cache : caches()) {
+         for (int i = 0; i < MAX_BATCHES_IN_FLIGHT; i++) {
+            assertEquals(cache.get("in-flight-" + i), "v0");
+         }
+         assertEquals(cache.get("k1"), k1);
+         assertEquals(cache.get("k2"), "v1");
+         assertEquals(cache.get("k3"), "v1");
+      }
+      assertNoTransactions();
+   }
+
+   public void testConcurrentTransactions() throws Exception {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < NUM_THREADS; t++) {
+         final int thread = t;
+         futures.add(fork(() -> {
+            Cache<Object, Object> cache = cache(thread % getCacheManagers().size());
+            for (int i = 0; i < NUM_TX; i++) {
+               tm(cache).begin();
+               cache.put("key-" + thread, i);
+               cache.put("key-" + thread + "-" + i, thread);
+               tm(cache).commit();
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+
+      for (Cache<Object, Object> cache : caches()) {
+         for (int t = 0; t < NUM_THREADS; t++) {
+            assertEquals(cache.get("key-" + t), NUM_TX - 1);
+            for (int i = 0; i < NUM_TX; i++) {
+               assertEquals(cache.get("key-" + t + "-" + i), t);
+            }
+         }
+      }
+      assertNoTransactions();
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, true);
+      builder.transaction().transactionProtocol(TransactionProtocol.TOTAL_ORDER).totalOrderBatchSize(16)
+            .recovery().disable();
+      builder.locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true);
+      builder.versioning().enable().scheme(VersioningScheme.SIMPLE);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   private Thread commitInThread(final Object key, final Object value) {
+      Thread thread = new Thread(() -> {
+         try {
+            tm(0).begin();
+            cache(0).put(key, value);
+            tm(0).commit();
+         } catch (Exception e) {
+            log.error("Unexpected exception", e);
+         }
+      }, "TotalOrderBatchPrepareTest-" + key);
+      thread.start();
+      return thread;
+   }
+
+   private void awaitWaiting(List<Thread> threads) {
+      //the queued transactions wait for the batch to be sent
+      eventually(() -> threads.get(threads.size() - 1).getState() == Thread.State.WAITING);
+   }
+
+   private static class BatchTrackingRpcManager extends AbstractControlledRpcManager {
+
+      private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+      private final CountDownLatch blocked = new CountDownLatch(MAX_BATCHES_IN_FLIGHT);
+      private final CountDownLatch unblock = new CountDownLatch(1);
+
+      private BatchTrackingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      static BatchTrackingRpcManager replaceRpcManager(Cache<?, ?> cache) {
+         BatchTrackingRpcManager rpcManager = new BatchTrackingRpcManager(cache.getAdvancedCache().getRpcManager());
+         TestingUtil.replaceComponent(cache, RpcManager.class, rpcManager, true);
+         return rpcManager;
+      }
+
+      @Override
+      protected void beforeInvokeRemotely(ReplicableCommand command) {
+         int sent;
+         synchronized (batchSizes) {
+            if (command instanceof TotalOrderBatchPrepareCommand) {
+               batchSizes.add(((TotalOrderBatchPrepareCommand) command).getPrepares().length);
+            } else if (command instanceof PrepareCommand) {
+               batchSizes.add(1);
+            } else {
+               return;
+            }
+            sent = batchSizes.size();
+         }
+         if (sent <= MAX_BATCHES_IN_FLIGHT) {
+            blocked.countDown();
+            try {
+               unblock.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+   }
+}
@@ -47,7 +47,6 @@ public void testLockHeldByThread() throws Exception {
       lockManager.lock("k", "aThread", 0, TimeUnit.MILLISECONDS).lock();
       try {
          LockPromise promise = lockManager.lock("k", new DldGlobalTransaction(), 1000, TimeUnit.MILLISECONDS);
-         lockManager.run(); //runs the deadlock check
          promise.lock();
          fail("TimeoutException expected!");
       } catch (TimeoutException e) {
@@ -74,7 +73,6 @@ public void testLocalDeadlock() throws Exception {
 
       try {
          LockPromise lockPromise = lockManager.lock("k", ddgt, 1500, TimeUnit.MILLISECONDS);
-         lockManager.run(); //runs the deadlock checker
          lockPromise.lock();
          assert false;
       } catch (DeadlockDetectedException e) {
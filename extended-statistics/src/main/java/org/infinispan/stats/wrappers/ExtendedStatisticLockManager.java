@@ -50,15 +50,26 @@ public final LockManager getActual() {
 
    @Override
    public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
+      return lock(key, lockOwner, time, unit, null, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return lockAll(keys, lockOwner, time, unit, null, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit, Class<?> commandType,
+                                   boolean remote) {
       if (lockOwnerAlreadyExists(key, lockOwner)) {
-         return actual.lock(key, lockOwner, time, unit);
+         return actual.lock(key, lockOwner, time, unit, commandType, remote);
       }
 
       LockInfo lockInfo = new LockInfo(lockOwner instanceof GlobalTransaction ? (GlobalTransaction) lockOwner : null);
       updateContentionStats(key, lockInfo);
 
       final long start = timeService.time();
-      final KeyAwareLockPromise lockPromise = actual.lock(key, lockOwner, time, unit);
+      final KeyAwareLockPromise lockPromise = actual.lock(key, lockOwner, time, unit, commandType, remote);
       lockPromise.addListener((lockedKey, state) -> {
          long end = timeService.time();
          lockInfo.lockTimeStamp = end;
@@ -77,9 +88,10 @@ public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUni
    }
 
    @Override
-   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit,
+                                      Class<?> commandType, boolean remote) {
       if (keys.size() == 1) {
-         return lock(keys.iterator().next(), lockOwner, time, unit);
+         return lock(keys.iterator().next(), lockOwner, time, unit, commandType, remote);
       }
       final Map<Object, LockInfo> tmpMap = new HashMap<>();
       for (Object key : keys) {
@@ -93,7 +105,7 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
 
 
       final long start = timeService.time();
-      final KeyAwareLockPromise lockPromise = actual.lockAll(keys, lockOwner, time, unit);
+      final KeyAwareLockPromise lockPromise = actual.lockAll(keys, lockOwner, time, unit, commandType, remote);
       lockPromise.addListener((lockedKey, state) -> {
          long end = timeService.time();
          final LockInfo lockInfo = tmpMap.get(lockedKey);
@@ -30,19 +30,31 @@ public TopKeyLockManager(LockManager current, StreamSummaryContainer container)
 
    @Override
    public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
+      return lock(key, lockOwner, time, unit, null, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return lockAll(keys, lockOwner, time, unit, null, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit, Class<?> commandType,
+                                   boolean remote) {
       if (lockOwnerAlreadyExists(key, lockOwner)) {
-         return current.lock(key, lockOwner, time, unit);
+         return current.lock(key, lockOwner, time, unit, commandType, remote);
       }
-      KeyAwareLockPromise lockPromise = current.lock(key, lockOwner, time, unit);
+      KeyAwareLockPromise lockPromise = current.lock(key, lockOwner, time, unit, commandType, remote);
       final boolean contented = !lockOwner.equals(current.getOwner(key));
       lockPromise.addListener(state -> container.addLockInformation(key, contented, state != LockState.ACQUIRED));
       return lockPromise;
    }
 
    @Override
-   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit,
+                                      Class<?> commandType, boolean remote) {
       final Set<Object> keysToTrack = keys.stream().filter(key -> !lockOwnerAlreadyExists(key, lockOwner)).collect(Collectors.toSet());
-      final KeyAwareLockPromise lockPromise = current.lockAll(keys, lockOwner, time, unit);
+      final KeyAwareLockPromise lockPromise = current.lockAll(keys, lockOwner, time, unit, commandType, remote);
       final Set<Object> contentedKeys = keys.stream().filter(key -> !lockOwner.equals(current.getOwner(key))).collect(Collectors.toSet());
       lockPromise.addListener((lockedKey, state) -> {
          if (keysToTrack.contains(lockedKey)) {
@@ -47,7 +47,7 @@ public ChannelTransport(Channel channel, ChannelFactory factory) {
     @Override
     protected void initRPCDispatcher() {
         this.dispatcher = new CommandAwareRpcDispatcher(channel, this, globalHandler, this.getTimeoutExecutor());
-        MarshallerAdapter adapter = new MarshallerAdapter(this.marshaller) {
+        MarshallerAdapter adapter = new MarshallerAdapter(this.marshaller, this.createPayloadCompressor()) {
             @Override
             public Object objectFromBuffer(byte[] buffer, int offset, int length) throws Exception {
                 return ChannelTransport.this.factory.isUnknownForkResponse(ByteBuffer.wrap(buffer, offset, length)) ? CacheNotFoundResponse.INSTANCE : super.objectFromBuffer(buffer, offset, length);